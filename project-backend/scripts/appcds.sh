@@ -0,0 +1,49 @@
+#!/usr/bin/env bash
+# Archive AppCDS (Application Class Data Sharing) de l'application.
+#
+# La JVM n'archive que les classes chargées depuis le classpath, pas celles des jars imbriqués
+# d'un jar Spring Boot : le jar est décompressé en un jar de classes et un répertoire lib/,
+# dans un ordre de classpath fixe (l'archive n'est utilisable qu'avec le même classpath).
+# Un démarrage d'entraînement s'arrête juste après le rafraîchissement du contexte
+# (spring.context.exit=onRefresh) ; la JVM écrit à sa sortie les classes chargées dans l'archive.
+# L'entraînement se fait sur une base de travail, sans initialisation paresseuse, pour charger
+# aussi les classes des beans créés à la première requête.
+#
+# Usage : scripts/appcds.sh [jar]        (jar construit par mvn -Paot package)
+# Produit target/cds/application.jsa et target/cds/classpath.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+JAR="$(realpath "${1:-target/flight-reservation-system-1.0.0.jar}")"
+CDS=target/cds
+MAIN=com.flight.reservation.FlightReservationApplication
+
+rm -rf "$CDS"
+mkdir -p "$CDS/extrait" "$CDS/lib"
+(cd "$CDS/extrait" && jar -xf "$JAR")
+jar -cf "$CDS/application.jar" -C "$CDS/extrait/BOOT-INF/classes" .
+cp "$CDS"/extrait/BOOT-INF/lib/*.jar "$CDS/lib/"
+rm -rf "$CDS/extrait"
+
+CLASSPATH_CDS="$CDS/application.jar$(find "$CDS/lib" -name '*.jar' | sort | sed 's/^/:/' | tr -d '\n')"
+echo "$CLASSPATH_CDS" > "$CDS/classpath"
+
+# Classes générées par Spring AOT présentes dans le jar : l'entraînement les utilise aussi
+AOT_ENABLED=false
+if unzip -Z1 "$JAR" | grep '__BeanFactoryRegistrations' > /dev/null; then
+    AOT_ENABLED=true
+fi
+
+# Les classes que la JVM ne sait pas archiver (anciens formats, proxies) sont ignorées sans avertissement
+java -XX:ArchiveClassesAtExit="$CDS/application.jsa" -Xlog:cds=error \
+    -Dspring.context.exit=onRefresh \
+    -Dspring.aot.enabled="$AOT_ENABLED" \
+    -cp "$CLASSPATH_CDS" "$MAIN" \
+    --spring.profiles.active=prod \
+    --spring.main.lazy-initialization=false \
+    --spring.jpa.hibernate.ddl-auto=update \
+    --spring.datasource.url="jdbc:sqlite:$CDS/entrainement.db" \
+    --server.port=0
+
+rm -f "$CDS/entrainement.db"
+echo "Archive AppCDS : $CDS/application.jsa (AOT : $AOT_ENABLED)"
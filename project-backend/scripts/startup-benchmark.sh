@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+# Temps de démarrage jusqu'à la première requête réussie, avant et après l'optimisation.
+#
+#   avant : java -jar, profil par défaut (ddl-auto update, beans créés au démarrage) ;
+#   apres : profil prod (ddl-auto validate, initialisation paresseuse), classes Spring AOT
+#           et archive AppCDS.
+#
+# Chaque essai démarre l'application sur une base SQLite de travail, interroge
+# GET /api/vols/{id}/places toutes les 10 ms jusqu'à une réponse 200, puis arrête le processus.
+# Un premier démarrage non mesuré crée le schéma que le profil prod ne fait que valider.
+#
+# Usage : scripts/startup-benchmark.sh [essais]   (après mvn -Paot package et scripts/appcds.sh)
+# Résultats : target/startup-benchmark.csv (configuration,essai,ms) et médiane par configuration.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+ESSAIS="${1:-5}"
+PORT="${PORT:-18080}"
+JAR=target/flight-reservation-system-1.0.0.jar
+CDS=target/cds
+TRAVAIL=target/startup-benchmark
+RESULTATS=target/startup-benchmark.csv
+URL="http://localhost:$PORT/api/vols/00000000-0000-0000-0000-000000000000/places"
+MAIN=com.flight.reservation.FlightReservationApplication
+
+if [[ ! -f "$CDS/application.jsa" ]]; then
+    echo "Archive AppCDS absente : lancer d'abord mvn -Paot package puis scripts/appcds.sh" >&2
+    exit 1
+fi
+
+rm -rf "$TRAVAIL"
+mkdir -p "$TRAVAIL"
+COMMUNS=(--server.port="$PORT" --spring.datasource.url="jdbc:sqlite:$TRAVAIL/benchmark.db")
+
+lancer() {
+    case "$1" in
+        avant) exec java -jar "$JAR" "${COMMUNS[@]}" ;;
+        apres) exec java -XX:SharedArchiveFile="$CDS/application.jsa" -Dspring.aot.enabled=true \
+                   -cp "$(cat "$CDS/classpath")" "$MAIN" --spring.profiles.active=prod "${COMMUNS[@]}" ;;
+    esac
+}
+
+# Millisecondes entre le lancement et la première réponse 200
+mesurer() {
+    local debut pid ms
+    debut=$(date +%s%N)
+    lancer "$1" > "$TRAVAIL/$1-$2.log" 2>&1 &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Échec du démarrage ($1), voir $TRAVAIL/$1-$2.log" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    ms=$(( ($(date +%s%N) - debut) / 1000000 ))
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$ms"
+}
+
+mediane() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+mesurer avant preparation > /dev/null
+echo "configuration,essai,ms" > "$RESULTATS"
+for configuration in avant apres; do
+    for essai in $(seq 1 "$ESSAIS"); do
+        ms=$(mesurer "$configuration" "$essai")
+        echo "$configuration,$essai,$ms" >> "$RESULTATS"
+    done
+    echo "$configuration : médiane $(grep "^$configuration," "$RESULTATS" | cut -d, -f3 | mediane) ms sur $ESSAIS essai(s)"
+done
+echo "Détail : $RESULTATS"
@@ -0,0 +1,42 @@
+package com.flight.reservation.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Corps de réponse déjà encodé, avec sa variante gzip éventuelle.
+ */
+public final class EncodedResponse {
+
+    private final MediaType contentType;
+    private final byte[] identity;
+    private final byte[] gzip;
+
+    EncodedResponse(MediaType contentType, byte[] identity, byte[] gzip) {
+        this.contentType = contentType;
+        this.identity = identity;
+        this.gzip = gzip;
+    }
+
+    int weight() {
+        return identity.length + (gzip != null ? gzip.length : 0);
+    }
+
+    public ResponseEntity<byte[]> toResponseEntity(boolean acceptsGzip) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        // Le format dépend de Accept, la compression de Accept-Encoding
+        headers.setVary(List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING));
+        if (acceptsGzip && gzip != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            headers.setContentLength(gzip.length);
+            return new ResponseEntity<>(gzip, headers, HttpStatus.OK);
+        }
+        headers.setContentLength(identity.length);
+        return new ResponseEntity<>(identity, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,32 @@
+package com.flight.reservation.cache;
+
+import com.flight.reservation.config.CacheConfig;
+import com.flight.reservation.dto.ReservationPageResponse;
+import com.flight.reservation.util.TransactionHooks;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Première page des réservations d'un passager (GET /api/reservations?email=), gardée peu de temps.
+ * Toute réservation du passager retire son entrée après le commit.
+ */
+@Component
+public class PassagerReservationsCache {
+
+    private final Cache cache;
+
+    public PassagerReservationsCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CacheConfig.RESERVATIONS_PASSAGER);
+    }
+
+    public ReservationPageResponse get(String email, Supplier<ReservationPageResponse> loader) {
+        return cache.get(email, loader::get);
+    }
+
+    public void evictAfterCommit(String email) {
+        TransactionHooks.afterCommit(() -> cache.evict(email));
+    }
+}
@@ -0,0 +1,22 @@
+package com.flight.reservation.cache;
+
+import com.flight.reservation.entity.Vol;
+
+import java.time.LocalDate;
+
+/**
+ * Instantané des champs d'un vol qui déterminent les recherches dont il fait partie.
+ * Capturé au moment de la modification pour pouvoir invalider après le commit,
+ * quand l'entité n'est plus forcément attachée.
+ */
+public record RouteRef(String villeDepart, String villeArrivee, LocalDate jourDepart, LocalDate jourArrivee) {
+
+    static RouteRef of(Vol vol) {
+        return new RouteRef(
+                vol.getVilleDepart().toLowerCase(),
+                vol.getVilleArrivee().toLowerCase(),
+                vol.getDateDepart().toLocalDate(),
+                vol.getDateArrivee().toLocalDate()
+        );
+    }
+}
@@ -0,0 +1,52 @@
+package com.flight.reservation.cache;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Clé normalisée d'une recherche de vols.
+ *
+ * Deux recherches qui produisent forcément le même résultat partagent la même clé :
+ * les dates sont réduites au jour (VolSpecification ne compare que la date), les villes
+ * sont mises en minuscules sans espaces autour (VilleDictionary.rechercher compare les noms
+ * normalisés ; l'appelant remplace un alias par le nom canonique) et un tri inconnu est
+ * ramené à "pas de tri".
+ */
+public record SearchKey(LocalDate dateDepart, LocalDate dateArrivee, String villeDepart, String villeArrivee, String tri) {
+
+    public static SearchKey of(LocalDateTime dateDepart, LocalDateTime dateArrivee, String villeDepart, String villeArrivee, String tri) {
+        return new SearchKey(
+                dateDepart != null ? dateDepart.toLocalDate() : null,
+                dateArrivee != null ? dateArrivee.toLocalDate() : null,
+                normalizeVille(villeDepart),
+                normalizeVille(villeArrivee),
+                normalizeTri(tri)
+        );
+    }
+
+    /**
+     * Indique si un vol de cette route pourrait faire partie du résultat de la recherche.
+     */
+    boolean matches(RouteRef route) {
+        return (dateDepart == null || dateDepart.equals(route.jourDepart()))
+                && (dateArrivee == null || dateArrivee.equals(route.jourArrivee()))
+                && (villeDepart == null || route.villeDepart().contains(villeDepart))
+                && (villeArrivee == null || route.villeArrivee().contains(villeArrivee));
+    }
+
+    private static String normalizeVille(String ville) {
+        // "" est contenu dans tous les noms : même résultat que pas de filtre
+        if (ville == null || ville.isBlank()) {
+            return null;
+        }
+        return ville.trim().toLowerCase();
+    }
+
+    private static String normalizeTri(String tri) {
+        if (tri == null) {
+            return null;
+        }
+        String lower = tri.toLowerCase();
+        return lower.equals("prix") || lower.equals("tempstrajet") ? lower : null;
+    }
+}
@@ -0,0 +1,158 @@
+package com.flight.reservation.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.flight.reservation.config.PayloadFormats;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.util.TransactionHooks;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cache des réponses de recherche de vols déjà sérialisées.
+ *
+ * Pour les routes les plus demandées, l'essentiel du temps de GET /api/vols part dans Jackson
+ * qui réencode la même liste de vols. Ce cache garde les octets encodés (et leur version gzip)
+ * par clé de recherche normalisée et par format (JSON, CBOR, Smile) ; il est borné en octets
+ * et non en nombre d'entrées.
+ * Désactivé par défaut (flight.search.response-cache.enabled).
+ */
+@Component
+public class SearchResponseCache {
+    private static final Logger logger = LoggerFactory.getLogger(SearchResponseCache.class);
+
+    private final PayloadFormats payloadFormats;
+    private final boolean enabled;
+    private final boolean gzipEnabled;
+    private final int gzipMinBytes;
+    private final Cache<EncodedKey, EncodedResponse> cache;
+
+    // Incrémenté à chaque invalidation : une réponse calculée pendant une invalidation n'est pas gardée
+    private final AtomicLong generation = new AtomicLong();
+
+    public SearchResponseCache(PayloadFormats payloadFormats,
+                               @Value("${flight.search.response-cache.enabled:false}") boolean enabled,
+                               @Value("${flight.search.response-cache.max-bytes:33554432}") long maxBytes,
+                               @Value("${flight.search.response-cache.gzip:true}") boolean gzipEnabled,
+                               @Value("${flight.search.response-cache.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.payloadFormats = payloadFormats;
+        this.enabled = enabled;
+        this.gzipEnabled = gzipEnabled;
+        this.gzipMinBytes = gzipMinBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((EncodedKey key, EncodedResponse value) -> value.weight())
+                .recordStats()
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Choisit, d'après l'en-tête Accept, le format à servir depuis le cache.
+     * Renvoie null si aucun format du cache n'est acceptable : la négociation standard s'en charge alors.
+     */
+    public MediaType negotiate(String accept) {
+        return payloadFormats.negotiate(accept);
+    }
+
+    /**
+     * Renvoie la réponse encodée pour cette recherche, en l'exécutant et en l'encodant si besoin.
+     */
+    public EncodedResponse getOrEncode(SearchKey search, MediaType format, Supplier<List<Vol>> loader) {
+        EncodedKey key = new EncodedKey(search, format);
+        EncodedResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long generationAvant = generation.get();
+        EncodedResponse encoded = encode(format, loader.get());
+        if (generation.get() == generationAvant) {
+            cache.put(key, encoded);
+            // Une invalidation a pu passer entre la vérification et le put
+            if (generation.get() != generationAvant) {
+                cache.invalidate(key);
+            }
+        }
+        return encoded;
+    }
+
+    /**
+     * Invalide, après le commit de la transaction courante, les recherches qui peuvent contenir ces vols.
+     */
+    public void invalidateAfterCommit(Collection<Vol> vols) {
+        if (!enabled || vols.isEmpty()) {
+            return;
+        }
+        List<RouteRef> routes = vols.stream().map(RouteRef::of).toList();
+        TransactionHooks.afterCommit(() -> invalidate(routes));
+    }
+
+    /**
+     * Route d'un vol, à capturer avant une modification de son horaire.
+     */
+    public RouteRef route(Vol vol) {
+        return RouteRef.of(vol);
+    }
+
+    /**
+     * Invalide, après le commit, les recherches qui peuvent contenir ces vols ou qui les contenaient
+     * avant leur modification (anciennes routes, capturées par route).
+     */
+    public void invalidateAfterCommit(Collection<Vol> vols, Collection<RouteRef> anciennes) {
+        if (!enabled || (vols.isEmpty() && anciennes.isEmpty())) {
+            return;
+        }
+        Set<RouteRef> routes = new LinkedHashSet<>(anciennes);
+        vols.stream().map(RouteRef::of).forEach(routes::add);
+        List<RouteRef> distinctes = List.copyOf(routes);
+        TransactionHooks.afterCommit(() -> invalidate(distinctes));
+    }
+
+    private void invalidate(List<RouteRef> routes) {
+        generation.incrementAndGet();
+        // Une seule passe sur les clés, quel que soit le nombre de vols modifiés
+        cache.asMap().keySet().removeIf(key -> routes.stream().anyMatch(key.search()::matches));
+        logger.debug("Cache de recherche invalidé pour {} route(s)", routes.size());
+    }
+
+    private EncodedResponse encode(MediaType format, List<Vol> vols) {
+        try {
+            byte[] body = payloadFormats.encoder(format).writeValueAsBytes(vols);
+            byte[] gzip = gzipEnabled && body.length >= gzipMinBytes ? gzip(body) : null;
+            return new EncodedResponse(format, body, gzip);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Impossible de sérialiser le résultat de recherche", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record EncodedKey(SearchKey search, MediaType format) {
+    }
+}
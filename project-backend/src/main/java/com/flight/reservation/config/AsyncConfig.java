@@ -1,5 +1,6 @@
 package com.flight.reservation.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
@@ -21,4 +22,41 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
-}
\ No newline at end of file
+    
+    @Bean(name = "holdExpiryExecutor")
+    public Executor holdExpiryExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("hold-expiry-");
+        executor.initialize();
+        return executor;
+    }
+    
+    @Bean(name = "reservationSubmissionExecutor")
+    public ThreadPoolTaskExecutor reservationSubmissionExecutor(
+            @Value("${flight.async-reservations.threads:4}") int threads,
+            @Value("${flight.async-reservations.queue-capacity:500}") int queueCapacity) {
+        // File bornée : au-delà, la soumission est refusée (TaskRejectedException) au lieu d'attendre
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("reservation-async-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+    
+    @Bean(name = "reconciliationExecutor")
+    public ThreadPoolTaskExecutor reconciliationExecutor(@Value("${flight.reconciliation.parallelisme:2}") int parallelisme) {
+        // Budget de connexions de la réconciliation : un lot en cours par thread (InventoryReconciler)
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelisme);
+        executor.setMaxPoolSize(parallelisme);
+        executor.setThreadNamePrefix("reconciliation-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,23 +1,38 @@
 package com.flight.reservation.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class CacheConfig {
     
+    // Places disponibles d'un vol, par identifiant
+    public static final String VOL_PLACES = "vol-places";
+    
+    // Première page des réservations d'un passager, par email
+    public static final String RESERVATIONS_PASSAGER = "reservations-passager";
+    
     @Bean
-    public CacheManager cacheManager() {
+    public CacheManager cacheManager(@Value("${flight.reservations.passager-cache.ttl:30s}") Duration passagerTtl,
+                                     @Value("${flight.reservations.passager-cache.max-size:10000}") long passagerMaxSize) {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager();
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(1000)
                 .expireAfterWrite(10, TimeUnit.MINUTES)
                 .recordStats());
+        // Durée de vie courte : la réservation d'un passager invalide son entrée, l'expiration borne le reste
+        cacheManager.registerCustomCache(RESERVATIONS_PASSAGER, Caffeine.newBuilder()
+                .maximumSize(passagerMaxSize)
+                .expireAfterWrite(passagerTtl)
+                .recordStats()
+                .build());
         return cacheManager;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,25 @@
+package com.flight.reservation.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+
+@Configuration
+public class LazyInitializationConfig {
+
+    /**
+     * Avec spring.main.lazy-initialization (profil prod), un bean n'est créé qu'à sa première
+     * utilisation. Ceux qui portent des tâches @Scheduled (relais de l'outbox, révision des tarifs,
+     * réconciliation...) ne sont demandés par personne : ils restent créés au démarrage, sinon
+     * leurs tâches ne seraient jamais planifiées.
+     */
+    @Bean
+    static LazyInitializationExcludeFilter tachesPlanifiees() {
+        return (beanName, beanDefinition, beanType) -> beanType != null
+                && !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                        AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
@@ -0,0 +1,40 @@
+package com.flight.reservation.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Convertisseurs CBOR (application/cbor) et Smile (application/x-jackson-smile).
+ *
+ * Ils remplacent ceux que Spring MVC enregistre par défaut afin d'utiliser le builder
+ * configuré par Spring Boot : mêmes modules et mêmes options de sérialisation que le JSON.
+ * Ils restent placés après le convertisseur JSON, qui reste donc le format par défaut.
+ * PayloadFormats reprend leurs mappers pour les réponses encodées hors de Spring MVC.
+ */
+@Configuration
+public class MessageConverterConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    public PayloadFormats payloadFormats(ObjectMapper objectMapper,
+                                         MappingJackson2CborHttpMessageConverter cborHttpMessageConverter,
+                                         MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter) {
+        return new PayloadFormats(objectMapper, cborHttpMessageConverter.getObjectMapper(),
+                smileHttpMessageConverter.getObjectMapper());
+    }
+}
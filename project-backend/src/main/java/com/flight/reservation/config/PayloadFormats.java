@@ -0,0 +1,70 @@
+package com.flight.reservation.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formats des réponses encodées hors des convertisseurs de Spring MVC (cache des recherches,
+ * corps d'erreur pré-sérialisés) : JSON, CBOR et Smile, avec les mappers des convertisseurs
+ * de MessageConverterConfig, et la négociation de l'en-tête Accept entre ces trois formats.
+ */
+public class PayloadFormats {
+    public static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    // Dans l'ordre de préférence du serveur, JSON en tête
+    private final Map<MediaType, ObjectMapper> encoders = new LinkedHashMap<>();
+
+    public PayloadFormats(ObjectMapper jsonMapper, ObjectMapper cborMapper, ObjectMapper smileMapper) {
+        encoders.put(MediaType.APPLICATION_JSON, jsonMapper);
+        encoders.put(MediaType.APPLICATION_CBOR, cborMapper);
+        encoders.put(APPLICATION_SMILE, smileMapper);
+    }
+
+    /**
+     * Choisit, d'après l'en-tête Accept, le format le mieux noté parmi JSON, CBOR et Smile ;
+     * JSON sans en-tête. Renvoie null si aucun n'est acceptable ou si l'en-tête est invalide.
+     */
+    public MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType best = null;
+        double bestQuality = 0;
+        for (MediaType acceptedType : accepted) {
+            double quality = acceptedType.getQualityValue();
+            if (quality <= bestQuality) {
+                continue;
+            }
+            for (MediaType format : encoders.keySet()) {
+                if (acceptedType.includes(format)) {
+                    best = format;
+                    bestQuality = quality;
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Mapper d'un format renvoyé par negotiate.
+     */
+    public ObjectMapper encoder(MediaType format) {
+        ObjectMapper encoder = encoders.get(format);
+        if (encoder == null) {
+            throw new IllegalArgumentException("Format non pris en charge: " + format);
+        }
+        return encoder;
+    }
+}
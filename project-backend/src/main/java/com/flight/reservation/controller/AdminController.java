@@ -0,0 +1,95 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.RateLimitRequest;
+import com.flight.reservation.enums.CategorieLimite;
+import com.flight.reservation.iservice.ICalendrierTarifService;
+import com.flight.reservation.limiter.ConcurrencyLimits;
+import com.flight.reservation.limiter.GradientConcurrencyLimiter;
+import com.flight.reservation.limiter.RateLimiter;
+import com.flight.reservation.retry.ContentionRetryManager;
+import com.flight.reservation.scheduling.InventoryReconciler;
+import com.flight.reservation.scheduling.OutboxRelay;
+import com.flight.reservation.service.VilleDictionary;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final ConcurrencyLimits concurrencyLimits;
+    private final RateLimiter rateLimiter;
+    private final ContentionRetryManager retryManager;
+    private final OutboxRelay outboxRelay;
+    private final ICalendrierTarifService calendrierTarifService;
+    private final VilleDictionary villeDictionary;
+    private final InventoryReconciler inventoryReconciler;
+
+    public AdminController(ConcurrencyLimits concurrencyLimits, RateLimiter rateLimiter, ContentionRetryManager retryManager,
+                           OutboxRelay outboxRelay, ICalendrierTarifService calendrierTarifService,
+                           VilleDictionary villeDictionary, InventoryReconciler inventoryReconciler) {
+        this.concurrencyLimits = concurrencyLimits;
+        this.rateLimiter = rateLimiter;
+        this.retryManager = retryManager;
+        this.outboxRelay = outboxRelay;
+        this.calendrierTarifService = calendrierTarifService;
+        this.villeDictionary = villeDictionary;
+        this.inventoryReconciler = inventoryReconciler;
+    }
+
+    @GetMapping("/concurrency-limits")
+    public List<GradientConcurrencyLimiter.Snapshot> getConcurrencyLimits() {
+        return concurrencyLimits.snapshots();
+    }
+
+    @GetMapping("/rate-limits")
+    public List<RateLimiter.Status> getRateLimits() {
+        return rateLimiter.status();
+    }
+
+    @PutMapping("/rate-limits/{categorie}")
+    public List<RateLimiter.Status> updateRateLimit(@PathVariable CategorieLimite categorie,
+                                                    @Valid @RequestBody RateLimitRequest request) {
+        rateLimiter.updatePolicy(categorie, request.getRatePerSecond(), request.getBurst());
+        return rateLimiter.status();
+    }
+
+    @GetMapping("/retry-stats")
+    public ContentionRetryManager.Stats getRetryStats() {
+        return retryManager.stats();
+    }
+
+    @GetMapping("/outbox")
+    public OutboxRelay.Stats getOutboxStats() {
+        return outboxRelay.stats();
+    }
+
+    // Renvoie le nombre de jours de route recalculés
+    @PostMapping("/calendrier-tarifs/reconstruction")
+    public int reconstruireCalendrierTarifs() {
+        return calendrierTarifService.reconstruire();
+    }
+
+    // Ajoute un alias (code aéroport, autre graphie) à une ville ; renvoie son nom canonique
+    @PutMapping("/villes/{ville}/alias/{alias}")
+    public String ajouterAliasVille(@PathVariable String ville, @PathVariable String alias) {
+        villeDictionary.ajouterAlias(ville, alias);
+        return villeDictionary.canonique(alias);
+    }
+
+    // Dernière réconciliation de l'inventaire, planifiée ou demandée ; vide avant la première
+    @GetMapping("/reconciliation")
+    public InventoryReconciler.Rapport getReconciliation() {
+        return inventoryReconciler.dernierRapport();
+    }
+
+    // Réconciliation immédiate, avec correction des écarts si reparer=true ; 409 si une autre est en cours
+    @PostMapping("/reconciliation")
+    public ResponseEntity<InventoryReconciler.Rapport> reconcilier(@RequestParam(defaultValue = "false") boolean reparer) {
+        InventoryReconciler.Rapport rapport = inventoryReconciler.reconcilier(reparer);
+        return rapport == null ? ResponseEntity.status(HttpStatus.CONFLICT).build() : ResponseEntity.ok(rapport);
+    }
+}
@@ -0,0 +1,55 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.AuditStatsResponse;
+import com.flight.reservation.iservice.IAuditStatsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    private final IAuditStatsService auditStatsService;
+
+    public AuditController(IAuditStatsService auditStatsService) {
+        this.auditStatsService = auditStatsService;
+    }
+
+    /**
+     * Totaux sur la période [from, to[ ; par défaut la dernière heure.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<AuditStatsResponse> getStats(
+            @RequestParam(required = false) UUID volId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        LocalDateTime fin = to != null ? to : finParDefaut();
+        LocalDateTime debut = from != null ? from : fin.minusHours(1);
+        return ResponseEntity.ok(auditStatsService.getStats(volId, debut, fin));
+    }
+
+    /**
+     * Totaux par pas de pas minutes sur la période [from, to[ ; par défaut la dernière heure, minute par minute.
+     */
+    @GetMapping("/stats/series")
+    public ResponseEntity<List<AuditStatsResponse>> getSerie(
+            @RequestParam(required = false) UUID volId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1") int pas) {
+        LocalDateTime fin = to != null ? to : finParDefaut();
+        LocalDateTime debut = from != null ? from : fin.minusHours(1);
+        return ResponseEntity.ok(auditStatsService.getSerie(volId, debut, fin, pas));
+    }
+
+    // Fin de la minute en cours, pour inclure les tentatives les plus récentes
+    private static LocalDateTime finParDefaut() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+    }
+}
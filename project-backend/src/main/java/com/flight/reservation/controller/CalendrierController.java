@@ -0,0 +1,33 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.CalendrierTarifsResponse;
+import com.flight.reservation.iservice.ICalendrierTarifService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.YearMonth;
+
+@RestController
+@RequestMapping("/api/routes")
+public class CalendrierController {
+
+    private final ICalendrierTarifService calendrierTarifService;
+
+    public CalendrierController(ICalendrierTarifService calendrierTarifService) {
+        this.calendrierTarifService = calendrierTarifService;
+    }
+
+    /**
+     * Tarif le plus bas, nombre de vols et places restantes de chaque jour du mois (yyyy-MM,
+     * mois courant par défaut), lus dans les agrégats du calendrier.
+     */
+    @GetMapping("/{villeDepart}/{villeArrivee}/calendar")
+    public ResponseEntity<CalendrierTarifsResponse> getCalendrier(
+            @PathVariable String villeDepart,
+            @PathVariable String villeArrivee,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        YearMonth mois = month != null ? month : YearMonth.now();
+        return ResponseEntity.ok(calendrierTarifService.getCalendrier(villeDepart, villeArrivee, mois));
+    }
+}
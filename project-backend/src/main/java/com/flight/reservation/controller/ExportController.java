@@ -0,0 +1,87 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.enums.FormatExport;
+import com.flight.reservation.iservice.IExportService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports en flux pour la comptabilité : toutes les réservations (par date de création) ou tout
+ * l'audit (par horodatage) de la période [from, to[, en CSV ou en NDJSON, compressés en gzip si le
+ * client l'accepte. La réponse est écrite au fil de la lecture, sans être construite en mémoire.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final IExportService exportService;
+
+    public ExportController(IExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @GetMapping("/reservations")
+    public ResponseEntity<StreamingResponseBody> exporterReservations(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "CSV") FormatExport format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exporter("reservations", from, to, format, acceptEncoding,
+                sortie -> exportService.exporterReservations(from, to, format, sortie));
+    }
+
+    @GetMapping("/audit")
+    public ResponseEntity<StreamingResponseBody> exporterAudit(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "CSV") FormatExport format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exporter("audit", from, to, format, acceptEncoding,
+                sortie -> exportService.exporterAudit(from, to, format, sortie));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exporter(String nom, LocalDateTime from, LocalDateTime to,
+                                                           FormatExport format, String acceptEncoding, Export export) {
+        exportService.validerPeriode(from, to);
+        exportService.reserverExport();
+        boolean gzip = VolController.acceptsGzip(acceptEncoding);
+        StreamingResponseBody corps = sortie -> {
+            try {
+                if (gzip) {
+                    GZIPOutputStream compresse = new GZIPOutputStream(sortie, 64 * 1024);
+                    export.ecrire(compresse);
+                    compresse.finish();
+                } else {
+                    export.ecrire(sortie);
+                }
+            } finally {
+                exportService.libererExport();
+            }
+        };
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"));
+        headers.setContentDisposition(ContentDisposition.attachment()
+                .filename(nom + "_" + from.toLocalDate() + "_" + to.toLocalDate() + "." + format.getExtension())
+                .build());
+        if (gzip) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        return ResponseEntity.ok().headers(headers).body(corps);
+    }
+
+    @FunctionalInterface
+    private interface Export {
+        void ecrire(OutputStream sortie) throws IOException;
+    }
+}
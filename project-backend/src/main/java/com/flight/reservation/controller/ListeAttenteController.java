@@ -0,0 +1,40 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.InscriptionAttenteResponse;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.iservice.IListeAttenteService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reservations/liste-attente")
+public class ListeAttenteController {
+    private final IListeAttenteService listeAttenteService;
+
+    public ListeAttenteController(IListeAttenteService listeAttenteService) {
+        this.listeAttenteService = listeAttenteService;
+    }
+
+    /**
+     * Inscription en liste d'attente. Le statut est PROMUE si des places étaient libres
+     * et que personne n'attendait avant.
+     */
+    @PostMapping
+    public ResponseEntity<InscriptionAttenteResponse> inscrire(@Valid @RequestBody ReservationRequest request) {
+        return new ResponseEntity<>(listeAttenteService.inscrire(request), HttpStatus.CREATED);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<InscriptionAttenteResponse> consulter(@PathVariable UUID id) {
+        return ResponseEntity.ok(listeAttenteService.consulter(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<InscriptionAttenteResponse> annuler(@PathVariable UUID id) {
+        return ResponseEntity.ok(listeAttenteService.annuler(id));
+    }
+}
@@ -1,25 +1,130 @@
 package com.flight.reservation.controller;
 
+import com.flight.reservation.dto.AnnulationResponse;
+import com.flight.reservation.dto.BatchReservationRequest;
+import com.flight.reservation.dto.BatchReservationResponse;
+import com.flight.reservation.dto.ReservationPageResponse;
 import com.flight.reservation.dto.ReservationRequest;
 import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.dto.TicketResponse;
+import com.flight.reservation.enums.StatutTicket;
 import com.flight.reservation.iservice.IReservationService;
+import com.flight.reservation.service.IdempotencyService;
+import com.flight.reservation.service.ReservationTicketService;
+import com.flight.reservation.service.SoldOutRegistry;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.net.URI;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/reservations")
+@Validated
 public class ReservationController {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final IReservationService reservationService;
+    private final SoldOutRegistry soldOutRegistry;
+    private final IdempotencyService idempotencyService;
+    private final ReservationTicketService ticketService;
 
-    public ReservationController(IReservationService reservationService) {
+    public ReservationController(IReservationService reservationService, SoldOutRegistry soldOutRegistry,
+                                 IdempotencyService idempotencyService, ReservationTicketService ticketService) {
         this.reservationService = reservationService;
+        this.soldOutRegistry = soldOutRegistry;
+        this.idempotencyService = idempotencyService;
+        this.ticketService = ticketService;
     }
 
     @PostMapping
-    public ResponseEntity<ReservationResponse> creerReservation(@Valid @RequestBody ReservationRequest request) {
-        ReservationResponse response = reservationService.creerReservation(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    public ResponseEntity<ReservationResponse> creerReservation(
+            @Valid @RequestBody ReservationRequest request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) @Size(min = 1, max = 255) String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return new ResponseEntity<>(reserver(request), HttpStatus.CREATED);
+        }
+        IdempotencyService.IdempotentResult result = idempotencyService.execute(idempotencyKey, request,
+                () -> reserver(request, idempotencyKey));
+        HttpHeaders headers = new HttpHeaders();
+        if (result.replayed()) {
+            headers.set(IDEMPOTENT_REPLAYED_HEADER, "true");
+        }
+        return new ResponseEntity<>(result.response(), headers, HttpStatus.CREATED);
+    }
+
+    /**
+     * Réservations d'un passager, les plus récentes d'abord. La page suivante s'obtient
+     * en repassant le curseurSuivant de la réponse.
+     */
+    @GetMapping
+    public ResponseEntity<ReservationPageResponse> getReservationsPassager(
+            @RequestParam @NotBlank @Email String email,
+            @RequestParam(required = false) String curseur,
+            @RequestParam(required = false) @Min(1) @Max(100) Integer taille) {
+        return ResponseEntity.ok(reservationService.findByEmail(email, curseur, taille));
+    }
+
+    /**
+     * Annule la réservation ; ses places profitent d'abord à la liste d'attente du vol.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<AnnulationResponse> annulerReservation(@PathVariable UUID id) {
+        return ResponseEntity.ok(reservationService.annulerReservation(id));
+    }
+
+    /**
+     * Réservations groupées (agences, groupes). Le code HTTP est 200 dès que le lot a été traité ;
+     * le résultat de chaque demande figure dans la réponse.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchReservationResponse> creerReservations(@Valid @RequestBody BatchReservationRequest request) {
+        return ResponseEntity.ok(reservationService.creerReservations(request));
+    }
+
+    @PostMapping("/async")
+    public ResponseEntity<TicketResponse> soumettreReservation(@Valid @RequestBody ReservationRequest request) {
+        soldOutRegistry.rejectIfSoldOut(request.getVolId(), request.getNombrePlaces());
+        UUID ticketId = ticketService.soumettre(request);
+        URI location = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/reservations/tickets/{id}")
+                .buildAndExpand(ticketId)
+                .toUri();
+        return ResponseEntity.accepted()
+                .location(location)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ticketService.getRetryAfterSeconds()))
+                .body(new TicketResponse(ticketId, StatutTicket.EN_ATTENTE, null, null));
+    }
+
+    /**
+     * État d'une réservation asynchrone. Avec attente > 0 (en millisecondes), la requête
+     * reste ouverte jusqu'au résultat ou jusqu'à la fin de l'attente (long-polling).
+     */
+    @GetMapping("/tickets/{id}")
+    public CompletableFuture<TicketResponse> consulterTicket(@PathVariable UUID id,
+                                                             @RequestParam(defaultValue = "0") long attente) {
+        return ticketService.consulter(id, attente);
+    }
+
+    private ReservationResponse reserver(ReservationRequest request) {
+        return reserver(request, null);
+    }
+
+    private ReservationResponse reserver(ReservationRequest request, String idempotencyKey) {
+        // Rejet sans transaction si le vol est déjà complet
+        soldOutRegistry.rejectIfSoldOut(request.getVolId(), request.getNombrePlaces());
+        return reservationService.creerReservation(request, idempotencyKey);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,38 @@
+package com.flight.reservation.controller;
+
+import com.flight.reservation.dto.HoldResponse;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.iservice.ISeatHoldService;
+import com.flight.reservation.service.SoldOutRegistry;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/reservations/holds")
+public class SeatHoldController {
+    private final ISeatHoldService seatHoldService;
+    private final SoldOutRegistry soldOutRegistry;
+
+    public SeatHoldController(ISeatHoldService seatHoldService, SoldOutRegistry soldOutRegistry) {
+        this.seatHoldService = seatHoldService;
+        this.soldOutRegistry = soldOutRegistry;
+    }
+
+    @PostMapping
+    public ResponseEntity<HoldResponse> creerHold(@Valid @RequestBody ReservationRequest request) {
+        soldOutRegistry.rejectIfSoldOut(request.getVolId(), request.getNombrePlaces());
+        HoldResponse response = seatHoldService.creerHold(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<ReservationResponse> confirmerHold(@PathVariable UUID id) {
+        ReservationResponse response = seatHoldService.confirmerHold(id);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+}
@@ -1,12 +1,25 @@
 package com.flight.reservation.controller;
 
+import com.flight.reservation.cache.SearchKey;
+import com.flight.reservation.cache.SearchResponseCache;
+import com.flight.reservation.dto.BatchVolUpdateRequest;
+import com.flight.reservation.dto.BatchVolUpdateResponse;
+import com.flight.reservation.dto.ItineraireResponse;
+import com.flight.reservation.dto.PlanSiegesResponse;
 import com.flight.reservation.dto.VolRequest;
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.iservice.IConnectionService;
 import com.flight.reservation.iservice.IVolService;
+import com.flight.reservation.service.VilleDictionary;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -16,41 +29,114 @@ import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/vols")
+@Validated
 public class VolController {
 
     private final IVolService volService;
+    private final IConnectionService connectionService;
+    private final SearchResponseCache searchResponseCache;
+    private final VilleDictionary villeDictionary;
 
-    public VolController(IVolService volService) {
+    public VolController(IVolService volService, IConnectionService connectionService, SearchResponseCache searchResponseCache,
+                         VilleDictionary villeDictionary) {
         this.volService = volService;
+        this.connectionService = connectionService;
+        this.searchResponseCache = searchResponseCache;
+        this.villeDictionary = villeDictionary;
     }
 
     @GetMapping
-    public ResponseEntity<List<Vol>> getVols(
+    public ResponseEntity<?> getVols(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDepart,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureDepart,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateArrivee,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.TIME) LocalTime heureArrivee,
             @RequestParam(required = false) String villeDepart,
             @RequestParam(required = false) String villeArrivee,
-            @RequestParam(required = false) String tri) {
+            @RequestParam(required = false) String tri,
+            @RequestParam(required = false) @Min(0) @Max(7) Integer flexDays,
+            @RequestParam(required = false) Boolean facettes,
+            @RequestParam(required = false) @Min(0) Integer page,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer taille,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
 
         // Convert LocalDate + LocalTime to LocalDateTime for backward compatibility
         LocalDateTime dateTimeDepart = (dateDepart != null) ? LocalDateTime.of(dateDepart, heureDepart != null ? heureDepart : LocalTime.of(0, 0)) : null;
         LocalDateTime dateTimeArrivee = (dateArrivee != null) ? LocalDateTime.of(dateArrivee, heureArrivee != null ? heureArrivee : LocalTime.of(0, 0)) : null;
 
+        // Dates flexibles : une seule requête sur la fenêtre, résultat regroupé par jour
+        if (flexDays != null && dateDepart != null) {
+            return ResponseEntity.ok(volService.findAllFlexible(dateDepart, flexDays, dateTimeArrivee, villeDepart, villeArrivee, tri));
+        }
+
+        // Pagination et facettes : une page de vols, le total et les compteurs de la barre de filtres
+        if (facettes != null || page != null) {
+            return ResponseEntity.ok(volService.findPage(dateTimeDepart, dateTimeArrivee, villeDepart, villeArrivee, tri,
+                    page != null ? page : 0, taille, Boolean.TRUE.equals(facettes)));
+        }
+
+        MediaType format = searchResponseCache.isEnabled() ? searchResponseCache.negotiate(accept) : null;
+        if (format != null) {
+            // Un alias et le nom qu'il désigne partagent la même entrée de cache
+            SearchKey key = SearchKey.of(dateTimeDepart, dateTimeArrivee, villeDictionary.canonique(villeDepart),
+                    villeDictionary.canonique(villeArrivee), tri);
+            return searchResponseCache
+                    .getOrEncode(key, format, () -> volService.findAll(dateTimeDepart, dateTimeArrivee, villeDepart, villeArrivee, tri))
+                    .toResponseEntity(acceptsGzip(acceptEncoding));
+        }
+
         List<Vol> vols = volService.findAll(dateTimeDepart, dateTimeArrivee, villeDepart, villeArrivee, tri);
         return ResponseEntity.ok(vols);
     }
 
+    @GetMapping("/connections")
+    public ResponseEntity<List<ItineraireResponse>> getConnections(
+            @RequestParam String villeDepart,
+            @RequestParam String villeArrivee,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateDepart,
+            @RequestParam(defaultValue = "2") @Min(0) @Max(2) Integer escales,
+            @RequestParam(defaultValue = "prix") String tri,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) Integer limite) {
+        return ResponseEntity.ok(connectionService.rechercher(villeDepart, villeArrivee, dateDepart, escales, tri, limite));
+    }
+
     @PostMapping
     public ResponseEntity<List<Vol>> addVols(@Valid @RequestBody List<VolRequest> volRequests) {
         List<Vol> savedVols = volService.saveAll(volRequests);
         return new ResponseEntity<>(savedVols, HttpStatus.CREATED);
     }
 
+    /**
+     * Modifications partielles (prix, horaires, capacité) d'au plus 500 vols, chacune avec la version
+     * lue par le client. Résultat par vol ; en ALL_OR_NOTHING, rien n'est écrit si une modification est refusée.
+     */
+    @PatchMapping("/batch")
+    public ResponseEntity<BatchVolUpdateResponse> modifierVols(@Valid @RequestBody BatchVolUpdateRequest request) {
+        return ResponseEntity.ok(volService.modifierVols(request));
+    }
+
     @GetMapping("/{id}/places")
     public ResponseEntity<Integer> getPlacesDisponibles(@PathVariable UUID id) {
         Integer places = volService.getPlacesDisponibles(id);
         return ResponseEntity.ok(places);
     }
+
+    @GetMapping("/{id}/sieges")
+    public ResponseEntity<PlanSiegesResponse> getPlanSieges(@PathVariable UUID id) {
+        return ResponseEntity.ok(volService.getPlanSieges(id));
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
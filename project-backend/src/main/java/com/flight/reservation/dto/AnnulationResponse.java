@@ -0,0 +1,43 @@
+package com.flight.reservation.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class AnnulationResponse {
+    
+    private UUID numeroReservation;
+    private UUID volId;
+    private Integer placesLiberees;
+    private LocalDateTime dateAnnulation;
+    // Inscriptions de la liste d'attente promues avec les places libérées
+    private List<InscriptionAttenteResponse> promotions;
+    
+    // Constructeurs
+    public AnnulationResponse() {}
+    
+    public AnnulationResponse(UUID numeroReservation, UUID volId, Integer placesLiberees,
+                              LocalDateTime dateAnnulation, List<InscriptionAttenteResponse> promotions) {
+        this.numeroReservation = numeroReservation;
+        this.volId = volId;
+        this.placesLiberees = placesLiberees;
+        this.dateAnnulation = dateAnnulation;
+        this.promotions = promotions;
+    }
+    
+    // Getters et Setters
+    public UUID getNumeroReservation() { return numeroReservation; }
+    public void setNumeroReservation(UUID numeroReservation) { this.numeroReservation = numeroReservation; }
+    
+    public UUID getVolId() { return volId; }
+    public void setVolId(UUID volId) { this.volId = volId; }
+    
+    public Integer getPlacesLiberees() { return placesLiberees; }
+    public void setPlacesLiberees(Integer placesLiberees) { this.placesLiberees = placesLiberees; }
+    
+    public LocalDateTime getDateAnnulation() { return dateAnnulation; }
+    public void setDateAnnulation(LocalDateTime dateAnnulation) { this.dateAnnulation = dateAnnulation; }
+    
+    public List<InscriptionAttenteResponse> getPromotions() { return promotions; }
+    public void setPromotions(List<InscriptionAttenteResponse> promotions) { this.promotions = promotions; }
+}
@@ -0,0 +1,71 @@
+package com.flight.reservation.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class AuditStatsResponse {
+    
+    // Null quand les statistiques couvrent tous les vols
+    private UUID volId;
+    private LocalDateTime debut;
+    private LocalDateTime fin;
+    private long tentatives;
+    private long succes;
+    private long echecsPlacesInsuffisantes;
+    private long echecsConflit;
+    private long echecsVolComplet;
+    private long echecsAutres;
+    private long placesDemandees;
+    private long placesReservees;
+    
+    // Constructeurs
+    public AuditStatsResponse() {}
+    
+    public AuditStatsResponse(UUID volId, LocalDateTime debut, LocalDateTime fin) {
+        this.volId = volId;
+        this.debut = debut;
+        this.fin = fin;
+    }
+    
+    public long getEchecs() {
+        return echecsPlacesInsuffisantes + echecsConflit + echecsVolComplet + echecsAutres;
+    }
+    
+    public double getTauxEchec() {
+        return tentatives == 0 ? 0 : (double) getEchecs() / tentatives;
+    }
+    
+    // Getters et Setters
+    public UUID getVolId() { return volId; }
+    public void setVolId(UUID volId) { this.volId = volId; }
+    
+    public LocalDateTime getDebut() { return debut; }
+    public void setDebut(LocalDateTime debut) { this.debut = debut; }
+    
+    public LocalDateTime getFin() { return fin; }
+    public void setFin(LocalDateTime fin) { this.fin = fin; }
+    
+    public long getTentatives() { return tentatives; }
+    public void setTentatives(long tentatives) { this.tentatives = tentatives; }
+    
+    public long getSucces() { return succes; }
+    public void setSucces(long succes) { this.succes = succes; }
+    
+    public long getEchecsPlacesInsuffisantes() { return echecsPlacesInsuffisantes; }
+    public void setEchecsPlacesInsuffisantes(long echecsPlacesInsuffisantes) { this.echecsPlacesInsuffisantes = echecsPlacesInsuffisantes; }
+    
+    public long getEchecsConflit() { return echecsConflit; }
+    public void setEchecsConflit(long echecsConflit) { this.echecsConflit = echecsConflit; }
+    
+    public long getEchecsVolComplet() { return echecsVolComplet; }
+    public void setEchecsVolComplet(long echecsVolComplet) { this.echecsVolComplet = echecsVolComplet; }
+    
+    public long getEchecsAutres() { return echecsAutres; }
+    public void setEchecsAutres(long echecsAutres) { this.echecsAutres = echecsAutres; }
+    
+    public long getPlacesDemandees() { return placesDemandees; }
+    public void setPlacesDemandees(long placesDemandees) { this.placesDemandees = placesDemandees; }
+    
+    public long getPlacesReservees() { return placesReservees; }
+    public void setPlacesReservees(long placesReservees) { this.placesReservees = placesReservees; }
+}
@@ -0,0 +1,44 @@
+package com.flight.reservation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.flight.reservation.enums.StatutReservation;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    
+    private int index;
+    private StatutReservation statut;
+    private ReservationResponse reservation;
+    private ErrorResponse erreur;
+    
+    // Constructeurs
+    public BatchItemResult() {}
+    
+    public BatchItemResult(int index, StatutReservation statut, ReservationResponse reservation, ErrorResponse erreur) {
+        this.index = index;
+        this.statut = statut;
+        this.reservation = reservation;
+        this.erreur = erreur;
+    }
+    
+    public static BatchItemResult succes(int index, ReservationResponse reservation) {
+        return new BatchItemResult(index, StatutReservation.SUCCESS, reservation, null);
+    }
+    
+    public static BatchItemResult echec(int index, ErrorResponse erreur) {
+        return new BatchItemResult(index, StatutReservation.FAILED, null, erreur);
+    }
+    
+    // Getters et Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public StatutReservation getStatut() { return statut; }
+    public void setStatut(StatutReservation statut) { this.statut = statut; }
+    
+    public ReservationResponse getReservation() { return reservation; }
+    public void setReservation(ReservationResponse reservation) { this.reservation = reservation; }
+    
+    public ErrorResponse getErreur() { return erreur; }
+    public void setErreur(ErrorResponse erreur) { this.erreur = erreur; }
+}
@@ -0,0 +1,35 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.enums.ModeBatch;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+@Getter
+@Setter
+public class BatchReservationRequest {
+    
+    public static final int MAX_RESERVATIONS = 500;
+    
+    @NotNull
+    private ModeBatch mode = ModeBatch.ALL_OR_NOTHING;
+    
+    @NotEmpty
+    @Size(max = MAX_RESERVATIONS)
+    private List<@Valid @NotNull ReservationRequest> reservations;
+    
+    // Constructeurs
+    public BatchReservationRequest() {}
+    
+    public BatchReservationRequest(ModeBatch mode, List<ReservationRequest> reservations) {
+        this.mode = mode;
+        this.reservations = reservations;
+    }
+    
+    // Getters et Setters
+
+}
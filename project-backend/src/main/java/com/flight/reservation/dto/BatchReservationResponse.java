@@ -0,0 +1,41 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.enums.ModeBatch;
+
+import java.util.List;
+
+public class BatchReservationResponse {
+    
+    private ModeBatch mode;
+    private int nombreReussies;
+    private int nombreEchecs;
+    private List<BatchItemResult> resultats;
+    
+    // Constructeurs
+    public BatchReservationResponse() {}
+    
+    public BatchReservationResponse(ModeBatch mode, List<BatchItemResult> resultats) {
+        this.mode = mode;
+        this.resultats = resultats;
+        for (BatchItemResult resultat : resultats) {
+            if (resultat.getReservation() != null) {
+                nombreReussies++;
+            } else {
+                nombreEchecs++;
+            }
+        }
+    }
+    
+    // Getters et Setters
+    public ModeBatch getMode() { return mode; }
+    public void setMode(ModeBatch mode) { this.mode = mode; }
+    
+    public int getNombreReussies() { return nombreReussies; }
+    public void setNombreReussies(int nombreReussies) { this.nombreReussies = nombreReussies; }
+    
+    public int getNombreEchecs() { return nombreEchecs; }
+    public void setNombreEchecs(int nombreEchecs) { this.nombreEchecs = nombreEchecs; }
+    
+    public List<BatchItemResult> getResultats() { return resultats; }
+    public void setResultats(List<BatchItemResult> resultats) { this.resultats = resultats; }
+}
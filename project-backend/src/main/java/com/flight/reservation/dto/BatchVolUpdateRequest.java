@@ -0,0 +1,35 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.enums.ModeBatch;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+@Getter
+@Setter
+public class BatchVolUpdateRequest {
+    
+    public static final int MAX_VOLS = 500;
+    
+    @NotNull
+    private ModeBatch mode = ModeBatch.ALL_OR_NOTHING;
+    
+    @NotEmpty
+    @Size(max = MAX_VOLS)
+    private List<@Valid @NotNull VolUpdateRequest> vols;
+    
+    // Constructeurs
+    public BatchVolUpdateRequest() {}
+    
+    public BatchVolUpdateRequest(ModeBatch mode, List<VolUpdateRequest> vols) {
+        this.mode = mode;
+        this.vols = vols;
+    }
+    
+    // Getters et Setters
+
+}
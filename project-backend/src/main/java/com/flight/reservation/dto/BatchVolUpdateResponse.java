@@ -0,0 +1,41 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.enums.ModeBatch;
+
+import java.util.List;
+
+public class BatchVolUpdateResponse {
+    
+    private ModeBatch mode;
+    private int nombreModifies;
+    private int nombreEchecs;
+    private List<VolUpdateResult> resultats;
+    
+    // Constructeurs
+    public BatchVolUpdateResponse() {}
+    
+    public BatchVolUpdateResponse(ModeBatch mode, List<VolUpdateResult> resultats) {
+        this.mode = mode;
+        this.resultats = resultats;
+        for (VolUpdateResult resultat : resultats) {
+            if (resultat.getErreur() == null) {
+                nombreModifies++;
+            } else {
+                nombreEchecs++;
+            }
+        }
+    }
+    
+    // Getters et Setters
+    public ModeBatch getMode() { return mode; }
+    public void setMode(ModeBatch mode) { this.mode = mode; }
+    
+    public int getNombreModifies() { return nombreModifies; }
+    public void setNombreModifies(int nombreModifies) { this.nombreModifies = nombreModifies; }
+    
+    public int getNombreEchecs() { return nombreEchecs; }
+    public void setNombreEchecs(int nombreEchecs) { this.nombreEchecs = nombreEchecs; }
+    
+    public List<VolUpdateResult> getResultats() { return resultats; }
+    public void setResultats(List<VolUpdateResult> resultats) { this.resultats = resultats; }
+}
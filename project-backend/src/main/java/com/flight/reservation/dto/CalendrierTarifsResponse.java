@@ -0,0 +1,38 @@
+package com.flight.reservation.dto;
+
+import java.util.List;
+
+/**
+ * Calendrier des tarifs d'une route sur un mois : un élément par jour du mois.
+ */
+public class CalendrierTarifsResponse {
+    
+    private String villeDepart;
+    private String villeArrivee;
+    // Mois au format yyyy-MM
+    private String mois;
+    private List<JourTarifResponse> jours;
+    
+    // Constructeurs
+    public CalendrierTarifsResponse() {}
+    
+    public CalendrierTarifsResponse(String villeDepart, String villeArrivee, String mois, List<JourTarifResponse> jours) {
+        this.villeDepart = villeDepart;
+        this.villeArrivee = villeArrivee;
+        this.mois = mois;
+        this.jours = jours;
+    }
+    
+    // Getters et Setters
+    public String getVilleDepart() { return villeDepart; }
+    public void setVilleDepart(String villeDepart) { this.villeDepart = villeDepart; }
+    
+    public String getVilleArrivee() { return villeArrivee; }
+    public void setVilleArrivee(String villeArrivee) { this.villeArrivee = villeArrivee; }
+    
+    public String getMois() { return mois; }
+    public void setMois(String mois) { this.mois = mois; }
+    
+    public List<JourTarifResponse> getJours() { return jours; }
+    public void setJours(List<JourTarifResponse> jours) { this.jours = jours; }
+}
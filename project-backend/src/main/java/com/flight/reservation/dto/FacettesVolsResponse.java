@@ -0,0 +1,60 @@
+package com.flight.reservation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Facettes de la barre de filtres, calculées sur tous les vols trouvés (pas seulement la page).
+ * Prix en euros, temps de trajet en minutes, heures de départ de 0 à 23.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FacettesVolsResponse {
+    
+    // Bornes absentes quand aucun vol ne correspond
+    private BigDecimal prixMin;
+    private BigDecimal prixMax;
+    private Integer tempsTrajetMin;
+    private Integer tempsTrajetMax;
+    private List<TrancheFacette> prix;
+    private List<TrancheFacette> tempsTrajet;
+    private List<TrancheFacette> heuresDepart;
+    
+    // Constructeurs
+    public FacettesVolsResponse() {}
+    
+    public FacettesVolsResponse(BigDecimal prixMin, BigDecimal prixMax, Integer tempsTrajetMin, Integer tempsTrajetMax,
+                                List<TrancheFacette> prix, List<TrancheFacette> tempsTrajet,
+                                List<TrancheFacette> heuresDepart) {
+        this.prixMin = prixMin;
+        this.prixMax = prixMax;
+        this.tempsTrajetMin = tempsTrajetMin;
+        this.tempsTrajetMax = tempsTrajetMax;
+        this.prix = prix;
+        this.tempsTrajet = tempsTrajet;
+        this.heuresDepart = heuresDepart;
+    }
+    
+    // Getters et Setters
+    public BigDecimal getPrixMin() { return prixMin; }
+    public void setPrixMin(BigDecimal prixMin) { this.prixMin = prixMin; }
+    
+    public BigDecimal getPrixMax() { return prixMax; }
+    public void setPrixMax(BigDecimal prixMax) { this.prixMax = prixMax; }
+    
+    public Integer getTempsTrajetMin() { return tempsTrajetMin; }
+    public void setTempsTrajetMin(Integer tempsTrajetMin) { this.tempsTrajetMin = tempsTrajetMin; }
+    
+    public Integer getTempsTrajetMax() { return tempsTrajetMax; }
+    public void setTempsTrajetMax(Integer tempsTrajetMax) { this.tempsTrajetMax = tempsTrajetMax; }
+    
+    public List<TrancheFacette> getPrix() { return prix; }
+    public void setPrix(List<TrancheFacette> prix) { this.prix = prix; }
+    
+    public List<TrancheFacette> getTempsTrajet() { return tempsTrajet; }
+    public void setTempsTrajet(List<TrancheFacette> tempsTrajet) { this.tempsTrajet = tempsTrajet; }
+    
+    public List<TrancheFacette> getHeuresDepart() { return heuresDepart; }
+    public void setHeuresDepart(List<TrancheFacette> heuresDepart) { this.heuresDepart = heuresDepart; }
+}
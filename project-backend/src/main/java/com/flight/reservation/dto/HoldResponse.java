@@ -0,0 +1,35 @@
+package com.flight.reservation.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class HoldResponse {
+    
+    private UUID holdId;
+    private UUID volId;
+    private Integer nombrePlaces;
+    private LocalDateTime expiresAt;
+    
+    // Constructeurs
+    public HoldResponse() {}
+    
+    public HoldResponse(UUID holdId, UUID volId, Integer nombrePlaces, LocalDateTime expiresAt) {
+        this.holdId = holdId;
+        this.volId = volId;
+        this.nombrePlaces = nombrePlaces;
+        this.expiresAt = expiresAt;
+    }
+    
+    // Getters et Setters
+    public UUID getHoldId() { return holdId; }
+    public void setHoldId(UUID holdId) { this.holdId = holdId; }
+    
+    public UUID getVolId() { return volId; }
+    public void setVolId(UUID volId) { this.volId = volId; }
+    
+    public Integer getNombrePlaces() { return nombrePlaces; }
+    public void setNombrePlaces(Integer nombrePlaces) { this.nombrePlaces = nombrePlaces; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+}
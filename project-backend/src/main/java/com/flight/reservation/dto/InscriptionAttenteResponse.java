@@ -0,0 +1,57 @@
+package com.flight.reservation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.flight.reservation.enums.StatutAttente;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InscriptionAttenteResponse {
+    
+    private UUID inscriptionId;
+    private UUID volId;
+    private Integer nombrePlaces;
+    private StatutAttente statut;
+    private LocalDateTime dateInscription;
+    // Inscriptions en attente devant celle-ci ; seulement tant qu'elle est en attente
+    private Long position;
+    // Réservation créée à la promotion
+    private UUID reservationId;
+    
+    // Constructeurs
+    public InscriptionAttenteResponse() {}
+    
+    public InscriptionAttenteResponse(UUID inscriptionId, UUID volId, Integer nombrePlaces, StatutAttente statut,
+                                      LocalDateTime dateInscription, Long position, UUID reservationId) {
+        this.inscriptionId = inscriptionId;
+        this.volId = volId;
+        this.nombrePlaces = nombrePlaces;
+        this.statut = statut;
+        this.dateInscription = dateInscription;
+        this.position = position;
+        this.reservationId = reservationId;
+    }
+    
+    // Getters et Setters
+    public UUID getInscriptionId() { return inscriptionId; }
+    public void setInscriptionId(UUID inscriptionId) { this.inscriptionId = inscriptionId; }
+    
+    public UUID getVolId() { return volId; }
+    public void setVolId(UUID volId) { this.volId = volId; }
+    
+    public Integer getNombrePlaces() { return nombrePlaces; }
+    public void setNombrePlaces(Integer nombrePlaces) { this.nombrePlaces = nombrePlaces; }
+    
+    public StatutAttente getStatut() { return statut; }
+    public void setStatut(StatutAttente statut) { this.statut = statut; }
+    
+    public LocalDateTime getDateInscription() { return dateInscription; }
+    public void setDateInscription(LocalDateTime dateInscription) { this.dateInscription = dateInscription; }
+    
+    public Long getPosition() { return position; }
+    public void setPosition(Long position) { this.position = position; }
+    
+    public UUID getReservationId() { return reservationId; }
+    public void setReservationId(UUID reservationId) { this.reservationId = reservationId; }
+}
@@ -0,0 +1,48 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.routing.FlightLeg;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Itinéraire de GET /api/vols/connections : vol direct ou correspondances, dans l'ordre du voyage.
+ */
+public class ItineraireResponse {
+    
+    private Integer escales;
+    private BigDecimal prixTotal;
+    // Somme des temps de trajet des vols, en minutes
+    private Integer tempsTrajetTotal;
+    // Du premier départ à la dernière arrivée, attentes comprises, en minutes
+    private Long dureeTotale;
+    private List<FlightLeg> vols;
+    
+    // Constructeurs
+    public ItineraireResponse() {}
+    
+    public ItineraireResponse(Integer escales, BigDecimal prixTotal, Integer tempsTrajetTotal,
+                              Long dureeTotale, List<FlightLeg> vols) {
+        this.escales = escales;
+        this.prixTotal = prixTotal;
+        this.tempsTrajetTotal = tempsTrajetTotal;
+        this.dureeTotale = dureeTotale;
+        this.vols = vols;
+    }
+    
+    // Getters et Setters
+    public Integer getEscales() { return escales; }
+    public void setEscales(Integer escales) { this.escales = escales; }
+    
+    public BigDecimal getPrixTotal() { return prixTotal; }
+    public void setPrixTotal(BigDecimal prixTotal) { this.prixTotal = prixTotal; }
+    
+    public Integer getTempsTrajetTotal() { return tempsTrajetTotal; }
+    public void setTempsTrajetTotal(Integer tempsTrajetTotal) { this.tempsTrajetTotal = tempsTrajetTotal; }
+    
+    public Long getDureeTotale() { return dureeTotale; }
+    public void setDureeTotale(Long dureeTotale) { this.dureeTotale = dureeTotale; }
+    
+    public List<FlightLeg> getVols() { return vols; }
+    public void setVols(List<FlightLeg> vols) { this.vols = vols; }
+}
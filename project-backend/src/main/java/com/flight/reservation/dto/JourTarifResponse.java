@@ -0,0 +1,36 @@
+package com.flight.reservation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class JourTarifResponse {
+    
+    private LocalDate date;
+    // null s'il n'y a aucun vol, ou plus aucune place, ce jour-là
+    private BigDecimal prixMin;
+    private Integer nombreVols;
+    private Long placesRestantes;
+    
+    // Constructeurs
+    public JourTarifResponse() {}
+    
+    public JourTarifResponse(LocalDate date, BigDecimal prixMin, Integer nombreVols, Long placesRestantes) {
+        this.date = date;
+        this.prixMin = prixMin;
+        this.nombreVols = nombreVols;
+        this.placesRestantes = placesRestantes;
+    }
+    
+    // Getters et Setters
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    
+    public BigDecimal getPrixMin() { return prixMin; }
+    public void setPrixMin(BigDecimal prixMin) { this.prixMin = prixMin; }
+    
+    public Integer getNombreVols() { return nombreVols; }
+    public void setNombreVols(Integer nombreVols) { this.nombreVols = nombreVols; }
+    
+    public Long getPlacesRestantes() { return placesRestantes; }
+    public void setPlacesRestantes(Long placesRestantes) { this.placesRestantes = placesRestantes; }
+}
@@ -0,0 +1,42 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.entity.Vol;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Vols d'un jour dans une recherche à dates flexibles (GET /api/vols?flexDays=).
+ */
+public class JourVolsResponse {
+    
+    private LocalDate date;
+    // Tarif le plus bas du jour ; null s'il n'y a aucun vol
+    private BigDecimal prixMin;
+    private Integer nombreVols;
+    private List<Vol> vols;
+    
+    // Constructeurs
+    public JourVolsResponse() {}
+    
+    public JourVolsResponse(LocalDate date, BigDecimal prixMin, List<Vol> vols) {
+        this.date = date;
+        this.prixMin = prixMin;
+        this.nombreVols = vols.size();
+        this.vols = vols;
+    }
+    
+    // Getters et Setters
+    public LocalDate getDate() { return date; }
+    public void setDate(LocalDate date) { this.date = date; }
+    
+    public BigDecimal getPrixMin() { return prixMin; }
+    public void setPrixMin(BigDecimal prixMin) { this.prixMin = prixMin; }
+    
+    public Integer getNombreVols() { return nombreVols; }
+    public void setNombreVols(Integer nombreVols) { this.nombreVols = nombreVols; }
+    
+    public List<Vol> getVols() { return vols; }
+    public void setVols(List<Vol> vols) { this.vols = vols; }
+}
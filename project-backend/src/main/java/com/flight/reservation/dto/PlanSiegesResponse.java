@@ -0,0 +1,42 @@
+package com.flight.reservation.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class PlanSiegesResponse {
+    
+    private UUID volId;
+    private Integer capaciteMaximale;
+    private Integer siegesParRang;
+    // Sièges sans réservation ; des places bloquées (SeatHold) peuvent encore les prendre
+    private Integer nombreSiegesLibres;
+    private List<String> siegesLibres;
+    
+    // Constructeurs
+    public PlanSiegesResponse() {}
+    
+    public PlanSiegesResponse(UUID volId, Integer capaciteMaximale, Integer siegesParRang,
+                              Integer nombreSiegesLibres, List<String> siegesLibres) {
+        this.volId = volId;
+        this.capaciteMaximale = capaciteMaximale;
+        this.siegesParRang = siegesParRang;
+        this.nombreSiegesLibres = nombreSiegesLibres;
+        this.siegesLibres = siegesLibres;
+    }
+    
+    // Getters et Setters
+    public UUID getVolId() { return volId; }
+    public void setVolId(UUID volId) { this.volId = volId; }
+    
+    public Integer getCapaciteMaximale() { return capaciteMaximale; }
+    public void setCapaciteMaximale(Integer capaciteMaximale) { this.capaciteMaximale = capaciteMaximale; }
+    
+    public Integer getSiegesParRang() { return siegesParRang; }
+    public void setSiegesParRang(Integer siegesParRang) { this.siegesParRang = siegesParRang; }
+    
+    public Integer getNombreSiegesLibres() { return nombreSiegesLibres; }
+    public void setNombreSiegesLibres(Integer nombreSiegesLibres) { this.nombreSiegesLibres = nombreSiegesLibres; }
+    
+    public List<String> getSiegesLibres() { return siegesLibres; }
+    public void setSiegesLibres(List<String> siegesLibres) { this.siegesLibres = siegesLibres; }
+}
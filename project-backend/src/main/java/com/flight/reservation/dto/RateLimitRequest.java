@@ -0,0 +1,32 @@
+package com.flight.reservation.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public class RateLimitRequest {
+
+    @NotNull
+    @Positive
+    private Double ratePerSecond;
+
+    @NotNull
+    @Positive
+    @Max(16000)
+    private Integer burst;
+
+    // Constructeurs
+    public RateLimitRequest() {}
+
+    public RateLimitRequest(Double ratePerSecond, Integer burst) {
+        this.ratePerSecond = ratePerSecond;
+        this.burst = burst;
+    }
+
+    // Getters et Setters
+    public Double getRatePerSecond() { return ratePerSecond; }
+    public void setRatePerSecond(Double ratePerSecond) { this.ratePerSecond = ratePerSecond; }
+
+    public Integer getBurst() { return burst; }
+    public void setBurst(Integer burst) { this.burst = burst; }
+}
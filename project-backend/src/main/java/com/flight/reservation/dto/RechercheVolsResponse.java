@@ -0,0 +1,47 @@
+package com.flight.reservation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.flight.reservation.entity.Vol;
+
+import java.util.List;
+
+/**
+ * Une page de résultats de GET /api/vols?facettes=true, avec le total et les facettes de
+ * l'ensemble des vols trouvés.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RechercheVolsResponse {
+    
+    private List<Vol> vols;
+    private Long total;
+    private Integer page;
+    private Integer taille;
+    private FacettesVolsResponse facettes;
+    
+    // Constructeurs
+    public RechercheVolsResponse() {}
+    
+    public RechercheVolsResponse(List<Vol> vols, Long total, Integer page, Integer taille, FacettesVolsResponse facettes) {
+        this.vols = vols;
+        this.total = total;
+        this.page = page;
+        this.taille = taille;
+        this.facettes = facettes;
+    }
+    
+    // Getters et Setters
+    public List<Vol> getVols() { return vols; }
+    public void setVols(List<Vol> vols) { this.vols = vols; }
+    
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+    
+    public Integer getPage() { return page; }
+    public void setPage(Integer page) { this.page = page; }
+    
+    public Integer getTaille() { return taille; }
+    public void setTaille(Integer taille) { this.taille = taille; }
+    
+    public FacettesVolsResponse getFacettes() { return facettes; }
+    public void setFacettes(FacettesVolsResponse facettes) { this.facettes = facettes; }
+}
@@ -0,0 +1,28 @@
+package com.flight.reservation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReservationPageResponse {
+    
+    private List<ReservationSummary> reservations;
+    // Curseur de la page suivante ; absent sur la dernière page
+    private String curseurSuivant;
+    
+    // Constructeurs
+    public ReservationPageResponse() {}
+    
+    public ReservationPageResponse(List<ReservationSummary> reservations, String curseurSuivant) {
+        this.reservations = reservations;
+        this.curseurSuivant = curseurSuivant;
+    }
+    
+    // Getters et Setters
+    public List<ReservationSummary> getReservations() { return reservations; }
+    public void setReservations(List<ReservationSummary> reservations) { this.reservations = reservations; }
+    
+    public String getCurseurSuivant() { return curseurSuivant; }
+    public void setCurseurSuivant(String curseurSuivant) { this.curseurSuivant = curseurSuivant; }
+}
@@ -7,6 +7,7 @@ import jakarta.validation.constraints.Positive;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.List;
 import java.util.UUID;
 @Getter
 @Setter
@@ -23,6 +24,9 @@ public class ReservationRequest {
     @Positive
     private Integer nombrePlaces;
     
+    // Sièges choisis (ex. "12A") ; facultatif, un par place demandée
+    private List<String> sieges;
+    
     // Constructeurs
     public ReservationRequest() {}
     
@@ -1,8 +1,11 @@
 package com.flight.reservation.dto;
 
 import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Reservation;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public class ReservationResponse {
@@ -12,6 +15,10 @@ public class ReservationResponse {
     private Passager passager;
     private Integer nombrePlaces;
     private LocalDateTime dateReservation;
+    private List<String> sieges;
+    // Tarif courant du vol au moment de la réservation
+    private BigDecimal prixUnitaire;
+    private BigDecimal prixTotal;
     
     // Constructeurs
     public ReservationResponse() {}
@@ -25,6 +32,19 @@ public class ReservationResponse {
         this.dateReservation = dateReservation;
     }
     
+    public ReservationResponse(UUID numeroReservation, UUID volId, Passager passager,
+                              Integer nombrePlaces, LocalDateTime dateReservation, List<String> sieges) {
+        this(numeroReservation, volId, passager, nombrePlaces, dateReservation);
+        this.sieges = sieges;
+    }
+    
+    public ReservationResponse(Reservation reservation) {
+        this(reservation.getId(), reservation.getVol().getId(), reservation.getPassager(), reservation.getNombrePlaces(),
+                reservation.getCreatedAt(), reservation.getListeSieges());
+        this.prixUnitaire = reservation.getPrixUnitaire();
+        this.prixTotal = prixUnitaire != null ? prixUnitaire.multiply(BigDecimal.valueOf(nombrePlaces)) : null;
+    }
+    
     // Getters et Setters
     public UUID getNumeroReservation() { return numeroReservation; }
     public void setNumeroReservation(UUID numeroReservation) { this.numeroReservation = numeroReservation; }
@@ -40,4 +60,13 @@ public class ReservationResponse {
     
     public LocalDateTime getDateReservation() { return dateReservation; }
     public void setDateReservation(LocalDateTime dateReservation) { this.dateReservation = dateReservation; }
+    
+    public List<String> getSieges() { return sieges; }
+    public void setSieges(List<String> sieges) { this.sieges = sieges; }
+    
+    public BigDecimal getPrixUnitaire() { return prixUnitaire; }
+    public void setPrixUnitaire(BigDecimal prixUnitaire) { this.prixUnitaire = prixUnitaire; }
+    
+    public BigDecimal getPrixTotal() { return prixTotal; }
+    public void setPrixTotal(BigDecimal prixTotal) { this.prixTotal = prixTotal; }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.flight.reservation.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Réservation d'un passager avec le résumé de son vol, lue par projection (sans charger Vol).
+ */
+public class ReservationSummary {
+    
+    private UUID numeroReservation;
+    private Integer nombrePlaces;
+    private LocalDateTime dateReservation;
+    private LocalDateTime dateAnnulation;
+    private UUID volId;
+    private String villeDepart;
+    private String villeArrivee;
+    private LocalDateTime dateDepart;
+    private LocalDateTime dateArrivee;
+    
+    // Constructeurs
+    public ReservationSummary() {}
+    
+    public ReservationSummary(UUID numeroReservation, Integer nombrePlaces, LocalDateTime dateReservation,
+                              LocalDateTime dateAnnulation, UUID volId, String villeDepart, String villeArrivee,
+                              LocalDateTime dateDepart, LocalDateTime dateArrivee) {
+        this.numeroReservation = numeroReservation;
+        this.nombrePlaces = nombrePlaces;
+        this.dateReservation = dateReservation;
+        this.dateAnnulation = dateAnnulation;
+        this.volId = volId;
+        this.villeDepart = villeDepart;
+        this.villeArrivee = villeArrivee;
+        this.dateDepart = dateDepart;
+        this.dateArrivee = dateArrivee;
+    }
+    
+    // Getters et Setters
+    public UUID getNumeroReservation() { return numeroReservation; }
+    public void setNumeroReservation(UUID numeroReservation) { this.numeroReservation = numeroReservation; }
+    
+    public Integer getNombrePlaces() { return nombrePlaces; }
+    public void setNombrePlaces(Integer nombrePlaces) { this.nombrePlaces = nombrePlaces; }
+    
+    public LocalDateTime getDateReservation() { return dateReservation; }
+    public void setDateReservation(LocalDateTime dateReservation) { this.dateReservation = dateReservation; }
+    
+    public LocalDateTime getDateAnnulation() { return dateAnnulation; }
+    public void setDateAnnulation(LocalDateTime dateAnnulation) { this.dateAnnulation = dateAnnulation; }
+    
+    public UUID getVolId() { return volId; }
+    public void setVolId(UUID volId) { this.volId = volId; }
+    
+    public String getVilleDepart() { return villeDepart; }
+    public void setVilleDepart(String villeDepart) { this.villeDepart = villeDepart; }
+    
+    public String getVilleArrivee() { return villeArrivee; }
+    public void setVilleArrivee(String villeArrivee) { this.villeArrivee = villeArrivee; }
+    
+    public LocalDateTime getDateDepart() { return dateDepart; }
+    public void setDateDepart(LocalDateTime dateDepart) { this.dateDepart = dateDepart; }
+    
+    public LocalDateTime getDateArrivee() { return dateArrivee; }
+    public void setDateArrivee(LocalDateTime dateArrivee) { this.dateArrivee = dateArrivee; }
+}
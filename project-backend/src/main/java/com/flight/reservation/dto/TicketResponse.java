@@ -0,0 +1,38 @@
+package com.flight.reservation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.flight.reservation.enums.StatutTicket;
+
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TicketResponse {
+    
+    private UUID ticketId;
+    private StatutTicket statut;
+    private ReservationResponse reservation;
+    private ErrorResponse erreur;
+    
+    // Constructeurs
+    public TicketResponse() {}
+    
+    public TicketResponse(UUID ticketId, StatutTicket statut, ReservationResponse reservation, ErrorResponse erreur) {
+        this.ticketId = ticketId;
+        this.statut = statut;
+        this.reservation = reservation;
+        this.erreur = erreur;
+    }
+    
+    // Getters et Setters
+    public UUID getTicketId() { return ticketId; }
+    public void setTicketId(UUID ticketId) { this.ticketId = ticketId; }
+    
+    public StatutTicket getStatut() { return statut; }
+    public void setStatut(StatutTicket statut) { this.statut = statut; }
+    
+    public ReservationResponse getReservation() { return reservation; }
+    public void setReservation(ReservationResponse reservation) { this.reservation = reservation; }
+    
+    public ErrorResponse getErreur() { return erreur; }
+    public void setErreur(ErrorResponse erreur) { this.erreur = erreur; }
+}
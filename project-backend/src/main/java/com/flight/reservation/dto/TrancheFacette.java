@@ -0,0 +1,34 @@
+package com.flight.reservation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Une tranche de facette : [min, max[ et le nombre de vols qu'elle contient.
+ * max est absent pour la dernière tranche de temps de trajet, ouverte.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrancheFacette {
+    
+    private Integer min;
+    private Integer max;
+    private Long nombre;
+    
+    // Constructeurs
+    public TrancheFacette() {}
+    
+    public TrancheFacette(Integer min, Integer max, Long nombre) {
+        this.min = min;
+        this.max = max;
+        this.nombre = nombre;
+    }
+    
+    // Getters et Setters
+    public Integer getMin() { return min; }
+    public void setMin(Integer min) { this.min = min; }
+    
+    public Integer getMax() { return max; }
+    public void setMax(Integer max) { this.max = max; }
+    
+    public Long getNombre() { return nombre; }
+    public void setNombre(Long nombre) { this.nombre = nombre; }
+}
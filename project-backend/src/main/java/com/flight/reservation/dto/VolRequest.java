@@ -1,5 +1,8 @@
 package com.flight.reservation.dto;
 
+import com.flight.reservation.seating.SeatMap;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
@@ -15,6 +18,11 @@ public class VolRequest {
 
     @NotNull
     private LocalDate dateArrivee;
+    
+    // Heures facultatives (00:00 par défaut) ; nécessaires pour enchaîner des correspondances
+    private LocalTime heureDepart;
+    
+    private LocalTime heureArrivee;
 
     @NotNull
     private String villeDepart;
@@ -31,8 +39,14 @@ public class VolRequest {
     private Integer tempsTrajet;
 
     @Positive
+    @Max(SeatMap.MAX_SEATS)
     private Integer capaciteMaximale = 180;
 
+    // Largeur des rangs du plan des sièges
+    @Min(1)
+    @Max(SeatMap.MAX_SEATS_PER_ROW)
+    private Integer siegesParRang = 6;
+
     // Constructeurs
     public VolRequest() {}
 
@@ -54,6 +68,8 @@ public class VolRequest {
                       Integer tempsTrajet, Integer capaciteMaximale) {
         this.dateDepart = dateDepart.toLocalDate();
         this.dateArrivee = dateArrivee.toLocalDate();
+        this.heureDepart = dateDepart.toLocalTime();
+        this.heureArrivee = dateArrivee.toLocalTime();
         this.villeDepart = villeDepart;
         this.villeArrivee = villeArrivee;
         this.prix = prix;
@@ -68,6 +84,12 @@ public class VolRequest {
     public LocalDate getDateArrivee() { return dateArrivee; }
     public void setDateArrivee(LocalDate dateArrivee) { this.dateArrivee = dateArrivee; }
 
+    public LocalTime getHeureDepart() { return heureDepart; }
+    public void setHeureDepart(LocalTime heureDepart) { this.heureDepart = heureDepart; }
+    
+    public LocalTime getHeureArrivee() { return heureArrivee; }
+    public void setHeureArrivee(LocalTime heureArrivee) { this.heureArrivee = heureArrivee; }
+    
     public String getVilleDepart() { return villeDepart; }
     public void setVilleDepart(String villeDepart) { this.villeDepart = villeDepart; }
 
@@ -83,12 +105,15 @@ public class VolRequest {
     public Integer getCapaciteMaximale() { return capaciteMaximale; }
     public void setCapaciteMaximale(Integer capaciteMaximale) { this.capaciteMaximale = capaciteMaximale; }
 
-    // Utility methods (default time = 00:00)
+    public Integer getSiegesParRang() { return siegesParRang; }
+    public void setSiegesParRang(Integer siegesParRang) { this.siegesParRang = siegesParRang; }
+
+    // Utility methods (default time = 00:00 when no heure is given)
     public LocalDateTime getDateTimeDepart() {
-        return LocalDateTime.of(dateDepart, LocalTime.of(0, 0));
+        return LocalDateTime.of(dateDepart, heureDepart != null ? heureDepart : LocalTime.of(0, 0));
     }
 
     public LocalDateTime getDateTimeArrivee() {
-        return LocalDateTime.of(dateArrivee, LocalTime.of(0, 0));
+        return LocalDateTime.of(dateArrivee, heureArrivee != null ? heureArrivee : LocalTime.of(0, 0));
     }
 }
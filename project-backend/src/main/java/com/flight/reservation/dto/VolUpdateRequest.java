@@ -0,0 +1,67 @@
+package com.flight.reservation.dto;
+
+import com.flight.reservation.seating.SeatMap;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Modification partielle d'un vol : seuls les champs renseignés sont appliqués. La version est
+ * celle lue par le client ; la modification est refusée si le vol a changé depuis.
+ */
+public class VolUpdateRequest {
+
+    @NotNull
+    private UUID id;
+
+    @NotNull
+    private Long version;
+
+    @Positive
+    private BigDecimal prix;
+
+    private LocalDateTime dateDepart;
+
+    private LocalDateTime dateArrivee;
+
+    @Positive
+    private Integer tempsTrajet;
+
+    @Positive
+    @Max(SeatMap.MAX_SEATS)
+    private Integer capaciteMaximale;
+
+    // Constructeurs
+    public VolUpdateRequest() {}
+
+    public VolUpdateRequest(UUID id, Long version) {
+        this.id = id;
+        this.version = version;
+    }
+
+    // Getters et Setters
+    public UUID getId() { return id; }
+    public void setId(UUID id) { this.id = id; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public BigDecimal getPrix() { return prix; }
+    public void setPrix(BigDecimal prix) { this.prix = prix; }
+
+    public LocalDateTime getDateDepart() { return dateDepart; }
+    public void setDateDepart(LocalDateTime dateDepart) { this.dateDepart = dateDepart; }
+
+    public LocalDateTime getDateArrivee() { return dateArrivee; }
+    public void setDateArrivee(LocalDateTime dateArrivee) { this.dateArrivee = dateArrivee; }
+
+    public Integer getTempsTrajet() { return tempsTrajet; }
+    public void setTempsTrajet(Integer tempsTrajet) { this.tempsTrajet = tempsTrajet; }
+
+    public Integer getCapaciteMaximale() { return capaciteMaximale; }
+    public void setCapaciteMaximale(Integer capaciteMaximale) { this.capaciteMaximale = capaciteMaximale; }
+}
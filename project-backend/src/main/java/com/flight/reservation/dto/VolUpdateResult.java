@@ -0,0 +1,54 @@
+package com.flight.reservation.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VolUpdateResult {
+    
+    private int index;
+    private UUID volId;
+    // Nouvelle version du vol, à renvoyer pour une modification suivante
+    private Long version;
+    private BigDecimal prixCourant;
+    private Integer placesDisponibles;
+    private ErrorResponse erreur;
+    
+    // Constructeurs
+    public VolUpdateResult() {}
+    
+    public VolUpdateResult(int index, UUID volId, Long version, BigDecimal prixCourant, Integer placesDisponibles,
+                           ErrorResponse erreur) {
+        this.index = index;
+        this.volId = volId;
+        this.version = version;
+        this.prixCourant = prixCourant;
+        this.placesDisponibles = placesDisponibles;
+        this.erreur = erreur;
+    }
+    
+    public static VolUpdateResult echec(int index, UUID volId, ErrorResponse erreur) {
+        return new VolUpdateResult(index, volId, null, null, null, erreur);
+    }
+    
+    // Getters et Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public UUID getVolId() { return volId; }
+    public void setVolId(UUID volId) { this.volId = volId; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public BigDecimal getPrixCourant() { return prixCourant; }
+    public void setPrixCourant(BigDecimal prixCourant) { this.prixCourant = prixCourant; }
+    
+    public Integer getPlacesDisponibles() { return placesDisponibles; }
+    public void setPlacesDisponibles(Integer placesDisponibles) { this.placesDisponibles = placesDisponibles; }
+    
+    public ErrorResponse getErreur() { return erreur; }
+    public void setErreur(ErrorResponse erreur) { this.erreur = erreur; }
+}
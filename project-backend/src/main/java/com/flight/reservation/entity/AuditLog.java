@@ -4,7 +4,6 @@ import com.flight.reservation.enums.StatutReservation;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -12,14 +11,17 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        // Export par période
+        @Index(name = "idx_audit_logs_timestamp", columnList = "timestamp, id")
+})
 public class AuditLog {
     
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
     
-    @CreationTimestamp
+    // Heure de la tentative auditée, et non celle de l'écriture de la ligne
     @Column(name = "timestamp", nullable = false)
     private LocalDateTime timestamp;
     
@@ -50,7 +52,8 @@ public class AuditLog {
     
     public AuditLog(UUID volId, String emailPassager, Integer placesDemandees, 
                    Integer placesDisponiblesAvant, StatutReservation statut, 
-                   String messageErreur, UUID reservationId) {
+                   String messageErreur, UUID reservationId, LocalDateTime timestamp) {
+        this.timestamp = timestamp;
         this.volId = volId;
         this.emailPassager = emailPassager;
         this.placesDemandees = placesDemandees;
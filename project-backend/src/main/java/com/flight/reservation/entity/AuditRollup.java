@@ -0,0 +1,80 @@
+package com.flight.reservation.entity;
+
+import com.flight.reservation.enums.CauseEchec;
+import com.flight.reservation.enums.StatutReservation;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Cumul des tentatives de réservation d'un vol sur une minute, tenu à jour à chaque écriture d'audit.
+ * Les statistiques d'audit se calculent sur ces cumuls, jamais sur audit_logs.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "audit_rollups", indexes = {
+        @Index(name = "idx_audit_rollups_minute", columnList = "minute_debut")
+})
+public class AuditRollup {
+    
+    @EmbeddedId
+    private AuditRollupId id;
+    
+    @Column(name = "tentatives", nullable = false)
+    private long tentatives;
+    
+    @Column(name = "succes", nullable = false)
+    private long succes;
+    
+    @Column(name = "echecs_places_insuffisantes", nullable = false)
+    private long echecsPlacesInsuffisantes;
+    
+    @Column(name = "echecs_conflit", nullable = false)
+    private long echecsConflit;
+    
+    @Column(name = "echecs_vol_complet", nullable = false)
+    private long echecsVolComplet;
+    
+    @Column(name = "echecs_autres", nullable = false)
+    private long echecsAutres;
+    
+    @Column(name = "places_demandees", nullable = false)
+    private long placesDemandees;
+    
+    @Column(name = "places_reservees", nullable = false)
+    private long placesReservees;
+    
+    // Constructeurs
+    public AuditRollup() {}
+    
+    public AuditRollup(UUID volId, LocalDateTime minute) {
+        this.id = new AuditRollupId(volId, minute);
+    }
+    
+    /**
+     * Ajoute des tentatives au cumul. Une ligne d'audit agrégée (rejets "vol complet")
+     * compte pour plusieurs tentatives.
+     */
+    public void cumuler(StatutReservation statut, String messageErreur, long nombreTentatives, long places) {
+        tentatives += nombreTentatives;
+        placesDemandees += places;
+        if (statut == StatutReservation.SUCCESS) {
+            succes += nombreTentatives;
+            placesReservees += places;
+            return;
+        }
+        switch (CauseEchec.fromMessage(messageErreur)) {
+            case PLACES_INSUFFISANTES -> echecsPlacesInsuffisantes += nombreTentatives;
+            case CONFLIT -> echecsConflit += nombreTentatives;
+            case VOL_COMPLET -> echecsVolComplet += nombreTentatives;
+            default -> echecsAutres += nombreTentatives;
+        }
+    }
+    
+    // Getters et Setters
+
+}
@@ -0,0 +1,44 @@
+package com.flight.reservation.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Embeddable
+public class AuditRollupId implements Serializable {
+    
+    @Column(name = "vol_id", nullable = false)
+    private UUID volId;
+    
+    // Début de la minute couverte
+    @Column(name = "minute_debut", nullable = false)
+    private LocalDateTime minute;
+    
+    // Constructeurs
+    public AuditRollupId() {}
+    
+    public AuditRollupId(UUID volId, LocalDateTime minute) {
+        this.volId = volId;
+        this.minute = minute;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AuditRollupId that)) return false;
+        return Objects.equals(volId, that.volId) && Objects.equals(minute, that.minute);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(volId, minute);
+    }
+}
@@ -0,0 +1,95 @@
+package com.flight.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * Agrégat d'une route pour un jour de départ : tarif le plus bas parmi les vols qui ont encore
+ * des places, nombre de vols et places restantes. Tenu à jour à l'ajout de vols, au relais des
+ * réservations et aux annulations ; le calendrier des tarifs ne lit que cette table.
+ *
+ * Les places restantes sont les places disponibles des vols (Vol.getPlacesDisponibles()) : les
+ * blocages (SeatHold), qui ne passent pas par l'outbox, sont décomptés dans leur transaction.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "calendrier_tarifs")
+public class CalendrierTarif {
+    
+    @EmbeddedId
+    private CalendrierTarifId id;
+    
+    // null quand tous les vols du jour sont complets
+    @Column(name = "prix_min", precision = 10, scale = 2)
+    private BigDecimal prixMin;
+    
+    @Column(name = "nombre_vols", nullable = false)
+    private int nombreVols;
+    
+    @Column(name = "places_restantes", nullable = false)
+    private long placesRestantes;
+    
+    // Dernier événement d'outbox déjà compris dans l'agrégat, lu avec les vols lors d'un recalcul :
+    // le relais ne décompte pas une seconde fois les réservations jusqu'à cet identifiant
+    @Column(name = "dernier_evenement_outbox")
+    private Long dernierEvenementOutbox;
+    
+    // null tant que la ligne n'est pas enregistrée : save() fait alors un persist, sans relecture
+    @Version
+    @Column(name = "version")
+    private Long version;
+    
+    // Constructeurs
+    public CalendrierTarif() {}
+    
+    public CalendrierTarif(CalendrierTarifId id) {
+        this.id = id;
+    }
+    
+    // Méthodes métier
+    public void ajouterVol(BigDecimal prix, int placesRestantesVol) {
+        nombreVols++;
+        placesRestantes += placesRestantesVol;
+        if (placesRestantesVol > 0) {
+            proposerPrix(prix);
+        }
+    }
+    
+    /**
+     * Remet l'agrégat à zéro avant de le recalculer à partir des vols du jour.
+     */
+    public void reinitialiser() {
+        prixMin = null;
+        nombreVols = 0;
+        placesRestantes = 0;
+    }
+    
+    /**
+     * Vrai si la réservation relayée était déjà écrite quand l'agrégat a été recalculé depuis les vols.
+     */
+    public boolean dejaCompte(Long outboxId) {
+        return outboxId != null && dernierEvenementOutbox != null && outboxId <= dernierEvenementOutbox;
+    }
+    
+    public void reserver(int places) {
+        placesRestantes = Math.max(0, placesRestantes - places);
+    }
+    
+    /**
+     * Places rendues par un vol : il a de nouveau des places, son prix redevient un candidat.
+     */
+    public void liberer(int places, BigDecimal prix) {
+        placesRestantes += places;
+        proposerPrix(prix);
+    }
+    
+    private void proposerPrix(BigDecimal prix) {
+        if (prixMin == null || prix.compareTo(prixMin) < 0) {
+            prixMin = prix;
+        }
+    }
+}
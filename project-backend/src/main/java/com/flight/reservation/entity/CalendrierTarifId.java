@@ -0,0 +1,57 @@
+package com.flight.reservation.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Objects;
+
+@Getter
+@Setter
+@Embeddable
+public class CalendrierTarifId implements Serializable {
+    
+    // Villes normalisées (minuscules, sans espaces autour) : cle(ville)
+    @Column(name = "ville_depart", nullable = false, length = 100)
+    private String villeDepart;
+    
+    @Column(name = "ville_arrivee", nullable = false, length = 100)
+    private String villeArrivee;
+    
+    @Column(name = "jour", nullable = false)
+    private LocalDate jour;
+    
+    // Constructeurs
+    public CalendrierTarifId() {}
+    
+    public CalendrierTarifId(String villeDepart, String villeArrivee, LocalDate jour) {
+        this.villeDepart = cle(villeDepart);
+        this.villeArrivee = cle(villeArrivee);
+        this.jour = jour;
+    }
+    
+    public static CalendrierTarifId of(Vol vol) {
+        return new CalendrierTarifId(vol.getVilleDepart(), vol.getVilleArrivee(), vol.getDateDepart().toLocalDate());
+    }
+    
+    public static String cle(String ville) {
+        return ville.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CalendrierTarifId that)) return false;
+        return Objects.equals(villeDepart, that.villeDepart) && Objects.equals(villeArrivee, that.villeArrivee)
+                && Objects.equals(jour, that.jour);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(villeDepart, villeArrivee, jour);
+    }
+}
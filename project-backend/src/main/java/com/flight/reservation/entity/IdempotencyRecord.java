@@ -0,0 +1,47 @@
+package com.flight.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(name = "cle", length = 255)
+    private String cle;
+    
+    // Empreinte de la requête d'origine : une même clé ne peut pas servir pour une autre requête
+    @Column(name = "empreinte", nullable = false, length = 300)
+    private String empreinte;
+    
+    @Column(name = "statut_http", nullable = false)
+    private Integer statutHttp;
+    
+    @Column(name = "corps", nullable = false, length = 4000)
+    private String corps;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    // Constructeurs
+    public IdempotencyRecord() {}
+    
+    public IdempotencyRecord(String cle, String empreinte, Integer statutHttp, String corps,
+                             LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.cle = cle;
+        this.empreinte = empreinte;
+        this.statutHttp = statutHttp;
+        this.corps = corps;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,71 @@
+package com.flight.reservation.entity;
+
+import com.flight.reservation.enums.StatutAttente;
+import jakarta.persistence.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Demande en liste d'attente sur un vol complet, promue en réservation quand des places se libèrent.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "liste_attente", indexes = {
+        // Promotion : inscriptions en attente d'un vol, par ordre d'arrivée
+        @Index(name = "idx_liste_attente_vol_statut_date", columnList = "vol_id, statut, date_inscription")
+})
+public class InscriptionAttente {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "vol_id", nullable = false)
+    @NotNull
+    private Vol vol;
+    
+    @Embedded
+    @Valid
+    @NotNull
+    private Passager passager;
+    
+    @NotNull
+    @Positive
+    @Column(name = "nombre_places", nullable = false)
+    private Integer nombrePlaces;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", nullable = false, length = 20)
+    private StatutAttente statut = StatutAttente.EN_ATTENTE;
+    
+    @NotNull
+    @Column(name = "date_inscription", nullable = false, updatable = false)
+    private LocalDateTime dateInscription;
+    
+    @Column(name = "reservation_id")
+    private UUID reservationId;
+    
+    @Column(name = "date_promotion")
+    private LocalDateTime datePromotion;
+    
+    // Constructeurs
+    public InscriptionAttente() {}
+    
+    public InscriptionAttente(Vol vol, Passager passager, Integer nombrePlaces) {
+        this.vol = vol;
+        this.passager = passager;
+        this.nombrePlaces = nombrePlaces;
+        // Fixée dès la création, à la précision de la base : elle sert aussi à calculer la position
+        this.dateInscription = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -0,0 +1,77 @@
+package com.flight.reservation.entity;
+
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.event.ReservationEvent;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Événement de réservation en attente de diffusion (outbox transactionnelle).
+ * L'identifiant croissant donne l'ordre de relais.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+    
+    // Clé auto-incrémentée de SQLite, déclarée integer (et non bigint) : la validation du schéma
+    // (ddl-auto validate) compare ce type déclaré à celui de la table
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(columnDefinition = "integer")
+    private Long id;
+    
+    @Column(name = "vol_id", nullable = false)
+    private UUID volId;
+    
+    @Column(name = "email_passager", nullable = false, length = 100)
+    private String emailPassager;
+    
+    @Column(name = "places_demandees", nullable = false)
+    private Integer placesDemandees;
+    
+    @Column(name = "places_disponibles_avant")
+    private Integer placesDisponiblesAvant;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", nullable = false)
+    private StatutReservation statut;
+    
+    @Column(name = "message_erreur", length = 500)
+    private String messageErreur;
+    
+    @Column(name = "reservation_id")
+    private UUID reservationId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructeurs
+    public OutboxEvent() {}
+    
+    public OutboxEvent(ReservationEvent event) {
+        this.volId = event.getVolId();
+        this.emailPassager = event.getEmailPassager();
+        this.placesDemandees = event.getPlacesDemandees();
+        this.placesDisponiblesAvant = event.getPlacesDisponiblesAvant();
+        this.statut = event.getStatut();
+        this.messageErreur = event.getMessageErreur() != null && event.getMessageErreur().length() > 500
+                ? event.getMessageErreur().substring(0, 500)
+                : event.getMessageErreur();
+        this.reservationId = event.getReservationId();
+        this.createdAt = event.getHorodatage();
+    }
+    
+    public ReservationEvent toEvent(Object source) {
+        return new ReservationEvent(source, volId, emailPassager, placesDemandees, placesDisponiblesAvant,
+                statut, messageErreur, reservationId, createdAt, id);
+    }
+    
+    // Getters et Setters
+
+}
@@ -9,12 +9,21 @@ import lombok.Getter;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        // Réservations d'un passager, les plus récentes d'abord (pagination par curseur)
+        @Index(name = "idx_reservations_email_created_at", columnList = "email, created_at, id"),
+        // Places réservées par vol (réconciliation de l'inventaire)
+        @Index(name = "idx_reservations_vol_id", columnList = "vol_id"),
+        // Export par période de création
+        @Index(name = "idx_reservations_created_at", columnList = "created_at, id")
+})
 public class Reservation {
     
     @Id
@@ -41,6 +50,18 @@ public class Reservation {
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
+    // Sièges attribués, ex. "12A,12B" ; null pour les réservations antérieures au plan des sièges
+    @Column(name = "sieges", length = 4250)
+    private String sieges;
+    
+    // Tarif courant du vol au moment de la réservation, par place ; null pour les réservations antérieures
+    @Column(name = "prix_unitaire", precision = 10, scale = 2)
+    private BigDecimal prixUnitaire;
+    
+    // Renseignée à l'annulation ; les places sont alors rendues au vol
+    @Column(name = "date_annulation")
+    private LocalDateTime dateAnnulation;
+    
     // Constructeurs
     public Reservation() {}
     
@@ -48,6 +69,15 @@ public class Reservation {
         this.vol = vol;
         this.passager = passager;
         this.nombrePlaces = nombrePlaces;
+        this.prixUnitaire = vol.getPrixCourant();
+    }
+    
+    public List<String> getListeSieges() {
+        return sieges == null ? List.of() : List.of(sieges.split(","));
+    }
+    
+    public void setListeSieges(List<String> listeSieges) {
+        this.sieges = String.join(",", listeSieges);
     }
     
     // Getters et Setters
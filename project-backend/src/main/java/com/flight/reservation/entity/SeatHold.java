@@ -0,0 +1,70 @@
+package com.flight.reservation.entity;
+
+import com.flight.reservation.enums.StatutHold;
+import jakarta.persistence.*;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Places bloquées sur un vol pendant le paiement, en attente de confirmation.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "seat_holds", indexes = {
+        @Index(name = "idx_seat_holds_statut_expiration", columnList = "statut, expires_at")
+})
+public class SeatHold {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "vol_id", nullable = false)
+    @NotNull
+    private Vol vol;
+    
+    @Embedded
+    @Valid
+    @NotNull
+    private Passager passager;
+    
+    @NotNull
+    @Positive
+    @Column(name = "nombre_places", nullable = false)
+    private Integer nombrePlaces;
+    
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "statut", nullable = false, length = 20)
+    private StatutHold statut = StatutHold.ACTIVE;
+    
+    @NotNull
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "reservation_id")
+    private UUID reservationId;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructeurs
+    public SeatHold() {}
+    
+    public SeatHold(Vol vol, Passager passager, Integer nombrePlaces, LocalDateTime expiresAt) {
+        this.vol = vol;
+        this.passager = passager;
+        this.nombrePlaces = nombrePlaces;
+        this.expiresAt = expiresAt;
+    }
+}
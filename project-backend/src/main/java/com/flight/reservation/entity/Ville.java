@@ -0,0 +1,45 @@
+package com.flight.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Dictionnaire des villes : les vols ne stockent que l'identifiant (ville_depart_id,
+ * ville_arrivee_id). Le nom canonique est celui de la première saisie ; les alias ("CDG",
+ * "Paris-CDG"...) mènent au même identifiant. Les identifiants sont attribués par VilleDictionary.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "villes")
+public class Ville {
+    
+    @Id
+    private Integer id;
+    
+    @Column(name = "nom", nullable = false, length = 100)
+    private String nom;
+    
+    // Nom normalisé (VilleDictionary.cle) : unicité insensible à la casse
+    @Column(name = "cle", nullable = false, unique = true, length = 100)
+    private String cle;
+    
+    // Alias normalisés
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "villes_alias", joinColumns = @JoinColumn(name = "ville_id"))
+    @Column(name = "alias", nullable = false, unique = true, length = 100)
+    private Set<String> alias = new HashSet<>();
+    
+    // Constructeurs
+    public Ville() {}
+    
+    public Ville(Integer id, String nom, String cle) {
+        this.id = id;
+        this.nom = nom;
+        this.cle = cle;
+    }
+}
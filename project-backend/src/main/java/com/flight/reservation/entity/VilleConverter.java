@@ -0,0 +1,33 @@
+package com.flight.reservation.entity;
+
+import com.flight.reservation.service.VilleDictionary;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Nom de ville côté entité, identifiant du dictionnaire côté base. Les requêtes qui comparent
+ * une ville à un paramètre comparent donc des entiers.
+ *
+ * Instancié par Hibernate à travers le conteneur de beans de Spring, pendant la construction de
+ * l'EntityManagerFactory : le dictionnaire, qui en dépend, n'est résolu qu'à la première conversion.
+ */
+@Converter
+public class VilleConverter implements AttributeConverter<String, Integer> {
+
+    private final ObjectProvider<VilleDictionary> dictionnaire;
+
+    public VilleConverter(ObjectProvider<VilleDictionary> dictionnaire) {
+        this.dictionnaire = dictionnaire;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String ville) {
+        return ville == null ? null : dictionnaire.getObject().enregistrer(ville);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : dictionnaire.getObject().nom(id);
+    }
+}
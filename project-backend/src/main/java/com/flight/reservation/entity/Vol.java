@@ -1,10 +1,14 @@
 package com.flight.reservation.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.flight.reservation.seating.SeatMap;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,7 +20,16 @@ import java.util.UUID;
 @Getter
 @Setter
 @Entity
-@Table(name = "vols")
+@Table(name = "vols", indexes = {
+        // Recherche par jour ou par fenêtre de jours (flexDays)
+        @Index(name = "idx_vols_date_depart", columnList = "date_depart"),
+        // Recherche par route exacte : égalité sur les identifiants de ville
+        @Index(name = "idx_vols_route_date_depart", columnList = "ville_depart_id, ville_arrivee_id, date_depart"),
+        // Tri par tarif courant (tri=prix)
+        @Index(name = "idx_vols_prix_courant", columnList = "prix_courant"),
+        // Vols dont le palier d'échéance est dépassé (révision périodique des tarifs)
+        @Index(name = "idx_vols_prochaine_revision_tarif", columnList = "prochaine_revision_tarif")
+})
 public class Vol {
     
     @Id
@@ -31,12 +44,16 @@ public class Vol {
     @Column(name = "date_arrivee", nullable = false)
     private LocalDateTime dateArrivee;
     
+    // Identifiants du dictionnaire des villes (villes) ; colonnes nullables pour pouvoir être
+    // ajoutées aux bases existantes, remplies par VilleMigration
     @NotNull
-    @Column(name = "ville_depart", nullable = false, length = 100)
+    @Convert(converter = VilleConverter.class)
+    @Column(name = "ville_depart_id")
     private String villeDepart;
     
     @NotNull
-    @Column(name = "ville_arrivee", nullable = false, length = 100)
+    @Convert(converter = VilleConverter.class)
+    @Column(name = "ville_arrivee_id")
     private String villeArrivee;
     
     @NotNull
@@ -44,6 +61,20 @@ public class Vol {
     @Column(name = "prix", nullable = false, precision = 10, scale = 2)
     private BigDecimal prix;
     
+    // Tarif appliqué aujourd'hui (PricingEngine) ; null pour un vol pas encore tarifé
+    @Column(name = "prix_courant", precision = 10, scale = 2)
+    private BigDecimal prixCourant;
+    
+    // Paliers de remplissage et d'échéance du tarif courant (PricingEngine.palier)
+    @JsonIgnore
+    @Column(name = "palier_tarifaire")
+    private Integer palierTarifaire;
+    
+    // Fin du palier d'échéance courant ; null pour le dernier palier
+    @JsonIgnore
+    @Column(name = "prochaine_revision_tarif")
+    private LocalDateTime prochaineRevisionTarif;
+    
     @NotNull
     @Positive
     @Column(name = "temps_trajet", nullable = false)
@@ -58,6 +89,30 @@ public class Vol {
     @Column(name = "places_reservees", nullable = false)
     private Integer placesReservees = 0;
     
+    // Places bloquées par des SeatHold actifs, pas encore confirmées
+    @NotNull
+    @ColumnDefault("0")
+    @Column(name = "places_bloquees", nullable = false)
+    private Integer placesBloquees = 0;
+    
+    @NotNull
+    @ColumnDefault("6")
+    @Column(name = "sieges_par_rang", nullable = false)
+    private Integer siegesParRang = 6;
+    
+    // Plan des sièges attribués (SeatMap.toBytes) ; null tant qu'aucun siège n'a été attribué
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @Column(name = "plan_sieges", length = 1024)
+    private byte[] planSieges;
+    
+    @JsonIgnore
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private SeatMap seatMap;
+    
     @Version
     @Column(name = "version")
     private Long version = 0L;
@@ -83,24 +138,178 @@ public class Vol {
         this.villeDepart = villeDepart;
         this.villeArrivee = villeArrivee;
         this.prix = prix;
+        this.prixCourant = prix;
         this.tempsTrajet = tempsTrajet;
         this.capaciteMaximale = capaciteMaximale != null ? capaciteMaximale : 180;
     }
     
     // Méthodes métier
     public Integer getPlacesDisponibles() {
-        return capaciteMaximale - placesReservees;
+        return capaciteMaximale - placesReservees - placesBloquees;
     }
     
     public boolean hasAvailableSeats(Integer nombrePlaces) {
         return getPlacesDisponibles() >= nombrePlaces;
     }
     
-    public void reservePlaces(Integer nombrePlaces) {
+    /**
+     * Réserve des places et leur attribue des sièges : côte à côte dans un même rang si possible,
+     * sinon les premiers sièges libres. Renvoie les sièges attribués.
+     */
+    public int[] reservePlaces(Integer nombrePlaces) {
         if (!hasAvailableSeats(nombrePlaces)) {
             throw new IllegalStateException("Pas assez de places disponibles");
         }
+        int[] sieges = attribuerSieges(nombrePlaces);
         this.placesReservees += nombrePlaces;
+        return sieges;
+    }
+    
+    /**
+     * Réserve les sièges demandés. Renvoie false, sans rien modifier, si l'un d'eux est déjà pris.
+     */
+    public boolean reserveSieges(int[] sieges) {
+        if (!hasAvailableSeats(sieges.length)) {
+            throw new IllegalStateException("Pas assez de places disponibles");
+        }
+        SeatMap plan = getSeatMap();
+        if (!plan.reserveAll(sieges)) {
+            return false;
+        }
+        this.planSieges = plan.toBytes();
+        this.placesReservees += sieges.length;
+        return true;
+    }
+    
+    public void bloquerPlaces(Integer nombrePlaces) {
+        if (!hasAvailableSeats(nombrePlaces)) {
+            throw new IllegalStateException("Pas assez de places disponibles");
+        }
+        this.placesBloquees += nombrePlaces;
+    }
+    
+    public void libererPlacesBloquees(Integer nombrePlaces) {
+        this.placesBloquees = Math.max(0, this.placesBloquees - nombrePlaces);
+    }
+    
+    public int[] confirmerPlacesBloquees(Integer nombrePlaces) {
+        libererPlacesBloquees(nombrePlaces);
+        int[] sieges = attribuerSieges(nombrePlaces);
+        this.placesReservees += nombrePlaces;
+        return sieges;
+    }
+    
+    /**
+     * Rend des places au vol. Sans sièges connus (réservation antérieure au plan), ce sont
+     * les derniers sièges occupés qui sont libérés, pour garder le plan aligné sur placesReservees.
+     */
+    public void libererPlaces(Integer nombrePlaces, int[] sieges) {
+        SeatMap plan = getSeatMap();
+        if (sieges != null) {
+            for (int siege : sieges) {
+                plan.release(siege);
+            }
+        } else {
+            int siege = plan.capacity();
+            for (int i = 0; i < nombrePlaces; i++) {
+                siege = plan.previousOccupied(siege);
+                if (siege < 0) {
+                    break;
+                }
+                plan.release(siege);
+            }
+        }
+        this.planSieges = plan.toBytes();
+        this.placesReservees = Math.max(0, this.placesReservees - nombrePlaces);
+    }
+    
+    /**
+     * Remet placesReservees et le plan des sièges en accord avec les réservations actives
+     * (réconciliation de l'inventaire) : les sièges connus sont occupés, puis les premiers sièges
+     * libres pour les places des réservations sans sièges.
+     */
+    public void reconstruirePlaces(int placesReservees, List<int[]> siegesConnus) {
+        SeatMap plan = new SeatMap(capaciteMaximale, siegesParRang);
+        int occupes = 0;
+        for (int[] sieges : siegesConnus) {
+            for (int siege : sieges) {
+                if (plan.isFree(siege)) {
+                    plan.reserve(siege);
+                    occupes++;
+                }
+            }
+        }
+        int siege = -1;
+        for (int i = occupes; i < Math.min(placesReservees, capaciteMaximale); i++) {
+            siege = plan.nextFree(siege + 1);
+            plan.reserve(siege);
+        }
+        this.seatMap = plan;
+        this.planSieges = plan.toBytes();
+        this.placesReservees = placesReservees;
+    }
+    
+    /**
+     * Une nouvelle capacité doit garder les places réservées et bloquées, et tous les sièges
+     * déjà attribués : aucun passager n'est déplacé.
+     */
+    public boolean peutChangerCapacite(int capacite) {
+        return capacite >= placesReservees + placesBloquees
+                && getSeatMap().previousOccupied(getSeatMap().capacity()) < capacite;
+    }
+    
+    /**
+     * Change la capacité du vol ; le plan des sièges est agrandi ou réduit en gardant les sièges attribués.
+     */
+    public void changerCapacite(int capacite) {
+        if (!peutChangerCapacite(capacite)) {
+            throw new IllegalStateException("Capacité inférieure aux places occupées");
+        }
+        SeatMap plan = SeatMap.fromBytes(getSeatMap().toBytes(), capacite, siegesParRang);
+        this.seatMap = plan;
+        this.planSieges = plan.toBytes();
+        this.capaciteMaximale = capacite;
+    }
+    
+    /**
+     * Plan des sièges du vol. Un vol sans plan (créé avant les plans de sièges) en reçoit un
+     * dont les placesReservees premiers sièges sont occupés.
+     */
+    public SeatMap getSeatMap() {
+        if (seatMap == null) {
+            if (planSieges != null) {
+                seatMap = SeatMap.fromBytes(planSieges, capaciteMaximale, siegesParRang);
+            } else {
+                seatMap = new SeatMap(capaciteMaximale, siegesParRang);
+                seatMap.reserveRange(0, Math.min(placesReservees, capaciteMaximale));
+            }
+        }
+        return seatMap;
+    }
+    
+    private int[] attribuerSieges(int nombrePlaces) {
+        SeatMap plan = getSeatMap();
+        int[] sieges = new int[nombrePlaces];
+        int debut = plan.findContiguous(nombrePlaces);
+        if (debut >= 0) {
+            for (int i = 0; i < nombrePlaces; i++) {
+                sieges[i] = debut + i;
+            }
+        } else {
+            int siege = -1;
+            for (int i = 0; i < nombrePlaces; i++) {
+                siege = plan.nextFree(siege + 1);
+                if (siege < 0) {
+                    throw new IllegalStateException("Plan des sièges incohérent avec les places réservées");
+                }
+                sieges[i] = siege;
+            }
+        }
+        for (int siege : sieges) {
+            plan.reserve(siege);
+        }
+        this.planSieges = plan.toBytes();
+        return sieges;
     }
     
     // Getters et Setters
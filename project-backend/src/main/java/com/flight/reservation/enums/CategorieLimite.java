@@ -0,0 +1,7 @@
+package com.flight.reservation.enums;
+
+public enum CategorieLimite {
+    SEARCH,
+    AVAILABILITY,
+    BOOKING
+}
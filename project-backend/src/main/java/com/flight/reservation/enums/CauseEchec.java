@@ -0,0 +1,27 @@
+package com.flight.reservation.enums;
+
+public enum CauseEchec {
+    PLACES_INSUFFISANTES,
+    CONFLIT,
+    VOL_COMPLET,
+    AUTRE;
+
+    /**
+     * Cause d'un échec d'après le message d'erreur de l'audit.
+     */
+    public static CauseEchec fromMessage(String messageErreur) {
+        if (messageErreur == null) {
+            return AUTRE;
+        }
+        if (messageErreur.startsWith("Places insuffisantes")) {
+            return PLACES_INSUFFISANTES;
+        }
+        if (messageErreur.startsWith("Conflit")) {
+            return CONFLIT;
+        }
+        if (messageErreur.startsWith("Vol complet")) {
+            return VOL_COMPLET;
+        }
+        return AUTRE;
+    }
+}
@@ -0,0 +1,6 @@
+package com.flight.reservation.enums;
+
+public enum ModeBatch {
+    ALL_OR_NOTHING,
+    BEST_EFFORT
+}
@@ -0,0 +1,7 @@
+package com.flight.reservation.enums;
+
+public enum StatutTicket {
+    EN_ATTENTE,
+    CONFIRME,
+    ECHEC
+}
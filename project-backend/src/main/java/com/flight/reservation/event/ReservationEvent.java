@@ -3,6 +3,7 @@ package com.flight.reservation.event;
 import com.flight.reservation.enums.StatutReservation;
 import org.springframework.context.ApplicationEvent;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 public class ReservationEvent extends ApplicationEvent {
@@ -14,10 +15,30 @@ public class ReservationEvent extends ApplicationEvent {
     private final StatutReservation statut;
     private final String messageErreur;
     private final UUID reservationId;
+    // Heure de la tentative, et non celle du relais de l'outbox
+    private final LocalDateTime horodatage;
+    // Identifiant de la ligne d'outbox relayée ; null hors du relais
+    private final Long outboxId;
     
     public ReservationEvent(Object source, UUID volId, String emailPassager, 
                            Integer placesDemandees, Integer placesDisponiblesAvant, 
                            StatutReservation statut, String messageErreur, UUID reservationId) {
+        this(source, volId, emailPassager, placesDemandees, placesDisponiblesAvant, statut, messageErreur, reservationId,
+                LocalDateTime.now());
+    }
+    
+    public ReservationEvent(Object source, UUID volId, String emailPassager, 
+                           Integer placesDemandees, Integer placesDisponiblesAvant, 
+                           StatutReservation statut, String messageErreur, UUID reservationId,
+                           LocalDateTime horodatage) {
+        this(source, volId, emailPassager, placesDemandees, placesDisponiblesAvant, statut, messageErreur, reservationId,
+                horodatage, null);
+    }
+    
+    public ReservationEvent(Object source, UUID volId, String emailPassager, 
+                           Integer placesDemandees, Integer placesDisponiblesAvant, 
+                           StatutReservation statut, String messageErreur, UUID reservationId,
+                           LocalDateTime horodatage, Long outboxId) {
         super(source);
         this.volId = volId;
         this.emailPassager = emailPassager;
@@ -26,6 +47,8 @@ public class ReservationEvent extends ApplicationEvent {
         this.statut = statut;
         this.messageErreur = messageErreur;
         this.reservationId = reservationId;
+        this.horodatage = horodatage;
+        this.outboxId = outboxId;
     }
     
     // Getters
@@ -36,4 +59,6 @@ public class ReservationEvent extends ApplicationEvent {
     public StatutReservation getStatut() { return statut; }
     public String getMessageErreur() { return messageErreur; }
     public UUID getReservationId() { return reservationId; }
+    public LocalDateTime getHorodatage() { return horodatage; }
+    public Long getOutboxId() { return outboxId; }
 }
\ No newline at end of file
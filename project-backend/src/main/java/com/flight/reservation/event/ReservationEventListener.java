@@ -0,0 +1,14 @@
+package com.flight.reservation.event;
+
+import java.util.List;
+
+/**
+ * Destinataire des événements de réservation relayés depuis l'outbox.
+ *
+ * Appelé dans la transaction du relais, lot par lot et dans l'ordre d'écriture : ce qu'un destinataire
+ * écrit en base est validé en même temps que la suppression des lignes d'outbox correspondantes.
+ */
+public interface ReservationEventListener {
+    
+    void onReservationEvents(List<ReservationEvent> events);
+}
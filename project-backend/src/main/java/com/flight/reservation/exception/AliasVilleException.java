@@ -0,0 +1,8 @@
+package com.flight.reservation.exception;
+
+public class AliasVilleException extends RuntimeException {
+    
+    public AliasVilleException(String alias, String ville) {
+        super("L'alias " + alias + " désigne déjà la ville " + ville);
+    }
+}
@@ -0,0 +1,8 @@
+package com.flight.reservation.exception;
+
+public class CurseurInvalideException extends RuntimeException {
+    
+    public CurseurInvalideException(String curseur) {
+        super("Curseur de pagination invalide: " + curseur);
+    }
+}
@@ -0,0 +1,92 @@
+package com.flight.reservation.exception;
+
+import com.flight.reservation.dto.ErrorResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Correspondance entre les exceptions et les erreurs de l'API : statut HTTP, code et message.
+ *
+ * Partagée par GlobalExceptionHandler et par les réservations asynchrones : le ticket d'une
+ * réservation en échec porte la même erreur que la réponse du POST synchrone.
+ */
+public final class ErrorResponses {
+
+    private ErrorResponses() {}
+
+    /**
+     * Erreur de l'API pour cette exception ; INTERNAL_ERROR (500) pour une exception non prévue.
+     */
+    public static ApiError of(Throwable ex) {
+        if (ex instanceof PlacesInsuffisantesException e) {
+            return new ApiError(HttpStatus.BAD_REQUEST, new ErrorResponse("INSUFFICIENT_SEATS", e.getMessage(),
+                    String.format("Places disponibles: %d, Places demandées: %d", e.getPlacesDisponibles(), e.getPlacesDemandees())));
+        }
+        if (ex instanceof VolCompletException) {
+            return new ApiError(HttpStatus.BAD_REQUEST, new ErrorResponse("INSUFFICIENT_SEATS", "Vol complet", "Places disponibles: 0"));
+        }
+        if (ex instanceof SiegesIndisponiblesException) {
+            return erreur(HttpStatus.CONFLICT, "SEATS_UNAVAILABLE", ex);
+        }
+        if (ex instanceof SiegesInvalidesException) {
+            return erreur(HttpStatus.BAD_REQUEST, "INVALID_SEATS", ex);
+        }
+        if (ex instanceof ReservationConflictException) {
+            return erreur(HttpStatus.CONFLICT, "RESERVATION_CONFLICT", ex);
+        }
+        if (ex instanceof OptimisticLockingFailureException) {
+            return new ApiError(HttpStatus.CONFLICT, new ErrorResponse("CONCURRENCY_CONFLICT",
+                    "La réservation a été modifiée par une autre transaction. Veuillez réessayer."));
+        }
+        if (ex instanceof IdempotencyKeyReuseException) {
+            return erreur(HttpStatus.UNPROCESSABLE_ENTITY, "IDEMPOTENCY_KEY_REUSED", ex);
+        }
+        if (ex instanceof VolNotFoundException) {
+            return erreur(HttpStatus.NOT_FOUND, "VOL_NOT_FOUND", ex);
+        }
+        if (ex instanceof HoldNotFoundException) {
+            return erreur(HttpStatus.NOT_FOUND, "HOLD_NOT_FOUND", ex);
+        }
+        if (ex instanceof HoldExpireException) {
+            return erreur(HttpStatus.GONE, "HOLD_EXPIRED", ex);
+        }
+        if (ex instanceof ReservationNotFoundException) {
+            return erreur(HttpStatus.NOT_FOUND, "RESERVATION_NOT_FOUND", ex);
+        }
+        if (ex instanceof InscriptionAttenteNotFoundException) {
+            return erreur(HttpStatus.NOT_FOUND, "WAITLIST_ENTRY_NOT_FOUND", ex);
+        }
+        if (ex instanceof TicketNotFoundException) {
+            return erreur(HttpStatus.NOT_FOUND, "TICKET_NOT_FOUND", ex);
+        }
+        if (ex instanceof VilleNotFoundException) {
+            return erreur(HttpStatus.NOT_FOUND, "CITY_NOT_FOUND", ex);
+        }
+        if (ex instanceof AliasVilleException) {
+            return erreur(HttpStatus.CONFLICT, "CITY_ALIAS_CONFLICT", ex);
+        }
+        if (ex instanceof PeriodeInvalideException) {
+            return erreur(HttpStatus.BAD_REQUEST, "INVALID_PERIOD", ex);
+        }
+        if (ex instanceof CurseurInvalideException) {
+            return erreur(HttpStatus.BAD_REQUEST, "INVALID_CURSOR", ex);
+        }
+        return new ApiError(HttpStatus.INTERNAL_SERVER_ERROR, new ErrorResponse("INTERNAL_ERROR", "Une erreur inattendue s'est produite"));
+    }
+
+    private static ApiError erreur(HttpStatus status, String code, Throwable ex) {
+        return new ApiError(status, new ErrorResponse(code, ex.getMessage()));
+    }
+
+    public record ApiError(HttpStatus status, ErrorResponse body) {
+
+        public boolean isInterne() {
+            return status.is5xxServerError();
+        }
+
+        public ResponseEntity<ErrorResponse> toResponseEntity() {
+            return new ResponseEntity<>(body, status);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.flight.reservation.exception;
+
+public class ExportsSaturesException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public ExportsSaturesException(long retryAfterSeconds) {
+        super("Trop d'exports en cours, réessayez plus tard");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
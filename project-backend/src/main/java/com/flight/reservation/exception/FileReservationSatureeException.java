@@ -0,0 +1,13 @@
+package com.flight.reservation.exception;
+
+public class FileReservationSatureeException extends RuntimeException {
+    
+    private final long retryAfterSeconds;
+    
+    public FileReservationSatureeException(long retryAfterSeconds) {
+        super("File de réservations saturée, réessayez plus tard");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+    
+    public long getRetryAfterSeconds() { return retryAfterSeconds; }
+}
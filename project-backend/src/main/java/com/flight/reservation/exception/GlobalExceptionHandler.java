@@ -1,9 +1,13 @@
 package com.flight.reservation.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.flight.reservation.config.PayloadFormats;
 import com.flight.reservation.dto.ErrorResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindingResult;
@@ -12,41 +16,72 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 import jakarta.validation.ConstraintViolationException;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
-    @ExceptionHandler(VolNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleVolNotFound(VolNotFoundException ex, WebRequest request) {
-        logger.error("Vol non trouvé: {}", ex.getMessage());
-        ErrorResponse errorResponse = new ErrorResponse(
-                "VOL_NOT_FOUND",
-                ex.getMessage()
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    private final PayloadFormats payloadFormats;
+
+    // Corps de la réponse "vol complet" par format, resérialisé au plus une fois par seconde pour l'horodatage
+    private final Map<MediaType, PreSerializedBody> volCompletBodies = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(PayloadFormats payloadFormats) {
+        this.payloadFormats = payloadFormats;
     }
 
-    @ExceptionHandler(PlacesInsuffisantesException.class)
-    public ResponseEntity<ErrorResponse> handlePlacesInsuffisantes(PlacesInsuffisantesException ex, WebRequest request) {
-        logger.error("Places insuffisantes: {}", ex.getMessage());
+    /**
+     * Erreurs métier : statut, code et message viennent de ErrorResponses, comme pour les tickets
+     * des réservations asynchrones.
+     */
+    @ExceptionHandler({VolNotFoundException.class, PlacesInsuffisantesException.class, SiegesIndisponiblesException.class,
+            SiegesInvalidesException.class, ReservationConflictException.class, HoldNotFoundException.class,
+            HoldExpireException.class, ReservationNotFoundException.class, InscriptionAttenteNotFoundException.class,
+            TicketNotFoundException.class, VilleNotFoundException.class, AliasVilleException.class,
+            PeriodeInvalideException.class, CurseurInvalideException.class, IdempotencyKeyReuseException.class,
+            ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<ErrorResponse> handleMetier(Exception ex, WebRequest request) {
+        ErrorResponses.ApiError erreur = ErrorResponses.of(ex);
+        logger.warn("{}: {}", erreur.body().getCode(), ex.getMessage());
+        return erreur.toResponseEntity();
+    }
+
+    @ExceptionHandler(VolCompletException.class)
+    public ResponseEntity<byte[]> handleVolComplet(VolCompletException ex, WebRequest request) {
+        // JSON quand l'en-tête Accept ne retient aucun des formats
+        MediaType format = Objects.requireNonNullElse(payloadFormats.negotiate(request.getHeader(HttpHeaders.ACCEPT)),
+                MediaType.APPLICATION_JSON);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(format);
+        return new ResponseEntity<>(volCompletBody(format), headers, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(FileReservationSatureeException.class)
+    public ResponseEntity<ErrorResponse> handleFileSaturee(FileReservationSatureeException ex, WebRequest request) {
         ErrorResponse errorResponse = new ErrorResponse(
-                "INSUFFICIENT_SEATS",
-                ex.getMessage(),
-                String.format("Places disponibles: %d, Places demandées: %d", ex.getPlacesDisponibles(), ex.getPlacesDemandees())
+                "QUEUE_FULL",
+                ex.getMessage()
         );
-        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<>(errorResponse, headers, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
-    @ExceptionHandler(ReservationConflictException.class)
-    public ResponseEntity<ErrorResponse> handleReservationConflict(ReservationConflictException ex, WebRequest request) {
-        logger.error("Conflit lors de la réservation: {}", ex.getMessage());
+    @ExceptionHandler(ExportsSaturesException.class)
+    public ResponseEntity<ErrorResponse> handleExportsSatures(ExportsSaturesException ex, WebRequest request) {
         ErrorResponse errorResponse = new ErrorResponse(
-                "RESERVATION_CONFLICT",
+                "EXPORTS_BUSY",
                 ex.getMessage()
         );
-        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()));
+        return new ResponseEntity<>(errorResponse, headers, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
@@ -76,23 +111,28 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
-    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
-    public ResponseEntity<ErrorResponse> handleOptimisticLocking(ObjectOptimisticLockingFailureException ex, WebRequest request) {
-        logger.warn("Conflit de concurrence détecté: {}", ex.getMessage());
-        ErrorResponse errorResponse = new ErrorResponse(
-                "CONCURRENCY_CONFLICT",
-                "La réservation a été modifiée par une autre transaction. Veuillez réessayer."
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
-    }
-
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleGeneral(Exception ex, WebRequest request) {
         logger.error("Erreur inattendue: ", ex);
-        ErrorResponse errorResponse = new ErrorResponse(
-                "INTERNAL_ERROR",
-                "Une erreur inattendue s'est produite"
-        );
-        return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        return ErrorResponses.of(ex).toResponseEntity();
+    }
+
+    private byte[] volCompletBody(MediaType format) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        PreSerializedBody body = volCompletBodies.get(format);
+        if (body == null || !body.timestamp().equals(now)) {
+            ErrorResponse errorResponse = ErrorResponses.of(VolCompletException.INSTANCE).body();
+            errorResponse.setTimestamp(now);
+            try {
+                body = new PreSerializedBody(now, payloadFormats.encoder(format).writeValueAsBytes(errorResponse));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+            volCompletBodies.put(format, body);
+        }
+        return body.bytes();
+    }
+
+    private record PreSerializedBody(LocalDateTime timestamp, byte[] bytes) {
     }
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import java.util.UUID;
+
+public class HoldExpireException extends RuntimeException {
+    
+    public HoldExpireException(UUID holdId) {
+        super("Le blocage de places " + holdId + " a expiré");
+    }
+}
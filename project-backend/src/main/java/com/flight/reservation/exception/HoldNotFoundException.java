@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import java.util.UUID;
+
+public class HoldNotFoundException extends RuntimeException {
+    
+    public HoldNotFoundException(UUID holdId) {
+        super("Blocage de places avec l'ID " + holdId + " non trouvé");
+    }
+}
@@ -0,0 +1,8 @@
+package com.flight.reservation.exception;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    
+    public IdempotencyKeyReuseException(String idempotencyKey) {
+        super("La clé d'idempotence " + idempotencyKey + " a déjà été utilisée pour une autre requête");
+    }
+}
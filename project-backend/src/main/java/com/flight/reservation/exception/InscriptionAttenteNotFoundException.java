@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import java.util.UUID;
+
+public class InscriptionAttenteNotFoundException extends RuntimeException {
+    
+    public InscriptionAttenteNotFoundException(UUID inscriptionId) {
+        super("Inscription en liste d'attente avec l'ID " + inscriptionId + " non trouvée");
+    }
+}
@@ -0,0 +1,8 @@
+package com.flight.reservation.exception;
+
+public class PeriodeInvalideException extends RuntimeException {
+    
+    public PeriodeInvalideException(String message) {
+        super(message);
+    }
+}
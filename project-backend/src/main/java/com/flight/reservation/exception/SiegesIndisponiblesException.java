@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import java.util.List;
+
+public class SiegesIndisponiblesException extends RuntimeException {
+    
+    public SiegesIndisponiblesException(List<String> sieges) {
+        super("Sièges indisponibles: " + String.join(", ", sieges));
+    }
+}
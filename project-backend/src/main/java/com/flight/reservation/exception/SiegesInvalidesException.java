@@ -0,0 +1,8 @@
+package com.flight.reservation.exception;
+
+public class SiegesInvalidesException extends RuntimeException {
+    
+    public SiegesInvalidesException(String message) {
+        super(message);
+    }
+}
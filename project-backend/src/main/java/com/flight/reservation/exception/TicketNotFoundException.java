@@ -0,0 +1,10 @@
+package com.flight.reservation.exception;
+
+import java.util.UUID;
+
+public class TicketNotFoundException extends RuntimeException {
+    
+    public TicketNotFoundException(UUID ticketId) {
+        super("Ticket de réservation " + ticketId + " non trouvé ou expiré");
+    }
+}
@@ -0,0 +1,8 @@
+package com.flight.reservation.exception;
+
+public class VilleNotFoundException extends RuntimeException {
+    
+    public VilleNotFoundException(String ville) {
+        super("Ville " + ville + " non trouvée");
+    }
+}
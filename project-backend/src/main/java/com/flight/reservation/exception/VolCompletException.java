@@ -0,0 +1,16 @@
+package com.flight.reservation.exception;
+
+/**
+ * Rejet immédiat d'une réservation sur un vol complet.
+ *
+ * Instance unique, sans pile d'appels ni message formaté : pendant une vente flash ce rejet
+ * est le cas le plus fréquent et ne doit presque rien coûter.
+ */
+public final class VolCompletException extends RuntimeException {
+
+    public static final VolCompletException INSTANCE = new VolCompletException();
+
+    private VolCompletException() {
+        super("Vol complet", null, false, false);
+    }
+}
@@ -0,0 +1,12 @@
+package com.flight.reservation.iservice;
+
+import com.flight.reservation.dto.AuditStatsResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public interface IAuditStatsService {
+    AuditStatsResponse getStats(UUID volId, LocalDateTime debut, LocalDateTime fin);
+    List<AuditStatsResponse> getSerie(UUID volId, LocalDateTime debut, LocalDateTime fin, int pasMinutes);
+}
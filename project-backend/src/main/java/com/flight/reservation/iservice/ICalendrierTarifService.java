@@ -0,0 +1,20 @@
+package com.flight.reservation.iservice;
+
+import com.flight.reservation.dto.CalendrierTarifsResponse;
+import com.flight.reservation.entity.CalendrierTarifId;
+import com.flight.reservation.entity.Vol;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+public interface ICalendrierTarifService {
+    CalendrierTarifsResponse getCalendrier(String villeDepart, String villeArrivee, YearMonth mois);
+    void ajouterVols(List<Vol> vols);
+    void bloquerPlaces(Vol vol, int places);
+    void libererPlaces(Vol vol, int places);
+    void reviserTarif(Vol vol, BigDecimal ancienPrix);
+    void recalculer(Collection<CalendrierTarifId> ids);
+    int reconstruire();
+}
@@ -0,0 +1,17 @@
+package com.flight.reservation.iservice;
+
+import com.flight.reservation.dto.ItineraireResponse;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.routing.FlightLeg;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IConnectionService {
+    List<ItineraireResponse> rechercher(String villeDepart, String villeArrivee, LocalDate dateDepart,
+                                        int maxEscales, String tri, int limite);
+    void ajouterAfterCommit(List<Vol> vols);
+    void mettreAJourPrixAfterCommit(List<Vol> vols);
+    FlightLeg instantane(Vol vol);
+    void remplacerAfterCommit(List<FlightLeg> anciens, List<Vol> vols);
+}
@@ -0,0 +1,15 @@
+package com.flight.reservation.iservice;
+
+import com.flight.reservation.enums.FormatExport;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface IExportService {
+    void validerPeriode(LocalDateTime debut, LocalDateTime fin);
+    void reserverExport();
+    void libererExport();
+    long exporterReservations(LocalDateTime debut, LocalDateTime fin, FormatExport format, OutputStream sortie) throws IOException;
+    long exporterAudit(LocalDateTime debut, LocalDateTime fin, FormatExport format, OutputStream sortie) throws IOException;
+}
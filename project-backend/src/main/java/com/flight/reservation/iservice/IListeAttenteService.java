@@ -0,0 +1,15 @@
+package com.flight.reservation.iservice;
+
+import com.flight.reservation.dto.InscriptionAttenteResponse;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.Vol;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface IListeAttenteService {
+    InscriptionAttenteResponse inscrire(ReservationRequest request);
+    InscriptionAttenteResponse consulter(UUID inscriptionId);
+    InscriptionAttenteResponse annuler(UUID inscriptionId);
+    List<InscriptionAttenteResponse> promouvoir(Vol vol);
+}
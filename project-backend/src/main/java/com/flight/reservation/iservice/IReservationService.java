@@ -1,9 +1,19 @@
 package com.flight.reservation.iservice;
 
 
+import com.flight.reservation.dto.AnnulationResponse;
+import com.flight.reservation.dto.BatchReservationRequest;
+import com.flight.reservation.dto.BatchReservationResponse;
+import com.flight.reservation.dto.ReservationPageResponse;
 import com.flight.reservation.dto.ReservationRequest;
 import com.flight.reservation.dto.ReservationResponse;
 
+import java.util.UUID;
+
 public interface IReservationService {
     ReservationResponse creerReservation(ReservationRequest request);
+    ReservationResponse creerReservation(ReservationRequest request, String idempotencyKey);
+    BatchReservationResponse creerReservations(BatchReservationRequest request);
+    AnnulationResponse annulerReservation(UUID reservationId);
+    ReservationPageResponse findByEmail(String email, String curseur, Integer taille);
 }
\ No newline at end of file
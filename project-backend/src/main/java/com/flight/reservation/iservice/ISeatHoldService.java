@@ -0,0 +1,13 @@
+package com.flight.reservation.iservice;
+
+import com.flight.reservation.dto.HoldResponse;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+
+import java.util.UUID;
+
+public interface ISeatHoldService {
+    HoldResponse creerHold(ReservationRequest request);
+    ReservationResponse confirmerHold(UUID holdId);
+    void expirerHold(UUID holdId);
+}
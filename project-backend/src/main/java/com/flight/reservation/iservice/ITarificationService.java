@@ -0,0 +1,10 @@
+package com.flight.reservation.iservice;
+
+import com.flight.reservation.entity.Vol;
+
+public interface ITarificationService {
+    void tarifer(Vol vol);
+    void retarifer(Vol vol);
+    boolean reviser(Vol vol);
+    int reviserEcheances();
+}
@@ -1,18 +1,31 @@
 package com.flight.reservation.iservice;
 
 
+import com.flight.reservation.dto.BatchVolUpdateRequest;
+import com.flight.reservation.dto.BatchVolUpdateResponse;
+import com.flight.reservation.dto.JourVolsResponse;
+import com.flight.reservation.dto.PlanSiegesResponse;
+import com.flight.reservation.dto.RechercheVolsResponse;
 import com.flight.reservation.dto.VolRequest;
 import com.flight.reservation.entity.Vol;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 public interface IVolService {
     List<Vol> findAll(LocalDateTime dateDepart, LocalDateTime dateArrivee, String villeDepart, String villeArrivee, String tri);
+    RechercheVolsResponse findPage(LocalDateTime dateDepart, LocalDateTime dateArrivee, String villeDepart, String villeArrivee, String tri, int page, int taille, boolean facettes);
+    List<JourVolsResponse> findAllFlexible(LocalDate dateDepart, int flexDays, LocalDateTime dateArrivee, String villeDepart, String villeArrivee, String tri);
     Integer getPlacesDisponibles(UUID volId);
+    PlanSiegesResponse getPlanSieges(UUID volId);
     List<Vol> saveAll(List<VolRequest> volRequests);
+    BatchVolUpdateResponse modifierVols(BatchVolUpdateRequest request);
     void evictCache(UUID volId);
+    void evictSearchCache(Vol vol);
+    void evictCaches(Collection<Vol> vols);
 }
@@ -0,0 +1,81 @@
+package com.flight.reservation.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ErrorResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Refuse en 503 + Retry-After les requêtes qui dépassent la limite de concurrence adaptative,
+ * avant qu'elles n'occupent un thread Tomcat jusqu'au bout d'une transaction.
+ * La latence des requêtes admises alimente la limite ; les erreurs 5xx ne comptent pas.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final ConcurrencyLimits limits;
+    private final ObjectMapper objectMapper;
+    private final long retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimits limits, ObjectMapper objectMapper,
+                                  @Value("${flight.concurrency-limit.retry-after-s:1}") long retryAfterSeconds) {
+        this.limits = limits;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        GradientConcurrencyLimiter limiter = limits.limiterFor(request);
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        GradientConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        if (permit == null) {
+            logger.debug("Requête refusée par la limite de concurrence: {} {}", request.getMethod(), request.getRequestURI());
+            reject(response);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean measured = false;
+        try {
+            chain.doFilter(request, response);
+            measured = response.getStatus() < 500;
+        } finally {
+            if (measured) {
+                permit.onSuccess(System.nanoTime() - start);
+            } else {
+                permit.onIgnore();
+            }
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                "SERVER_OVERLOADED",
+                "Service momentanément saturé, veuillez réessayer"
+        );
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -0,0 +1,57 @@
+package com.flight.reservation.limiter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Limites de concurrence de l'API, une par famille de requêtes : la réservation (qui écrit dans SQLite)
+ * et la recherche de vols ont chacune la leur, pour qu'une base lente côté réservation
+ * n'affame pas la recherche.
+ */
+@Component
+public class ConcurrencyLimits {
+
+    private final boolean enabled;
+    private final GradientConcurrencyLimiter booking;
+    private final GradientConcurrencyLimiter search;
+
+    public ConcurrencyLimits(@Value("${flight.concurrency-limit.enabled:true}") boolean enabled,
+                             @Value("${flight.concurrency-limit.booking.initial-limit:20}") int bookingInitial,
+                             @Value("${flight.concurrency-limit.booking.min-limit:2}") int bookingMin,
+                             @Value("${flight.concurrency-limit.booking.max-limit:200}") int bookingMax,
+                             @Value("${flight.concurrency-limit.search.initial-limit:50}") int searchInitial,
+                             @Value("${flight.concurrency-limit.search.min-limit:5}") int searchMin,
+                             @Value("${flight.concurrency-limit.search.max-limit:500}") int searchMax) {
+        this.enabled = enabled;
+        this.booking = new GradientConcurrencyLimiter("booking", bookingInitial, bookingMin, bookingMax);
+        this.search = new GradientConcurrencyLimiter("search", searchInitial, searchMin, searchMax);
+    }
+
+    /**
+     * Limite qui s'applique à cette requête, ou null si elle n'est pas limitée.
+     */
+    public GradientConcurrencyLimiter limiterFor(HttpServletRequest request) {
+        if (!enabled) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if (HttpMethod.POST.matches(method) && path.startsWith("/api/reservations")
+                // La soumission asynchrone a déjà sa propre file bornée
+                && !path.equals("/api/reservations/async")) {
+            return booking;
+        }
+        if (HttpMethod.GET.matches(method) && (path.equals("/api/vols") || path.startsWith("/api/vols/"))) {
+            return search;
+        }
+        return null;
+    }
+
+    public List<GradientConcurrencyLimiter.Snapshot> snapshots() {
+        return List.of(booking.snapshot(), search.snapshot());
+    }
+}
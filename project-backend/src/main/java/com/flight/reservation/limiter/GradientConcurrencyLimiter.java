@@ -0,0 +1,187 @@
+package com.flight.reservation.limiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limite de concurrence adaptative par gradient de latence.
+ *
+ * La latence courante (moyenne mobile courte) est comparée à la latence "à vide", la plus basse
+ * observée sans file d'attente. Tant que la latence courante reste sous TOLERANCE fois la latence
+ * à vide, la limite monte d'une marge fixe (queueSize) à chaque mesure ; au-delà, le gradient
+ * à vide/courante passe sous 1 et la limite baisse en proportion. Les requêtes au-delà de la limite
+ * sont refusées immédiatement, avant d'occuper un thread plus longtemps que nécessaire.
+ *
+ * Sous une surcharge prolongée, la file ne se vide jamais et la plus basse latence observée ne dit
+ * plus rien de la latence à vide. Toutes les PROBE_INTERVAL mesures, la limite est donc ramenée
+ * à minLimit le temps de PROBE_SAMPLES requêtes : la file se vide, et ces requêtes remesurent
+ * la latence à vide, y compris quand elle a augmenté (base plus lente).
+ *
+ * Les décisions ne dépendent que des latences fournies, jamais de l'horloge : la classe peut être
+ * rejouée telle quelle dans une simulation.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final int SHORT_WINDOW = 10;
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final int PROBE_INTERVAL = 1000;
+    private static final int PROBE_SAMPLES = 5;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    // Protégés par this ; limit et probeGeneration sont aussi lus sans verrou par tryAcquire
+    private volatile double limit;
+    private volatile long probeGeneration;
+    private volatile boolean probing;
+    private double shortRttNanos;
+    private double noLoadRttNanos = Double.MAX_VALUE;
+    private double limitBeforeProbe;
+    private double probeMinRttNanos;
+    private int probeSamples;
+    private long samplesSinceProbe;
+
+    public GradientConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Il faut 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = Math.max(1, (int) Math.sqrt(initialLimit));
+    }
+
+    /**
+     * Réserve une place si la limite le permet. Renvoie null sinon : la requête doit être refusée.
+     */
+    public Permit tryAcquire() {
+        int current;
+        do {
+            current = inflight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return null;
+            }
+        } while (!inflight.compareAndSet(current, current + 1));
+        accepted.increment();
+        return new Permit(current + 1, probing ? probeGeneration : -1);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public synchronized Snapshot snapshot() {
+        return new Snapshot(name, (int) limit, inflight.get(), accepted.sum(), rejected.sum(),
+                toMillis(shortRttNanos), noLoadRttNanos == Double.MAX_VALUE ? 0 : toMillis(noLoadRttNanos));
+    }
+
+    private static double toMillis(double nanos) {
+        return TimeUnit.NANOSECONDS.toMicros((long) nanos) / 1000.0;
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightAtStart, long probeGenerationAtStart) {
+        if (probing) {
+            // Seules les requêtes admises sous la limite réduite mesurent la latence à vide
+            if (probeGenerationAtStart == probeGeneration) {
+                probeMinRttNanos = Math.min(probeMinRttNanos, rttNanos);
+                countProbeSample();
+            }
+            return;
+        }
+
+        shortRttNanos = shortRttNanos == 0 ? rttNanos : shortRttNanos + (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        noLoadRttNanos = Math.min(noLoadRttNanos, rttNanos);
+        if (++samplesSinceProbe >= PROBE_INTERVAL) {
+            startProbe();
+            return;
+        }
+
+        // Tant que la limite n'est pas approchée, la latence ne dit rien de la capacité
+        if (inflightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * noLoadRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + queueSize;
+        newLimit = limit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    private synchronized void onIgnored(long probeGenerationAtStart) {
+        // Une sonde faite d'erreurs ne doit pas laisser la limite bloquée à minLimit
+        if (probing && probeGenerationAtStart == probeGeneration) {
+            countProbeSample();
+        }
+    }
+
+    private void countProbeSample() {
+        if (++probeSamples < PROBE_SAMPLES) {
+            return;
+        }
+        if (probeMinRttNanos != Double.MAX_VALUE) {
+            noLoadRttNanos = probeMinRttNanos;
+            shortRttNanos = probeMinRttNanos;
+        }
+        limit = limitBeforeProbe;
+        probing = false;
+    }
+
+    private void startProbe() {
+        samplesSinceProbe = 0;
+        probeSamples = 0;
+        probeMinRttNanos = Double.MAX_VALUE;
+        limitBeforeProbe = limit;
+        probeGeneration++;
+        probing = true;
+        limit = minLimit;
+    }
+
+    /**
+     * Place occupée par une requête ; à libérer exactement une fois.
+     */
+    public final class Permit {
+        private final int inflightAtStart;
+        private final long probeGenerationAtStart;
+
+        private Permit(int inflightAtStart, long probeGenerationAtStart) {
+            this.inflightAtStart = inflightAtStart;
+            this.probeGenerationAtStart = probeGenerationAtStart;
+        }
+
+        /**
+         * Libère la place et compte la latence observée.
+         */
+        public void onSuccess(long rttNanos) {
+            inflight.decrementAndGet();
+            onSample(rttNanos, inflightAtStart, probeGenerationAtStart);
+        }
+
+        /**
+         * Libère la place sans compter la latence (erreur, requête non représentative).
+         */
+        public void onIgnore() {
+            inflight.decrementAndGet();
+            if (probeGenerationAtStart >= 0) {
+                onIgnored(probeGenerationAtStart);
+            }
+        }
+    }
+
+    public record Snapshot(String name, int limit, int inflight, long accepted, long rejected,
+                           double shortRttMs, double noLoadRttMs) {
+    }
+}
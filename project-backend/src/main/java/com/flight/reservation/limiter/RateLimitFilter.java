@@ -0,0 +1,91 @@
+package com.flight.reservation.limiter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ErrorResponse;
+import com.flight.reservation.enums.CategorieLimite;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Applique le RateLimiter par client : 429 + Retry-After quand le seau du client est vide.
+ * Passe avant la limite de concurrence, pour qu'un client trop bavard n'occupe pas de place.
+ *
+ * Un client est identifié par sa clé X-API-Key si elle fait partie des clés délivrées
+ * (flight.rate-limit.api-keys), sinon par son adresse IP : une clé inconnue, changée à chaque
+ * requête, ne donne pas un seau plein à chaque fois.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final Set<String> apiKeys;
+
+    public RateLimitFilter(RateLimiter rateLimiter, ObjectMapper objectMapper,
+                           @Value("${flight.rate-limit.api-keys:}") List<String> apiKeys) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.apiKeys = apiKeys.stream()
+                .map(String::trim)
+                .filter(key -> !key.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        CategorieLimite categorie = rateLimiter.isEnabled() ? categorieOf(request) : null;
+        if (categorie == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long waitMs = rateLimiter.tryConsume(clientOf(request), categorie);
+        if (waitMs == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        ErrorResponse errorResponse = new ErrorResponse(
+                "RATE_LIMITED",
+                "Trop de requêtes, veuillez ralentir"
+        );
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static CategorieLimite categorieOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if (HttpMethod.POST.matches(method) && path.startsWith("/api/reservations")) {
+            return CategorieLimite.BOOKING;
+        }
+        if (HttpMethod.GET.matches(method) && path.startsWith("/api/vols")) {
+            return path.endsWith("/places") ? CategorieLimite.AVAILABILITY : CategorieLimite.SEARCH;
+        }
+        return null;
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey.trim()) ? "key:" + apiKey.trim() : "ip:" + request.getRemoteAddr();
+    }
+}
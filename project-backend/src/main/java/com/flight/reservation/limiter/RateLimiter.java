@@ -0,0 +1,104 @@
+package com.flight.reservation.limiter;
+
+import com.flight.reservation.enums.CategorieLimite;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitation de débit par client et par catégorie de requête (recherche, disponibilité, réservation).
+ *
+ * Un client est identifié par sa clé d'API, à défaut par son adresse IP. Les seaux vivent dans
+ * un cache Caffeine borné en taille et expiré après inactivité : un client inactif perd son seau
+ * (il repart plein), et des millions de clients distincts ne font pas grossir le tas sans limite.
+ * Les politiques se changent à chaud (PUT /api/admin/rate-limits/{categorie}).
+ */
+@Component
+public class RateLimiter {
+
+    private final boolean enabled;
+    private final long originNanos = System.nanoTime();
+    private final Map<CategorieLimite, Policy> policies = new ConcurrentHashMap<>();
+    private final Map<CategorieLimite, LongAdder> rejections = new EnumMap<>(CategorieLimite.class);
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    public RateLimiter(@Value("${flight.rate-limit.enabled:true}") boolean enabled,
+                       @Value("${flight.rate-limit.max-clients:1000000}") long maxClients,
+                       @Value("${flight.rate-limit.idle-expiry:10m}") Duration idleExpiry,
+                       @Value("${flight.rate-limit.search.rate:20}") double searchRate,
+                       @Value("${flight.rate-limit.search.burst:40}") int searchBurst,
+                       @Value("${flight.rate-limit.availability.rate:50}") double availabilityRate,
+                       @Value("${flight.rate-limit.availability.burst:100}") int availabilityBurst,
+                       @Value("${flight.rate-limit.booking.rate:5}") double bookingRate,
+                       @Value("${flight.rate-limit.booking.burst:10}") int bookingBurst) {
+        this.enabled = enabled;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(idleExpiry)
+                .build();
+        updatePolicy(CategorieLimite.SEARCH, searchRate, searchBurst);
+        updatePolicy(CategorieLimite.AVAILABILITY, availabilityRate, availabilityBurst);
+        updatePolicy(CategorieLimite.BOOKING, bookingRate, bookingBurst);
+        for (CategorieLimite categorie : CategorieLimite.values()) {
+            rejections.put(categorie, new LongAdder());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Consomme un jeton pour ce client. Renvoie 0 si la requête passe, sinon le délai
+     * en millisecondes avant le prochain jeton.
+     */
+    public long tryConsume(String client, CategorieLimite categorie) {
+        Policy policy = policies.get(categorie);
+        long nowMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - originNanos);
+        TokenBucket bucket = buckets.get(new BucketKey(client, categorie), key -> new TokenBucket(nowMs, policy.burst()));
+        long waitMs = bucket.tryConsume(nowMs, policy.ratePerSecond(), policy.burst());
+        if (waitMs > 0) {
+            rejections.get(categorie).increment();
+        }
+        return waitMs;
+    }
+
+    public void updatePolicy(CategorieLimite categorie, double ratePerSecond, int burst) {
+        if (ratePerSecond <= 0 || burst < 1 || burst > TokenBucket.MAX_BURST) {
+            throw new IllegalArgumentException("Politique invalide: débit > 0 et 1 <= rafale <= " + TokenBucket.MAX_BURST);
+        }
+        policies.put(categorie, new Policy(ratePerSecond, burst));
+    }
+
+    public List<Status> status() {
+        List<Status> status = new ArrayList<>();
+        for (CategorieLimite categorie : CategorieLimite.values()) {
+            Policy policy = policies.get(categorie);
+            status.add(new Status(categorie, policy.ratePerSecond(), policy.burst(), rejections.get(categorie).sum()));
+        }
+        return status;
+    }
+
+    public long activeClients() {
+        return buckets.estimatedSize();
+    }
+
+    private record BucketKey(String client, CategorieLimite categorie) {
+    }
+
+    private record Policy(double ratePerSecond, int burst) {
+    }
+
+    public record Status(CategorieLimite categorie, double ratePerSecond, int burst, long rejections) {
+    }
+}
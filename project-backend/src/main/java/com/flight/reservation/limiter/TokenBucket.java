@@ -0,0 +1,52 @@
+package com.flight.reservation.limiter;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seau à jetons sans verrou : tout l'état tient dans un seul AtomicLong mis à jour par CAS.
+ *
+ * Les 40 bits de poids fort portent l'instant du dernier remplissage (en ms, relatif à l'horloge
+ * du RateLimiter, soit environ 34 ans de portée), les 24 bits de poids faible le nombre de
+ * milli-jetons disponibles (au plus 16 777 jetons). Le débit et la capacité ne sont pas stockés :
+ * ils sont passés à chaque appel, ce qui permet de les changer à chaud sans toucher aux seaux.
+ */
+final class TokenBucket {
+
+    static final int MAX_BURST = (1 << 24) / 1000 - 1;
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MILLI = 1000;
+
+    private final AtomicLong state;
+
+    TokenBucket(long nowMs, int burst) {
+        this.state = new AtomicLong(pack(nowMs, burst * MILLI));
+    }
+
+    /**
+     * Prend un jeton. Renvoie 0 en cas de succès, sinon le nombre de millisecondes
+     * avant qu'un jeton soit disponible.
+     */
+    long tryConsume(long nowMs, double ratePerSecond, int burst) {
+        long capacity = Math.min(burst, MAX_BURST) * MILLI;
+        while (true) {
+            long current = state.get();
+            long last = current >>> TOKEN_BITS;
+            long tokens = Math.min(capacity, current & TOKEN_MASK);
+            long elapsed = Math.max(0, nowMs - last);
+            // ratePerSecond jetons/s = ratePerSecond milli-jetons/ms
+            long refilled = (long) Math.min(capacity, tokens + elapsed * ratePerSecond);
+            if (refilled < MILLI) {
+                return Math.max(1, (long) Math.ceil((MILLI - refilled) / ratePerSecond));
+            }
+            long next = pack(Math.max(last, nowMs), refilled - MILLI);
+            if (state.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    private static long pack(long timeMs, long milliTokens) {
+        return (timeMs << TOKEN_BITS) | milliTokens;
+    }
+}
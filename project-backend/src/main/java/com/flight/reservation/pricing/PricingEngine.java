@@ -0,0 +1,118 @@
+package com.flight.reservation.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tarif courant d'un vol : prix de base multiplié par le coefficient de son palier de remplissage
+ * (placesReservees / capaciteMaximale) et par celui de son palier d'échéance (temps restant
+ * avant le départ).
+ *
+ * Les deux tables de paliers se lisent "seuil:coefficient", séparés par des virgules :
+ * - remplissage, seuils en pourcentage croissants : "0:1.00,50:1.10,80:1.30" ;
+ * - échéance, seuils en jours avant le départ décroissants : "30:0.90,7:1.00,0:1.20".
+ *
+ * Le calcul des paliers ne fait que comparer des entiers : l'appelant le refait à chaque
+ * réservation et ne recalcule le prix que si le palier combiné a changé. Le changement de
+ * palier d'échéance a lieu à une date connue d'avance (prochaineRevision).
+ */
+public final class PricingEngine {
+
+    private static final long SECONDES_PAR_JOUR = 86_400L;
+
+    private final int[] seuilsRemplissage;
+    private final BigDecimal[] coefficientsRemplissage;
+    private final int[] seuilsEcheance;
+    private final BigDecimal[] coefficientsEcheance;
+
+    public PricingEngine(String paliersRemplissage, String paliersEcheance) {
+        List<Palier> remplissage = parse(paliersRemplissage);
+        remplissage.sort(Comparator.comparingInt(Palier::seuil));
+        if (remplissage.get(0).seuil() != 0) {
+            throw new IllegalArgumentException("Le premier palier de remplissage doit commencer à 0 %");
+        }
+        List<Palier> echeance = parse(paliersEcheance);
+        echeance.sort(Comparator.comparingInt(Palier::seuil).reversed());
+        this.seuilsRemplissage = remplissage.stream().mapToInt(Palier::seuil).toArray();
+        this.coefficientsRemplissage = remplissage.stream().map(Palier::coefficient).toArray(BigDecimal[]::new);
+        this.seuilsEcheance = echeance.stream().mapToInt(Palier::seuil).toArray();
+        this.coefficientsEcheance = echeance.stream().map(Palier::coefficient).toArray(BigDecimal[]::new);
+    }
+
+    /**
+     * Dernier palier dont le seuil est atteint : placesReservees / capacite >= seuil %.
+     */
+    public int palierRemplissage(int placesReservees, int capacite) {
+        long reservees = placesReservees * 100L;
+        int palier = seuilsRemplissage.length - 1;
+        while (palier > 0 && reservees < (long) seuilsRemplissage[palier] * capacite) {
+            palier--;
+        }
+        return palier;
+    }
+
+    /**
+     * Premier palier dont le seuil est atteint : au moins seuil jours avant le départ.
+     * Après le dernier seuil (ou une fois le vol parti), c'est le dernier palier.
+     */
+    public int palierEcheance(LocalDateTime maintenant, LocalDateTime depart) {
+        long secondesAvant = Duration.between(maintenant, depart).getSeconds();
+        for (int palier = 0; palier < seuilsEcheance.length; palier++) {
+            if (secondesAvant >= seuilsEcheance[palier] * SECONDES_PAR_JOUR) {
+                return palier;
+            }
+        }
+        return seuilsEcheance.length - 1;
+    }
+
+    /**
+     * Date à partir de laquelle le vol quitte ce palier d'échéance ; null pour le dernier.
+     * Le palier change juste après cette date : elle appartient encore au palier courant.
+     */
+    public LocalDateTime prochaineRevision(int palierEcheance, LocalDateTime depart) {
+        if (palierEcheance >= seuilsEcheance.length - 1) {
+            return null;
+        }
+        return depart.minusDays(seuilsEcheance[palierEcheance]);
+    }
+
+    /**
+     * Les deux paliers en un seul entier, pour détecter le franchissement de l'un ou l'autre.
+     */
+    public int palier(int palierRemplissage, int palierEcheance) {
+        return palierRemplissage * seuilsEcheance.length + palierEcheance;
+    }
+
+    public BigDecimal prix(BigDecimal prixBase, int palierRemplissage, int palierEcheance) {
+        return prixBase.multiply(coefficientsRemplissage[palierRemplissage])
+                .multiply(coefficientsEcheance[palierEcheance])
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static List<Palier> parse(String paliers) {
+        List<Palier> resultat = new ArrayList<>();
+        for (String palier : paliers.split(",")) {
+            String[] parties = palier.trim().split(":");
+            if (parties.length != 2) {
+                throw new IllegalArgumentException("Palier tarifaire invalide (seuil:coefficient attendu): " + palier);
+            }
+            int seuil = Integer.parseInt(parties[0].trim());
+            BigDecimal coefficient = new BigDecimal(parties[1].trim());
+            if (seuil < 0 || coefficient.signum() <= 0) {
+                throw new IllegalArgumentException("Palier tarifaire invalide: " + palier);
+            }
+            resultat.add(new Palier(seuil, coefficient));
+        }
+        if (resultat.stream().map(Palier::seuil).distinct().count() != resultat.size()) {
+            throw new IllegalArgumentException("Seuils de paliers tarifaires en double: " + paliers);
+        }
+        return resultat;
+    }
+
+    private record Palier(int seuil, BigDecimal coefficient) {}
+}
@@ -0,0 +1,22 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.AuditRollup;
+import com.flight.reservation.entity.AuditRollupId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface AuditRollupRepository extends JpaRepository<AuditRollup, AuditRollupId> {
+    
+    @Query("SELECT r FROM AuditRollup r WHERE r.id.volId = :volId AND r.id.minute >= :debut AND r.id.minute < :fin ORDER BY r.id.minute")
+    List<AuditRollup> findByVol(@Param("volId") UUID volId, @Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+    
+    @Query("SELECT r FROM AuditRollup r WHERE r.id.minute >= :debut AND r.id.minute < :fin ORDER BY r.id.minute")
+    List<AuditRollup> findAllVols(@Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+}
@@ -0,0 +1,22 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.CalendrierTarif;
+import com.flight.reservation.entity.CalendrierTarifId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface CalendrierTarifRepository extends JpaRepository<CalendrierTarif, CalendrierTarifId> {
+    
+    @Query("SELECT c FROM CalendrierTarif c WHERE c.id.villeDepart = :villeDepart AND c.id.villeArrivee = :villeArrivee "
+            + "AND c.id.jour >= :premierJour AND c.id.jour <= :dernierJour ORDER BY c.id.jour")
+    List<CalendrierTarif> findByRoute(@Param("villeDepart") String villeDepart,
+                                      @Param("villeArrivee") String villeArrivee,
+                                      @Param("premierJour") LocalDate premierJour,
+                                      @Param("dernierJour") LocalDate dernierJour);
+}
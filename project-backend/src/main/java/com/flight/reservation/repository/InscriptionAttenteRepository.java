@@ -0,0 +1,32 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.InscriptionAttente;
+import com.flight.reservation.enums.StatutAttente;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface InscriptionAttenteRepository extends JpaRepository<InscriptionAttente, UUID> {
+    
+    // Parcourt l'index (vol_id, statut, date_inscription) dans l'ordre et s'arrête aux premières inscriptions qui tiennent
+    @Query("SELECT w FROM InscriptionAttente w WHERE w.vol.id = :volId AND w.statut = :statut " +
+           "AND w.nombrePlaces <= :places ORDER BY w.dateInscription, w.id")
+    List<InscriptionAttente> findCandidats(@Param("volId") UUID volId,
+                                           @Param("statut") StatutAttente statut,
+                                           @Param("places") int places,
+                                           Pageable limite);
+    
+    @Query("SELECT COUNT(w) FROM InscriptionAttente w WHERE w.vol.id = :volId AND w.statut = :statut " +
+           "AND (w.dateInscription < :dateInscription OR (w.dateInscription = :dateInscription AND w.id < :id))")
+    long countAvant(@Param("volId") UUID volId,
+                    @Param("statut") StatutAttente statut,
+                    @Param("dateInscription") LocalDateTime dateInscription,
+                    @Param("id") UUID id);
+}
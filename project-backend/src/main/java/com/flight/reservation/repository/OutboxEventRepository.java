@@ -0,0 +1,24 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    @Query("SELECT o FROM OutboxEvent o ORDER BY o.id")
+    List<OutboxEvent> findNextBatch(Pageable pageable);
+    
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEvent o")
+    LocalDateTime findOldestCreatedAt();
+    
+    // Dernier événement écrit : borne des réservations déjà comprises dans une lecture des vols
+    @Query("SELECT MAX(o.id) FROM OutboxEvent o")
+    Long findMaxId();
+}
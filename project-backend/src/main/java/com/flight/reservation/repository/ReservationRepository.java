@@ -1,11 +1,49 @@
 package com.flight.reservation.repository;
 
+import com.flight.reservation.dto.ReservationSummary;
 import com.flight.reservation.entity.Reservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, UUID> {
-}
\ No newline at end of file
+    
+    // Les deux requêtes suivent l'index (email, created_at, id) ; Pageable ne sert qu'à borner le nombre de lignes
+    @Query("SELECT new com.flight.reservation.dto.ReservationSummary(r.id, r.nombrePlaces, r.createdAt, r.dateAnnulation, " +
+           "v.id, v.villeDepart, v.villeArrivee, v.dateDepart, v.dateArrivee) " +
+           "FROM Reservation r JOIN r.vol v " +
+           "WHERE r.passager.email = :email " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReservationSummary> findPremierePageByEmail(@Param("email") String email, Pageable limite);
+    
+    @Query("SELECT new com.flight.reservation.dto.ReservationSummary(r.id, r.nombrePlaces, r.createdAt, r.dateAnnulation, " +
+           "v.id, v.villeDepart, v.villeArrivee, v.dateDepart, v.dateArrivee) " +
+           "FROM Reservation r JOIN r.vol v " +
+           "WHERE r.passager.email = :email " +
+           "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+           "ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReservationSummary> findPageSuivanteByEmail(@Param("email") String email,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") UUID id,
+                                                     Pageable limite);
+    
+    // Réconciliation de l'inventaire : places des réservations non annulées, par vol d'un lot (index sur vol_id)
+    @Query("SELECT r.vol.id AS volId, SUM(r.nombrePlaces) AS places FROM Reservation r " +
+           "WHERE r.vol.id >= :premier AND r.vol.id <= :dernier AND r.dateAnnulation IS NULL GROUP BY r.vol.id")
+    List<PlacesVol> sommePlacesParVol(@Param("premier") UUID premier, @Param("dernier") UUID dernier);
+    
+    @Query("SELECT r FROM Reservation r WHERE r.vol.id = :volId AND r.dateAnnulation IS NULL")
+    List<Reservation> findActivesByVolId(@Param("volId") UUID volId);
+    
+    interface PlacesVol {
+        UUID getVolId();
+        Long getPlaces();
+    }
+}
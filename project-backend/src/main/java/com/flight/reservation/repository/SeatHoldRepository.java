@@ -0,0 +1,24 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.SeatHold;
+import com.flight.reservation.enums.StatutHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, UUID> {
+    
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM SeatHold h WHERE h.statut = :statut")
+    List<Echeance> findEcheancesByStatut(@Param("statut") StatutHold statut);
+    
+    interface Echeance {
+        UUID getId();
+        LocalDateTime getExpiresAt();
+    }
+}
@@ -0,0 +1,9 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.Ville;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface VilleRepository extends JpaRepository<Ville, Integer> {
+}
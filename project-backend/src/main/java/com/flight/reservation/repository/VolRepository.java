@@ -1,19 +1,29 @@
 package com.flight.reservation.repository;
 
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.routing.FlightLeg;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface VolRepository extends JpaRepository<Vol, UUID>, JpaSpecificationExecutor<Vol> {
+public interface VolRepository extends JpaRepository<Vol, UUID>, JpaSpecificationExecutor<Vol>, VolRepositoryCustom {
     
     @Lock(LockModeType.OPTIMISTIC)
     @Query("SELECT v FROM Vol v WHERE v.id = :id")
@@ -21,6 +31,77 @@ public interface VolRepository extends JpaRepository<Vol, UUID>, JpaSpecificatio
     
     @Query("SELECT v.placesReservees FROM Vol v WHERE v.id = :id")
     Optional<Integer> findPlacesReserveesByVolId(@Param("id") UUID id);
+    
+    @Query("SELECT v.id FROM Vol v WHERE v.placesReservees + v.placesBloquees >= v.capaciteMaximale")
+    List<UUID> findSoldOutIds();
+    
+    // Chargement du graphe des routes : projection lue en flux, sans entités gérées
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.flight.reservation.routing.FlightLeg(v.id, v.villeDepart, v.villeArrivee, "
+            + "v.dateDepart, v.dateArrivee, COALESCE(v.prixCourant, v.prix), v.tempsTrajet) FROM Vol v WHERE v.dateDepart >= :depuis")
+    Stream<FlightLeg> streamFlightLegsDepartingFrom(@Param("depuis") LocalDateTime depuis);
+    
+    // Tarif courant le plus bas d'une route sur un jour parmi les vols qui ont encore des places (calendrier des tarifs) ;
+    // les villes sont comparées par identifiant (VilleConverter), la clé normalisée du calendrier y suffit
+    @Query("SELECT MIN(COALESCE(v.prixCourant, v.prix)) FROM Vol v WHERE v.villeDepart = :villeDepart "
+            + "AND v.villeArrivee = :villeArrivee AND v.dateDepart >= :debut AND v.dateDepart < :fin "
+            + "AND v.placesReservees + v.placesBloquees < v.capaciteMaximale")
+    BigDecimal findPrixMinDisponible(@Param("villeDepart") String villeDepart, @Param("villeArrivee") String villeArrivee,
+                                     @Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+    
+    // Reconstruction du calendrier des tarifs
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT v.villeDepart AS villeDepart, v.villeArrivee AS villeArrivee, v.dateDepart AS dateDepart, "
+            + "COALESCE(v.prixCourant, v.prix) AS prix, v.capaciteMaximale AS capaciteMaximale, v.placesReservees AS placesReservees, "
+            + "v.placesBloquees AS placesBloquees FROM Vol v")
+    Stream<TarifVol> streamTarifs();
+    
+    // Recalcul d'un jour de route du calendrier des tarifs après modification de vols
+    @Query("SELECT v.villeDepart AS villeDepart, v.villeArrivee AS villeArrivee, v.dateDepart AS dateDepart, "
+            + "COALESCE(v.prixCourant, v.prix) AS prix, v.capaciteMaximale AS capaciteMaximale, v.placesReservees AS placesReservees, "
+            + "v.placesBloquees AS placesBloquees FROM Vol v WHERE v.villeDepart = :villeDepart AND v.villeArrivee = :villeArrivee "
+            + "AND v.dateDepart >= :debut AND v.dateDepart < :fin")
+    List<TarifVol> findTarifsRoute(@Param("villeDepart") String villeDepart, @Param("villeArrivee") String villeArrivee,
+                                   @Param("debut") LocalDateTime debut, @Param("fin") LocalDateTime fin);
+    
+    // Vols à tarifer : jamais tarifés, ou dont le palier d'échéance est dépassé
+    @Query("SELECT v FROM Vol v WHERE v.prixCourant IS NULL OR v.prochaineRevisionTarif < :maintenant")
+    List<Vol> findATarifer(@Param("maintenant") LocalDateTime maintenant, Pageable limite);
+    
+    // Réconciliation de l'inventaire : bornes des lots par parcours de la clé primaire
+    @Query("SELECT v.id FROM Vol v ORDER BY v.id")
+    List<UUID> findPremiersIds(Pageable limite);
+    
+    @Query("SELECT v.id FROM Vol v WHERE v.id > :apres ORDER BY v.id")
+    List<UUID> findIdsApres(@Param("apres") UUID apres, Pageable limite);
+    
+    @Query("SELECT v.id AS id, v.placesReservees AS placesReservees, v.version AS version FROM Vol v "
+            + "WHERE v.id >= :premier AND v.id <= :dernier")
+    List<InventaireVol> findInventaire(@Param("premier") UUID premier, @Param("dernier") UUID dernier);
+    
+    @Query("SELECT v.id AS id, v.placesReservees AS placesReservees, v.version AS version FROM Vol v WHERE v.id IN :ids")
+    List<InventaireVol> findInventaireByIds(@Param("ids") Collection<UUID> ids);
+    
+    interface TarifVol {
+        String getVilleDepart();
+        String getVilleArrivee();
+        LocalDateTime getDateDepart();
+        BigDecimal getPrix();
+        Integer getCapaciteMaximale();
+        Integer getPlacesReservees();
+        Integer getPlacesBloquees();
+        
+        // Même calcul que Vol.getPlacesDisponibles()
+        default int getPlacesDisponibles() {
+            return getCapaciteMaximale() - getPlacesReservees() - getPlacesBloquees();
+        }
+    }
+    
+    interface InventaireVol {
+        UUID getId();
+        Integer getPlacesReservees();
+        Long getVersion();
+    }
 }
 /**
  * We use OPTIMISTIC locking in this system instead of PESSIMISTIC locking.
@@ -0,0 +1,19 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.search.FacetAccumulator;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface VolRepositoryCustom {
+    
+    /**
+     * Parcourt une seule fois les vols qui satisfont spec, dans l'ordre de sort : chaque ligne
+     * (tarif courant, temps de trajet, date de départ) alimente les facettes, et seuls les identifiants
+     * des lignes [offset, offset + limite[ sont conservés.
+     */
+    List<UUID> accumulerFacettes(Specification<Vol> spec, Sort sort, int offset, int limite, FacetAccumulator facettes);
+}
@@ -0,0 +1,59 @@
+package com.flight.reservation.repository;
+
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.search.FacetAccumulator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class VolRepositoryCustomImpl implements VolRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<UUID> accumulerFacettes(Specification<Vol> spec, Sort sort, int offset, int limite, FacetAccumulator facettes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Vol> root = query.from(Vol.class);
+        query.multiselect(root.get("id"), cb.coalesce(root.<BigDecimal>get("prixCourant"), root.<BigDecimal>get("prix")),
+                root.get("tempsTrajet"), root.get("dateDepart"));
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        
+        // Projection lue en flux : aucune entité gérée, seule la page est conservée
+        List<UUID> page = new ArrayList<>(limite);
+        long fin = (long) offset + limite;
+        try (Stream<Tuple> lignes = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream()) {
+            lignes.forEach(ligne -> {
+                long rang = facettes.total();
+                if (rang >= offset && rang < fin) {
+                    page.add(ligne.get(0, UUID.class));
+                }
+                facettes.add(ligne.get(1, BigDecimal.class), ligne.get(2, Integer.class), ligne.get(3, LocalDateTime.class));
+            });
+        }
+        return page;
+    }
+}
@@ -0,0 +1,174 @@
+package com.flight.reservation.retry;
+
+import com.flight.reservation.exception.ReservationConflictException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Reprise des réservations en conflit de verrouillage optimiste, adaptée à la contention de chaque vol.
+ *
+ * Chaque vol tient un taux de conflit (conflits / tentatives) sur des compteurs qui décroissent avec
+ * une demi-vie fixe. L'attente entre deux tentatives est tirée au hasard (full jitter) sous un plafond
+ * qui croît avec le numéro de tentative et avec ce taux : quelques millisecondes sur un vol calme,
+ * davantage sur un vol disputé. Au-delà de hotThreshold, le vol passe en mode sérialisé : ses
+ * réservations s'exécutent l'une après l'autre derrière un verrou propre au vol, ce qui supprime
+ * les conflits entre elles au lieu de les réessayer. Il en sort quand le taux retombe sous le tiers
+ * du seuil.
+ */
+@Component
+public class ContentionRetryManager {
+    private static final Logger logger = LoggerFactory.getLogger(ContentionRetryManager.class);
+
+    // Nombre minimal de tentatives (décrues) avant de juger un vol disputé
+    private static final double MIN_SAMPLE = 5;
+
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final double hotThreshold;
+    private final long halfLifeNanos;
+    private final long serializedWaitMs;
+    private final Cache<UUID, FlightContention> flights;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final LongAdder serializedExecutions = new LongAdder();
+
+    public ContentionRetryManager(@Value("${flight.retry.max-attempts:4}") int maxAttempts,
+                                  @Value("${flight.retry.base-delay-ms:5}") long baseDelayMs,
+                                  @Value("${flight.retry.max-delay-ms:200}") long maxDelayMs,
+                                  @Value("${flight.retry.hot-threshold:0.3}") double hotThreshold,
+                                  @Value("${flight.retry.half-life:10s}") Duration halfLife,
+                                  @Value("${flight.retry.serialized-wait-ms:5000}") long serializedWaitMs) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.hotThreshold = hotThreshold;
+        this.halfLifeNanos = halfLife.toNanos();
+        this.serializedWaitMs = serializedWaitMs;
+        this.flights = Caffeine.newBuilder()
+                .expireAfterAccess(halfLife.multipliedBy(10))
+                .maximumSize(100_000)
+                .build();
+    }
+
+    /**
+     * Exécute la tentative, en la reprenant sur conflit. Chaque appel de attempt doit ouvrir
+     * sa propre transaction : un conflit détecté au commit doit pouvoir être repris.
+     */
+    public <T> T execute(UUID volId, Supplier<T> attempt) {
+        FlightContention contention = flights.get(volId, id -> new FlightContention());
+        if (!contention.isHot()) {
+            return executeWithRetry(volId, contention, attempt);
+        }
+        serializedExecutions.increment();
+        try {
+            if (!contention.lock.tryLock(serializedWaitMs, TimeUnit.MILLISECONDS)) {
+                throw new ReservationConflictException("Vol très demandé, veuillez réessayer");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReservationConflictException("Réservation interrompue", e);
+        }
+        try {
+            return executeWithRetry(volId, contention, attempt);
+        } finally {
+            contention.lock.unlock();
+        }
+    }
+
+    private <T> T executeWithRetry(UUID volId, FlightContention contention, Supplier<T> attempt) {
+        for (int tentative = 1; ; tentative++) {
+            try {
+                T result = attempt.get();
+                contention.record(false);
+                successes.increment();
+                return result;
+            } catch (OptimisticLockingFailureException | ReservationConflictException e) {
+                double conflictRate = contention.record(true);
+                if (tentative >= maxAttempts) {
+                    exhausted.increment();
+                    logger.warn("Abandon après {} tentatives - Vol: {}, Taux de conflit: {}", tentative, volId, conflictRate);
+                    throw e;
+                }
+                retries.increment();
+                sleep(backoffMs(tentative, conflictRate));
+            }
+        }
+    }
+
+    long backoffMs(int tentative, double conflictRate) {
+        // Plafond : base x 2^(tentative-1), multiplié jusqu'à x5 selon la contention
+        double cap = baseDelayMs * Math.pow(2, tentative - 1) * (1 + 4 * conflictRate);
+        return ThreadLocalRandom.current().nextLong((long) Math.min(maxDelayMs, cap) + 1);
+    }
+
+    private static void sleep(long delayMs) {
+        if (delayMs == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(delayMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReservationConflictException("Réservation interrompue", e);
+        }
+    }
+
+    public Stats stats() {
+        long succes = successes.sum();
+        long reprises = retries.sum();
+        long volsSerialises = flights.asMap().values().stream().filter(FlightContention::isHot).count();
+        return new Stats(succes, reprises, exhausted.sum(), serializedExecutions.sum(),
+                succes == 0 ? 0 : (double) reprises / succes, volsSerialises);
+    }
+
+    public record Stats(long successes, long retries, long exhausted, long serializedExecutions,
+                        double retriesPerSuccess, long hotFlights) {
+    }
+
+    /**
+     * Compteurs décroissants d'un vol. Les méthodes sont synchronisées : elles ne font que
+     * quelques opérations arithmétiques.
+     */
+    private final class FlightContention {
+        private final ReentrantLock lock = new ReentrantLock(true);
+        private double attempts;
+        private double conflicts;
+        private long lastNanos = System.nanoTime();
+        private volatile boolean hot;
+
+        boolean isHot() {
+            return hot;
+        }
+
+        synchronized double record(boolean conflict) {
+            long now = System.nanoTime();
+            double decay = Math.pow(0.5, (double) (now - lastNanos) / halfLifeNanos);
+            lastNanos = now;
+            attempts = attempts * decay + 1;
+            conflicts = conflicts * decay + (conflict ? 1 : 0);
+            double rate = conflicts / attempts;
+            if (!hot && attempts >= MIN_SAMPLE && rate >= hotThreshold) {
+                hot = true;
+            } else if (hot && rate < hotThreshold / 3) {
+                hot = false;
+            }
+            return rate;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.flight.reservation.routing;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Vol vu par le graphe des routes : uniquement ce qu'il faut pour enchaîner des correspondances.
+ * Sert aussi de projection JPQL au chargement du graphe.
+ */
+public record FlightLeg(UUID volId, String villeDepart, String villeArrivee,
+                        LocalDateTime dateDepart, LocalDateTime dateArrivee,
+                        BigDecimal prix, Integer tempsTrajet) {
+
+    /**
+     * Arrivée effective : dateArrivee, ou le départ plus la durée du trajet quand la date
+     * d'arrivée a été saisie sans heure (elle vaut alors minuit, souvent avant le départ).
+     */
+    public LocalDateTime arriveeEffective() {
+        LocalDateTime parDuree = dateDepart.plusMinutes(tempsTrajet);
+        return dateArrivee.isAfter(parDuree) ? dateArrivee : parDuree;
+    }
+}
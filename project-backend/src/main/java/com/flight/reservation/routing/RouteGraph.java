@@ -0,0 +1,458 @@
+package com.flight.reservation.routing;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Graphe des routes en mémoire pour la recherche de correspondances.
+ *
+ * Les villes sont numérotées, et chaque vol est rangé deux fois, par heure de départ : dans la liste
+ * des départs de sa ville, et dans celle de sa liaison (ville de départ, ville d'arrivée). Depuis
+ * un vol qui arrive à t dans une ville, les correspondances possibles sont les départs de cette
+ * ville entre t + minCorrespondance et t + maxCorrespondance : une recherche dichotomique suivie
+ * d'un parcours. Le dernier tronçon est lu directement dans la liste de sa liaison vers la
+ * destination, ce qui évite d'explorer les départs d'une escale qui ne mènent pas au bon endroit.
+ *
+ * Les meilleurs itinéraires sont tenus dans un tas borné ; prix et temps de trajet étant positifs,
+ * un itinéraire partiel déjà plus coûteux que le moins bon du tas est abandonné.
+ *
+ * Chaque liste est un tableau immuable remplacé en bloc à l'ajout ou au retrait de vols : les
+ * recherches lisent sans verrou, les modifications sont sérialisées entre elles. Seul le prix d'un vol change en place, quand
+ * son tarif courant est révisé ; une recherche en cours peut voir l'ancien ou le nouveau prix.
+ */
+public class RouteGraph {
+
+    public enum SortBy { PRICE, TRAVEL_TIME }
+
+    private static final Leg[] EMPTY = new Leg[0];
+
+    private final long minCorrespondance;
+    private final long maxCorrespondance;
+
+    private final Map<String, Integer> villes = new ConcurrentHashMap<>();
+    // Nom affiché de chaque ville, indexé par son numéro ; publié avant le numéro dans villes
+    private volatile String[] nomsVilles = new String[16];
+    private int nombreVilles;
+
+    private final Map<Integer, Leg[]> departs = new ConcurrentHashMap<>();
+    private final Map<Long, Leg[]> liaisons = new ConcurrentHashMap<>();
+    private volatile int size;
+
+    /**
+     * @param minCorrespondanceMinutes temps minimal entre une arrivée et le départ suivant
+     * @param maxCorrespondanceMinutes attente maximale à une escale
+     */
+    public RouteGraph(long minCorrespondanceMinutes, long maxCorrespondanceMinutes) {
+        if (minCorrespondanceMinutes < 0 || maxCorrespondanceMinutes < minCorrespondanceMinutes) {
+            throw new IllegalArgumentException("Il faut 0 <= minCorrespondance <= maxCorrespondance");
+        }
+        this.minCorrespondance = minCorrespondanceMinutes;
+        this.maxCorrespondance = maxCorrespondanceMinutes;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Ajoute des vols au graphe. Un vol déjà présent (même identifiant, même départ) est ignoré :
+     * un chargement initial peut croiser les ajouts faits pendant qu'il tourne.
+     */
+    public synchronized void addAll(Collection<FlightLeg> vols) {
+        Map<Integer, List<Leg>> parVille = new HashMap<>();
+        Map<Long, List<Leg>> parLiaison = new HashMap<>();
+        for (FlightLeg vol : vols) {
+            int from = indexOf(vol.villeDepart());
+            int to = indexOf(vol.villeArrivee());
+            if (from == to) {
+                continue;
+            }
+            Leg leg = new Leg(vol.volId(), from, to, toMinutes(vol.dateDepart()), toMinutes(vol.arriveeEffective()),
+                    vol.prix().movePointRight(2).longValueExact(), vol.tempsTrajet());
+            parVille.computeIfAbsent(from, k -> new ArrayList<>()).add(leg);
+            parLiaison.computeIfAbsent(liaison(from, to), k -> new ArrayList<>()).add(leg);
+        }
+        int ajoutes = 0;
+        for (Map.Entry<Integer, List<Leg>> entry : parVille.entrySet()) {
+            Leg[] avant = departs.getOrDefault(entry.getKey(), EMPTY);
+            Leg[] apres = merge(avant, entry.getValue());
+            ajoutes += apres.length - avant.length;
+            departs.put(entry.getKey(), apres);
+        }
+        for (Map.Entry<Long, List<Leg>> entry : parLiaison.entrySet()) {
+            liaisons.put(entry.getKey(), merge(liaisons.getOrDefault(entry.getKey(), EMPTY), entry.getValue()));
+        }
+        size += ajoutes;
+    }
+
+    /**
+     * Retire des vols du graphe ; les vols inconnus sont ignorés. Chaque liste touchée est
+     * recopiée une seule fois, quel que soit le nombre de vols qu'elle perd.
+     */
+    public synchronized int removeAll(Collection<FlightLeg> vols) {
+        Map<Integer, Set<UUID>> parVille = new HashMap<>();
+        Map<Long, Set<UUID>> parLiaison = new HashMap<>();
+        for (FlightLeg vol : vols) {
+            Integer from = villes.get(key(vol.villeDepart()));
+            Integer to = villes.get(key(vol.villeArrivee()));
+            if (from == null || to == null) {
+                continue;
+            }
+            parVille.computeIfAbsent(from, k -> new HashSet<>()).add(vol.volId());
+            parLiaison.computeIfAbsent(liaison(from, to), k -> new HashSet<>()).add(vol.volId());
+        }
+        int retires = 0;
+        for (Map.Entry<Integer, Set<UUID>> entry : parVille.entrySet()) {
+            Leg[] avant = departs.getOrDefault(entry.getKey(), EMPTY);
+            Leg[] apres = sans(avant, entry.getValue());
+            retires += avant.length - apres.length;
+            departs.put(entry.getKey(), apres);
+        }
+        for (Map.Entry<Long, Set<UUID>> entry : parLiaison.entrySet()) {
+            liaisons.put(entry.getKey(), sans(liaisons.getOrDefault(entry.getKey(), EMPTY), entry.getValue()));
+        }
+        size -= retires;
+        return retires;
+    }
+
+    /**
+     * Remplace des vols dont l'horaire ou le prix a changé : anciens est leur état avant la
+     * modification (mêmes identifiants). Une recherche concurrente peut ne voir aucune des deux versions.
+     */
+    public synchronized void replaceAll(Collection<FlightLeg> anciens, Collection<FlightLeg> nouveaux) {
+        removeAll(anciens);
+        addAll(nouveaux);
+    }
+
+    /**
+     * Remplace le prix de vols déjà présents ; les vols inconnus du graphe sont ignorés.
+     * Chaque vol est retrouvé dans la liste de sa liaison, par son heure de départ.
+     */
+    public synchronized int updatePrices(Collection<FlightLeg> vols) {
+        int modifies = 0;
+        for (FlightLeg vol : vols) {
+            Integer from = villes.get(key(vol.villeDepart()));
+            Integer to = villes.get(key(vol.villeArrivee()));
+            if (from == null || to == null) {
+                continue;
+            }
+            Leg[] legs = liaisons.getOrDefault(liaison(from, to), EMPTY);
+            long depart = toMinutes(vol.dateDepart());
+            for (int i = lowerBound(legs, depart); i < legs.length && legs[i].depart == depart; i++) {
+                if (legs[i].volId.equals(vol.volId())) {
+                    // Le même Leg est rangé dans les départs de la ville : une seule écriture suffit
+                    legs[i].prixCentimes = vol.prix().movePointRight(2).longValueExact();
+                    modifies++;
+                    break;
+                }
+            }
+        }
+        return modifies;
+    }
+
+    /**
+     * Meilleurs itinéraires de villeDepart à villeArrivee dont le premier vol part dans [debut, fin[,
+     * avec au plus maxEscales escales. Les vols pour lesquels exclu répond true ne sont pas utilisés.
+     */
+    public List<Itinerary> search(String villeDepart, String villeArrivee, LocalDateTime debut, LocalDateTime fin,
+                                  int maxEscales, SortBy tri, int limite, Predicate<UUID> exclu) {
+        Integer origine = villes.get(key(villeDepart));
+        Integer destination = villes.get(key(villeArrivee));
+        if (origine == null || destination == null || origine.equals(destination) || limite < 1) {
+            return List.of();
+        }
+        Search recherche = new Search(origine, destination, tri, limite, exclu);
+        Leg[] premiers = departs.getOrDefault(origine, EMPTY);
+        long borne = toMinutes(fin);
+        for (int i = lowerBound(premiers, toMinutes(debut)); i < premiers.length && premiers[i].depart < borne; i++) {
+            Leg premier = premiers[i];
+            if (recherche.exclu(premier)) {
+                continue;
+            }
+            if (premier.to == destination) {
+                recherche.offer(premier, null, null);
+                continue;
+            }
+            if (maxEscales < 1 || recherche.elague(premier.cout(tri))) {
+                continue;
+            }
+            recherche.derniers(premier, null);
+            if (maxEscales >= 2) {
+                recherche.escales(premier);
+            }
+        }
+        return recherche.resultats();
+    }
+
+    private final class Search {
+        private final int origine;
+        private final int destination;
+        private final SortBy tri;
+        private final int limite;
+        private final Predicate<UUID> exclu;
+        private final Comparator<Itinerary> ordre;
+        // Le moins bon itinéraire retenu en tête
+        private final PriorityQueue<Itinerary> meilleurs;
+
+        Search(int origine, int destination, SortBy tri, int limite, Predicate<UUID> exclu) {
+            this.origine = origine;
+            this.destination = destination;
+            this.tri = tri;
+            this.limite = limite;
+            this.exclu = exclu;
+            this.ordre = Comparator.comparingLong((Itinerary it) -> it.cout(tri))
+                    .thenComparingLong(Itinerary::dureeTotale)
+                    .thenComparingLong(Itinerary::prixCentimes);
+            this.meilleurs = new PriorityQueue<>(limite + 1, ordre.reversed());
+        }
+
+        boolean exclu(Leg leg) {
+            return exclu != null && exclu.test(leg.volId);
+        }
+
+        boolean elague(long coutPartiel) {
+            return meilleurs.size() == limite && coutPartiel > meilleurs.peek().cout(tri);
+        }
+
+        /**
+         * Deuxième tronçon vers une escale autre que la destination, puis dernier tronçon.
+         */
+        void escales(Leg premier) {
+            Leg[] suivants = departs.getOrDefault(premier.to, EMPTY);
+            long limiteDepart = premier.arrivee + maxCorrespondance;
+            for (int j = lowerBound(suivants, premier.arrivee + minCorrespondance);
+                 j < suivants.length && suivants[j].depart <= limiteDepart; j++) {
+                Leg second = suivants[j];
+                if (second.to == destination || second.to == origine || exclu(second)
+                        || elague(premier.cout(tri) + second.cout(tri))) {
+                    continue;
+                }
+                derniers(premier, second);
+            }
+        }
+
+        /**
+         * Tronçons vers la destination depuis l'arrivée du dernier vol (second s'il existe).
+         */
+        void derniers(Leg premier, Leg second) {
+            Leg precedent = second != null ? second : premier;
+            Leg[] candidats = liaisons.getOrDefault(liaison(precedent.to, destination), EMPTY);
+            long limiteDepart = precedent.arrivee + maxCorrespondance;
+            for (int k = lowerBound(candidats, precedent.arrivee + minCorrespondance);
+                 k < candidats.length && candidats[k].depart <= limiteDepart; k++) {
+                if (!exclu(candidats[k])) {
+                    offer(premier, second, candidats[k]);
+                }
+            }
+        }
+
+        void offer(Leg premier, Leg second, Leg troisieme) {
+            Leg[] legs = troisieme == null ? new Leg[] {premier}
+                    : second == null ? new Leg[] {premier, troisieme}
+                    : new Leg[] {premier, second, troisieme};
+            long prix = 0;
+            int tempsTrajet = 0;
+            for (Leg leg : legs) {
+                prix += leg.prixCentimes;
+                tempsTrajet += leg.tempsTrajet;
+            }
+            Itinerary itineraire = new Itinerary(legs, prix, tempsTrajet, legs[legs.length - 1].arrivee - premier.depart);
+            if (meilleurs.size() < limite) {
+                meilleurs.add(itineraire);
+            } else if (ordre.compare(itineraire, meilleurs.peek()) < 0) {
+                meilleurs.poll();
+                meilleurs.add(itineraire);
+            }
+        }
+
+        List<Itinerary> resultats() {
+            List<Itinerary> resultats = new ArrayList<>(meilleurs);
+            resultats.sort(ordre);
+            return resultats;
+        }
+    }
+
+    /**
+     * Itinéraire trouvé : un à trois vols, prix en centimes, durées en minutes.
+     */
+    public final class Itinerary {
+        private final Leg[] legs;
+        private final long prixCentimes;
+        private final int tempsTrajet;
+        private final long dureeTotale;
+
+        private Itinerary(Leg[] legs, long prixCentimes, int tempsTrajet, long dureeTotale) {
+            this.legs = legs;
+            this.prixCentimes = prixCentimes;
+            this.tempsTrajet = tempsTrajet;
+            this.dureeTotale = dureeTotale;
+        }
+
+        public List<FlightLeg> vols() {
+            List<FlightLeg> vols = new ArrayList<>(legs.length);
+            for (Leg leg : legs) {
+                vols.add(new FlightLeg(leg.volId, nomsVilles[leg.from], nomsVilles[leg.to],
+                        toDateTime(leg.depart), toDateTime(leg.arrivee),
+                        BigDecimal.valueOf(leg.prixCentimes, 2), leg.tempsTrajet));
+            }
+            return vols;
+        }
+
+        public int escales() {
+            return legs.length - 1;
+        }
+
+        public BigDecimal prix() {
+            return BigDecimal.valueOf(prixCentimes, 2);
+        }
+
+        long prixCentimes() {
+            return prixCentimes;
+        }
+
+        // Somme des temps de trajet, sans les attentes aux escales
+        public int tempsTrajet() {
+            return tempsTrajet;
+        }
+
+        // Du premier départ à la dernière arrivée
+        public long dureeTotale() {
+            return dureeTotale;
+        }
+
+        long cout(SortBy tri) {
+            return tri == SortBy.PRICE ? prixCentimes : tempsTrajet;
+        }
+    }
+
+    // Dates en minutes depuis l'epoch, sans fuseau : les vols sont saisis en heure locale
+    private static final class Leg {
+        private final UUID volId;
+        private final int from;
+        private final int to;
+        private final long depart;
+        private final long arrivee;
+        // Tarif courant, révisé en place (updatePrices)
+        private volatile long prixCentimes;
+        private final int tempsTrajet;
+
+        private Leg(UUID volId, int from, int to, long depart, long arrivee, long prixCentimes, int tempsTrajet) {
+            this.volId = volId;
+            this.from = from;
+            this.to = to;
+            this.depart = depart;
+            this.arrivee = arrivee;
+            this.prixCentimes = prixCentimes;
+            this.tempsTrajet = tempsTrajet;
+        }
+
+        long cout(SortBy tri) {
+            return tri == SortBy.PRICE ? prixCentimes : tempsTrajet;
+        }
+    }
+
+    private int indexOf(String ville) {
+        String cle = key(ville);
+        Integer index = villes.get(cle);
+        if (index != null) {
+            return index;
+        }
+        if (nombreVilles == nomsVilles.length) {
+            nomsVilles = Arrays.copyOf(nomsVilles, nombreVilles * 2);
+        }
+        String[] noms = nomsVilles;
+        noms[nombreVilles] = ville.trim();
+        nomsVilles = noms;
+        villes.put(cle, nombreVilles);
+        return nombreVilles++;
+    }
+
+    private static String key(String ville) {
+        return ville == null ? "" : ville.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long liaison(int from, int to) {
+        return ((long) from << 32) | to;
+    }
+
+    /**
+     * Fusionne des vols, dans n'importe quel ordre, avec une liste triée par départ.
+     */
+    private static Leg[] merge(Leg[] existants, List<Leg> ajouts) {
+        ajouts.sort(Comparator.comparingLong(leg -> leg.depart));
+        Leg[] resultat = new Leg[existants.length + ajouts.size()];
+        int i = 0;
+        int n = 0;
+        for (Leg ajout : ajouts) {
+            while (i < existants.length && existants[i].depart <= ajout.depart) {
+                resultat[n++] = existants[i++];
+            }
+            if (!dejaPresent(resultat, n, ajout)) {
+                resultat[n++] = ajout;
+            }
+        }
+        while (i < existants.length) {
+            resultat[n++] = existants[i++];
+        }
+        return n == resultat.length ? resultat : Arrays.copyOf(resultat, n);
+    }
+
+    private static Leg[] sans(Leg[] legs, Set<UUID> volIds) {
+        Leg[] resultat = new Leg[legs.length];
+        int n = 0;
+        for (Leg leg : legs) {
+            if (!volIds.contains(leg.volId)) {
+                resultat[n++] = leg;
+            }
+        }
+        return n == legs.length ? legs : Arrays.copyOf(resultat, n);
+    }
+
+    // Un doublon a le même départ : il se trouve parmi les derniers éléments déjà copiés
+    private static boolean dejaPresent(Leg[] legs, int n, Leg leg) {
+        for (int i = n - 1; i >= 0 && legs[i].depart == leg.depart; i--) {
+            if (legs[i].volId.equals(leg.volId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Premier vol qui part à minute ou après
+    private static int lowerBound(Leg[] legs, long minute) {
+        int low = 0;
+        int high = legs.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (legs[mid].depart < minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static long toMinutes(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime toDateTime(long minutes) {
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,231 @@
+package com.flight.reservation.scheduling;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Roue de temporisation hiérarchique.
+ *
+ * Chaque niveau compte wheelSize cases ; une case du niveau n couvre wheelSize^n ticks.
+ * Un délai est rangé dans le niveau le plus bas qui peut le contenir, puis redescend d'un niveau
+ * chaque fois que le niveau inférieur fait un tour complet. Programmer ou annuler un délai est en O(1),
+ * quel que soit le nombre de délais en attente : la programmation passe par une file sans verrou
+ * vidée par le thread de la roue, et l'annulation se contente de marquer le délai.
+ *
+ * Les tâches échues sont confiées à l'Executor fourni pour ne jamais bloquer le thread de la roue.
+ */
+public class HierarchicalTimingWheel {
+    private static final Logger logger = LoggerFactory.getLogger(HierarchicalTimingWheel.class);
+
+    private static final int ACTIVE = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private final long tickNanos;
+    private final int bits;
+    private final int mask;
+    private final int levels;
+    private final Node[][] wheels;
+    private final Executor executor;
+    private final Queue<Node> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicLong size = new AtomicLong();
+    private final long startNanos;
+    private final Thread worker;
+
+    // Dernier tick traité ; lu par les threads qui programment, écrit par le seul thread de la roue
+    private volatile long currentTick;
+    private volatile boolean running;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, Executor executor, String threadName) {
+        this(tickMs, wheelSize, levels, executor, threadName, true);
+    }
+
+    HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, Executor executor, String threadName, boolean start) {
+        if (levels < 2) {
+            throw new IllegalArgumentException("Il faut au moins deux niveaux");
+        }
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize doit être une puissance de 2");
+        }
+        if ((long) Integer.numberOfTrailingZeros(wheelSize) * levels >= 62) {
+            throw new IllegalArgumentException("Trop de niveaux pour cette taille de roue");
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.bits = Integer.numberOfTrailingZeros(wheelSize);
+        this.mask = wheelSize - 1;
+        this.levels = levels;
+        this.wheels = new Node[levels][wheelSize];
+        this.executor = executor;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        if (start) {
+            this.running = true;
+            this.worker.start();
+        }
+    }
+
+    /**
+     * Programme une tâche après le délai donné. Appelable depuis n'importe quel thread.
+     */
+    public Timeout schedule(long delay, TimeUnit unit, Runnable task) {
+        long deadlineTick = tickOf(System.nanoTime() + unit.toNanos(delay));
+        // Jamais avant le prochain tick : une tâche ne part pas avant son délai
+        Node node = new Node(Math.max(deadlineTick, currentTick + 1), task);
+        size.incrementAndGet();
+        pending.add(node);
+        return node;
+    }
+
+    /**
+     * Nombre de délais programmés et ni échus ni annulés.
+     */
+    public long size() {
+        return size.get();
+    }
+
+    long currentTick() {
+        return currentTick;
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private long tickOf(long nanos) {
+        return (nanos - startNanos + tickNanos - 1) / tickNanos;
+    }
+
+    private void run() {
+        while (running) {
+            long target = (System.nanoTime() - startNanos) / tickNanos;
+            if (target > currentTick) {
+                advanceTo(target);
+            }
+            long sleepNanos = startNanos + (currentTick + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Fait avancer la roue jusqu'au tick donné en exécutant tout ce qui échoit en chemin.
+     */
+    void advanceTo(long targetTick) {
+        while (currentTick < targetTick) {
+            long tick = currentTick + 1;
+            transferPending(tick);
+            cascade(tick);
+            int slot = (int) (tick & mask);
+            Node node = wheels[0][slot];
+            wheels[0][slot] = null;
+            currentTick = tick;
+            while (node != null) {
+                Node next = node.next;
+                node.next = null;
+                expire(node);
+                node = next;
+            }
+        }
+    }
+
+    private void transferPending(long tick) {
+        Node node;
+        while ((node = pending.poll()) != null) {
+            if (node.state.get() == ACTIVE) {
+                place(node, tick);
+            }
+        }
+    }
+
+    /**
+     * Quand un niveau termine un tour, la case courante du niveau supérieur redescend.
+     */
+    private void cascade(long tick) {
+        for (int level = 1; level < levels; level++) {
+            if (((tick >>> (bits * (level - 1))) & mask) != 0) {
+                return;
+            }
+            int slot = (int) ((tick >>> (bits * level)) & mask);
+            Node node = wheels[level][slot];
+            wheels[level][slot] = null;
+            while (node != null) {
+                Node next = node.next;
+                node.next = null;
+                if (node.state.get() == ACTIVE) {
+                    place(node, tick);
+                }
+                node = next;
+            }
+        }
+    }
+
+    private void place(Node node, long tick) {
+        long delta = node.deadlineTick - tick;
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (bits * (level + 1)))) {
+            level++;
+        }
+        // Au-delà de la portée du dernier niveau, le délai est replacé à chaque tour de ce niveau
+        long effectiveTick = level == levels - 1
+                ? Math.min(node.deadlineTick, tick + (1L << (bits * levels)) - 1)
+                : Math.max(node.deadlineTick, tick);
+        int slot = (int) ((effectiveTick >>> (bits * level)) & mask);
+        node.next = wheels[level][slot];
+        wheels[level][slot] = node;
+    }
+
+    private void expire(Node node) {
+        if (!node.state.compareAndSet(ACTIVE, EXPIRED)) {
+            return;
+        }
+        size.decrementAndGet();
+        try {
+            executor.execute(node.task);
+        } catch (RuntimeException e) {
+            logger.error("Impossible d'exécuter une tâche échue", e);
+        }
+    }
+
+    public interface Timeout {
+        /**
+         * Annule le délai. Renvoie false s'il avait déjà échu ou été annulé.
+         */
+        boolean cancel();
+    }
+
+    private final class Node implements Timeout {
+        private final long deadlineTick;
+        private final Runnable task;
+        private final AtomicInteger state = new AtomicInteger(ACTIVE);
+        private Node next;
+
+        private Node(long deadlineTick, Runnable task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (state.compareAndSet(ACTIVE, CANCELLED)) {
+                size.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
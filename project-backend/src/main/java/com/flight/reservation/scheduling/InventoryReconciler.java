@@ -0,0 +1,280 @@
+package com.flight.reservation.scheduling;
+
+import com.flight.reservation.entity.Reservation;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.iservice.ITarificationService;
+import com.flight.reservation.iservice.IVolService;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.seating.SeatMap;
+import com.flight.reservation.service.SoldOutRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Réconciliation de l'inventaire : vérifie que Vol.placesReservees est égal à la somme des
+ * places des réservations non annulées du vol, et corrige les écarts sur demande.
+ *
+ * Les vols sont parcourus par lots de clés primaires consécutives. Chaque lot est vérifié dans
+ * sa propre transaction en lecture : une lecture des vols du lot et une seule requête groupée
+ * pour les réservations (index sur vol_id). Au plus parallelisme lots sont vérifiés en même temps,
+ * une pause optionnelle sépare deux lots : la réconciliation peut tourner aux heures ouvrées sans
+ * prendre les connexions des réservations.
+ *
+ * Un vol réservé entre la lecture du vol et la somme paraît en écart : les versions des vols en
+ * écart sont relues après la somme, et un vol dont la version a changé est compté "en mouvement"
+ * et laissé au passage suivant. La correction se fait vol par vol, sous verrou optimiste.
+ */
+@Component
+public class InventoryReconciler {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryReconciler.class);
+    private static final int MAX_ECARTS_RAPPORT = 100;
+
+    private final VolRepository volRepository;
+    private final ReservationRepository reservationRepository;
+    private final ITarificationService tarificationService;
+    private final IVolService volService;
+    private final SoldOutRegistry soldOutRegistry;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate lecture;
+    private final TransactionTemplate transactionTemplate;
+    private final int tailleLot;
+    private final int parallelisme;
+    private final long pauseMs;
+    private final boolean reparationPlanifiee;
+
+    private final AtomicBoolean enCours = new AtomicBoolean();
+    private volatile Rapport dernierRapport;
+
+    public InventoryReconciler(VolRepository volRepository,
+                               ReservationRepository reservationRepository,
+                               ITarificationService tarificationService,
+                               IVolService volService,
+                               SoldOutRegistry soldOutRegistry,
+                               @Qualifier("reconciliationExecutor") ThreadPoolTaskExecutor executor,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${flight.reconciliation.taille-lot:1000}") int tailleLot,
+                               @Value("${flight.reconciliation.parallelisme:2}") int parallelisme,
+                               @Value("${flight.reconciliation.pause-ms:0}") long pauseMs,
+                               @Value("${flight.reconciliation.reparer:false}") boolean reparationPlanifiee) {
+        this.volRepository = volRepository;
+        this.reservationRepository = reservationRepository;
+        this.tarificationService = tarificationService;
+        this.volService = volService;
+        this.soldOutRegistry = soldOutRegistry;
+        this.executor = executor;
+        this.lecture = new TransactionTemplate(transactionManager);
+        this.lecture.setReadOnly(true);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tailleLot = tailleLot;
+        this.parallelisme = parallelisme;
+        this.pauseMs = pauseMs;
+        this.reparationPlanifiee = reparationPlanifiee;
+    }
+
+    @Scheduled(fixedDelayString = "${flight.reconciliation.intervalle-ms:3600000}",
+            initialDelayString = "${flight.reconciliation.delai-initial-ms:600000}")
+    public void planifiee() {
+        reconcilier(reparationPlanifiee);
+    }
+
+    /**
+     * Parcourt tous les vols ; null si une réconciliation est déjà en cours.
+     */
+    public Rapport reconcilier(boolean reparer) {
+        if (!enCours.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            Rapport rapport = executer(reparer);
+            dernierRapport = rapport;
+            if (rapport.ecarts() > 0) {
+                logger.warn("Réconciliation de l'inventaire - Vols: {}, Écarts: {}, Corrigés: {}, En mouvement: {}, Durée: {} ms",
+                        rapport.vols(), rapport.ecarts(), rapport.corriges(), rapport.enMouvement(), rapport.dureeMs());
+            } else {
+                logger.info("Réconciliation de l'inventaire - Vols: {}, aucun écart, En mouvement: {}, Durée: {} ms",
+                        rapport.vols(), rapport.enMouvement(), rapport.dureeMs());
+            }
+            return rapport;
+        } finally {
+            enCours.set(false);
+        }
+    }
+
+    public Rapport dernierRapport() {
+        return dernierRapport;
+    }
+
+    private Rapport executer(boolean reparer) {
+        LocalDateTime debut = LocalDateTime.now();
+        long debutNanos = System.nanoTime();
+        Compteurs compteurs = new Compteurs();
+        Semaphore budget = new Semaphore(parallelisme);
+        UUID apres = null;
+        try {
+            while (true) {
+                List<UUID> ids = apres == null
+                        ? volRepository.findPremiersIds(PageRequest.of(0, tailleLot))
+                        : volRepository.findIdsApres(apres, PageRequest.of(0, tailleLot));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                UUID premier = ids.get(0);
+                UUID dernier = ids.get(ids.size() - 1);
+                budget.acquire();
+                executor.execute(() -> {
+                    try {
+                        verifierLot(premier, dernier, reparer, compteurs);
+                    } catch (RuntimeException e) {
+                        compteurs.echecs.increment();
+                        logger.error("Échec de la vérification d'un lot d'inventaire ({} .. {})", premier, dernier, e);
+                    } finally {
+                        budget.release();
+                    }
+                });
+                compteurs.lots.increment();
+                if (ids.size() < tailleLot) {
+                    break;
+                }
+                apres = dernier;
+                if (pauseMs > 0) {
+                    Thread.sleep(pauseMs);
+                }
+            }
+            // Attend les lots encore en cours
+            budget.acquire(parallelisme);
+            budget.release(parallelisme);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Réconciliation de l'inventaire interrompue");
+        }
+        return new Rapport(debut, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debutNanos), reparer,
+                compteurs.vols.sum(), compteurs.lots.sum(), compteurs.ecarts.sum(), compteurs.enMouvement.sum(),
+                compteurs.corriges.sum(), compteurs.echecs.sum(), List.copyOf(compteurs.exemples));
+    }
+
+    private void verifierLot(UUID premier, UUID dernier, boolean reparer, Compteurs compteurs) {
+        List<Ecart> ecarts = lecture.execute(status -> {
+            List<VolRepository.InventaireVol> vols = volRepository.findInventaire(premier, dernier);
+            Map<UUID, Long> places = new HashMap<>();
+            for (ReservationRepository.PlacesVol somme : reservationRepository.sommePlacesParVol(premier, dernier)) {
+                places.put(somme.getVolId(), somme.getPlaces());
+            }
+            compteurs.vols.add(vols.size());
+            Map<UUID, Long> versions = new HashMap<>();
+            List<Ecart> candidats = new ArrayList<>();
+            for (VolRepository.InventaireVol vol : vols) {
+                long reservees = places.getOrDefault(vol.getId(), 0L);
+                if (vol.getPlacesReservees() != reservees) {
+                    candidats.add(new Ecart(vol.getId(), vol.getPlacesReservees(), reservees));
+                    versions.put(vol.getId(), vol.getVersion());
+                }
+            }
+            if (candidats.isEmpty()) {
+                return candidats;
+            }
+            // Version inchangée depuis la première lecture : la somme est cohérente avec placesReservees
+            List<UUID> stables = new ArrayList<>();
+            for (VolRepository.InventaireVol vol : volRepository.findInventaireByIds(versions.keySet())) {
+                if (vol.getVersion().equals(versions.get(vol.getId()))) {
+                    stables.add(vol.getId());
+                }
+            }
+            compteurs.enMouvement.add(candidats.size() - stables.size());
+            return candidats.stream().filter(ecart -> stables.contains(ecart.volId())).toList();
+        });
+
+        for (Ecart ecart : ecarts) {
+            compteurs.ecarts.increment();
+            if (compteurs.exemples.size() < MAX_ECARTS_RAPPORT) {
+                compteurs.exemples.add(ecart);
+            }
+            logger.warn("Écart d'inventaire - Vol: {}, Places réservées: {}, Places des réservations: {}",
+                    ecart.volId(), ecart.placesReservees(), ecart.placesReservations());
+            if (reparer) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> corriger(ecart.volId())))) {
+                        compteurs.corriges.increment();
+                    }
+                } catch (OptimisticLockingFailureException e) {
+                    // Réservation concurrente : l'écart sera revu au passage suivant
+                    compteurs.enMouvement.increment();
+                }
+            }
+        }
+    }
+
+    private boolean corriger(UUID volId) {
+        Vol vol = volRepository.findById(volId).orElse(null);
+        if (vol == null) {
+            return false;
+        }
+        List<Reservation> reservations = reservationRepository.findActivesByVolId(volId);
+        int places = reservations.stream().mapToInt(Reservation::getNombrePlaces).sum();
+        if (places == vol.getPlacesReservees()) {
+            return false;
+        }
+        SeatMap plan = vol.getSeatMap();
+        List<int[]> sieges = reservations.stream()
+                .filter(reservation -> reservation.getSieges() != null)
+                .map(reservation -> reservation.getListeSieges().stream().mapToInt(plan::parse).filter(siege -> siege >= 0).toArray())
+                .toList();
+        int avant = vol.getPlacesReservees();
+        vol.reconstruirePlaces(places, sieges);
+        tarificationService.reviser(vol);
+        volRepository.save(vol);
+
+        if (vol.getPlacesDisponibles() <= 0) {
+            soldOutRegistry.markSoldOutAfterCommit(vol.getId());
+        } else {
+            soldOutRegistry.markAvailableAfterCommit(vol.getId());
+        }
+        volService.evictCache(vol.getId());
+        volService.evictSearchCache(vol);
+        logger.info("Inventaire corrigé - Vol: {}, Places réservées: {} -> {}", volId, avant, places);
+        return true;
+    }
+
+    private static final class Compteurs {
+        final LongAdder vols = new LongAdder();
+        final LongAdder lots = new LongAdder();
+        final LongAdder ecarts = new LongAdder();
+        final LongAdder enMouvement = new LongAdder();
+        final LongAdder corriges = new LongAdder();
+        final LongAdder echecs = new LongAdder();
+        final ConcurrentLinkedQueue<Ecart> exemples = new ConcurrentLinkedQueue<>();
+    }
+
+    public record Ecart(UUID volId, int placesReservees, long placesReservations) {
+    }
+
+    /**
+     * ecarts : vols dont placesReservees diffère des réservations ; enMouvement : vols réservés pendant
+     * leur vérification ou leur correction, revus au passage suivant ; exemples : les premiers écarts.
+     * Le calendrier des tarifs n'est pas corrigé : POST /api/admin/calendrier-tarifs/reconstruction.
+     */
+    public record Rapport(LocalDateTime debut, long dureeMs, boolean reparation, long vols, long lots, long ecarts,
+                          long enMouvement, long corriges, long echecs, List<Ecart> exemples) {
+    }
+}
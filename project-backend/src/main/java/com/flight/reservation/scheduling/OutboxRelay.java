@@ -0,0 +1,118 @@
+package com.flight.reservation.scheduling;
+
+import com.flight.reservation.entity.OutboxEvent;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.event.ReservationEventListener;
+import com.flight.reservation.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Relais de l'outbox : lit les événements par lots dans l'ordre d'écriture, les remet aux
+ * ReservationEventListener puis supprime le lot, le tout dans une même transaction.
+ * Un lot dont un destinataire échoue est annulé et repris au passage suivant.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository repository;
+    private final List<ReservationEventListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    private final LongAdder relayed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLong lastLagMs = new AtomicLong();
+    private final AtomicLong maxLagMs = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private volatile double throughputPerSecond;
+    private volatile long lastRunNanos = System.nanoTime();
+
+    public OutboxRelay(OutboxEventRepository repository,
+                       List<ReservationEventListener> listeners,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${flight.outbox.batch-size:500}") int batchSize,
+                       @Value("${flight.outbox.max-batches-per-run:20}") int maxBatchesPerRun) {
+        this.repository = repository;
+        this.listeners = listeners;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(fixedDelayString = "${flight.outbox.relay-ms:200}")
+    public void relay() {
+        long runStart = System.nanoTime();
+        int total = 0;
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                Integer count = transactionTemplate.execute(status -> relayBatch());
+                total += count;
+                if (count < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            failures.increment();
+            logger.error("Échec du relais de l'outbox, nouvel essai au prochain passage", e);
+        }
+        // Débit lissé sur les derniers passages
+        double elapsed = (runStart - lastRunNanos) / 1e9;
+        lastRunNanos = runStart;
+        if (elapsed > 0) {
+            throughputPerSecond = throughputPerSecond * 0.8 + (total / elapsed) * 0.2;
+        }
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> lot = repository.findNextBatch(PageRequest.of(0, batchSize));
+        if (lot.isEmpty()) {
+            return 0;
+        }
+        List<ReservationEvent> events = lot.stream().map(outboxEvent -> outboxEvent.toEvent(this)).toList();
+        for (ReservationEventListener listener : listeners) {
+            listener.onReservationEvents(events);
+        }
+        repository.deleteAllByIdInBatch(lot.stream().map(OutboxEvent::getId).toList());
+
+        long lag = Duration.between(lot.get(0).getCreatedAt(), LocalDateTime.now()).toMillis();
+        lastLagMs.set(lag);
+        maxLagMs.accumulateAndGet(lag, Math::max);
+        relayed.add(lot.size());
+        batches.increment();
+        logger.debug("Outbox relayée - Événements: {}, Retard: {} ms", lot.size(), lag);
+        return lot.size();
+    }
+
+    public Stats stats() {
+        LocalDateTime oldest = repository.findOldestCreatedAt();
+        long pendingLagMs = oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis();
+        double uptime = (System.nanoTime() - startNanos) / 1e9;
+        return new Stats(relayed.sum(), batches.sum(), failures.sum(), repository.count(), pendingLagMs,
+                lastLagMs.get(), maxLagMs.get(), throughputPerSecond, relayed.sum() / Math.max(1, uptime));
+    }
+
+    /**
+     * pendingLagMs : âge du plus ancien événement encore dans l'outbox ; lastBatchLagMs : âge du plus
+     * ancien événement du dernier lot relayé au moment de son relais.
+     */
+    public record Stats(long relayed, long batches, long failures, long pending, long pendingLagMs,
+                        long lastBatchLagMs, long maxBatchLagMs, double throughputPerSecond,
+                        double averageThroughputPerSecond) {
+    }
+}
@@ -0,0 +1,97 @@
+package com.flight.reservation.scheduling;
+
+import com.flight.reservation.enums.StatutHold;
+import com.flight.reservation.iservice.ISeatHoldService;
+import com.flight.reservation.repository.SeatHoldRepository;
+import com.flight.reservation.util.TransactionHooks;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Libération automatique des blocages de places expirés.
+ *
+ * Chaque blocage actif a son délai dans une roue de temporisation hiérarchique : pas de
+ * relecture périodique de la table seat_holds, et une programmation en O(1) même avec
+ * des centaines de milliers de blocages simultanés. La table n'est lue qu'au démarrage
+ * pour reprogrammer les blocages encore actifs.
+ */
+@Component
+public class SeatHoldExpiryScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldExpiryScheduler.class);
+    private static final long DELAI_NOUVEL_ESSAI_MS = 1000;
+
+    private final ISeatHoldService seatHoldService;
+    private final SeatHoldRepository seatHoldRepository;
+    private final HierarchicalTimingWheel wheel;
+    private final ConcurrentHashMap<UUID, HierarchicalTimingWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+
+    public SeatHoldExpiryScheduler(@Lazy ISeatHoldService seatHoldService,
+                                   SeatHoldRepository seatHoldRepository,
+                                   @Qualifier("holdExpiryExecutor") Executor holdExpiryExecutor,
+                                   @Value("${flight.holds.tick-ms:100}") long tickMs,
+                                   @Value("${flight.holds.wheel-size:512}") int wheelSize,
+                                   @Value("${flight.holds.wheel-levels:3}") int wheelLevels) {
+        this.seatHoldService = seatHoldService;
+        this.seatHoldRepository = seatHoldRepository;
+        this.wheel = new HierarchicalTimingWheel(tickMs, wheelSize, wheelLevels, holdExpiryExecutor, "hold-timing-wheel");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reprogrammerBlocagesActifs() {
+        List<SeatHoldRepository.Echeance> echeances = seatHoldRepository.findEcheancesByStatut(StatutHold.ACTIVE);
+        echeances.forEach(echeance -> schedule(echeance.getId(), echeance.getExpiresAt()));
+        logger.info("{} blocage(s) de places actif(s) reprogrammé(s)", echeances.size());
+    }
+
+    public void scheduleAfterCommit(UUID holdId, LocalDateTime expiresAt) {
+        TransactionHooks.afterCommit(() -> schedule(holdId, expiresAt));
+    }
+
+    public void cancelAfterCommit(UUID holdId) {
+        TransactionHooks.afterCommit(() -> {
+            HierarchicalTimingWheel.Timeout timeout = timeouts.remove(holdId);
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        });
+    }
+
+    public long activeTimeouts() {
+        return wheel.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        wheel.stop();
+    }
+
+    private void schedule(UUID holdId, LocalDateTime expiresAt) {
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis());
+        timeouts.put(holdId, wheel.schedule(delayMs, TimeUnit.MILLISECONDS, () -> expire(holdId)));
+    }
+
+    private void expire(UUID holdId) {
+        timeouts.remove(holdId);
+        try {
+            seatHoldService.expirerHold(holdId);
+        } catch (Exception e) {
+            logger.warn("Échec de la libération du blocage {}, nouvel essai dans {} ms", holdId, DELAI_NOUVEL_ESSAI_MS, e);
+            schedule(holdId, LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(DELAI_NOUVEL_ESSAI_MS)));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.flight.reservation.search;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Facettes d'une recherche de vols, cumulées en une passe sur les lignes trouvées.
+ *
+ * Tout est compté dans des tableaux de long : histogramme des prix par tranches de largeur fixe
+ * (le tableau grandit avec le prix le plus élevé vu), temps de trajet par tranches fixes et
+ * départs par heure. Aucun objet n'est créé par ligne ; les prix sont comptés en centimes.
+ */
+public final class FacetAccumulator {
+
+    // Bornes basses des tranches de temps de trajet, en minutes ; la dernière est ouverte
+    public static final int[] BORNES_DUREE = {0, 60, 120, 180, 240, 360, 600};
+
+    private final long pasPrixCentimes;
+
+    private long total;
+    private long prixMin = Long.MAX_VALUE;
+    private long prixMax = Long.MIN_VALUE;
+    private int dureeMin = Integer.MAX_VALUE;
+    private int dureeMax = Integer.MIN_VALUE;
+    private long[] histogrammePrix = new long[16];
+    private final long[] durees = new long[BORNES_DUREE.length];
+    private final long[] heures = new long[24];
+
+    public FacetAccumulator(int pasPrix) {
+        if (pasPrix < 1) {
+            throw new IllegalArgumentException("Le pas de l'histogramme des prix doit être positif");
+        }
+        this.pasPrixCentimes = pasPrix * 100L;
+    }
+
+    public void add(BigDecimal prix, int tempsTrajet, LocalDateTime dateDepart) {
+        long centimes = prix.movePointRight(2).longValue();
+        total++;
+        prixMin = Math.min(prixMin, centimes);
+        prixMax = Math.max(prixMax, centimes);
+        dureeMin = Math.min(dureeMin, tempsTrajet);
+        dureeMax = Math.max(dureeMax, tempsTrajet);
+
+        int tranche = (int) (centimes / pasPrixCentimes);
+        if (tranche >= histogrammePrix.length) {
+            histogrammePrix = Arrays.copyOf(histogrammePrix, Math.max(tranche + 1, histogrammePrix.length * 2));
+        }
+        histogrammePrix[tranche]++;
+        durees[trancheDuree(tempsTrajet)]++;
+        heures[dateDepart.getHour()]++;
+    }
+
+    private static int trancheDuree(int tempsTrajet) {
+        int tranche = BORNES_DUREE.length - 1;
+        while (tranche > 0 && tempsTrajet < BORNES_DUREE[tranche]) {
+            tranche--;
+        }
+        return tranche;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    // Valeurs sans objet (Long.MAX_VALUE...) tant que total vaut 0
+    public long prixMinCentimes() {
+        return prixMin;
+    }
+
+    public long prixMaxCentimes() {
+        return prixMax;
+    }
+
+    public int dureeMin() {
+        return dureeMin;
+    }
+
+    public int dureeMax() {
+        return dureeMax;
+    }
+
+    public long pasPrixCentimes() {
+        return pasPrixCentimes;
+    }
+
+    /**
+     * Tranches de prix de la première à la dernière non vide ; la tranche i couvre
+     * [premiereTranchePrix() + i, + 1[ fois le pas.
+     */
+    public long[] histogrammePrix() {
+        if (total == 0) {
+            return new long[0];
+        }
+        return Arrays.copyOfRange(histogrammePrix, premiereTranchePrix(), (int) (prixMax / pasPrixCentimes) + 1);
+    }
+
+    public int premiereTranchePrix() {
+        return total == 0 ? 0 : (int) (prixMin / pasPrixCentimes);
+    }
+
+    public long[] durees() {
+        return durees.clone();
+    }
+
+    public long[] heures() {
+        return heures.clone();
+    }
+}
@@ -0,0 +1,247 @@
+package com.flight.reservation.seating;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plan des sièges d'un vol : un bit par siège (1 = occupé), rangés par mots de 64 bits.
+ *
+ * Le siège n est au rang n / seatsPerRow et à la colonne n % seatsPerRow ; un rang peut
+ * chevaucher deux mots. La recherche de n sièges contigus lit chaque rang d'un bloc et trouve
+ * la première suite de n bits libres par décalages successifs, sans boucle par siège ; comptage
+ * et recherche du prochain siège libre passent par bitCount et numberOfTrailingZeros. Aucune
+ * de ces opérations n'alloue.
+ *
+ * La classe n'est pas thread-safe : elle vit dans l'entité Vol, protégée par son verrou optimiste.
+ */
+public final class SeatMap {
+
+    public static final int MAX_SEATS = 850;
+    public static final int MAX_SEATS_PER_ROW = 10;
+    // Lettres de colonne, sans I (confusion avec 1)
+    private static final String COLUMNS = "ABCDEFGHJK";
+
+    private final int capacity;
+    private final int seatsPerRow;
+    private final long rowMask;
+    private final long[] words;
+
+    public SeatMap(int capacity, int seatsPerRow) {
+        if (capacity < 1 || capacity > MAX_SEATS) {
+            throw new IllegalArgumentException("La capacité doit être comprise entre 1 et " + MAX_SEATS);
+        }
+        if (seatsPerRow < 1 || seatsPerRow > MAX_SEATS_PER_ROW) {
+            throw new IllegalArgumentException("Le nombre de sièges par rang doit être compris entre 1 et " + MAX_SEATS_PER_ROW);
+        }
+        this.capacity = capacity;
+        this.seatsPerRow = seatsPerRow;
+        this.rowMask = (1L << seatsPerRow) - 1;
+        this.words = new long[(capacity + 63) >>> 6];
+    }
+
+    /**
+     * Relit un plan encodé par toBytes. La capacité peut différer de celle de l'encodage :
+     * les sièges au-delà de la nouvelle capacité sont ignorés.
+     */
+    public static SeatMap fromBytes(byte[] bytes, int capacity, int seatsPerRow) {
+        SeatMap map = new SeatMap(capacity, seatsPerRow);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < map.words.length && buffer.remaining() >= Long.BYTES; i++) {
+            map.words[i] = buffer.getLong();
+        }
+        map.clearBeyondCapacity();
+        return map;
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(words.length * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (long word : words) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int seatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int freeCount() {
+        int occupied = 0;
+        for (long word : words) {
+            occupied += Long.bitCount(word);
+        }
+        return capacity - occupied;
+    }
+
+    public boolean isFree(int seat) {
+        checkSeat(seat);
+        return (words[seat >>> 6] & (1L << seat)) == 0;
+    }
+
+    /**
+     * Premier siège d'une suite de count sièges libres dans un même rang, ou -1.
+     */
+    public int findContiguous(int count) {
+        if (count < 1 || count > seatsPerRow) {
+            return -1;
+        }
+        for (int rowStart = 0; rowStart < capacity; rowStart += seatsPerRow) {
+            int width = Math.min(seatsPerRow, capacity - rowStart);
+            if (width < count) {
+                break;
+            }
+            long free = ~bits(rowStart, width) & ((1L << width) - 1);
+            // Après la boucle, le bit i reste à 1 si les sièges i à i+count-1 sont libres
+            long runs = free;
+            for (int shift = 1; shift < count && runs != 0; shift <<= 1) {
+                int step = Math.min(shift, count - shift);
+                runs &= runs >>> step;
+            }
+            if (runs != 0) {
+                return rowStart + Long.numberOfTrailingZeros(runs);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Premier siège libre à partir de from, ou -1.
+     */
+    public int nextFree(int from) {
+        if (from >= capacity) {
+            return -1;
+        }
+        int index = from >>> 6;
+        long free = ~words[index] & (-1L << from);
+        while (true) {
+            if (free != 0) {
+                int seat = (index << 6) + Long.numberOfTrailingZeros(free);
+                return seat < capacity ? seat : -1;
+            }
+            if (++index == words.length) {
+                return -1;
+            }
+            free = ~words[index];
+        }
+    }
+
+    /**
+     * Dernier siège occupé avant from (exclu), ou -1.
+     */
+    public int previousOccupied(int from) {
+        if (from <= 0) {
+            return -1;
+        }
+        int last = Math.min(from, capacity) - 1;
+        int index = last >>> 6;
+        long occupied = words[index] & (-1L >>> (63 - (last & 63)));
+        while (true) {
+            if (occupied != 0) {
+                return (index << 6) + 63 - Long.numberOfLeadingZeros(occupied);
+            }
+            if (--index < 0) {
+                return -1;
+            }
+            occupied = words[index];
+        }
+    }
+
+    public void reserveRange(int start, int count) {
+        for (int seat = start; seat < start + count; seat++) {
+            reserve(seat);
+        }
+    }
+
+    public void reserve(int seat) {
+        checkSeat(seat);
+        words[seat >>> 6] |= 1L << seat;
+    }
+
+    public void release(int seat) {
+        checkSeat(seat);
+        words[seat >>> 6] &= ~(1L << seat);
+    }
+
+    /**
+     * Réserve tous les sièges donnés, ou aucun si l'un d'eux est déjà occupé.
+     */
+    public boolean reserveAll(int[] seats) {
+        for (int seat : seats) {
+            if (!isFree(seat)) {
+                return false;
+            }
+        }
+        for (int seat : seats) {
+            reserve(seat);
+        }
+        return true;
+    }
+
+    /**
+     * Libellé d'un siège : numéro de rang (à partir de 1) suivi de la lettre de colonne, ex. 12C.
+     */
+    public String label(int seat) {
+        checkSeat(seat);
+        return (seat / seatsPerRow + 1) + String.valueOf(COLUMNS.charAt(seat % seatsPerRow));
+    }
+
+    public List<String> labels(int[] seats) {
+        List<String> labels = new ArrayList<>(seats.length);
+        for (int seat : seats) {
+            labels.add(label(seat));
+        }
+        return labels;
+    }
+
+    /**
+     * Siège correspondant à un libellé, ou -1 s'il n'existe pas sur ce plan.
+     */
+    public int parse(String label) {
+        if (label == null || label.length() < 2) {
+            return -1;
+        }
+        String normalized = label.trim().toUpperCase();
+        int column = COLUMNS.indexOf(normalized.charAt(normalized.length() - 1));
+        if (column < 0 || column >= seatsPerRow) {
+            return -1;
+        }
+        int row;
+        try {
+            row = Integer.parseInt(normalized.substring(0, normalized.length() - 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+        long seat = (long) (row - 1) * seatsPerRow + column;
+        return row >= 1 && seat < capacity ? (int) seat : -1;
+    }
+
+    // width bits à partir du siège start, qui peuvent chevaucher deux mots
+    private long bits(int start, int width) {
+        int index = start >>> 6;
+        int offset = start & 63;
+        long value = words[index] >>> offset;
+        if (offset + width > 64) {
+            value |= words[index + 1] << (64 - offset);
+        }
+        return value & rowMask;
+    }
+
+    private void clearBeyondCapacity() {
+        int used = capacity & 63;
+        if (used != 0) {
+            words[words.length - 1] &= (1L << used) - 1;
+        }
+    }
+
+    private void checkSeat(int seat) {
+        if (seat < 0 || seat >= capacity) {
+            throw new IndexOutOfBoundsException("Siège " + seat + " hors du plan (capacité " + capacity + ")");
+        }
+    }
+}
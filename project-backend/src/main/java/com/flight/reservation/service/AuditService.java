@@ -1,49 +1,101 @@
 package com.flight.reservation.service;
 
 import com.flight.reservation.entity.AuditLog;
+import com.flight.reservation.enums.StatutReservation;
 import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.event.ReservationEventListener;
 import com.flight.reservation.repository.AuditLogRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Service
-public class AuditService {
+public class AuditService implements ReservationEventListener {
     
     private static final Logger logger = LoggerFactory.getLogger(AuditService.class);
+    // Adresse portée par les lignes d'audit qui regroupent plusieurs passagers
+    public static final String EMAIL_AGREGE = "*";
     
     private final AuditLogRepository auditLogRepository;
+    private final AuditStatsService auditStatsService;
+    
+    // Rejets "vol complet" en attente d'écriture, par vol
+    private final ConcurrentHashMap<UUID, RejetsVolComplet> soldOutRejections = new ConcurrentHashMap<>();
     
-    public AuditService(AuditLogRepository auditLogRepository) {
+    public AuditService(AuditLogRepository auditLogRepository, AuditStatsService auditStatsService) {
         this.auditLogRepository = auditLogRepository;
+        this.auditStatsService = auditStatsService;
     }
     
-    @EventListener
-    @Async
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void handleReservationEvent(ReservationEvent event) {
-        try {
-            AuditLog auditLog = new AuditLog(
+    /**
+     * Écrit l'audit d'un lot d'événements relayés depuis l'outbox, dans la transaction du relais.
+     */
+    @Override
+    public void onReservationEvents(List<ReservationEvent> events) {
+        List<AuditLog> auditLogs = new ArrayList<>(events.size());
+        for (ReservationEvent event : events) {
+            auditLogs.add(new AuditLog(
                 event.getVolId(),
                 event.getEmailPassager(),
                 event.getPlacesDemandees(),
-                event.getPlacesDisponiblesAvant(),
+                // Inconnu quand le vol n'a pas pu être relu (conflit de concurrence)
+                event.getPlacesDisponiblesAvant() != null ? event.getPlacesDisponiblesAvant() : 0,
                 event.getStatut(),
                 event.getMessageErreur(),
-                event.getReservationId()
-            );
-            
-            auditLogRepository.save(auditLog);
-            
-            logger.info("Audit log créé pour la tentative de réservation - Vol: {}, Passager: {}, Statut: {}", 
-                       event.getVolId(), event.getEmailPassager(), event.getStatut());
-                       
-        } catch (Exception e) {
-            logger.error("Erreur lors de la création de l'audit log", e);
+                event.getReservationId(),
+                event.getHorodatage()
+            ));
+        }
+        auditLogRepository.saveAll(auditLogs);
+        auditStatsService.cumuler(auditLogs);
+        
+        logger.info("Audit logs créés pour {} tentative(s) de réservation", auditLogs.size());
+    }
+    
+    /**
+     * Compte un rejet immédiat sur un vol complet. Ces rejets ne produisent pas une ligne
+     * d'audit chacun : ils sont regroupés par vol et écrits périodiquement, à l'heure du premier rejet.
+     */
+    public void recordSoldOutRejection(UUID volId, int placesDemandees) {
+        soldOutRejections.merge(volId, new RejetsVolComplet(1, placesDemandees, LocalDateTime.now()), RejetsVolComplet::ajouter);
+    }
+    
+    @Scheduled(fixedDelayString = "${flight.audit.sold-out-flush-ms:60000}")
+    @Transactional
+    public void flushSoldOutRejections() {
+        List<AuditLog> auditLogs = new ArrayList<>();
+        Map<UUID, Long> tentativesParVol = new HashMap<>();
+        for (UUID volId : soldOutRejections.keySet()) {
+            RejetsVolComplet rejets = soldOutRejections.remove(volId);
+            if (rejets == null) {
+                continue;
+            }
+            tentativesParVol.put(volId, rejets.tentatives());
+            auditLogs.add(new AuditLog(volId, EMAIL_AGREGE, rejets.places(), 0, StatutReservation.FAILED,
+                    "Vol complet: " + rejets.tentatives() + " tentative(s) rejetée(s)", null, rejets.premierRejet()));
+        }
+        if (!auditLogs.isEmpty()) {
+            auditLogRepository.saveAll(auditLogs);
+            // Une ligne par vol : elle compte pour toutes les tentatives qu'elle regroupe
+            auditStatsService.cumuler(auditLogs, auditLog -> tentativesParVol.get(auditLog.getVolId()));
+            logger.info("Audit agrégé des rejets vol complet écrit pour {} vol(s)", auditLogs.size());
+        }
+    }
+    
+    private record RejetsVolComplet(long tentatives, int places, LocalDateTime premierRejet) {
+        RejetsVolComplet ajouter(RejetsVolComplet autre) {
+            return new RejetsVolComplet(tentatives + autre.tentatives, places + autre.places,
+                    premierRejet.isBefore(autre.premierRejet) ? premierRejet : autre.premierRejet);
         }
     }
 }
\ No newline at end of file
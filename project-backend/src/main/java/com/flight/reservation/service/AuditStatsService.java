@@ -0,0 +1,139 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.AuditStatsResponse;
+import com.flight.reservation.entity.AuditLog;
+import com.flight.reservation.entity.AuditRollup;
+import com.flight.reservation.entity.AuditRollupId;
+import com.flight.reservation.exception.PeriodeInvalideException;
+import com.flight.reservation.iservice.IAuditStatsService;
+import com.flight.reservation.repository.AuditRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.ToLongFunction;
+
+/**
+ * Statistiques d'audit servies depuis les cumuls par vol et par minute (audit_rollups).
+ * Les cumuls sont mis à jour dans la transaction qui écrit les lignes d'audit ; les lectures
+ * ne touchent jamais audit_logs, quelle que soit la période demandée.
+ */
+@Service
+public class AuditStatsService implements IAuditStatsService {
+    
+    private final AuditRollupRepository auditRollupRepository;
+    private final Duration periodeMax;
+    
+    public AuditStatsService(AuditRollupRepository auditRollupRepository,
+                             @Value("${flight.audit.stats-max-period:31d}") Duration periodeMax) {
+        this.auditRollupRepository = auditRollupRepository;
+        this.periodeMax = periodeMax;
+    }
+    
+    /**
+     * Ajoute des lignes d'audit aux cumuls, une tentative par ligne.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cumuler(List<AuditLog> auditLogs) {
+        cumuler(auditLogs, auditLog -> 1);
+    }
+    
+    /**
+     * Ajoute des lignes d'audit aux cumuls de la minute de leur tentative ; tentatives donne le nombre
+     * de tentatives que représente chaque ligne. Une seule lecture et une seule écriture par lot.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cumuler(List<AuditLog> auditLogs, ToLongFunction<AuditLog> tentatives) {
+        if (auditLogs.isEmpty()) {
+            return;
+        }
+        LocalDateTime maintenant = LocalDateTime.now();
+        Map<AuditRollupId, List<AuditLog>> parMinute = new HashMap<>();
+        for (AuditLog auditLog : auditLogs) {
+            LocalDateTime horodatage = auditLog.getTimestamp() != null ? auditLog.getTimestamp() : maintenant;
+            AuditRollupId id = new AuditRollupId(auditLog.getVolId(), horodatage.truncatedTo(ChronoUnit.MINUTES));
+            parMinute.computeIfAbsent(id, k -> new ArrayList<>()).add(auditLog);
+        }
+        
+        Map<AuditRollupId, AuditRollup> rollups = new HashMap<>();
+        for (AuditRollup rollup : auditRollupRepository.findAllById(parMinute.keySet())) {
+            rollups.put(rollup.getId(), rollup);
+        }
+        for (Map.Entry<AuditRollupId, List<AuditLog>> entry : parMinute.entrySet()) {
+            AuditRollupId id = entry.getKey();
+            AuditRollup rollup = rollups.computeIfAbsent(id, k -> new AuditRollup(k.getVolId(), k.getMinute()));
+            for (AuditLog auditLog : entry.getValue()) {
+                rollup.cumuler(auditLog.getStatut(), auditLog.getMessageErreur(),
+                        tentatives.applyAsLong(auditLog), auditLog.getPlacesDemandees());
+            }
+        }
+        auditRollupRepository.saveAll(rollups.values());
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public AuditStatsResponse getStats(UUID volId, LocalDateTime debut, LocalDateTime fin) {
+        verifierPeriode(debut, fin);
+        AuditStatsResponse stats = new AuditStatsResponse(volId, debut, fin);
+        for (AuditRollup rollup : findRollups(volId, debut, fin)) {
+            ajouter(stats, rollup);
+        }
+        return stats;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<AuditStatsResponse> getSerie(UUID volId, LocalDateTime debut, LocalDateTime fin, int pasMinutes) {
+        verifierPeriode(debut, fin);
+        if (pasMinutes < 1) {
+            throw new PeriodeInvalideException("Le pas doit être d'au moins une minute");
+        }
+        long minutes = ChronoUnit.MINUTES.between(debut, fin);
+        if ((minutes + pasMinutes - 1) / pasMinutes > 10_000) {
+            throw new PeriodeInvalideException("Trop de points demandés, augmentez le pas");
+        }
+        
+        // Un point par pas, y compris les pas sans tentative
+        List<AuditStatsResponse> serie = new ArrayList<>();
+        for (LocalDateTime t = debut; t.isBefore(fin); t = t.plusMinutes(pasMinutes)) {
+            LocalDateTime finPas = t.plusMinutes(pasMinutes);
+            serie.add(new AuditStatsResponse(volId, t, finPas.isBefore(fin) ? finPas : fin));
+        }
+        for (AuditRollup rollup : findRollups(volId, debut, fin)) {
+            long index = ChronoUnit.MINUTES.between(debut, rollup.getId().getMinute()) / pasMinutes;
+            ajouter(serie.get((int) index), rollup);
+        }
+        return serie;
+    }
+    
+    private List<AuditRollup> findRollups(UUID volId, LocalDateTime debut, LocalDateTime fin) {
+        return volId != null
+                ? auditRollupRepository.findByVol(volId, debut, fin)
+                : auditRollupRepository.findAllVols(debut, fin);
+    }
+    
+    private void verifierPeriode(LocalDateTime debut, LocalDateTime fin) {
+        if (!debut.isBefore(fin)) {
+            throw new PeriodeInvalideException("Le début de la période doit précéder sa fin");
+        }
+        if (Duration.between(debut, fin).compareTo(periodeMax) > 0) {
+            throw new PeriodeInvalideException("Période limitée à " + periodeMax.toDays() + " jour(s)");
+        }
+    }
+    
+    private static void ajouter(AuditStatsResponse stats, AuditRollup rollup) {
+        stats.setTentatives(stats.getTentatives() + rollup.getTentatives());
+        stats.setSucces(stats.getSucces() + rollup.getSucces());
+        stats.setEchecsPlacesInsuffisantes(stats.getEchecsPlacesInsuffisantes() + rollup.getEchecsPlacesInsuffisantes());
+        stats.setEchecsConflit(stats.getEchecsConflit() + rollup.getEchecsConflit());
+        stats.setEchecsVolComplet(stats.getEchecsVolComplet() + rollup.getEchecsVolComplet());
+        stats.setEchecsAutres(stats.getEchecsAutres() + rollup.getEchecsAutres());
+        stats.setPlacesDemandees(stats.getPlacesDemandees() + rollup.getPlacesDemandees());
+        stats.setPlacesReservees(stats.getPlacesReservees() + rollup.getPlacesReservees());
+    }
+}
@@ -0,0 +1,275 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.CalendrierTarifsResponse;
+import com.flight.reservation.dto.JourTarifResponse;
+import com.flight.reservation.entity.CalendrierTarif;
+import com.flight.reservation.entity.CalendrierTarifId;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.event.ReservationEventListener;
+import com.flight.reservation.iservice.ICalendrierTarifService;
+import com.flight.reservation.repository.CalendrierTarifRepository;
+import com.flight.reservation.repository.OutboxEventRepository;
+import com.flight.reservation.repository.VolRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Calendrier des tarifs par route et par jour (calendrier_tarifs).
+ *
+ * Les agrégats sont tenus à jour par différence : un vol ajouté ou des places libérées ne font
+ * que baisser le tarif minimal, une réservation ou un blocage ne fait que retirer des places. Les
+ * seuls cas qui demandent une relecture de vols sont le vol le moins cher qui devient complet et
+ * celui dont le tarif courant augmente : le nouveau minimum est alors recherché parmi les vols de
+ * cette route et de ce jour (index sur date_depart). Les prix sont les tarifs courants (prixCourant),
+ * les places sont les places disponibles (réservées et bloquées déduites).
+ * Les réservations arrivent par le relais de l'outbox, par lots, dans sa transaction ; un agrégat
+ * recalculé à partir des vols retient le dernier événement d'outbox écrit, dont les réservations
+ * sont déjà dans placesReservees, et le relais ne les décompte pas une seconde fois.
+ */
+@Service
+public class CalendrierTarifService implements ICalendrierTarifService, ReservationEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(CalendrierTarifService.class);
+
+    private final CalendrierTarifRepository calendrierTarifRepository;
+    private final VolRepository volRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final VilleDictionary villeDictionary;
+
+    public CalendrierTarifService(CalendrierTarifRepository calendrierTarifRepository, VolRepository volRepository,
+                                  OutboxEventRepository outboxEventRepository, VilleDictionary villeDictionary) {
+        this.calendrierTarifRepository = calendrierTarifRepository;
+        this.volRepository = volRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.villeDictionary = villeDictionary;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CalendrierTarifsResponse getCalendrier(String villeDepart, String villeArrivee, YearMonth mois) {
+        // Les routes sont enregistrées sous les noms canoniques : un alias y mène
+        villeDepart = villeDictionary.canonique(villeDepart);
+        villeArrivee = villeDictionary.canonique(villeArrivee);
+        LocalDate premierJour = mois.atDay(1);
+        LocalDate dernierJour = mois.atEndOfMonth();
+        Map<LocalDate, CalendrierTarif> parJour = new HashMap<>();
+        for (CalendrierTarif tarif : calendrierTarifRepository.findByRoute(CalendrierTarifId.cle(villeDepart),
+                CalendrierTarifId.cle(villeArrivee), premierJour, dernierJour)) {
+            parJour.put(tarif.getId().getJour(), tarif);
+        }
+        List<JourTarifResponse> jours = new ArrayList<>(mois.lengthOfMonth());
+        for (LocalDate jour = premierJour; !jour.isAfter(dernierJour); jour = jour.plusDays(1)) {
+            CalendrierTarif tarif = parJour.get(jour);
+            jours.add(tarif == null
+                    ? new JourTarifResponse(jour, null, 0, 0L)
+                    : new JourTarifResponse(jour, tarif.getPrixMin(), tarif.getNombreVols(), tarif.getPlacesRestantes()));
+        }
+        return new CalendrierTarifsResponse(villeDepart, villeArrivee, mois.toString(), jours);
+    }
+
+    /**
+     * Ajoute des vols qui viennent d'être enregistrés, dans la transaction de l'ajout.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void ajouterVols(List<Vol> vols) {
+        Map<CalendrierTarifId, CalendrierTarif> tarifs = charger(vols.stream().map(CalendrierTarifId::of).toList());
+        for (Vol vol : vols) {
+            CalendrierTarif tarif = tarifs.computeIfAbsent(CalendrierTarifId.of(vol), CalendrierTarif::new);
+            tarif.ajouterVol(vol.getPrixCourant(), vol.getPlacesDisponibles());
+        }
+        calendrierTarifRepository.saveAll(tarifs.values());
+    }
+
+    /**
+     * Places bloquées (SeatHold), dans la transaction du blocage : le blocage ne passe pas par l'outbox.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bloquerPlaces(Vol vol, int places) {
+        CalendrierTarif tarif = calendrierTarifRepository.findById(CalendrierTarifId.of(vol)).orElse(null);
+        if (tarif == null) {
+            return;
+        }
+        tarif.reserver(places);
+        if (prixMinEpuise(tarif, vol)) {
+            // La requête voit le blocage : le vol est écrit avant (flush automatique)
+            rechercherPrixMin(tarif);
+        }
+        calendrierTarifRepository.save(tarif);
+    }
+
+    /**
+     * Places rendues par une annulation ou un blocage levé, dans la transaction qui les rend.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void libererPlaces(Vol vol, int places) {
+        CalendrierTarifId id = CalendrierTarifId.of(vol);
+        CalendrierTarif tarif = calendrierTarifRepository.findById(id).orElseGet(() -> new CalendrierTarif(id));
+        tarif.liberer(places, vol.getPrixCourant());
+        calendrierTarifRepository.save(tarif);
+    }
+
+    /**
+     * Tarif courant d'un vol révisé, dans la transaction de la révision. Une baisse est un nouveau
+     * candidat au minimum ; une hausse du vol le moins cher impose de rechercher le nouveau minimum.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reviserTarif(Vol vol, BigDecimal ancienPrix) {
+        CalendrierTarifId id = CalendrierTarifId.of(vol);
+        CalendrierTarif tarif = calendrierTarifRepository.findById(id).orElse(null);
+        if (tarif == null) {
+            return;
+        }
+        BigDecimal prix = vol.getPrixCourant();
+        boolean disponible = vol.getPlacesDisponibles() > 0;
+        if (disponible && (tarif.getPrixMin() == null || prix.compareTo(tarif.getPrixMin()) < 0)) {
+            tarif.setPrixMin(prix);
+        } else if (ancienPrix != null && tarif.getPrixMin() != null && prix.compareTo(ancienPrix) > 0
+                && ancienPrix.compareTo(tarif.getPrixMin()) <= 0) {
+            // La requête voit le nouveau tarif : le vol modifié est écrit avant (flush automatique)
+            rechercherPrixMin(tarif);
+        } else {
+            return;
+        }
+        calendrierTarifRepository.save(tarif);
+    }
+
+    /**
+     * Jours de route touchés par une modification de vols (prix, horaire, capacité), dans la
+     * transaction de la modification : chaque jour est recalculé à partir de ses vols, déjà écrits.
+     * Un jour qui n'a plus de vol est retiré du calendrier.
+     */
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recalculer(Collection<CalendrierTarifId> ids) {
+        // Lu avant les vols : les réservations jusqu'à cet événement sont dans placesReservees
+        Long dernierEvenement = outboxEventRepository.findMaxId();
+        Map<CalendrierTarifId, CalendrierTarif> tarifs = charger(ids);
+        List<CalendrierTarif> vides = new ArrayList<>();
+        for (CalendrierTarifId id : new HashSet<>(ids)) {
+            List<VolRepository.TarifVol> vols = volRepository.findTarifsRoute(id.getVilleDepart(), id.getVilleArrivee(),
+                    id.getJour().atStartOfDay(), id.getJour().plusDays(1).atStartOfDay());
+            CalendrierTarif tarif = tarifs.computeIfAbsent(id, CalendrierTarif::new);
+            tarif.reinitialiser();
+            tarif.setDernierEvenementOutbox(dernierEvenement);
+            for (VolRepository.TarifVol vol : vols) {
+                tarif.ajouterVol(vol.getPrix(), vol.getPlacesDisponibles());
+            }
+            if (vols.isEmpty()) {
+                tarifs.remove(id);
+                if (tarif.getVersion() != null) {
+                    vides.add(tarif);
+                }
+            }
+        }
+        calendrierTarifRepository.saveAll(tarifs.values());
+        calendrierTarifRepository.deleteAll(vides);
+    }
+
+    @Override
+    public void onReservationEvents(List<ReservationEvent> events) {
+        List<ReservationEvent> succes = events.stream()
+                .filter(event -> event.getStatut() == StatutReservation.SUCCESS)
+                .toList();
+        if (succes.isEmpty()) {
+            return;
+        }
+        Map<UUID, Vol> vols = new HashMap<>();
+        for (Vol vol : volRepository.findAllById(succes.stream().map(ReservationEvent::getVolId).collect(Collectors.toSet()))) {
+            vols.put(vol.getId(), vol);
+        }
+        Map<CalendrierTarifId, CalendrierTarif> tarifs = charger(vols.values().stream().map(CalendrierTarifId::of).toList());
+        Set<CalendrierTarifId> aRecalculer = new HashSet<>();
+        for (ReservationEvent event : succes) {
+            Vol vol = vols.get(event.getVolId());
+            CalendrierTarif tarif = vol == null ? null : tarifs.get(CalendrierTarifId.of(vol));
+            // Route absente du calendrier (vol antérieur à la reconstruction), ou réservation déjà lue
+            // avec les vols par une reconstruction ou un recalcul : rien à décompter
+            if (tarif == null || tarif.dejaCompte(event.getOutboxId())) {
+                continue;
+            }
+            tarif.reserver(event.getPlacesDemandees());
+            if (prixMinEpuise(tarif, vol)) {
+                aRecalculer.add(tarif.getId());
+            }
+        }
+        for (CalendrierTarifId id : aRecalculer) {
+            CalendrierTarif tarif = tarifs.get(id);
+            rechercherPrixMin(tarif);
+            logger.debug("Tarif minimal recalculé - Route: {} -> {}, Jour: {}, Prix: {}",
+                    id.getVilleDepart(), id.getVilleArrivee(), id.getJour(), tarif.getPrixMin());
+        }
+        calendrierTarifRepository.saveAll(tarifs.values());
+    }
+
+    /**
+     * Remplit le calendrier au premier démarrage, quand des vols existent déjà.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void initialiser() {
+        if (calendrierTarifRepository.count() == 0 && volRepository.count() > 0) {
+            reconstruire();
+        }
+    }
+
+    /**
+     * Recalcule tout le calendrier en une lecture de vols. Les réservations encore dans l'outbox sont
+     * déjà dans placesReservees : chaque jour retient le dernier événement écrit, que le relais saute.
+     */
+    @Override
+    @Transactional
+    public int reconstruire() {
+        // Lu avant les vols, dans la même transaction
+        Long dernierEvenement = outboxEventRepository.findMaxId();
+        Map<CalendrierTarifId, CalendrierTarif> tarifs = new HashMap<>();
+        try (Stream<VolRepository.TarifVol> vols = volRepository.streamTarifs()) {
+            vols.forEach(vol -> tarifs
+                    .computeIfAbsent(new CalendrierTarifId(vol.getVilleDepart(), vol.getVilleArrivee(),
+                            vol.getDateDepart().toLocalDate()), CalendrierTarif::new)
+                    .ajouterVol(vol.getPrix(), vol.getPlacesDisponibles()));
+        }
+        tarifs.values().forEach(tarif -> tarif.setDernierEvenementOutbox(dernierEvenement));
+        calendrierTarifRepository.deleteAllInBatch();
+        calendrierTarifRepository.saveAll(tarifs.values());
+        logger.info("Calendrier des tarifs reconstruit: {} jour(s) de route, outbox jusqu'à l'événement {}",
+                tarifs.size(), dernierEvenement);
+        return tarifs.size();
+    }
+
+    // Le vol qui n'a plus de place portait le tarif minimal du jour
+    private boolean prixMinEpuise(CalendrierTarif tarif, Vol vol) {
+        return vol.getPlacesDisponibles() <= 0 && tarif.getPrixMin() != null && vol.getPrixCourant() != null
+                && vol.getPrixCourant().compareTo(tarif.getPrixMin()) <= 0;
+    }
+
+    private void rechercherPrixMin(CalendrierTarif tarif) {
+        CalendrierTarifId id = tarif.getId();
+        tarif.setPrixMin(volRepository.findPrixMinDisponible(id.getVilleDepart(), id.getVilleArrivee(),
+                id.getJour().atStartOfDay(), id.getJour().plusDays(1).atStartOfDay()));
+    }
+
+    private Map<CalendrierTarifId, CalendrierTarif> charger(Collection<CalendrierTarifId> ids) {
+        Map<CalendrierTarifId, CalendrierTarif> tarifs = new HashMap<>();
+        for (CalendrierTarif tarif : calendrierTarifRepository.findAllById(new HashSet<>(ids))) {
+            tarifs.put(tarif.getId(), tarif);
+        }
+        return tarifs;
+    }
+}
@@ -0,0 +1,113 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ItineraireResponse;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.iservice.IConnectionService;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.routing.FlightLeg;
+import com.flight.reservation.routing.RouteGraph;
+import com.flight.reservation.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Recherche de correspondances sur le graphe des routes en mémoire.
+ *
+ * Le graphe est chargé au démarrage avec les vols à venir, puis complété après le commit
+ * de chaque ajout de vols ; les prix y suivent le tarif courant après chaque révision. Les vols complets (SoldOutRegistry) sont écartés à la recherche.
+ */
+@Service
+public class ConnectionService implements IConnectionService {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionService.class);
+    private static final int TAILLE_LOT_CHARGEMENT = 50_000;
+
+    private final VolRepository volRepository;
+    private final SoldOutRegistry soldOutRegistry;
+    private final VilleDictionary villeDictionary;
+    private final RouteGraph graph;
+
+    public ConnectionService(VolRepository volRepository,
+                             SoldOutRegistry soldOutRegistry,
+                             VilleDictionary villeDictionary,
+                             @Value("${flight.connections.min-correspondance:45m}") Duration minCorrespondance,
+                             @Value("${flight.connections.max-correspondance:8h}") Duration maxCorrespondance) {
+        this.volRepository = volRepository;
+        this.soldOutRegistry = soldOutRegistry;
+        this.villeDictionary = villeDictionary;
+        this.graph = new RouteGraph(minCorrespondance.toMinutes(), maxCorrespondance.toMinutes());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void charger() {
+        long debut = System.nanoTime();
+        List<FlightLeg> lot = new ArrayList<>();
+        try (Stream<FlightLeg> vols = volRepository.streamFlightLegsDepartingFrom(LocalDate.now().atStartOfDay())) {
+            vols.forEach(vol -> {
+                lot.add(vol);
+                if (lot.size() == TAILLE_LOT_CHARGEMENT) {
+                    graph.addAll(lot);
+                    lot.clear();
+                }
+            });
+        }
+        graph.addAll(lot);
+        logger.info("Graphe des routes chargé: {} vol(s) en {} ms", graph.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debut));
+    }
+
+    public List<ItineraireResponse> rechercher(String villeDepart, String villeArrivee, LocalDate dateDepart,
+                                               int maxEscales, String tri, int limite) {
+        RouteGraph.SortBy critere = "tempstrajet".equalsIgnoreCase(tri) ? RouteGraph.SortBy.TRAVEL_TIME : RouteGraph.SortBy.PRICE;
+        // Le graphe est indexé par nom canonique : un alias y mène
+        return graph.search(villeDictionary.canonique(villeDepart), villeDictionary.canonique(villeArrivee),
+                        dateDepart.atStartOfDay(), dateDepart.plusDays(1).atStartOfDay(), maxEscales, critere, limite, soldOutRegistry::isSoldOut)
+                .stream()
+                .map(itineraire -> new ItineraireResponse(itineraire.escales(), itineraire.prix(),
+                        itineraire.tempsTrajet(), itineraire.dureeTotale(), itineraire.vols()))
+                .toList();
+    }
+
+    public void ajouterAfterCommit(List<Vol> vols) {
+        List<FlightLeg> legs = vols.stream().map(ConnectionService::toLeg).toList();
+        TransactionHooks.afterCommit(() -> graph.addAll(legs));
+    }
+
+    public void mettreAJourPrixAfterCommit(List<Vol> vols) {
+        List<FlightLeg> legs = vols.stream().map(ConnectionService::toLeg).toList();
+        TransactionHooks.afterCommit(() -> graph.updatePrices(legs));
+    }
+
+    /**
+     * État d'un vol pour le graphe, à capturer avant une modification de son horaire.
+     */
+    public FlightLeg instantane(Vol vol) {
+        return toLeg(vol);
+    }
+
+    /**
+     * Remplace dans le graphe, après commit, des vols modifiés ; anciens est leur état capturé
+     * avant la modification (instantane).
+     */
+    public void remplacerAfterCommit(List<FlightLeg> anciens, List<Vol> vols) {
+        List<FlightLeg> legs = vols.stream().map(ConnectionService::toLeg).toList();
+        TransactionHooks.afterCommit(() -> graph.replaceAll(anciens, legs));
+    }
+
+    private static FlightLeg toLeg(Vol vol) {
+        return new FlightLeg(vol.getId(), vol.getVilleDepart(), vol.getVilleArrivee(),
+                vol.getDateDepart(), vol.getDateArrivee(), vol.getPrixCourant(), vol.getTempsTrajet());
+    }
+}
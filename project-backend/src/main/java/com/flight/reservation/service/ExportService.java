@@ -0,0 +1,297 @@
+package com.flight.reservation.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.entity.AuditLog;
+import com.flight.reservation.entity.Reservation;
+import com.flight.reservation.enums.FormatExport;
+import com.flight.reservation.exception.ExportsSaturesException;
+import com.flight.reservation.exception.PeriodeInvalideException;
+import com.flight.reservation.iservice.IExportService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.hibernate.query.Query;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Export en flux des réservations et de l'audit (CSV ou NDJSON) sur une période.
+ *
+ * Les lignes sont lues dans l'ordre (horodatage, id) par fenêtres de taille fixe, chacune dans sa
+ * propre transaction en lecture : un curseur en avant seulement avec un fetch size fixe, chaque
+ * entité détachée dès qu'elle est écrite. La mémoire ne dépend donc pas de la période. Avec SQLite,
+ * une lecture en cours bloque la validation des écritures : entre deux fenêtres, aucune transaction
+ * n'est ouverte et l'export attend le temps nécessaire pour respecter lignes-par-seconde, ce qui
+ * laisse passer les réservations. Le nombre d'exports simultanés est borné.
+ */
+@Service
+public class ExportService implements IExportService {
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final Export<Reservation> RESERVATIONS = new Export<>(
+            Reservation.class, "Reservation r JOIN FETCH r.vol", "r", "createdAt",
+            Reservation::getCreatedAt, Reservation::getId,
+            new String[]{"id", "created_at", "date_annulation", "vol_id", "ville_depart", "ville_arrivee", "date_depart",
+                    "nom", "prenom", "email", "nombre_places", "prix_unitaire", "prix_total", "sieges"},
+            reservation -> new Object[]{reservation.getId(), reservation.getCreatedAt(), reservation.getDateAnnulation(),
+                    reservation.getVol().getId(), reservation.getVol().getVilleDepart(), reservation.getVol().getVilleArrivee(),
+                    reservation.getVol().getDateDepart(), reservation.getPassager().getNom(),
+                    reservation.getPassager().getPrenom(), reservation.getPassager().getEmail(),
+                    reservation.getNombrePlaces(), reservation.getPrixUnitaire(),
+                    reservation.getPrixUnitaire() == null ? null
+                            : reservation.getPrixUnitaire().multiply(BigDecimal.valueOf(reservation.getNombrePlaces())),
+                    reservation.getSieges()});
+
+    private static final Export<AuditLog> AUDIT = new Export<>(
+            AuditLog.class, "AuditLog a", "a", "timestamp",
+            AuditLog::getTimestamp, AuditLog::getId,
+            new String[]{"id", "timestamp", "vol_id", "email_passager", "places_demandees", "places_disponibles_avant",
+                    "statut", "message_erreur", "reservation_id"},
+            audit -> new Object[]{audit.getId(), audit.getTimestamp(), audit.getVolId(), audit.getEmailPassager(),
+                    audit.getPlacesDemandees(), audit.getPlacesDisponiblesAvant(), audit.getStatut(),
+                    audit.getMessageErreur(), audit.getReservationId()});
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final TransactionTemplate lecture;
+    private final ObjectMapper objectMapper;
+    private final Semaphore exports;
+    private final int tailleFenetre;
+    private final int fetchSize;
+    private final double lignesParSeconde;
+    private final Duration periodeMax;
+
+    public ExportService(PlatformTransactionManager transactionManager,
+                         ObjectMapper objectMapper,
+                         @Value("${flight.export.max-concurrents:2}") int maxConcurrents,
+                         @Value("${flight.export.taille-fenetre:2000}") int tailleFenetre,
+                         @Value("${flight.export.fetch-size:500}") int fetchSize,
+                         @Value("${flight.export.lignes-par-seconde:20000}") double lignesParSeconde,
+                         @Value("${flight.export.periode-max:366d}") Duration periodeMax) {
+        this.lecture = new TransactionTemplate(transactionManager);
+        this.lecture.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.exports = new Semaphore(maxConcurrents);
+        this.tailleFenetre = tailleFenetre;
+        this.fetchSize = fetchSize;
+        this.lignesParSeconde = lignesParSeconde;
+        this.periodeMax = periodeMax;
+    }
+
+    /**
+     * Prend une place d'export avant de commencer la réponse ; à rendre par libererExport.
+     */
+    @Override
+    public void reserverExport() {
+        if (!exports.tryAcquire()) {
+            throw new ExportsSaturesException(30);
+        }
+    }
+
+    @Override
+    public void libererExport() {
+        exports.release();
+    }
+
+    @Override
+    public long exporterReservations(LocalDateTime debut, LocalDateTime fin, FormatExport format, OutputStream sortie) throws IOException {
+        return exporter(RESERVATIONS, debut, fin, format, sortie);
+    }
+
+    @Override
+    public long exporterAudit(LocalDateTime debut, LocalDateTime fin, FormatExport format, OutputStream sortie) throws IOException {
+        return exporter(AUDIT, debut, fin, format, sortie);
+    }
+
+    @Override
+    public void validerPeriode(LocalDateTime debut, LocalDateTime fin) {
+        if (!debut.isBefore(fin)) {
+            throw new PeriodeInvalideException("Le début de la période doit précéder sa fin");
+        }
+        if (Duration.between(debut, fin).compareTo(periodeMax) > 0) {
+            throw new PeriodeInvalideException("Période limitée à " + periodeMax.toDays() + " jour(s)");
+        }
+    }
+
+    private <T> long exporter(Export<T> export, LocalDateTime debut, LocalDateTime fin, FormatExport format,
+                              OutputStream sortie) throws IOException {
+        long debutNanos = System.nanoTime();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(sortie, StandardCharsets.UTF_8), 64 * 1024);
+        Curseur curseur = new Curseur();
+        long total = 0;
+        try {
+            if (format == FormatExport.CSV) {
+                ecrireCsv(writer, export.colonnes());
+            }
+            while (true) {
+                int lignes = lecture.execute(status -> fenetre(export, debut, fin, curseur, format, writer));
+                total += lignes;
+                writer.flush();
+                if (lignes < tailleFenetre) {
+                    break;
+                }
+                ralentir(total, debutNanos);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Export {} terminé - Période: {} -> {}, Format: {}, Lignes: {}, Durée: {} ms",
+                export.type().getSimpleName(), debut, fin, format, total,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debutNanos));
+        return total;
+    }
+
+    /**
+     * Une fenêtre de lignes après le curseur, lue en avant seulement ; renvoie le nombre de lignes écrites.
+     */
+    private <T> int fenetre(Export<T> export, LocalDateTime debut, LocalDateTime fin, Curseur curseur,
+                            FormatExport format, Writer writer) {
+        String alias = export.alias();
+        String horodatage = alias + "." + export.horodatage();
+        StringBuilder jpql = new StringBuilder("SELECT ").append(alias).append(" FROM ").append(export.source())
+                .append(" WHERE ").append(horodatage).append(" >= :debut AND ").append(horodatage).append(" < :fin");
+        if (curseur.instant != null) {
+            jpql.append(" AND (").append(horodatage).append(" > :instant OR (").append(horodatage)
+                    .append(" = :instant AND ").append(alias).append(".id > :id))");
+        }
+        jpql.append(" ORDER BY ").append(horodatage).append(", ").append(alias).append(".id");
+
+        Session session = entityManager.unwrap(Session.class);
+        Query<T> query = session.createQuery(jpql.toString(), export.type())
+                .setParameter("debut", debut)
+                .setParameter("fin", fin)
+                .setMaxResults(tailleFenetre)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true);
+        if (curseur.instant != null) {
+            query.setParameter("instant", curseur.instant).setParameter("id", curseur.id);
+        }
+        int lignes = 0;
+        try (ScrollableResults<T> resultats = query.scroll(ScrollMode.FORWARD_ONLY)) {
+            while (resultats.next()) {
+                T ligne = resultats.get();
+                Object[] valeurs = export.valeurs().apply(ligne);
+                if (format == FormatExport.CSV) {
+                    ecrireCsv(writer, valeurs);
+                } else {
+                    ecrireJson(writer, export.colonnes(), valeurs);
+                }
+                curseur.instant = export.instant().apply(ligne);
+                curseur.id = export.id().apply(ligne);
+                // Contexte de persistance vidé au fil de l'eau (la réservation et son vol)
+                session.clear();
+                lignes++;
+            }
+        }
+        return lignes;
+    }
+
+    // Attend que le débit moyen depuis le début de l'export redescende à lignesParSeconde
+    private void ralentir(long lignes, long debutNanos) {
+        if (lignesParSeconde <= 0) {
+            return;
+        }
+        long attenduMs = (long) (lignes * 1000 / lignesParSeconde);
+        long ecouleMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debutNanos);
+        if (attenduMs > ecouleMs) {
+            try {
+                Thread.sleep(attenduMs - ecouleMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Export interrompu", e);
+            }
+        }
+    }
+
+    private static void ecrireCsv(Writer writer, Object[] valeurs) {
+        try {
+            for (int i = 0; i < valeurs.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (valeurs[i] != null) {
+                    writer.write(champCsv(valeurs[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * RFC 4180 : guillemets autour des champs qui contiennent un séparateur, un guillemet ou un saut
+     * de ligne. Un champ qui commence par =, +, - ou @ est préfixé d'une apostrophe pour qu'un tableur
+     * ne l'évalue pas comme une formule.
+     */
+    private static String champCsv(String valeur) {
+        if (!valeur.isEmpty() && "=+-@".indexOf(valeur.charAt(0)) >= 0 && !estNombre(valeur)) {
+            valeur = "'" + valeur;
+        }
+        if (valeur.indexOf(',') < 0 && valeur.indexOf('"') < 0 && valeur.indexOf('\n') < 0 && valeur.indexOf('\r') < 0) {
+            return valeur;
+        }
+        return '"' + valeur.replace("\"", "\"\"") + '"';
+    }
+
+    private static boolean estNombre(String valeur) {
+        try {
+            new BigDecimal(valeur);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void ecrireJson(Writer writer, Object[] colonnes, Object[] valeurs) {
+        Map<Object, Object> ligne = new LinkedHashMap<>();
+        for (int i = 0; i < colonnes.length; i++) {
+            ligne.put(colonnes[i], valeurs[i]);
+        }
+        try {
+            writer.write(objectMapper.writeValueAsString(ligne));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static final class Curseur {
+        LocalDateTime instant;
+        UUID id;
+    }
+
+    /**
+     * Source d'un export : entité lue, clause FROM (alias et jointures), attribut d'horodatage
+     * de la période, colonnes et valeurs d'une ligne.
+     */
+    private record Export<T>(Class<T> type, String source, String alias, String horodatage,
+                             Function<T, LocalDateTime> instant, Function<T, UUID> id,
+                             String[] colonnes, Function<T, Object[]> valeurs) {
+    }
+}
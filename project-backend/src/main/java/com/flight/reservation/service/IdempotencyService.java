@@ -0,0 +1,213 @@
+package com.flight.reservation.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.entity.IdempotencyRecord;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.exception.IdempotencyKeyReuseException;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Gestion de l'en-tête Idempotency-Key sur POST /api/reservations.
+ *
+ * La première requête pour une clé s'exécute normalement ; sa réponse est enregistrée dans la
+ * transaction de la réservation (enregistrer), si bien que la clé et les places sont validées ou
+ * annulées ensemble.
+ * Les doublons concurrents attendent le résultat de cette exécution au lieu de réserver à nouveau,
+ * et les doublons ultérieurs reçoivent la réponse enregistrée, depuis la mémoire ou depuis la table
+ * idempotency_keys après un redémarrage. Ce chemin ne lit jamais la table des vols.
+ *
+ * Seules les réussites sont enregistrées : après un échec, un nouvel essai avec la même clé
+ * s'exécute de nouveau.
+ */
+@Service
+public class IdempotencyService {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final long attenteMaxMs;
+    private final Cache<String, StoredResponse> responses;
+    private final ConcurrentHashMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${flight.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${flight.idempotency.max-entries:100000}") long maxEntries,
+                              @Value("${flight.idempotency.attente-max-ms:30000}") long attenteMaxMs) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.attenteMaxMs = attenteMaxMs;
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Exécute la réservation une seule fois pour cette clé et renvoie sa réponse. L'action doit
+     * enregistrer la clé dans sa transaction (enregistrer).
+     */
+    public IdempotentResult execute(String idempotencyKey, ReservationRequest request, Supplier<ReservationResponse> action) {
+        String empreinte = empreinte(request);
+
+        StoredResponse stored = responses.getIfPresent(idempotencyKey);
+        if (stored != null) {
+            return replay(idempotencyKey, empreinte, stored);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> existing = inFlight.putIfAbsent(idempotencyKey, mine);
+        if (existing != null) {
+            return replay(idempotencyKey, empreinte, await(existing));
+        }
+
+        try {
+            stored = loadPersisted(idempotencyKey);
+            boolean replayed = stored != null;
+            if (!replayed) {
+                stored = new StoredResponse(empreinte, action.get());
+            }
+            responses.put(idempotencyKey, stored);
+            mine.complete(stored);
+            return replayed ? replay(idempotencyKey, empreinte, stored) : new IdempotentResult(stored.response(), false);
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(idempotencyKey, mine);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${flight.idempotency.purge-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+        int supprimees = repository.deleteExpired(LocalDateTime.now());
+        if (supprimees > 0) {
+            logger.info("{} clé(s) d'idempotence expirée(s) supprimée(s)", supprimees);
+        }
+    }
+
+    private IdempotentResult replay(String idempotencyKey, String empreinte, StoredResponse stored) {
+        if (!stored.empreinte().equals(empreinte)) {
+            throw new IdempotencyKeyReuseException(idempotencyKey);
+        }
+        logger.debug("Réponse rejouée pour la clé d'idempotence {}", idempotencyKey);
+        return new IdempotentResult(stored.response(), true);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> existing) {
+        try {
+            return existing.get(attenteMaxMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            // Le doublon reçoit la même erreur que la requête d'origine
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new ReservationConflictException("Une requête avec cette clé d'idempotence est toujours en cours");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ReservationConflictException("Attente interrompue pour cette clé d'idempotence", e);
+        }
+    }
+
+    private StoredResponse loadPersisted(String idempotencyKey) {
+        return repository.findById(idempotencyKey)
+                .filter(record -> record.getExpiresAt().isAfter(LocalDateTime.now()))
+                .map(record -> {
+                    try {
+                        return new StoredResponse(record.getEmpreinte(),
+                                objectMapper.readValue(record.getCorps(), ReservationResponse.class));
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalStateException("Réponse enregistrée illisible pour la clé " + idempotencyKey, e);
+                    }
+                })
+                .orElse(null);
+    }
+
+    /**
+     * Enregistre la réponse de la réservation sous sa clé, dans la transaction de la réservation :
+     * un échec de l'enregistrement annule la réservation.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enregistrer(String idempotencyKey, ReservationRequest request, ReservationResponse response) {
+        String corps;
+        try {
+            corps = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Réponse non sérialisable pour la clé " + idempotencyKey, e);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(new IdempotencyRecord(idempotencyKey, empreinte(request), HttpStatus.CREATED.value(),
+                corps, now, now.plus(ttl)));
+    }
+
+    /**
+     * Empreinte de la requête : vol, passager (nom, prénom, email), nombre de places et sièges choisis,
+     * sans ordre ni casse pour les sièges. Hachée (SHA-256) pour tenir dans la colonne quelle que soit
+     * la liste de sièges.
+     */
+    private static String empreinte(ReservationRequest request) {
+        Passager passager = request.getPassager();
+        String sieges = request.getSieges() == null ? "" : request.getSieges().stream()
+                .filter(Objects::nonNull)
+                .map(siege -> siege.trim().toUpperCase(Locale.ROOT))
+                .sorted()
+                .collect(Collectors.joining(","));
+        String requete = String.join("|",
+                String.valueOf(request.getVolId()),
+                normaliser(passager.getNom()),
+                normaliser(passager.getPrenom()),
+                normaliser(passager.getEmail()).toLowerCase(Locale.ROOT),
+                String.valueOf(request.getNombrePlaces()),
+                sieges);
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(requete.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String normaliser(String valeur) {
+        return valeur == null ? "" : valeur.trim();
+    }
+
+    private record StoredResponse(String empreinte, ReservationResponse response) {
+    }
+
+    public record IdempotentResult(ReservationResponse response, boolean replayed) {
+    }
+}
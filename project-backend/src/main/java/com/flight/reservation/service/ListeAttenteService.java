@@ -0,0 +1,179 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.cache.PassagerReservationsCache;
+import com.flight.reservation.dto.InscriptionAttenteResponse;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.entity.InscriptionAttente;
+import com.flight.reservation.entity.Reservation;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.StatutAttente;
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.exception.InscriptionAttenteNotFoundException;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.iservice.IListeAttenteService;
+import com.flight.reservation.iservice.ITarificationService;
+import com.flight.reservation.repository.InscriptionAttenteRepository;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.VolRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Liste d'attente des vols complets.
+ *
+ * Quand des places se libèrent (annulation, blocage expiré), les inscriptions sont promues en
+ * réservations dans la transaction qui libère les places : par ordre d'inscription, en sautant
+ * les groupes trop grands pour les places restantes (first-fit). Chaque requête ne lit que les
+ * inscriptions qui tiennent dans les places libres, au plus une par place, en suivant l'index
+ * (vol_id, statut, date_inscription) : le coût ne dépend pas de la longueur de la liste.
+ */
+@Service
+@Transactional
+public class ListeAttenteService implements IListeAttenteService {
+    private static final Logger logger = LoggerFactory.getLogger(ListeAttenteService.class);
+    private final InscriptionAttenteRepository inscriptionAttenteRepository;
+    private final VolRepository volRepository;
+    private final ReservationRepository reservationRepository;
+    private final VolService volService;
+    private final SoldOutRegistry soldOutRegistry;
+    private final ReservationOutbox reservationOutbox;
+    private final PassagerReservationsCache passagerReservationsCache;
+    private final ITarificationService tarificationService;
+
+    public ListeAttenteService(InscriptionAttenteRepository inscriptionAttenteRepository, VolRepository volRepository,
+                               ReservationRepository reservationRepository, VolService volService, SoldOutRegistry soldOutRegistry,
+                               ReservationOutbox reservationOutbox, PassagerReservationsCache passagerReservationsCache,
+                               ITarificationService tarificationService) {
+        this.inscriptionAttenteRepository = inscriptionAttenteRepository;
+        this.volRepository = volRepository;
+        this.reservationRepository = reservationRepository;
+        this.volService = volService;
+        this.soldOutRegistry = soldOutRegistry;
+        this.reservationOutbox = reservationOutbox;
+        this.passagerReservationsCache = passagerReservationsCache;
+        this.tarificationService = tarificationService;
+    }
+
+    /**
+     * Inscrit la demande en liste d'attente. S'il reste des places, la liste est promue aussitôt :
+     * la demande passe en réservation si personne ne la précède.
+     */
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2))
+    public InscriptionAttenteResponse inscrire(ReservationRequest request) {
+        UUID volId = request.getVolId();
+        Vol vol = volRepository.findByIdWithOptimisticLock(volId)
+                .orElseThrow(() -> new VolNotFoundException(volId));
+        InscriptionAttente inscription = inscriptionAttenteRepository.save(
+                new InscriptionAttente(vol, request.getPassager(), request.getNombrePlaces()));
+        if (vol.getPlacesDisponibles() > 0) {
+            promouvoirEtInvalider(vol);
+        }
+        logger.info("Inscription en liste d'attente - ID: {}, Vol: {}, Places: {}, Statut: {}",
+                inscription.getId(), volId, inscription.getNombrePlaces(), inscription.getStatut());
+        return toResponse(inscription);
+    }
+
+    @Transactional(readOnly = true)
+    public InscriptionAttenteResponse consulter(UUID inscriptionId) {
+        return toResponse(inscriptionAttenteRepository.findById(inscriptionId)
+                .orElseThrow(() -> new InscriptionAttenteNotFoundException(inscriptionId)));
+    }
+
+    public InscriptionAttenteResponse annuler(UUID inscriptionId) {
+        InscriptionAttente inscription = inscriptionAttenteRepository.findById(inscriptionId)
+                .orElseThrow(() -> new InscriptionAttenteNotFoundException(inscriptionId));
+        if (inscription.getStatut() != StatutAttente.EN_ATTENTE) {
+            throw new ReservationConflictException("L'inscription " + inscriptionId + " n'est plus en attente");
+        }
+        inscription.setStatut(StatutAttente.ANNULEE);
+        logger.info("Inscription en liste d'attente annulée - ID: {}", inscriptionId);
+        return toResponse(inscription);
+    }
+
+    /**
+     * Promeut les inscriptions en attente du vol avec ses places libres. Doit s'exécuter dans
+     * la transaction qui a libéré les places, sur le vol qu'elle a modifié ; l'appelant
+     * se charge des caches du vol.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<InscriptionAttenteResponse> promouvoir(Vol vol) {
+        List<InscriptionAttenteResponse> promues = new ArrayList<>();
+        List<ReservationEvent> events = new ArrayList<>();
+        int libres = vol.getPlacesDisponibles();
+        while (libres > 0) {
+            // Chaque inscription prend au moins une place : libres candidats suffisent
+            List<InscriptionAttente> candidats = inscriptionAttenteRepository.findCandidats(
+                    vol.getId(), StatutAttente.EN_ATTENTE, libres, PageRequest.of(0, libres));
+            if (candidats.isEmpty()) {
+                break;
+            }
+            // Le premier candidat tient toujours : chaque tour promeut au moins une inscription
+            for (InscriptionAttente inscription : candidats) {
+                int places = inscription.getNombrePlaces();
+                if (places > libres) {
+                    continue;
+                }
+                Reservation reservation = new Reservation(vol, inscription.getPassager(), places);
+                reservation.setListeSieges(vol.getSeatMap().labels(vol.reservePlaces(places)));
+                reservation = reservationRepository.save(reservation);
+                inscription.setStatut(StatutAttente.PROMUE);
+                inscription.setReservationId(reservation.getId());
+                inscription.setDatePromotion(LocalDateTime.now());
+                promues.add(toResponse(inscription));
+                events.add(new ReservationEvent(this, vol.getId(), inscription.getPassager().getEmail(), places,
+                        libres, StatutReservation.SUCCESS, null, reservation.getId()));
+                passagerReservationsCache.evictAfterCommit(inscription.getPassager().getEmail());
+                libres -= places;
+            }
+        }
+        if (promues.isEmpty()) {
+            return promues;
+        }
+        reservationOutbox.enregistrerTous(events);
+        tarificationService.reviser(vol);
+        if (vol.getPlacesDisponibles() == 0) {
+            soldOutRegistry.markSoldOutAfterCommit(vol.getId());
+        }
+        logger.info("Liste d'attente promue - Vol: {}, Inscriptions promues: {}, Places restantes: {}",
+                vol.getId(), promues.size(), libres);
+        return promues;
+    }
+
+    private void promouvoirEtInvalider(Vol vol) {
+        if (!promouvoir(vol).isEmpty()) {
+            volRepository.save(vol);
+            volService.evictCache(vol.getId());
+            volService.evictSearchCache(vol);
+        }
+    }
+
+    private InscriptionAttenteResponse toResponse(InscriptionAttente inscription) {
+        Long position = inscription.getStatut() == StatutAttente.EN_ATTENTE
+                ? inscriptionAttenteRepository.countAvant(inscription.getVol().getId(), StatutAttente.EN_ATTENTE,
+                        inscription.getDateInscription(), inscription.getId())
+                : null;
+        return new InscriptionAttenteResponse(
+                inscription.getId(),
+                inscription.getVol().getId(),
+                inscription.getNombrePlaces(),
+                inscription.getStatut(),
+                inscription.getDateInscription(),
+                position,
+                inscription.getReservationId()
+        );
+    }
+}
@@ -0,0 +1,61 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.OutboxEvent;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.repository.OutboxEventRepository;
+import com.flight.reservation.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Écriture des événements de réservation dans l'outbox.
+ *
+ * Un succès est écrit dans la transaction de la réservation : il n'existe que si elle est validée.
+ * Un échec fait en général annuler cette transaction ; il est donc écrit après sa fin, dans une
+ * transaction à part.
+ */
+@Component
+public class ReservationOutbox {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationOutbox.class);
+
+    private final OutboxEventRepository repository;
+    private final TransactionTemplate requiresNew;
+
+    public ReservationOutbox(OutboxEventRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enregistrer(ReservationEvent event) {
+        repository.save(new OutboxEvent(event));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enregistrerTous(List<ReservationEvent> events) {
+        repository.saveAll(events.stream().map(OutboxEvent::new).toList());
+    }
+
+    /**
+     * Enregistre l'événement une fois la transaction courante terminée, quelle qu'en soit l'issue.
+     */
+    public void enregistrerApresTransaction(ReservationEvent event) {
+        OutboxEvent outboxEvent = new OutboxEvent(event);
+        TransactionHooks.afterCompletion(() -> {
+            try {
+                requiresNew.executeWithoutResult(status -> repository.save(outboxEvent));
+            } catch (RuntimeException e) {
+                logger.error("Impossible d'enregistrer l'événement d'échec dans l'outbox", e);
+            }
+        });
+    }
+}
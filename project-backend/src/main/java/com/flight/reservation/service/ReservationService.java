@@ -1,46 +1,129 @@
 package com.flight.reservation.service;
 
+import com.flight.reservation.cache.PassagerReservationsCache;
+import com.flight.reservation.dto.AnnulationResponse;
+import com.flight.reservation.dto.BatchItemResult;
+import com.flight.reservation.dto.BatchReservationRequest;
+import com.flight.reservation.dto.BatchReservationResponse;
+import com.flight.reservation.dto.ErrorResponse;
+import com.flight.reservation.dto.InscriptionAttenteResponse;
+import com.flight.reservation.dto.ReservationPageResponse;
 import com.flight.reservation.dto.ReservationRequest;
 import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.dto.ReservationSummary;
 import com.flight.reservation.entity.Reservation;
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.ModeBatch;
 import com.flight.reservation.enums.StatutReservation;
 import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.exception.CurseurInvalideException;
 import com.flight.reservation.exception.PlacesInsuffisantesException;
 import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.exception.ReservationNotFoundException;
+import com.flight.reservation.exception.SiegesIndisponiblesException;
+import com.flight.reservation.exception.SiegesInvalidesException;
 import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.iservice.ICalendrierTarifService;
+import com.flight.reservation.iservice.IListeAttenteService;
 import com.flight.reservation.iservice.IReservationService;
+import com.flight.reservation.iservice.ITarificationService;
 import com.flight.reservation.repository.ReservationRepository;
 import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.retry.ContentionRetryManager;
+import com.flight.reservation.seating.SeatMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class ReservationService implements IReservationService {
     private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
+    // Taille des pages de réservations d'un passager ; seule la première page de cette taille est mise en cache
+    public static final int TAILLE_PAGE_PAR_DEFAUT = 20;
     private final ReservationRepository reservationRepository;
     private final VolRepository volRepository;
     private final VolService volService;
-    private final ApplicationEventPublisher eventPublisher;
+    private final ReservationOutbox reservationOutbox;
+    private final SoldOutRegistry soldOutRegistry;
+    private final ContentionRetryManager retryManager;
+    private final TransactionTemplate transactionTemplate;
+    private final PassagerReservationsCache passagerReservationsCache;
+    private final IListeAttenteService listeAttenteService;
+    private final ICalendrierTarifService calendrierTarifService;
+    private final ITarificationService tarificationService;
+    private final IdempotencyService idempotencyService;
 
-    public ReservationService(ReservationRepository reservationRepository, VolRepository volRepository, VolService volService, ApplicationEventPublisher eventPublisher) {
+    public ReservationService(ReservationRepository reservationRepository, VolRepository volRepository, VolService volService, ReservationOutbox reservationOutbox, SoldOutRegistry soldOutRegistry,
+                              ContentionRetryManager retryManager, PlatformTransactionManager transactionManager,
+                              PassagerReservationsCache passagerReservationsCache, IListeAttenteService listeAttenteService,
+                              ICalendrierTarifService calendrierTarifService, ITarificationService tarificationService,
+                              IdempotencyService idempotencyService) {
         this.reservationRepository = reservationRepository;
         this.volRepository = volRepository;
         this.volService = volService;
-        this.eventPublisher = eventPublisher;
+        this.reservationOutbox = reservationOutbox;
+        this.soldOutRegistry = soldOutRegistry;
+        this.retryManager = retryManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passagerReservationsCache = passagerReservationsCache;
+        this.listeAttenteService = listeAttenteService;
+        this.calendrierTarifService = calendrierTarifService;
+        this.tarificationService = tarificationService;
+        this.idempotencyService = idempotencyService;
     }
 
-    @Retryable(retryFor = {OptimisticLockingFailureException.class, ReservationConflictException.class}, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2))
+    /**
+     * Chaque tentative s'exécute dans sa propre transaction : un conflit détecté au commit
+     * est repris par le ContentionRetryManager, selon la contention du vol. Le conflit n'est
+     * audité qu'une fois, quand les reprises sont épuisées : une demande compte pour une tentative.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ReservationResponse creerReservation(ReservationRequest request) {
+        return creerReservation(request, null);
+    }
+
+    /**
+     * Avec une clé d'idempotence, la réponse est enregistrée sous cette clé dans la transaction
+     * de la tentative : la clé n'existe que si la réservation est validée, et inversement.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReservationResponse creerReservation(ReservationRequest request, String idempotencyKey) {
+        try {
+            return retryManager.execute(request.getVolId(),
+                    () -> transactionTemplate.execute(status -> tenterReservation(request, idempotencyKey)));
+        } catch (OptimisticLockingFailureException | ReservationConflictException e) {
+            publishAuditEvent(request.getVolId(), request.getPassager().getEmail(), request.getNombrePlaces(), null,
+                    StatutReservation.FAILED, "Conflit de concurrence", null);
+            throw e;
+        }
+    }
+
+    private ReservationResponse tenterReservation(ReservationRequest request, String idempotencyKey) {
         UUID volId = request.getVolId();
         String emailPassager = request.getPassager().getEmail();
         Integer nombrePlaces = request.getNombrePlaces();
@@ -55,37 +138,59 @@ public class ReservationService implements IReservationService {
 
             // Vérification de la disponibilité
             if (!vol.hasAvailableSeats(nombrePlaces)) {
+                if (placesDisponiblesAvant == 0) {
+                    soldOutRegistry.markSoldOut(volId);
+                }
                 publishAuditEvent(volId, emailPassager, nombrePlaces, placesDisponiblesAvant,
                         StatutReservation.FAILED, "Places insuffisantes", null);
                 throw new PlacesInsuffisantesException(placesDisponiblesAvant, nombrePlaces);
             }
 
-            // Réservation des places
-            vol.reservePlaces(nombrePlaces);
-            volRepository.save(vol);
+            // Tarif du palier d'échéance en cours : c'est celui que paie la réservation
+            tarificationService.reviser(vol);
 
-            // Création de la réservation
+            // Réservation des places : sièges choisis, sinon attribués côte à côte si possible
+            int[] sieges;
+            if (request.getSieges() != null && !request.getSieges().isEmpty()) {
+                sieges = siegesDemandes(vol, request);
+                if (!vol.reserveSieges(sieges)) {
+                    throw new SiegesIndisponiblesException(request.getSieges());
+                }
+            } else {
+                sieges = vol.reservePlaces(nombrePlaces);
+            }
+
+            // Création de la réservation, au tarif d'avant le palier de remplissage qu'elle fait franchir
             Reservation reservation = new Reservation(vol, request.getPassager(), nombrePlaces);
+            reservation.setListeSieges(vol.getSeatMap().labels(sieges));
+            tarificationService.reviser(vol);
+            volRepository.save(vol);
+            if (vol.getPlacesDisponibles() == 0) {
+                soldOutRegistry.markSoldOutAfterCommit(volId);
+            }
             reservation = reservationRepository.save(reservation);
 
             // Éviction du cache
             volService.evictCache(volId);
+            volService.evictSearchCache(vol);
+            passagerReservationsCache.evictAfterCommit(emailPassager);
 
             // Audit de succès
             publishAuditEvent(volId, emailPassager, nombrePlaces, placesDisponiblesAvant, StatutReservation.SUCCESS, null, reservation.getId());
 
+            ReservationResponse response = new ReservationResponse(reservation);
+            if (idempotencyKey != null) {
+                idempotencyService.enregistrer(idempotencyKey, request, response);
+            }
+
             logger.info("Réservation créée avec succès - ID: {}, Vol: {}", reservation.getId(), volId);
-            return new ReservationResponse(
-                    reservation.getId(),
-                    volId,
-                    request.getPassager(),
-                    nombrePlaces,
-                    reservation.getCreatedAt()
-            );
+            return response;
         } catch (OptimisticLockingFailureException e) {
             logger.warn("Conflit de concurrence détecté pour le vol: {}", volId);
-            publishAuditEvent(volId, emailPassager, nombrePlaces, null, StatutReservation.FAILED, "Conflit de concurrence", null);
             throw new ReservationConflictException("Conflit détecté, veuillez réessayer", e);
+        } catch (PlacesInsuffisantesException e) {
+            // Déjà auditée avant d'être levée
+            throw e;
         } catch (Exception e) {
             logger.error("Erreur lors de la réservation pour le vol: {}", volId, e);
             Integer placesDisponiblesAvant = (vol != null) ? vol.getPlacesDisponibles() : 0;
@@ -94,6 +199,235 @@ public class ReservationService implements IReservationService {
         }
     }
 
+    /**
+     * Réserve un lot en une seule transaction : les demandes sont regroupées par vol, chaque vol
+     * est lu une fois (un seul findAllById pour tout le lot) et écrit une fois, et les réservations
+     * sont insérées par lots JDBC (hibernate.jdbc.batch_size). L'audit du lot passe par l'outbox.
+     *
+     * En ALL_OR_NOTHING, rien n'est écrit si une demande échoue ; les autres sont rendues en échec
+     * avec le code BATCH_ABORTED. En BEST_EFFORT, chaque demande réussit ou échoue seule, dans l'ordre du lot.
+     */
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2))
+    public BatchReservationResponse creerReservations(BatchReservationRequest request) {
+        List<ReservationRequest> demandes = request.getReservations();
+        logger.info("Tentative de réservation par lot - Demandes: {}, Mode: {}", demandes.size(), request.getMode());
+
+        Map<UUID, List<Integer>> indexParVol = new LinkedHashMap<>();
+        for (int i = 0; i < demandes.size(); i++) {
+            indexParVol.computeIfAbsent(demandes.get(i).getVolId(), id -> new ArrayList<>()).add(i);
+        }
+        Map<UUID, Vol> vols = volRepository.findAllById(indexParVol.keySet()).stream()
+                .collect(Collectors.toMap(Vol::getId, Function.identity()));
+
+        BatchItemResult[] resultats = new BatchItemResult[demandes.size()];
+        Map<UUID, Integer> placesDisponiblesAvant = new HashMap<>();
+        Set<Vol> volsAccordes = new LinkedHashSet<>();
+        List<Reservation> reservations = new ArrayList<>();
+        List<Integer> indexReservations = new ArrayList<>();
+        for (Map.Entry<UUID, List<Integer>> groupe : indexParVol.entrySet()) {
+            UUID volId = groupe.getKey();
+            Vol vol = vols.get(volId);
+            if (vol == null) {
+                ErrorResponse erreur = new ErrorResponse("VOL_NOT_FOUND", new VolNotFoundException(volId).getMessage());
+                groupe.getValue().forEach(i -> resultats[i] = BatchItemResult.echec(i, erreur));
+                continue;
+            }
+            placesDisponiblesAvant.put(volId, vol.getPlacesDisponibles());
+            tarificationService.reviser(vol);
+            // Décompte en mémoire : le vol n'est modifié qu'une fois, quand tout le lot a été examiné
+            int disponibles = vol.getPlacesDisponibles();
+            int placesAccordees = 0;
+            for (int i : groupe.getValue()) {
+                ReservationRequest demande = demandes.get(i);
+                if (demande.getSieges() != null && !demande.getSieges().isEmpty()) {
+                    // Les sièges d'un lot sont attribués côte à côte par vol, sans choix individuel
+                    resultats[i] = BatchItemResult.echec(i, new ErrorResponse("INVALID_SEATS",
+                            "Le choix des sièges n'est pas disponible pour les réservations par lot"));
+                    continue;
+                }
+                if (demande.getNombrePlaces() > disponibles) {
+                    PlacesInsuffisantesException ex = new PlacesInsuffisantesException(disponibles, demande.getNombrePlaces());
+                    resultats[i] = BatchItemResult.echec(i, new ErrorResponse("INSUFFICIENT_SEATS", ex.getMessage(),
+                            String.format("Places disponibles: %d, Places demandées: %d", disponibles, demande.getNombrePlaces())));
+                    continue;
+                }
+                disponibles -= demande.getNombrePlaces();
+                placesAccordees += demande.getNombrePlaces();
+                reservations.add(new Reservation(vol, demande.getPassager(), demande.getNombrePlaces()));
+                indexReservations.add(i);
+            }
+            if (placesAccordees > 0) {
+                volsAccordes.add(vol);
+            }
+        }
+
+        boolean annule = request.getMode() == ModeBatch.ALL_OR_NOTHING && reservations.size() < demandes.size();
+        if (annule) {
+            ErrorResponse erreur = new ErrorResponse("BATCH_ABORTED", "Lot annulé : au moins une réservation du lot a échoué");
+            indexReservations.forEach(i -> resultats[i] = BatchItemResult.echec(i, erreur));
+            publishBatchAuditEvent(demandes, resultats, placesDisponiblesAvant);
+            logger.info("Lot de réservations annulé - Demandes: {}", demandes.size());
+            return new BatchReservationResponse(request.getMode(), Arrays.asList(resultats));
+        }
+
+        for (Reservation reservation : reservations) {
+            Vol vol = reservation.getVol();
+            reservation.setListeSieges(vol.getSeatMap().labels(vol.reservePlaces(reservation.getNombrePlaces())));
+        }
+        List<Vol> volsModifies = List.copyOf(volsAccordes);
+        volsModifies.forEach(tarificationService::reviser);
+        volRepository.saveAll(volsModifies);
+        reservations = reservationRepository.saveAll(reservations);
+        for (int r = 0; r < reservations.size(); r++) {
+            Reservation reservation = reservations.get(r);
+            int i = indexReservations.get(r);
+            resultats[i] = BatchItemResult.succes(i, new ReservationResponse(reservation));
+        }
+        for (Vol vol : volsModifies) {
+            if (vol.getPlacesDisponibles() == 0) {
+                soldOutRegistry.markSoldOutAfterCommit(vol.getId());
+            }
+        }
+        volService.evictCaches(volsModifies);
+        reservations.stream()
+                .map(reservation -> reservation.getPassager().getEmail())
+                .distinct()
+                .forEach(passagerReservationsCache::evictAfterCommit);
+        publishBatchAuditEvent(demandes, resultats, placesDisponiblesAvant);
+
+        logger.info("Lot de réservations traité - Réussies: {}, Échecs: {}", reservations.size(), demandes.size() - reservations.size());
+        return new BatchReservationResponse(request.getMode(), Arrays.asList(resultats));
+    }
+
+    /**
+     * Annule une réservation et rend ses places au vol. La liste d'attente du vol est promue dans
+     * la même transaction : les places libérées ne sont jamais visibles hors de la liste d'attente
+     * tant qu'une inscription peut les prendre.
+     */
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2))
+    public AnnulationResponse annulerReservation(UUID reservationId) {
+        Reservation reservation = reservationRepository.findById(reservationId)
+                .orElseThrow(() -> new ReservationNotFoundException(reservationId));
+        if (reservation.getDateAnnulation() != null) {
+            throw new ReservationConflictException("La réservation " + reservationId + " est déjà annulée");
+        }
+
+        Vol vol = reservation.getVol();
+        SeatMap plan = vol.getSeatMap();
+        int[] sieges = reservation.getSieges() == null ? null
+                : reservation.getListeSieges().stream().mapToInt(plan::parse).filter(siege -> siege >= 0).toArray();
+        vol.libererPlaces(reservation.getNombrePlaces(), sieges);
+        reservation.setDateAnnulation(LocalDateTime.now());
+        tarificationService.reviser(vol);
+        calendrierTarifService.libererPlaces(vol, reservation.getNombrePlaces());
+        soldOutRegistry.markAvailableAfterCommit(vol.getId());
+        List<InscriptionAttenteResponse> promotions = listeAttenteService.promouvoir(vol);
+        volRepository.save(vol);
+
+        volService.evictCache(vol.getId());
+        volService.evictSearchCache(vol);
+        passagerReservationsCache.evictAfterCommit(reservation.getPassager().getEmail());
+        logger.info("Réservation annulée - ID: {}, Vol: {}, Places libérées: {}, Promotions: {}",
+                reservationId, vol.getId(), reservation.getNombrePlaces(), promotions.size());
+        return new AnnulationResponse(reservationId, vol.getId(), reservation.getNombrePlaces(),
+                reservation.getDateAnnulation(), promotions);
+    }
+
+    private static int[] siegesDemandes(Vol vol, ReservationRequest request) {
+        List<String> libelles = request.getSieges();
+        if (libelles.size() != request.getNombrePlaces()) {
+            throw new SiegesInvalidesException("Il faut un siège par place demandée (" + request.getNombrePlaces() + ")");
+        }
+        SeatMap plan = vol.getSeatMap();
+        int[] sieges = new int[libelles.size()];
+        Set<Integer> vus = new HashSet<>();
+        for (int i = 0; i < sieges.length; i++) {
+            sieges[i] = plan.parse(libelles.get(i));
+            if (sieges[i] < 0) {
+                throw new SiegesInvalidesException("Siège inconnu sur ce vol: " + libelles.get(i));
+            }
+            if (!vus.add(sieges[i])) {
+                throw new SiegesInvalidesException("Siège demandé deux fois: " + libelles.get(i));
+            }
+        }
+        return sieges;
+    }
+
+    /**
+     * Réservations d'un passager, les plus récentes d'abord, par pages de taille réservations.
+     * La pagination se fait par curseur (created_at, id) et suit l'index du même nom : chaque page
+     * coûte le même prix, quelle que soit sa position. La première page de taille par défaut est
+     * servie depuis le cache.
+     */
+    @Transactional(readOnly = true)
+    public ReservationPageResponse findByEmail(String email, String curseur, Integer taille) {
+        int limite = taille != null ? taille : TAILLE_PAGE_PAR_DEFAUT;
+        if (curseur == null && limite == TAILLE_PAGE_PAR_DEFAUT) {
+            return passagerReservationsCache.get(email, () -> chargerPage(email, null, limite));
+        }
+        return chargerPage(email, curseur, limite);
+    }
+
+    private ReservationPageResponse chargerPage(String email, String curseur, int limite) {
+        // Une ligne de plus que la page indique s'il en reste après
+        PageRequest plafond = PageRequest.of(0, limite + 1);
+        List<ReservationSummary> lignes;
+        if (curseur == null) {
+            lignes = reservationRepository.findPremierePageByEmail(email, plafond);
+        } else {
+            Curseur position = Curseur.decoder(curseur);
+            lignes = reservationRepository.findPageSuivanteByEmail(email, position.createdAt(), position.id(), plafond);
+        }
+        if (lignes.size() <= limite) {
+            return new ReservationPageResponse(lignes, null);
+        }
+        List<ReservationSummary> page = List.copyOf(lignes.subList(0, limite));
+        ReservationSummary derniere = page.get(limite - 1);
+        return new ReservationPageResponse(page,
+                new Curseur(derniere.getDateReservation(), derniere.getNumeroReservation()).encoder());
+    }
+
+    /**
+     * Position dans la liste des réservations d'un passager, transmise au client sous forme opaque.
+     */
+    private record Curseur(LocalDateTime createdAt, UUID id) {
+
+        String encoder() {
+            String brut = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Curseur decoder(String curseur) {
+            try {
+                String brut = new String(Base64.getUrlDecoder().decode(curseur), StandardCharsets.UTF_8);
+                int separateur = brut.indexOf('|');
+                return new Curseur(LocalDateTime.parse(brut.substring(0, separateur)), UUID.fromString(brut.substring(separateur + 1)));
+            } catch (RuntimeException e) {
+                throw new CurseurInvalideException(curseur);
+            }
+        }
+    }
+
+    private void publishBatchAuditEvent(List<ReservationRequest> demandes, BatchItemResult[] resultats, Map<UUID, Integer> placesDisponiblesAvant) {
+        List<ReservationEvent> events = new ArrayList<>(demandes.size());
+        for (int i = 0; i < demandes.size(); i++) {
+            ReservationRequest demande = demandes.get(i);
+            BatchItemResult resultat = resultats[i];
+            events.add(new ReservationEvent(
+                    this,
+                    demande.getVolId(),
+                    demande.getPassager().getEmail(),
+                    demande.getNombrePlaces(),
+                    placesDisponiblesAvant.get(demande.getVolId()),
+                    resultat.getStatut(),
+                    resultat.getErreur() != null ? resultat.getErreur().getMessage() : null,
+                    resultat.getReservation() != null ? resultat.getReservation().getNumeroReservation() : null
+            ));
+        }
+        // Le lot s'écrit dans sa propre transaction : en ALL_OR_NOTHING comme en BEST_EFFORT elle est validée
+        reservationOutbox.enregistrerTous(events);
+    }
+
     private void publishAuditEvent(UUID volId, String emailPassager, Integer placesDemandees, Integer placesDisponiblesAvant, StatutReservation statut, String messageErreur, UUID reservationId) {
         ReservationEvent event = new ReservationEvent(
                 this,
@@ -105,6 +439,11 @@ public class ReservationService implements IReservationService {
                 messageErreur,
                 reservationId
         );
-        eventPublisher.publishEvent(event);
+        if (statut == StatutReservation.SUCCESS) {
+            reservationOutbox.enregistrer(event);
+        } else {
+            // La transaction de la tentative sera annulée : l'échec est enregistré après sa fin
+            reservationOutbox.enregistrerApresTransaction(event);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.dto.ErrorResponse;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.dto.TicketResponse;
+import com.flight.reservation.enums.StatutTicket;
+import com.flight.reservation.exception.ErrorResponses;
+import com.flight.reservation.exception.FileReservationSatureeException;
+import com.flight.reservation.exception.TicketNotFoundException;
+import com.flight.reservation.iservice.IReservationService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Réservations soumises en mode asynchrone.
+ *
+ * La requête est mise en file sur un exécuteur borné et un ticket est rendu immédiatement ;
+ * le thread HTTP n'attend ni la transaction ni les reprises sur conflit. Quand la file est pleine,
+ * la soumission est refusée tout de suite (503 + Retry-After) plutôt que d'allonger l'attente.
+ *
+ * Un ticket n'est qu'un CompletableFuture dans un cache Caffeine à expiration : une fois terminé,
+ * il ne retient que la réponse finale, déjà au format renvoyé au client.
+ */
+@Service
+public class ReservationTicketService {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationTicketService.class);
+
+    private final IReservationService reservationService;
+    private final SoldOutRegistry soldOutRegistry;
+    private final ThreadPoolTaskExecutor executor;
+    private final long retryAfterSeconds;
+    private final long attenteMaxMs;
+    private final Cache<UUID, CompletableFuture<TicketResponse>> tickets;
+
+    public ReservationTicketService(IReservationService reservationService,
+                                    SoldOutRegistry soldOutRegistry,
+                                    @Qualifier("reservationSubmissionExecutor") ThreadPoolTaskExecutor executor,
+                                    @Value("${flight.async-reservations.ticket-ttl:15m}") Duration ticketTtl,
+                                    @Value("${flight.async-reservations.max-tickets:200000}") long maxTickets,
+                                    @Value("${flight.async-reservations.retry-after-s:2}") long retryAfterSeconds,
+                                    @Value("${flight.async-reservations.attente-max:20s}") Duration attenteMax) {
+        this.reservationService = reservationService;
+        this.soldOutRegistry = soldOutRegistry;
+        this.executor = executor;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.attenteMaxMs = attenteMax.toMillis();
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(ticketTtl)
+                .maximumSize(maxTickets)
+                .build();
+    }
+
+    /**
+     * Met la réservation en file et renvoie l'identifiant du ticket.
+     */
+    public UUID soumettre(ReservationRequest request) {
+        UUID ticketId = UUID.randomUUID();
+        CompletableFuture<TicketResponse> resultat = new CompletableFuture<>();
+        tickets.put(ticketId, resultat);
+        try {
+            executor.execute(() -> traiter(ticketId, request, resultat));
+        } catch (TaskRejectedException e) {
+            tickets.invalidate(ticketId);
+            logger.warn("File de réservations saturée ({} en attente)", executor.getQueueSize());
+            throw new FileReservationSatureeException(retryAfterSeconds);
+        }
+        return ticketId;
+    }
+
+    /**
+     * Renvoie l'état du ticket, en attendant au plus attenteMs qu'il soit terminé.
+     * Le futur renvoyé ne bloque aucun thread pendant l'attente.
+     */
+    public CompletableFuture<TicketResponse> consulter(UUID ticketId, long attenteMs) {
+        CompletableFuture<TicketResponse> resultat = tickets.getIfPresent(ticketId);
+        if (resultat == null) {
+            throw new TicketNotFoundException(ticketId);
+        }
+        TicketResponse enAttente = new TicketResponse(ticketId, StatutTicket.EN_ATTENTE, null, null);
+        if (resultat.isDone() || attenteMs <= 0) {
+            return CompletableFuture.completedFuture(resultat.getNow(enAttente));
+        }
+        return resultat.copy().completeOnTimeout(enAttente, Math.min(attenteMs, attenteMaxMs), TimeUnit.MILLISECONDS);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    private void traiter(UUID ticketId, ReservationRequest request, CompletableFuture<TicketResponse> resultat) {
+        try {
+            // Le vol a pu se remplir pendant que la requête attendait dans la file
+            soldOutRegistry.rejectIfSoldOut(request.getVolId(), request.getNombrePlaces());
+            ReservationResponse reservation = reservationService.creerReservation(request);
+            resultat.complete(new TicketResponse(ticketId, StatutTicket.CONFIRME, reservation, null));
+        } catch (RuntimeException e) {
+            logger.info("Réservation asynchrone en échec - Ticket: {}, Cause: {}", ticketId, e.getMessage());
+            resultat.complete(new TicketResponse(ticketId, StatutTicket.ECHEC, null, toErreur(e)));
+        }
+    }
+
+    private static ErrorResponse toErreur(RuntimeException e) {
+        ErrorResponses.ApiError erreur = ErrorResponses.of(e);
+        if (erreur.isInterne()) {
+            logger.error("Erreur inattendue sur une réservation asynchrone: ", e);
+        }
+        return erreur.body();
+    }
+}
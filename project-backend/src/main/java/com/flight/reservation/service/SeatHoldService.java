@@ -0,0 +1,162 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.cache.PassagerReservationsCache;
+import com.flight.reservation.dto.HoldResponse;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.entity.Reservation;
+import com.flight.reservation.entity.SeatHold;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.StatutHold;
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.event.ReservationEvent;
+import com.flight.reservation.exception.HoldExpireException;
+import com.flight.reservation.exception.HoldNotFoundException;
+import com.flight.reservation.exception.PlacesInsuffisantesException;
+import com.flight.reservation.exception.ReservationConflictException;
+import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.iservice.ICalendrierTarifService;
+import com.flight.reservation.iservice.IListeAttenteService;
+import com.flight.reservation.iservice.ISeatHoldService;
+import com.flight.reservation.iservice.ITarificationService;
+import com.flight.reservation.repository.ReservationRepository;
+import com.flight.reservation.repository.SeatHoldRepository;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.scheduling.SeatHoldExpiryScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+@Transactional
+public class SeatHoldService implements ISeatHoldService {
+    private static final Logger logger = LoggerFactory.getLogger(SeatHoldService.class);
+    private final SeatHoldRepository seatHoldRepository;
+    private final VolRepository volRepository;
+    private final ReservationRepository reservationRepository;
+    private final VolService volService;
+    private final SoldOutRegistry soldOutRegistry;
+    private final SeatHoldExpiryScheduler expiryScheduler;
+    private final ReservationOutbox reservationOutbox;
+    private final PassagerReservationsCache passagerReservationsCache;
+    private final IListeAttenteService listeAttenteService;
+    private final ITarificationService tarificationService;
+    private final ICalendrierTarifService calendrierTarifService;
+    private final Duration ttl;
+
+    public SeatHoldService(SeatHoldRepository seatHoldRepository, VolRepository volRepository, ReservationRepository reservationRepository,
+                           VolService volService, SoldOutRegistry soldOutRegistry, SeatHoldExpiryScheduler expiryScheduler,
+                           ReservationOutbox reservationOutbox, PassagerReservationsCache passagerReservationsCache,
+                           IListeAttenteService listeAttenteService, ITarificationService tarificationService,
+                           ICalendrierTarifService calendrierTarifService,
+                           @Value("${flight.holds.ttl:10m}") Duration ttl) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.volRepository = volRepository;
+        this.reservationRepository = reservationRepository;
+        this.volService = volService;
+        this.soldOutRegistry = soldOutRegistry;
+        this.expiryScheduler = expiryScheduler;
+        this.reservationOutbox = reservationOutbox;
+        this.passagerReservationsCache = passagerReservationsCache;
+        this.listeAttenteService = listeAttenteService;
+        this.tarificationService = tarificationService;
+        this.calendrierTarifService = calendrierTarifService;
+        this.ttl = ttl;
+    }
+
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2))
+    public HoldResponse creerHold(ReservationRequest request) {
+        UUID volId = request.getVolId();
+        Integer nombrePlaces = request.getNombrePlaces();
+        Vol vol = volRepository.findByIdWithOptimisticLock(volId)
+                .orElseThrow(() -> new VolNotFoundException(volId));
+        Integer placesDisponiblesAvant = vol.getPlacesDisponibles();
+        if (!vol.hasAvailableSeats(nombrePlaces)) {
+            if (placesDisponiblesAvant == 0) {
+                soldOutRegistry.markSoldOut(volId);
+            }
+            throw new PlacesInsuffisantesException(placesDisponiblesAvant, nombrePlaces);
+        }
+
+        vol.bloquerPlaces(nombrePlaces);
+        volRepository.save(vol);
+        SeatHold hold = seatHoldRepository.save(new SeatHold(vol, request.getPassager(), nombrePlaces, LocalDateTime.now().plus(ttl)));
+        calendrierTarifService.bloquerPlaces(vol, nombrePlaces);
+        if (vol.getPlacesDisponibles() == 0) {
+            soldOutRegistry.markSoldOutAfterCommit(volId);
+        }
+        evictCaches(vol);
+        expiryScheduler.scheduleAfterCommit(hold.getId(), hold.getExpiresAt());
+
+        logger.info("Places bloquées - Hold: {}, Vol: {}, Places: {}, Expiration: {}", hold.getId(), volId, nombrePlaces, hold.getExpiresAt());
+        return new HoldResponse(hold.getId(), volId, nombrePlaces, hold.getExpiresAt());
+    }
+
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2))
+    public ReservationResponse confirmerHold(UUID holdId) {
+        SeatHold hold = seatHoldRepository.findById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException(holdId));
+        if (hold.getStatut() == StatutHold.CONFIRME) {
+            throw new ReservationConflictException("Le blocage " + holdId + " a déjà été confirmé");
+        }
+        if (hold.getStatut() == StatutHold.EXPIRE || !hold.getExpiresAt().isAfter(LocalDateTime.now())) {
+            throw new HoldExpireException(holdId);
+        }
+
+        Vol vol = hold.getVol();
+        Integer placesDisponiblesAvant = vol.getPlacesDisponibles();
+        // Le blocage garde les places, pas le tarif : la réservation paie le tarif courant à la confirmation
+        tarificationService.reviser(vol);
+        int[] sieges = vol.confirmerPlacesBloquees(hold.getNombrePlaces());
+        Reservation reservation = new Reservation(vol, hold.getPassager(), hold.getNombrePlaces());
+        reservation.setListeSieges(vol.getSeatMap().labels(sieges));
+        tarificationService.reviser(vol);
+        volRepository.save(vol);
+        reservation = reservationRepository.save(reservation);
+        hold.setStatut(StatutHold.CONFIRME);
+        hold.setReservationId(reservation.getId());
+        // Le calendrier récupère les places du blocage ; le relais de la réservation les retire
+        calendrierTarifService.libererPlaces(vol, hold.getNombrePlaces());
+        evictCaches(vol);
+        passagerReservationsCache.evictAfterCommit(hold.getPassager().getEmail());
+        expiryScheduler.cancelAfterCommit(holdId);
+
+        reservationOutbox.enregistrer(new ReservationEvent(this, vol.getId(), hold.getPassager().getEmail(), hold.getNombrePlaces(),
+                placesDisponiblesAvant, StatutReservation.SUCCESS, null, reservation.getId()));
+        logger.info("Blocage confirmé - Hold: {}, Réservation: {}", holdId, reservation.getId());
+        return new ReservationResponse(reservation);
+    }
+
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2))
+    public void expirerHold(UUID holdId) {
+        SeatHold hold = seatHoldRepository.findById(holdId).orElse(null);
+        if (hold == null || hold.getStatut() != StatutHold.ACTIVE) {
+            return;
+        }
+        Vol vol = hold.getVol();
+        vol.libererPlacesBloquees(hold.getNombrePlaces());
+        volRepository.save(vol);
+        hold.setStatut(StatutHold.EXPIRE);
+        calendrierTarifService.libererPlaces(vol, hold.getNombrePlaces());
+        soldOutRegistry.markAvailableAfterCommit(vol.getId());
+        // Les places libérées vont d'abord à la liste d'attente, dans la même transaction
+        int promotions = listeAttenteService.promouvoir(vol).size();
+        evictCaches(vol);
+        logger.info("Blocage expiré - Hold: {}, Vol: {}, Places libérées: {}, Promotions: {}",
+                holdId, vol.getId(), hold.getNombrePlaces(), promotions);
+    }
+
+    private void evictCaches(Vol vol) {
+        volService.evictCache(vol.getId());
+        volService.evictSearchCache(vol);
+    }
+}
@@ -0,0 +1,69 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.exception.VolCompletException;
+import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registre en mémoire des vols complets.
+ *
+ * Consulté avant toute transaction : une demande sur un vol complet est rejetée sans lire
+ * la ligne du vol ni publier d'événement. Le registre n'est mis à jour qu'après commit,
+ * il ne contient donc jamais un vol dont la dernière réservation a été annulée.
+ */
+@Component
+public class SoldOutRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(SoldOutRegistry.class);
+
+    private final Set<UUID> soldOut = ConcurrentHashMap.newKeySet();
+    private final VolRepository volRepository;
+    private final AuditService auditService;
+
+    public SoldOutRegistry(VolRepository volRepository, AuditService auditService) {
+        this.volRepository = volRepository;
+        this.auditService = auditService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        soldOut.addAll(volRepository.findSoldOutIds());
+        logger.info("Registre des vols complets initialisé: {} vol(s)", soldOut.size());
+    }
+
+    public boolean isSoldOut(UUID volId) {
+        return soldOut.contains(volId);
+    }
+
+    /**
+     * Rejette la demande si le vol est complet. Le rejet est compté pour l'audit agrégé.
+     */
+    public void rejectIfSoldOut(UUID volId, int nombrePlaces) {
+        if (soldOut.contains(volId)) {
+            auditService.recordSoldOutRejection(volId, nombrePlaces);
+            throw VolCompletException.INSTANCE;
+        }
+    }
+
+    public void markSoldOutAfterCommit(UUID volId) {
+        TransactionHooks.afterCommit(() -> markSoldOut(volId));
+    }
+
+    public void markAvailableAfterCommit(UUID volId) {
+        TransactionHooks.afterCommit(() -> soldOut.remove(volId));
+    }
+
+    public void markSoldOut(UUID volId) {
+        if (soldOut.add(volId)) {
+            logger.info("Vol {} complet", volId);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.cache.SearchResponseCache;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.iservice.ICalendrierTarifService;
+import com.flight.reservation.iservice.IConnectionService;
+import com.flight.reservation.iservice.ITarificationService;
+import com.flight.reservation.pricing.PricingEngine;
+import com.flight.reservation.repository.VolRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Tarif courant des vols (Vol.prixCourant), selon le remplissage et l'échéance (PricingEngine).
+ *
+ * Le tarif est stocké avec le vol : la recherche le lit et le trie comme une colonne ordinaire.
+ * Il n'est recalculé que lorsqu'une réservation ou une annulation fait franchir un palier de
+ * remplissage, ou quand le vol passe dans le palier d'échéance suivant ; ce second cas est
+ * traité périodiquement, sur les seuls vols dont prochaineRevisionTarif est dépassée.
+ * Chaque changement de tarif est reporté au calendrier des tarifs, au graphe des routes et au
+ * cache de recherche.
+ */
+@Service
+public class TarificationService implements ITarificationService {
+    private static final Logger logger = LoggerFactory.getLogger(TarificationService.class);
+    private static final int TAILLE_LOT = 500;
+    private static final int MAX_LOTS_PAR_PASSAGE = 20;
+
+    private final VolRepository volRepository;
+    private final ICalendrierTarifService calendrierTarifService;
+    private final IConnectionService connectionService;
+    private final SearchResponseCache searchResponseCache;
+    private final TransactionTemplate transactionTemplate;
+    private final PricingEngine pricingEngine;
+
+    public TarificationService(VolRepository volRepository, ICalendrierTarifService calendrierTarifService,
+                               IConnectionService connectionService, SearchResponseCache searchResponseCache,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${flight.pricing.paliers-remplissage:0:1.00}") String paliersRemplissage,
+                               @Value("${flight.pricing.paliers-echeance:0:1.00}") String paliersEcheance) {
+        this.volRepository = volRepository;
+        this.calendrierTarifService = calendrierTarifService;
+        this.connectionService = connectionService;
+        this.searchResponseCache = searchResponseCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pricingEngine = new PricingEngine(paliersRemplissage, paliersEcheance);
+    }
+
+    /**
+     * Tarife un vol qui n'est pas encore enregistré, sans rien propager.
+     */
+    public void tarifer(Vol vol) {
+        appliquer(vol, LocalDateTime.now());
+    }
+
+    /**
+     * Recalcule le tarif d'un vol dont le prix de base, l'horaire ou la capacité viennent de changer,
+     * même s'il reste dans ses paliers. Rien n'est propagé : l'appelant met à jour le calendrier,
+     * le graphe et le cache de recherche une fois pour tous les vols modifiés.
+     */
+    public void retarifer(Vol vol) {
+        vol.setPalierTarifaire(null);
+        appliquer(vol, LocalDateTime.now());
+    }
+
+    /**
+     * Révise le tarif d'un vol dont les places viennent de changer, dans la transaction
+     * du changement. Renvoie true si le tarif a changé.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean reviser(Vol vol) {
+        BigDecimal ancienPrix = vol.getPrixCourant();
+        if (!appliquer(vol, LocalDateTime.now()) || vol.getPrixCourant().equals(ancienPrix)) {
+            return false;
+        }
+        calendrierTarifService.reviserTarif(vol, ancienPrix);
+        connectionService.mettreAJourPrixAfterCommit(List.of(vol));
+        searchResponseCache.invalidateAfterCommit(List.of(vol));
+        logger.debug("Tarif révisé - Vol: {}, Palier: {}, Prix: {} -> {}",
+                vol.getId(), vol.getPalierTarifaire(), ancienPrix, vol.getPrixCourant());
+        return true;
+    }
+
+    /**
+     * Vols entrés dans un nouveau palier d'échéance, et vols jamais tarifés (antérieurs à la
+     * tarification), par lots d'une transaction chacun. Premier passage après le délai initial :
+     * au démarrage, il écrirait en même temps que la reconstruction du calendrier des tarifs.
+     */
+    @Scheduled(fixedDelayString = "${flight.pricing.revision-ms:60000}",
+            initialDelayString = "${flight.pricing.delai-initial-ms:60000}")
+    public int reviserEcheances() {
+        int total = 0;
+        try {
+            for (int i = 0; i < MAX_LOTS_PAR_PASSAGE; i++) {
+                Integer revises = transactionTemplate.execute(status -> reviserLot());
+                total += revises;
+                if (revises < TAILLE_LOT) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            // Un conflit avec une réservation annule le lot : il sera repris au passage suivant
+            logger.warn("Révision des tarifs interrompue, reprise au prochain passage", e);
+        }
+        if (total > 0) {
+            logger.info("Tarifs révisés pour {} vol(s)", total);
+        }
+        return total;
+    }
+
+    private int reviserLot() {
+        List<Vol> vols = volRepository.findATarifer(LocalDateTime.now(), PageRequest.of(0, TAILLE_LOT));
+        for (Vol vol : vols) {
+            reviser(vol);
+        }
+        volRepository.saveAll(vols);
+        return vols.size();
+    }
+
+    /**
+     * Recalcule le tarif si le palier combiné a changé ou si le palier d'échéance est dépassé.
+     * Renvoie false, sans rien modifier, dans le cas courant où le vol reste dans ses paliers.
+     */
+    private boolean appliquer(Vol vol, LocalDateTime maintenant) {
+        int remplissage = pricingEngine.palierRemplissage(vol.getPlacesReservees(), vol.getCapaciteMaximale());
+        int echeance = pricingEngine.palierEcheance(maintenant, vol.getDateDepart());
+        int palier = pricingEngine.palier(remplissage, echeance);
+        LocalDateTime prochaineRevision = vol.getProchaineRevisionTarif();
+        if (vol.getPrixCourant() != null && vol.getPalierTarifaire() != null && vol.getPalierTarifaire() == palier
+                && (prochaineRevision == null || !prochaineRevision.isBefore(maintenant))) {
+            return false;
+        }
+        vol.setPrixCourant(pricingEngine.prix(vol.getPrix(), remplissage, echeance));
+        vol.setPalierTarifaire(palier);
+        vol.setProchaineRevisionTarif(pricingEngine.prochaineRevision(echeance, vol.getDateDepart()));
+        return true;
+    }
+}
@@ -0,0 +1,166 @@
+package com.flight.reservation.service;
+
+import com.flight.reservation.entity.Ville;
+import com.flight.reservation.exception.AliasVilleException;
+import com.flight.reservation.exception.VilleNotFoundException;
+import com.flight.reservation.repository.VilleRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Correspondance en mémoire entre noms de ville et identifiants (table villes), dans les deux sens.
+ *
+ * Les clés sont les noms et alias normalisés (minuscules, sans espaces autour) ; un tableau indexé
+ * par identifiant donne le nom canonique. Le dictionnaire est chargé en entier au démarrage : il
+ * compte quelques centaines de villes. Une ville inconnue est enregistrée dans sa propre transaction,
+ * validée avant celle de l'appelant, pour que l'identifiant soit visible de toutes les suivantes.
+ */
+@Component
+public class VilleDictionary {
+    private static final Logger logger = LoggerFactory.getLogger(VilleDictionary.class);
+
+    private final VilleRepository villeRepository;
+    private final TransactionTemplate requiresNew;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] noms = new String[64];
+
+    public VilleDictionary(VilleRepository villeRepository, PlatformTransactionManager transactionManager) {
+        this.villeRepository = villeRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (Ville ville : villeRepository.findAll()) {
+            indexer(ville);
+        }
+        logger.info("Dictionnaire des villes chargé: {} ville(s)", ids.size());
+    }
+
+    public static String cle(String ville) {
+        return ville.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Identifiant d'un nom ou d'un alias connu ; null sinon.
+     */
+    public Integer id(String ville) {
+        return ville == null ? null : ids.get(cle(ville));
+    }
+
+    public String nom(int id) {
+        String[] courant = noms;
+        String nom = id < courant.length ? courant[id] : null;
+        if (nom == null) {
+            throw new IllegalStateException("Ville inconnue du dictionnaire: " + id);
+        }
+        return nom;
+    }
+
+    /**
+     * Nom canonique d'un nom ou d'un alias connu ; la saisie telle quelle sinon.
+     */
+    public String canonique(String ville) {
+        Integer id = id(ville);
+        return id == null ? ville : nom(id);
+    }
+
+    /**
+     * Villes qui répondent à une saisie de recherche : la ville désignée si la saisie est un nom
+     * ou un alias connu, sinon celles dont le nom contient la saisie.
+     */
+    public List<String> rechercher(String saisie) {
+        Integer id = id(saisie);
+        if (id != null) {
+            return List.of(nom(id));
+        }
+        String fragment = cle(saisie);
+        List<String> villes = new ArrayList<>();
+        for (String nom : noms) {
+            if (nom != null && cle(nom).contains(fragment)) {
+                villes.add(nom);
+            }
+        }
+        return villes;
+    }
+
+    /**
+     * Identifiant d'une ville, enregistrée si elle est inconnue.
+     */
+    public int enregistrer(String ville) {
+        Integer id = id(ville);
+        return id != null ? id : creer(ville.trim());
+    }
+
+    /**
+     * Nom canonique d'une ville, enregistrée si elle est inconnue.
+     */
+    public String nomCanonique(String ville) {
+        return nom(enregistrer(ville));
+    }
+
+    public void ajouterAlias(String ville, String alias) {
+        Integer id = id(ville);
+        if (id == null) {
+            throw new VilleNotFoundException(ville);
+        }
+        synchronized (this) {
+            String cleAlias = cle(alias);
+            Integer existant = ids.get(cleAlias);
+            if (existant != null) {
+                if (!existant.equals(id)) {
+                    throw new AliasVilleException(alias, nom(existant));
+                }
+                return;
+            }
+            requiresNew.executeWithoutResult(status -> {
+                Ville entite = villeRepository.findById(id).orElseThrow(() -> new VilleNotFoundException(ville));
+                entite.getAlias().add(cleAlias);
+                villeRepository.save(entite);
+            });
+            ids.put(cleAlias, id);
+            logger.info("Alias ajouté - Ville: {}, Alias: {}", nom(id), cleAlias);
+        }
+    }
+
+    public int taille() {
+        return ids.size();
+    }
+
+    private synchronized int creer(String nom) {
+        Integer existant = ids.get(cle(nom));
+        if (existant != null) {
+            return existant;
+        }
+        // Le dictionnaire est seul à attribuer les identifiants : le suivant est après le plus grand connu
+        int dernier = noms.length - 1;
+        while (dernier > 0 && noms[dernier] == null) {
+            dernier--;
+        }
+        int id = dernier + 1;
+        Ville ville = requiresNew.execute(status -> villeRepository.save(new Ville(id, nom, cle(nom))));
+        indexer(ville);
+        logger.info("Ville ajoutée au dictionnaire - ID: {}, Nom: {}", ville.getId(), nom);
+        return ville.getId();
+    }
+
+    // Copie à l'écriture : les lectures du tableau se font sans verrou
+    private synchronized void indexer(Ville ville) {
+        String[] copie = Arrays.copyOf(noms, Math.max(noms.length, ville.getId() + 1));
+        copie[ville.getId()] = ville.getNom();
+        noms = copie;
+        ids.put(ville.getCle(), ville.getId());
+        for (String alias : ville.getAlias()) {
+            ids.put(alias, ville.getId());
+        }
+    }
+
+}
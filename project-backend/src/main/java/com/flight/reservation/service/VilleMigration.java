@@ -0,0 +1,76 @@
+package com.flight.reservation.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Passage des villes en clair (vols.ville_depart, vols.ville_arrivee) aux identifiants du
+ * dictionnaire, au démarrage, avant les chargements en mémoire (ApplicationReadyEvent) et les
+ * tâches planifiées.
+ *
+ * Les colonnes d'identifiants sont ajoutées par la mise à jour du schéma ; chaque nom distinct
+ * est enregistré dans le dictionnaire puis reporté par un UPDATE en lot. Les anciennes colonnes,
+ * NOT NULL, sont ensuite supprimées : elles feraient échouer les insertions. Sans anciennes
+ * colonnes, rien à faire. Reprise possible après interruption : seules les lignes sans
+ * identifiant sont mises à jour.
+ */
+// Migration au démarrage : jamais demandée par un autre bean, elle reste créée en initialisation paresseuse
+@Component
+@Lazy(false)
+public class VilleMigration {
+    private static final Logger logger = LoggerFactory.getLogger(VilleMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VilleDictionary villeDictionary;
+
+    public VilleMigration(JdbcTemplate jdbcTemplate, VilleDictionary villeDictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.villeDictionary = villeDictionary;
+    }
+
+    @PostConstruct
+    public void migrer() {
+        migrerColonne("ville_depart");
+        migrerColonne("ville_arrivee");
+    }
+
+    private void migrerColonne(String colonne) {
+        if (!colonneExiste(colonne)) {
+            return;
+        }
+        List<String> villes = jdbcTemplate.queryForList(
+                "SELECT DISTINCT " + colonne + " FROM vols WHERE " + colonne + "_id IS NULL", String.class);
+        List<Object[]> lignes = new ArrayList<>(villes.size());
+        for (String ville : villes) {
+            lignes.add(new Object[]{villeDictionary.enregistrer(ville), ville});
+        }
+        jdbcTemplate.batchUpdate("UPDATE vols SET " + colonne + "_id = ? WHERE " + colonne + " = ?", lignes);
+        jdbcTemplate.execute("ALTER TABLE vols DROP COLUMN " + colonne);
+        logger.info("Colonne vols.{} migrée vers le dictionnaire des villes: {} ville(s)", colonne, villes.size());
+    }
+
+    private boolean colonneExiste(String colonne) {
+        return Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet colonnes = metaData.getColumns(null, null, "%", "%")) {
+                while (colonnes.next()) {
+                    if ("vols".equalsIgnoreCase(colonnes.getString("TABLE_NAME"))
+                            && colonne.equalsIgnoreCase(colonnes.getString("COLUMN_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }));
+    }
+}
@@ -1,36 +1,104 @@
 package com.flight.reservation.service;
 
+import com.flight.reservation.cache.RouteRef;
+import com.flight.reservation.cache.SearchResponseCache;
+import com.flight.reservation.config.CacheConfig;
+import com.flight.reservation.dto.BatchVolUpdateRequest;
+import com.flight.reservation.dto.BatchVolUpdateResponse;
+import com.flight.reservation.dto.ErrorResponse;
+import com.flight.reservation.dto.FacettesVolsResponse;
+import com.flight.reservation.dto.JourVolsResponse;
+import com.flight.reservation.dto.PlanSiegesResponse;
+import com.flight.reservation.dto.RechercheVolsResponse;
+import com.flight.reservation.dto.TrancheFacette;
 import com.flight.reservation.dto.VolRequest;
+import com.flight.reservation.dto.VolUpdateRequest;
+import com.flight.reservation.dto.VolUpdateResult;
+import com.flight.reservation.entity.CalendrierTarifId;
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.ModeBatch;
+import com.flight.reservation.iservice.ICalendrierTarifService;
+import com.flight.reservation.iservice.IConnectionService;
+import com.flight.reservation.iservice.ITarificationService;
 import com.flight.reservation.iservice.IVolService;
+import com.flight.reservation.exception.VolNotFoundException;
 import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.routing.FlightLeg;
+import com.flight.reservation.search.FacetAccumulator;
+import com.flight.reservation.seating.SeatMap;
 import com.flight.reservation.specification.VolSpecification;
+import com.flight.reservation.util.TransactionHooks;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class VolService implements IVolService {
+    private static final Logger logger = LoggerFactory.getLogger(VolService.class);
+
     private final VolRepository volRepository;
+    private final SearchResponseCache searchResponseCache;
+    private final IConnectionService connectionService;
+    private final ICalendrierTarifService calendrierTarifService;
+    private final ITarificationService tarificationService;
+    private final VilleDictionary villeDictionary;
+    private final SoldOutRegistry soldOutRegistry;
+    private final CacheManager cacheManager;
+    private final int pasPrixFacettes;
 
-    public VolService(VolRepository volRepository) {
+    public VolService(VolRepository volRepository, SearchResponseCache searchResponseCache,
+                      IConnectionService connectionService, ICalendrierTarifService calendrierTarifService,
+                      ITarificationService tarificationService, VilleDictionary villeDictionary,
+                      SoldOutRegistry soldOutRegistry, CacheManager cacheManager,
+                      @Value("${flight.search.facettes.pas-prix:50}") int pasPrixFacettes) {
         this.volRepository = volRepository;
+        this.searchResponseCache = searchResponseCache;
+        this.connectionService = connectionService;
+        this.calendrierTarifService = calendrierTarifService;
+        this.tarificationService = tarificationService;
+        this.villeDictionary = villeDictionary;
+        this.soldOutRegistry = soldOutRegistry;
+        this.cacheManager = cacheManager;
+        this.pasPrixFacettes = pasPrixFacettes;
     }
 
     @Transactional(readOnly = true)
     public List<Vol> findAll(LocalDateTime dateDepart, LocalDateTime dateArrivee, String villeDepart, String villeArrivee, String tri) {
         Specification<Vol> spec = Specification.where(VolSpecification.hasDateDepart(dateDepart))
                 .and(VolSpecification.hasDateArrivee(dateArrivee))
-                .and(VolSpecification.hasVilleDepart(villeDepart))
-                .and(VolSpecification.hasVilleArrivee(villeArrivee));
+                .and(VolSpecification.hasVilleDepart(villes(villeDepart)))
+                .and(VolSpecification.hasVilleArrivee(villes(villeArrivee)));
         Sort sort = createSort(tri);
         if (sort != null) {
             return volRepository.findAll(spec, sort);
@@ -39,36 +107,323 @@ public class VolService implements IVolService {
         }
     }
 
+    /**
+     * Une page de résultats. Avec facettes, les vols trouvés sont parcourus une seule fois en
+     * projection (prix, temps de trajet, départ) : ce passage compte le total, remplit les facettes
+     * et retient les identifiants de la page, dont seuls les vols sont ensuite chargés.
+     * Sans facettes, requête paginée classique avec son count.
+     */
+    @Transactional(readOnly = true)
+    public RechercheVolsResponse findPage(LocalDateTime dateDepart, LocalDateTime dateArrivee, String villeDepart,
+                                          String villeArrivee, String tri, int page, int taille, boolean facettes) {
+        Specification<Vol> spec = Specification.where(VolSpecification.hasDateDepart(dateDepart))
+                .and(VolSpecification.hasDateArrivee(dateArrivee))
+                .and(VolSpecification.hasVilleDepart(villes(villeDepart)))
+                .and(VolSpecification.hasVilleArrivee(villes(villeArrivee)));
+        // L'identifiant départage les ex aequo : une page reste stable d'un appel à l'autre
+        Sort sort = createSort(tri);
+        sort = (sort != null ? sort : Sort.by("dateDepart").ascending()).and(Sort.by("id"));
+
+        if (!facettes) {
+            Page<Vol> resultat = volRepository.findAll(spec, PageRequest.of(page, taille, sort));
+            return new RechercheVolsResponse(resultat.getContent(), resultat.getTotalElements(), page, taille, null);
+        }
+
+        FacetAccumulator accumulateur = new FacetAccumulator(pasPrixFacettes);
+        List<UUID> ids = volRepository.accumulerFacettes(spec, sort,
+                (int) Math.min((long) page * taille, Integer.MAX_VALUE), taille, accumulateur);
+        Map<UUID, Vol> parId = new HashMap<>();
+        for (Vol vol : volRepository.findAllById(ids)) {
+            parId.put(vol.getId(), vol);
+        }
+        // Un vol supprimé entre les deux lectures est simplement absent de la page
+        List<Vol> vols = ids.stream().map(parId::get).filter(vol -> vol != null).toList();
+        return new RechercheVolsResponse(vols, accumulateur.total(), page, taille, toFacettes(accumulateur));
+    }
+
+    /**
+     * Recherche sur dateDepart ± flexDays jours en une seule requête par intervalle (index sur
+     * date_depart), puis regroupement par jour. Chaque jour de la fenêtre est présent, même sans vol.
+     */
+    @Transactional(readOnly = true)
+    public List<JourVolsResponse> findAllFlexible(LocalDate dateDepart, int flexDays, LocalDateTime dateArrivee,
+                                                  String villeDepart, String villeArrivee, String tri) {
+        LocalDate premierJour = dateDepart.minusDays(flexDays);
+        LocalDate dernierJour = dateDepart.plusDays(flexDays);
+        Specification<Vol> spec = Specification.where(VolSpecification.hasDateDepartBetween(premierJour, dernierJour))
+                .and(VolSpecification.hasDateArrivee(dateArrivee))
+                .and(VolSpecification.hasVilleDepart(villes(villeDepart)))
+                .and(VolSpecification.hasVilleArrivee(villes(villeArrivee)));
+        List<Vol> vols = volRepository.findAll(spec, Sort.by("dateDepart").ascending());
+
+        int nombreJours = flexDays * 2 + 1;
+        List<List<Vol>> parJour = new ArrayList<>(nombreJours);
+        for (int i = 0; i < nombreJours; i++) {
+            parJour.add(new ArrayList<>());
+        }
+        for (Vol vol : vols) {
+            parJour.get((int) (vol.getDateDepart().toLocalDate().toEpochDay() - premierJour.toEpochDay())).add(vol);
+        }
+
+        Comparator<Vol> ordre = comparatorOf(tri);
+        List<JourVolsResponse> jours = new ArrayList<>(nombreJours);
+        for (int i = 0; i < nombreJours; i++) {
+            List<Vol> volsDuJour = parJour.get(i);
+            if (ordre != null) {
+                volsDuJour.sort(ordre);
+            }
+            BigDecimal prixMin = volsDuJour.stream().map(Vol::getPrixCourant).filter(prix -> prix != null).min(Comparator.naturalOrder()).orElse(null);
+            jours.add(new JourVolsResponse(premierJour.plusDays(i), prixMin, volsDuJour));
+        }
+        return jours;
+    }
+
     @Transactional(readOnly = true)
-    @Cacheable(value = "vol-places", key = "#volId")
+    @Cacheable(value = CacheConfig.VOL_PLACES, key = "#volId")
     public Integer getPlacesDisponibles(UUID volId) {
         return volRepository.findById(volId)
                 .map(Vol::getPlacesDisponibles)
                 .orElse(0);
     }
 
+    @Transactional(readOnly = true)
+    public PlanSiegesResponse getPlanSieges(UUID volId) {
+        Vol vol = volRepository.findById(volId)
+                .orElseThrow(() -> new VolNotFoundException(volId));
+        SeatMap plan = vol.getSeatMap();
+        List<String> libres = new ArrayList<>(plan.freeCount());
+        for (int siege = plan.nextFree(0); siege >= 0; siege = plan.nextFree(siege + 1)) {
+            libres.add(plan.label(siege));
+        }
+        return new PlanSiegesResponse(volId, plan.capacity(), plan.seatsPerRow(), libres.size(), libres);
+    }
+
     public List<Vol> saveAll(List<VolRequest> volRequests) {
         List<Vol> vols = volRequests.stream()
                 .map(this::convertToEntity)
                 .toList();
-        return volRepository.saveAll(vols);
+        vols.forEach(tarificationService::tarifer);
+        List<Vol> saved = volRepository.saveAll(vols);
+        searchResponseCache.invalidateAfterCommit(saved);
+        connectionService.ajouterAfterCommit(saved);
+        calendrierTarifService.ajouterVols(saved);
+        return saved;
     }
+
+    /**
+     * Modifie un lot de vols (prix, horaires, capacité) en une transaction. Les vols sont lus en un
+     * seul findAllById et leur version comparée à celle du client ; les vols modifiés sont écrits
+     * ensemble, en UPDATE versionnés envoyés par lots JDBC (hibernate.jdbc.batch_size). Calendrier,
+     * graphe des correspondances, cache vol-places et cache de recherche sont mis à jour une fois
+     * pour tout le lot.
+     *
+     * En ALL_OR_NOTHING, rien n'est écrit si une modification est refusée ; les autres sont rendues
+     * en échec avec le code BATCH_ABORTED. En BEST_EFFORT, chaque modification est acceptée ou refusée seule.
+     */
+    @Retryable(retryFor = OptimisticLockingFailureException.class, maxAttempts = 3, backoff = @Backoff(delay = 100, multiplier = 2))
+    public BatchVolUpdateResponse modifierVols(BatchVolUpdateRequest request) {
+        List<VolUpdateRequest> demandes = request.getVols();
+        logger.info("Modification de vols par lot - Demandes: {}, Mode: {}", demandes.size(), request.getMode());
+        Map<UUID, Vol> vols = volRepository.findAllById(demandes.stream().map(VolUpdateRequest::getId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Vol::getId, Function.identity()));
+
+        VolUpdateResult[] resultats = new VolUpdateResult[demandes.size()];
+        Set<UUID> vus = new HashSet<>();
+        List<Integer> acceptees = new ArrayList<>();
+        for (int i = 0; i < demandes.size(); i++) {
+            VolUpdateRequest demande = demandes.get(i);
+            ErrorResponse erreur = verifier(demande, vols.get(demande.getId()), vus);
+            if (erreur != null) {
+                resultats[i] = VolUpdateResult.echec(i, demande.getId(), erreur);
+            } else {
+                acceptees.add(i);
+            }
+        }
+
+        if (request.getMode() == ModeBatch.ALL_OR_NOTHING && acceptees.size() < demandes.size()) {
+            ErrorResponse erreur = new ErrorResponse("BATCH_ABORTED", "Lot annulé : au moins une modification du lot a été refusée");
+            acceptees.forEach(i -> resultats[i] = VolUpdateResult.echec(i, demandes.get(i).getId(), erreur));
+            logger.info("Lot de modifications de vols annulé - Demandes: {}", demandes.size());
+            return new BatchVolUpdateResponse(request.getMode(), Arrays.asList(resultats));
+        }
+
+        // États avant modification : l'horaire peut changer de jour, donc de recherches et de calendrier
+        List<Vol> modifies = new ArrayList<>(acceptees.size());
+        List<FlightLeg> anciensVols = new ArrayList<>(acceptees.size());
+        List<RouteRef> anciennesRoutes = new ArrayList<>(acceptees.size());
+        Set<CalendrierTarifId> jours = new HashSet<>();
+        for (int i : acceptees) {
+            Vol vol = vols.get(demandes.get(i).getId());
+            anciensVols.add(connectionService.instantane(vol));
+            anciennesRoutes.add(searchResponseCache.route(vol));
+            jours.add(CalendrierTarifId.of(vol));
+            appliquer(demandes.get(i), vol);
+            tarificationService.retarifer(vol);
+            jours.add(CalendrierTarifId.of(vol));
+            modifies.add(vol);
+        }
+        // Écriture immédiate : un conflit de version est levé ici, et les versions renvoyées sont les nouvelles
+        volRepository.saveAllAndFlush(modifies);
+        calendrierTarifService.recalculer(jours);
+        connectionService.remplacerAfterCommit(anciensVols, modifies);
+        evictCaches(modifies, anciennesRoutes);
+        for (Vol vol : modifies) {
+            if (vol.getPlacesDisponibles() <= 0) {
+                soldOutRegistry.markSoldOutAfterCommit(vol.getId());
+            } else {
+                soldOutRegistry.markAvailableAfterCommit(vol.getId());
+            }
+        }
+        for (int i : acceptees) {
+            Vol vol = vols.get(demandes.get(i).getId());
+            resultats[i] = new VolUpdateResult(i, vol.getId(), vol.getVersion(), vol.getPrixCourant(),
+                    vol.getPlacesDisponibles(), null);
+        }
+        logger.info("Lot de modifications de vols traité - Modifiés: {}, Échecs: {}", modifies.size(), demandes.size() - modifies.size());
+        return new BatchVolUpdateResponse(request.getMode(), Arrays.asList(resultats));
+    }
+
     // to update the cache
-    @CacheEvict(value = "vol-places", key = "#volId")
+    @CacheEvict(value = CacheConfig.VOL_PLACES, key = "#volId")
     public void evictCache(UUID volId) {
         // Cache éviction automatique
     }
 
+    public void evictSearchCache(Vol vol) {
+        searchResponseCache.invalidateAfterCommit(List.of(vol));
+    }
+
+    /**
+     * Caches d'un lot de vols modifiés : une seule invalidation de vol-places après commit, et une
+     * seule passe sur le cache de recherche pour toutes leurs routes.
+     */
+    public void evictCaches(Collection<Vol> vols) {
+        evictCaches(vols, List.of());
+    }
+
+    private void evictCaches(Collection<Vol> vols, Collection<RouteRef> anciennesRoutes) {
+        List<UUID> ids = vols.stream().map(Vol::getId).toList();
+        Cache cache = cacheManager.getCache(CacheConfig.VOL_PLACES);
+        if (cache != null && !ids.isEmpty()) {
+            TransactionHooks.afterCommit(() -> {
+                if (cache instanceof CaffeineCache caffeine) {
+                    caffeine.getNativeCache().invalidateAll(ids);
+                } else {
+                    ids.forEach(cache::evict);
+                }
+            });
+        }
+        searchResponseCache.invalidateAfterCommit(vols, anciennesRoutes);
+    }
+
+    // Raison du refus d'une modification, ou null si elle peut être appliquée
+    private static ErrorResponse verifier(VolUpdateRequest demande, Vol vol, Set<UUID> vus) {
+        if (vol == null) {
+            return new ErrorResponse("VOL_NOT_FOUND", new VolNotFoundException(demande.getId()).getMessage());
+        }
+        if (!vus.add(vol.getId())) {
+            return new ErrorResponse("DUPLICATE_FLIGHT", "Le vol " + vol.getId() + " apparaît plusieurs fois dans le lot");
+        }
+        if (!vol.getVersion().equals(demande.getVersion())) {
+            return new ErrorResponse("VERSION_CONFLICT", "Le vol a été modifié depuis sa lecture",
+                    String.format("Version attendue: %d, Version actuelle: %d", demande.getVersion(), vol.getVersion()));
+        }
+        if (demande.getDateDepart() != null || demande.getDateArrivee() != null) {
+            LocalDateTime depart = demande.getDateDepart() != null ? demande.getDateDepart() : vol.getDateDepart();
+            LocalDateTime arrivee = demande.getDateArrivee() != null ? demande.getDateArrivee() : vol.getDateArrivee();
+            if (!arrivee.isAfter(depart)) {
+                return new ErrorResponse("INVALID_SCHEDULE", "L'arrivée doit être postérieure au départ",
+                        String.format("Départ: %s, Arrivée: %s", depart, arrivee));
+            }
+        }
+        if (demande.getCapaciteMaximale() != null && !vol.peutChangerCapacite(demande.getCapaciteMaximale())) {
+            return new ErrorResponse("INSUFFICIENT_CAPACITY", "Capacité inférieure aux places occupées",
+                    String.format("Capacité demandée: %d, Places réservées: %d, Places bloquées: %d",
+                            demande.getCapaciteMaximale(), vol.getPlacesReservees(), vol.getPlacesBloquees()));
+        }
+        return null;
+    }
+
+    private static void appliquer(VolUpdateRequest demande, Vol vol) {
+        if (demande.getPrix() != null) {
+            vol.setPrix(demande.getPrix());
+        }
+        if (demande.getDateDepart() != null) {
+            vol.setDateDepart(demande.getDateDepart());
+        }
+        if (demande.getDateArrivee() != null) {
+            vol.setDateArrivee(demande.getDateArrivee());
+        }
+        if (demande.getTempsTrajet() != null) {
+            vol.setTempsTrajet(demande.getTempsTrajet());
+        }
+        if (demande.getCapaciteMaximale() != null) {
+            vol.changerCapacite(demande.getCapaciteMaximale());
+        }
+    }
+
+    // Villes d'un filtre de recherche ; null sans filtre
+    private List<String> villes(String saisie) {
+        return saisie == null ? null : villeDictionary.rechercher(saisie);
+    }
+
+    // Les villes sont enregistrées sous leur nom canonique : la réponse est celle d'une relecture
     private Vol convertToEntity(VolRequest request) {
-        return new Vol(
+        Vol vol = new Vol(
                 request.getDateTimeDepart(),
                 request.getDateTimeArrivee(),
-                request.getVilleDepart(),
-                request.getVilleArrivee(),
+                villeDictionary.nomCanonique(request.getVilleDepart()),
+                villeDictionary.nomCanonique(request.getVilleArrivee()),
                 request.getPrix(),
                 request.getTempsTrajet(),
                 request.getCapaciteMaximale()
         );
+        if (request.getSiegesParRang() != null) {
+            vol.setSiegesParRang(request.getSiegesParRang());
+        }
+        return vol;
+    }
+
+    private static FacettesVolsResponse toFacettes(FacetAccumulator accumulateur) {
+        if (accumulateur.total() == 0) {
+            return new FacettesVolsResponse(null, null, null, null, List.of(), List.of(), List.of());
+        }
+        long[] histogramme = accumulateur.histogrammePrix();
+        int pas = (int) (accumulateur.pasPrixCentimes() / 100);
+        int premiere = accumulateur.premiereTranchePrix();
+        List<TrancheFacette> prix = new ArrayList<>(histogramme.length);
+        for (int i = 0; i < histogramme.length; i++) {
+            int min = (premiere + i) * pas;
+            prix.add(new TrancheFacette(min, min + pas, histogramme[i]));
+        }
+
+        long[] durees = accumulateur.durees();
+        int[] bornes = FacetAccumulator.BORNES_DUREE;
+        List<TrancheFacette> tempsTrajet = new ArrayList<>(durees.length);
+        for (int i = 0; i < durees.length; i++) {
+            tempsTrajet.add(new TrancheFacette(bornes[i], i + 1 < bornes.length ? bornes[i + 1] : null, durees[i]));
+        }
+
+        long[] heures = accumulateur.heures();
+        List<TrancheFacette> heuresDepart = new ArrayList<>(heures.length);
+        for (int heure = 0; heure < heures.length; heure++) {
+            heuresDepart.add(new TrancheFacette(heure, heure + 1, heures[heure]));
+        }
+        return new FacettesVolsResponse(BigDecimal.valueOf(accumulateur.prixMinCentimes(), 2),
+                BigDecimal.valueOf(accumulateur.prixMaxCentimes(), 2),
+                accumulateur.dureeMin(), accumulateur.dureeMax(), prix, tempsTrajet, heuresDepart);
+    }
+
+    private Comparator<Vol> comparatorOf(String tri) {
+        if (tri == null) {
+            return null;
+        }
+        return switch (tri.toLowerCase()) {
+            case "prix" -> Comparator.comparing(Vol::getPrixCourant, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "tempstrajet" -> Comparator.comparing(Vol::getTempsTrajet);
+            default -> null;
+        };
     }
 
     private Sort createSort(String tri) {
@@ -76,7 +431,8 @@ public class VolService implements IVolService {
             return null;
         }
         return switch (tri.toLowerCase()) {
-            case "prix" -> Sort.by("prix").ascending();
+            // Tarif courant : index idx_vols_prix_courant
+            case "prix" -> Sort.by("prixCourant").ascending();
             case "tempstrajet" -> Sort.by("tempsTrajet").ascending();
             default -> null;
         };
@@ -5,19 +5,28 @@ import org.springframework.data.jpa.domain.Specification;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class VolSpecification {
 
+    // Le jour est comparé par intervalle [jour, jour + 1[ plutôt que par conversion de la colonne,
+    // pour que la recherche puisse utiliser l'index sur date_depart
     public static Specification<Vol> hasDateDepart(LocalDateTime dateDepart) {
         if (dateDepart == null) {
             return null;
         }
         LocalDate searchDate = dateDepart.toLocalDate();
-        return (root, query, criteriaBuilder) ->
-                criteriaBuilder.equal(
-                        root.get("dateDepart").as(LocalDate.class),
-                        searchDate
-                );
+        return hasDateDepartBetween(searchDate, searchDate);
+    }
+
+    /**
+     * Vols qui partent entre le premier et le dernier jour donnés, inclus.
+     */
+    public static Specification<Vol> hasDateDepartBetween(LocalDate premierJour, LocalDate dernierJour) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.greaterThanOrEqualTo(root.get("dateDepart"), premierJour.atStartOfDay()),
+                criteriaBuilder.lessThan(root.get("dateDepart"), dernierJour.plusDays(1).atStartOfDay())
+        );
     }
 
     public static Specification<Vol> hasDateArrivee(LocalDateTime dateArrivee) {
@@ -25,26 +34,32 @@ public class VolSpecification {
             return null;
         }
         LocalDate searchDate = dateArrivee.toLocalDate();
-        return (root, query, criteriaBuilder) ->
-                criteriaBuilder.equal(
-                        root.get("dateArrivee").as(LocalDate.class),
-                        searchDate
-                );
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.greaterThanOrEqualTo(root.get("dateArrivee"), searchDate.atStartOfDay()),
+                criteriaBuilder.lessThan(root.get("dateArrivee"), searchDate.plusDays(1).atStartOfDay())
+        );
+    }
+
+    /**
+     * Vols au départ de l'une des villes données (VilleDictionary.rechercher) : égalité ou IN sur
+     * les identifiants de ville. null : pas de filtre ; liste vide : aucun vol.
+     */
+    public static Specification<Vol> hasVilleDepart(List<String> villesDepart) {
+        return hasVille("villeDepart", villesDepart);
     }
 
-    public static Specification<Vol> hasVilleDepart(String villeDepart) {
-        return (root, query, criteriaBuilder) ->
-                villeDepart == null ? null : criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("villeDepart")),
-                        "%" + villeDepart.toLowerCase() + "%"
-                );
+    public static Specification<Vol> hasVilleArrivee(List<String> villesArrivee) {
+        return hasVille("villeArrivee", villesArrivee);
     }
 
-    public static Specification<Vol> hasVilleArrivee(String villeArrivee) {
-        return (root, query, criteriaBuilder) ->
-                villeArrivee == null ? null : criteriaBuilder.like(
-                        criteriaBuilder.lower(root.get("villeArrivee")),
-                        "%" + villeArrivee.toLowerCase() + "%"
-                );
+    private static Specification<Vol> hasVille(String attribut, List<String> villes) {
+        if (villes == null) {
+            return null;
+        }
+        return (root, query, criteriaBuilder) -> switch (villes.size()) {
+            case 0 -> criteriaBuilder.disjunction();
+            case 1 -> criteriaBuilder.equal(root.get(attribut), villes.get(0));
+            default -> root.get(attribut).in(villes);
+        };
     }
 }
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.flight.reservation.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransactionHooks {
+
+    private TransactionHooks() {}
+
+    /**
+     * Exécute l'action après le commit de la transaction courante, ou immédiatement s'il n'y en a pas.
+     * Rien n'est exécuté si la transaction est annulée.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Exécute l'action quand la transaction courante se termine, validée ou annulée,
+     * ou immédiatement s'il n'y en a pas. Un accès aux données depuis l'action doit ouvrir
+     * sa propre transaction (REQUIRES_NEW).
+     */
+    public static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
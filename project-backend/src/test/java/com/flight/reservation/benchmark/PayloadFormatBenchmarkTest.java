@@ -0,0 +1,144 @@
+package com.flight.reservation.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.flight.reservation.dto.ReservationResponse;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compare la taille des charges utiles et le temps d'encodage / décodage
+ * entre JSON, CBOR et Smile sur les DTO exposés par l'API.
+ * Les mesures de temps ne sont lancées qu'avec mvn -Pbenchmark test.
+ */
+class PayloadFormatBenchmarkTest {
+
+    private static final int WARMUP = 100;
+    private static final int ITERATIONS = 200;
+
+    @Test
+    void binary_formats_should_be_smaller_than_json_and_round_trip() throws Exception {
+        List<Vol> vols = vols(200);
+        List<ReservationResponse> reservations = reservations(200);
+
+        Map<String, Integer> tailles = new LinkedHashMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers().entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] volsBytes = mapper.writeValueAsBytes(vols);
+            tailles.put(entry.getKey(), volsBytes.length + mapper.writeValueAsBytes(reservations).length);
+
+            // Aller-retour sans perte sur les champs métier
+            Vol relu = mapper.readValue(volsBytes, Vol[].class)[0];
+            assertThat(relu.getVilleDepart()).isEqualTo(vols.get(0).getVilleDepart());
+            assertThat(relu.getPrix()).isEqualByComparingTo(vols.get(0).getPrix());
+            assertThat(relu.getDateDepart()).isEqualTo(vols.get(0).getDateDepart());
+            ReservationResponse reservation = mapper.readValue(mapper.writeValueAsBytes(reservations),
+                    ReservationResponse[].class)[0];
+            assertThat(reservation.getNumeroReservation()).isEqualTo(reservations.get(0).getNumeroReservation());
+        }
+
+        assertThat(tailles.get("cbor")).isLessThan(tailles.get("json"));
+        assertThat(tailles.get("smile")).isLessThan(tailles.get("json"));
+    }
+
+    /**
+     * Temps mesurés sur la machine : affichés, sans seuil.
+     */
+    @Test
+    @Tag("benchmark")
+    void compare_payload_size_and_codec_time() throws Exception {
+        List<Vol> vols = vols(200);
+        List<ReservationResponse> reservations = reservations(200);
+
+        System.out.println("=== Benchmark formats (200 vols + 200 réservations) ===");
+        System.out.printf("%-6s %10s %14s %14s%n", "format", "octets", "encodage(µs)", "décodage(µs)");
+        for (Map.Entry<String, ObjectMapper> entry : mappers().entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] volsBytes = mapper.writeValueAsBytes(vols);
+            byte[] reservationsBytes = mapper.writeValueAsBytes(reservations);
+
+            for (int i = 0; i < WARMUP; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(vols), Vol[].class);
+                mapper.readValue(mapper.writeValueAsBytes(reservations), ReservationResponse[].class);
+            }
+
+            long debut = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                mapper.writeValueAsBytes(vols);
+                mapper.writeValueAsBytes(reservations);
+            }
+            long encodage = (System.nanoTime() - debut) / ITERATIONS / 1000;
+
+            debut = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                mapper.readValue(volsBytes, Vol[].class);
+                mapper.readValue(reservationsBytes, ReservationResponse[].class);
+            }
+            long decodage = (System.nanoTime() - debut) / ITERATIONS / 1000;
+
+            int taille = volsBytes.length + reservationsBytes.length;
+            System.out.printf("%-6s %10d %14d %14d%n", entry.getKey(), taille, encodage, decodage);
+        }
+    }
+
+    private static Map<String, ObjectMapper> mappers() {
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", mapper(null));
+        mappers.put("cbor", mapper(new CBORFactory()));
+        mappers.put("smile", mapper(new SmileFactory()));
+        return mappers;
+    }
+
+    private static ObjectMapper mapper(com.fasterxml.jackson.core.JsonFactory factory) {
+        // Mêmes options que le mapper configuré par Spring Boot
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                        DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        if (factory != null) {
+            builder.factory(factory);
+        }
+        return builder.build();
+    }
+
+    private static List<Vol> vols(int count) {
+        String[] villes = {"Paris", "Lyon", "Marseille", "Toulouse", "Nice", "Tunis"};
+        List<Vol> vols = new ArrayList<>(count);
+        LocalDateTime base = LocalDateTime.of(2025, 9, 22, 6, 0);
+        for (int i = 0; i < count; i++) {
+            Vol vol = new Vol(base.plusHours(i), base.plusHours(i + 2), villes[i % villes.length],
+                    villes[(i + 1) % villes.length], new BigDecimal("120.50").add(BigDecimal.valueOf(i)), 120, 180);
+            vol.setId(UUID.randomUUID());
+            vol.setPlacesReservees(i % 180);
+            vol.setCreatedAt(base);
+            vol.setUpdatedAt(base);
+            vols.add(vol);
+        }
+        return vols;
+    }
+
+    private static List<ReservationResponse> reservations(int count) {
+        List<ReservationResponse> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            reservations.add(new ReservationResponse(UUID.randomUUID(), UUID.randomUUID(),
+                    new Passager("Dupont" + i, "Jean", "jean.dupont" + i + "@email.com"), 2,
+                    LocalDateTime.of(2025, 9, 1, 12, 0)));
+        }
+        return reservations;
+    }
+}
@@ -1,35 +1,59 @@
 package com.flight.reservation.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.flight.reservation.dto.BatchReservationRequest;
+import com.flight.reservation.dto.BatchVolUpdateRequest;
+import com.flight.reservation.dto.ReservationResponse;
 import com.flight.reservation.dto.ReservationRequest;
 import com.flight.reservation.dto.VolRequest;
+import com.flight.reservation.dto.VolUpdateRequest;
 import com.flight.reservation.entity.Passager;
 import com.flight.reservation.entity.Vol;
+import com.flight.reservation.enums.ModeBatch;
+import com.flight.reservation.enums.StatutReservation;
+import com.flight.reservation.repository.AuditLogRepository;
+import com.flight.reservation.repository.InscriptionAttenteRepository;
+import com.flight.reservation.repository.OutboxEventRepository;
+import com.flight.reservation.repository.SeatHoldRepository;
 import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.service.AuditService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.web.context.WebApplicationContext;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -47,6 +71,21 @@ public class ReservationIntegrationTest {
     @Autowired
     private VolRepository volRepository;
 
+    @Autowired
+    private SeatHoldRepository seatHoldRepository;
+
+    @Autowired
+    private InscriptionAttenteRepository inscriptionAttenteRepository;
+
+    @Autowired
+    private AuditLogRepository auditLogRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private AuditService auditService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -55,6 +94,8 @@ public class ReservationIntegrationTest {
     @BeforeEach
     void setUp() {
         // Clear repositories before each test
+        seatHoldRepository.deleteAll();
+        inscriptionAttenteRepository.deleteAll();
         volRepository.deleteAll();
 
         // Create a vol for tests with lower capacity to better test concurrency
@@ -132,6 +173,70 @@ public class ReservationIntegrationTest {
                 .andExpect(jsonPath("$.code").value("INSUFFICIENT_SEATS"));
     }
 
+    @Test
+    void should_reject_sold_out_flight_before_any_transaction() throws Exception {
+        Passager passager = new Passager("Test", "User", "complet@email.com");
+        String body = mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 9))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        ReservationResponse complet = objectMapper.readValue(body, ReservationResponse.class);
+        Long version = volRepository.findById(vol.getId()).orElseThrow().getVersion();
+
+        LocalDateTime avant = LocalDateTime.now();
+        String demande = objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 2));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON).content(demande))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.code").value("INSUFFICIENT_SEATS"))
+                    .andExpect(jsonPath("$.message").value("Vol complet"));
+        }
+        // Le corps pré-sérialisé suit le format négocié
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        byte[] cbor = mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(demande))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(cborMapper.readTree(cbor).get("code").asText()).isEqualTo("INSUFFICIENT_SEATS");
+
+        // Rejets sans transaction : le vol n'est ni relu sous verrou ni réécrit, aucun événement n'est publié
+        assertThat(volRepository.findById(vol.getId()).orElseThrow().getVersion()).isEqualTo(version);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxEventRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(auditLogRepository.findAll())
+                .filteredOn(log -> vol.getId().equals(log.getVolId()))
+                .noneMatch(log -> log.getStatut() == StatutReservation.FAILED && "complet@email.com".equals(log.getEmailPassager()));
+
+        // Une ligne agrégée par vol, horodatée au premier rejet
+        auditService.flushSoldOutRejections();
+        assertThat(auditLogRepository.findAll())
+                .filteredOn(log -> vol.getId().equals(log.getVolId()) && AuditService.EMAIL_AGREGE.equals(log.getEmailPassager()))
+                .singleElement()
+                .satisfies(log -> {
+                    assertThat(log.getStatut()).isEqualTo(StatutReservation.FAILED);
+                    assertThat(log.getPlacesDemandees()).isEqualTo(8);
+                    assertThat(log.getMessageErreur()).isEqualTo("Vol complet: 4 tentative(s) rejetée(s)");
+                    assertThat(log.getTimestamp()).isBetween(avant, LocalDateTime.now());
+                });
+        mockMvc.perform(get("/api/audit/stats").param("volId", vol.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tentatives").value(5))
+                .andExpect(jsonPath("$.echecsVolComplet").value(4));
+
+        // L'annulation remet le vol en vente après son commit
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/reservations/{id}", complet.getNumeroReservation()))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON).content(demande))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.nombrePlaces").value(2));
+    }
+
     @Test
     void should_filter_vols_by_criteria() throws Exception {
         // When & Then - Test with LocalDate parameters
@@ -282,4 +387,963 @@ public class ReservationIntegrationTest {
                 .andExpect(jsonPath("$[0].villeDepart").value("Paris"))
                 .andExpect(jsonPath("$[0].villeArrivee").value("London"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_negotiate_cbor_for_reservations() throws Exception {
+        ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+        Passager passager = new Passager("Test", "User", "cbor@email.com");
+        ReservationRequest reservationRequest = new ReservationRequest(vol.getId(), passager, 1);
+
+        byte[] body = mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(reservationRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ReservationResponse response = cborMapper.readValue(body, ReservationResponse.class);
+        assertThat(response.getVolId()).isEqualTo(vol.getId());
+        assertThat(response.getNombrePlaces()).isEqualTo(1);
+    }
+
+    @Test
+    void should_replay_response_for_same_idempotency_key() throws Exception {
+        Passager passager = new Passager("Test", "User", "retry@email.com");
+        String body = objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 2));
+
+        String first = mockMvc.perform(post("/api/reservations")
+                        .header("Idempotency-Key", "retry-key-" + vol.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        String second = mockMvc.perform(post("/api/reservations")
+                        .header("Idempotency-Key", "retry-key-" + vol.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(MockMvcResultMatchers.header().string("Idempotent-Replayed", "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(objectMapper.readValue(second, ReservationResponse.class).getNumeroReservation())
+                .isEqualTo(objectMapper.readValue(first, ReservationResponse.class).getNumeroReservation());
+        assertThat(volRepository.findById(vol.getId()).orElseThrow().getPlacesReservees()).isEqualTo(2);
+
+        // Même clé, autre requête
+        mockMvc.perform(post("/api/reservations")
+                        .header("Idempotency-Key", "retry-key-" + vol.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 3))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_REUSED"));
+        // Mêmes vol, email et nombre de places, mais sièges choisis ou passager différents
+        ReservationRequest autresSieges = new ReservationRequest(vol.getId(), passager, 2);
+        autresSieges.setSieges(List.of("2A", "2B"));
+        ReservationRequest autrePassager = new ReservationRequest(vol.getId(), new Passager("Autre", "Nom", "retry@email.com"), 2);
+        for (ReservationRequest autre : List.of(autresSieges, autrePassager)) {
+            mockMvc.perform(post("/api/reservations")
+                            .header("Idempotency-Key", "retry-key-" + vol.getId())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(autre)))
+                    .andExpect(status().isUnprocessableEntity())
+                    .andExpect(jsonPath("$.code").value("IDEMPOTENCY_KEY_REUSED"));
+        }
+        assertThat(volRepository.findById(vol.getId()).orElseThrow().getPlacesReservees()).isEqualTo(2);
+    }
+
+    @Test
+    void should_hold_then_confirm_seats() throws Exception {
+        Passager passager = new Passager("Test", "User", "hold@email.com");
+        String body = objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 4));
+
+        String hold = mockMvc.perform(post("/api/reservations/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.nombrePlaces").value(4))
+                .andReturn().getResponse().getContentAsString();
+        String holdId = objectMapper.readTree(hold).get("holdId").asText();
+
+        // Les places bloquées ne sont plus disponibles pour les autres
+        assertThat(volRepository.findById(vol.getId()).orElseThrow().getPlacesDisponibles()).isEqualTo(5);
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 6))))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/reservations/holds/" + holdId + "/confirm"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.nombrePlaces").value(4));
+
+        Vol apres = volRepository.findById(vol.getId()).orElseThrow();
+        assertThat(apres.getPlacesReservees()).isEqualTo(4);
+        assertThat(apres.getPlacesBloquees()).isZero();
+
+        mockMvc.perform(post("/api/reservations/holds/" + holdId + "/confirm"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void should_process_async_reservation_and_expose_ticket() throws Exception {
+        Passager passager = new Passager("Test", "User", "async@email.com");
+        String accepted = mockMvc.perform(post("/api/reservations/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 2))))
+                .andExpect(status().isAccepted())
+                .andExpect(MockMvcResultMatchers.header().exists("Location"))
+                .andExpect(jsonPath("$.statut").value("EN_ATTENTE"))
+                .andReturn().getResponse().getContentAsString();
+        String ticketId = objectMapper.readTree(accepted).get("ticketId").asText();
+
+        // Long-polling jusqu'au résultat
+        var pending = mockMvc.perform(get("/api/reservations/tickets/" + ticketId).param("attente", "5000"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statut").value("CONFIRME"))
+                .andExpect(jsonPath("$.reservation.nombrePlaces").value(2));
+
+        assertThat(volRepository.findById(vol.getId()).orElseThrow().getPlacesReservees()).isEqualTo(2);
+
+        mockMvc.perform(get("/api/reservations/tickets/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value("TICKET_NOT_FOUND"));
+    }
+
+    @Test
+    void should_report_taken_seat_on_async_ticket_like_sync_endpoint() throws Exception {
+        Passager passager = new Passager("Test", "User", "siege-async@email.com");
+        ReservationRequest demande = new ReservationRequest(vol.getId(), passager, 1);
+        demande.setSieges(List.of("1A"));
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(demande)))
+                .andExpect(status().isCreated());
+
+        String accepted = mockMvc.perform(post("/api/reservations/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(demande)))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String ticketId = objectMapper.readTree(accepted).get("ticketId").asText();
+
+        // Même code d'erreur que le POST synchrone (409 SEATS_UNAVAILABLE)
+        var pending = mockMvc.perform(get("/api/reservations/tickets/" + ticketId).param("attente", "5000"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statut").value("ECHEC"))
+                .andExpect(jsonPath("$.erreur.code").value("SEATS_UNAVAILABLE"));
+        assertThat(volRepository.findById(vol.getId()).orElseThrow().getPlacesReservees()).isEqualTo(1);
+    }
+
+    @Test
+    void should_book_batch_in_all_or_nothing_and_best_effort_modes() throws Exception {
+        Passager passager = new Passager("Agence", "Voyage", "agence@email.com");
+        List<ReservationRequest> demandes = List.of(
+                new ReservationRequest(vol.getId(), passager, 4),
+                new ReservationRequest(vol.getId(), passager, 4),
+                new ReservationRequest(vol.getId(), passager, 4)
+        );
+
+        // 12 places demandées pour 9 : tout le lot est annulé
+        mockMvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchReservationRequest(ModeBatch.ALL_OR_NOTHING, demandes))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreReussies").value(0))
+                .andExpect(jsonPath("$.nombreEchecs").value(3))
+                .andExpect(jsonPath("$.resultats[0].erreur.code").value("BATCH_ABORTED"))
+                .andExpect(jsonPath("$.resultats[2].erreur.code").value("INSUFFICIENT_SEATS"));
+        assertThat(volRepository.findById(vol.getId()).orElseThrow().getPlacesReservees()).isZero();
+
+        // Les deux premières passent, la troisième échoue seule
+        mockMvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new BatchReservationRequest(ModeBatch.BEST_EFFORT, demandes))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreReussies").value(2))
+                .andExpect(jsonPath("$.resultats[0].statut").value("SUCCESS"))
+                .andExpect(jsonPath("$.resultats[1].reservation.nombrePlaces").value(4))
+                .andExpect(jsonPath("$.resultats[2].statut").value("FAILED"));
+        assertThat(volRepository.findById(vol.getId()).orElseThrow().getPlacesReservees()).isEqualTo(8);
+    }
+
+    @Test
+    void should_relay_outbox_events_to_audit_log() throws Exception {
+        Passager passager = new Passager("Test", "User", "outbox@email.com");
+        LocalDateTime avant = LocalDateTime.now();
+        String body = mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 1))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        LocalDateTime apres = LocalDateTime.now();
+        ReservationResponse response = objectMapper.readValue(body, ReservationResponse.class);
+
+        // Le relais passe toutes les 200 ms
+        long deadline = System.currentTimeMillis() + 5000;
+        while (auditLogRepository.findAll().stream().noneMatch(log -> response.getNumeroReservation().equals(log.getReservationId()))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(auditLogRepository.findAll())
+                .filteredOn(log -> response.getNumeroReservation().equals(log.getReservationId()))
+                .singleElement()
+                .satisfies(log -> {
+                    assertThat(log.getStatut()).isEqualTo(StatutReservation.SUCCESS);
+                    // Horodatée à la tentative, avant le passage du relais
+                    assertThat(log.getTimestamp()).isBetween(avant, apres);
+                });
+        assertThat(outboxEventRepository.findAll())
+                .noneMatch(event -> response.getNumeroReservation().equals(event.getReservationId()));
+    }
+
+    @Test
+    void should_serve_audit_stats_from_rollups() throws Exception {
+        Passager passager = new Passager("Test", "User", "stats@email.com");
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 2))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 8))))
+                .andExpect(status().isBadRequest());
+
+        // Le relais passe toutes les 200 ms ; chaque demande produit une seule ligne d'audit
+        long deadline = System.currentTimeMillis() + 5000;
+        while (auditLogRepository.findAll().stream().filter(log -> vol.getId().equals(log.getVolId())).count() < 2
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        mockMvc.perform(get("/api/audit/stats").param("volId", vol.getId().toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tentatives").value(2))
+                .andExpect(jsonPath("$.succes").value(1))
+                .andExpect(jsonPath("$.echecsPlacesInsuffisantes").value(1))
+                .andExpect(jsonPath("$.placesReservees").value(2));
+        mockMvc.perform(get("/api/audit/stats/series")
+                        .param("volId", vol.getId().toString())
+                        .param("pas", "15"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(4));
+        mockMvc.perform(get("/api/audit/stats")
+                        .param("from", "2025-01-02T00:00:00")
+                        .param("to", "2025-01-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_PERIOD"));
+    }
+
+    @Test
+    void should_page_passenger_reservations_by_cursor() throws Exception {
+        Passager passager = new Passager("Test", "User", "pages@email.com");
+        String body = objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 1));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isCreated());
+        }
+
+        String premiere = mockMvc.perform(get("/api/reservations")
+                        .param("email", "pages@email.com")
+                        .param("taille", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservations.length()").value(2))
+                .andExpect(jsonPath("$.reservations[0].villeDepart").value("Paris"))
+                .andExpect(jsonPath("$.curseurSuivant").exists())
+                .andReturn().getResponse().getContentAsString();
+        String curseur = objectMapper.readTree(premiere).get("curseurSuivant").asText();
+        mockMvc.perform(get("/api/reservations")
+                        .param("email", "pages@email.com")
+                        .param("taille", "2")
+                        .param("curseur", curseur))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.reservations.length()").value(1))
+                .andExpect(jsonPath("$.curseurSuivant").doesNotExist());
+
+        // La première page en cache est retirée quand le passager réserve
+        mockMvc.perform(get("/api/reservations").param("email", "pages@email.com"))
+                .andExpect(jsonPath("$.reservations.length()").value(3));
+        mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/reservations").param("email", "pages@email.com"))
+                .andExpect(jsonPath("$.reservations.length()").value(4));
+
+        mockMvc.perform(get("/api/reservations")
+                        .param("email", "pages@email.com")
+                        .param("curseur", "pas-un-curseur"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_CURSOR"));
+    }
+
+    @Test
+    void should_cancel_reservation_and_promote_waitlist_first_fit() throws Exception {
+        Passager passager = new Passager("Test", "User", "annulation@email.com");
+        String reservation = objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 3));
+        String premiere = mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON).content(reservation))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/reservations").contentType(MediaType.APPLICATION_JSON).content(reservation))
+                    .andExpect(status().isCreated());
+        }
+        UUID reservationId = objectMapper.readValue(premiere, ReservationResponse.class).getNumeroReservation();
+
+        // Vol complet : trois inscriptions de 4, 2 et 1 places, dans cet ordre
+        String[] inscriptions = new String[3];
+        int[] tailles = {4, 2, 1};
+        for (int i = 0; i < tailles.length; i++) {
+            Passager attente = new Passager("Attente", "User" + i, "attente" + i + "@email.com");
+            String body = mockMvc.perform(post("/api/reservations/liste-attente")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), attente, tailles[i]))))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.statut").value("EN_ATTENTE"))
+                    .andExpect(jsonPath("$.position").value(i))
+                    .andReturn().getResponse().getContentAsString();
+            inscriptions[i] = objectMapper.readTree(body).get("inscriptionId").asText();
+        }
+
+        // 3 places libérées : le groupe de 4 ne tient pas, ceux de 2 et 1 sont promus
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/reservations/{id}", reservationId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.placesLiberees").value(3))
+                .andExpect(jsonPath("$.promotions.length()").value(2))
+                .andExpect(jsonPath("$.promotions[0].inscriptionId").value(inscriptions[1]))
+                .andExpect(jsonPath("$.promotions[0].statut").value("PROMUE"))
+                .andExpect(jsonPath("$.promotions[1].inscriptionId").value(inscriptions[2]));
+        mockMvc.perform(get("/api/reservations/liste-attente/{id}", inscriptions[0]))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statut").value("EN_ATTENTE"))
+                .andExpect(jsonPath("$.position").value(0));
+        assertThat(volRepository.findById(vol.getId()).orElseThrow().getPlacesReservees()).isEqualTo(9);
+
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/reservations/{id}", reservationId))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void should_book_chosen_seats_and_assign_contiguous_ones() throws Exception {
+        Passager passager = new Passager("Test", "User", "sieges@email.com");
+        ReservationRequest choisis = new ReservationRequest(vol.getId(), passager, 2);
+        choisis.setSieges(List.of("1A", "1b"));
+        String premiere = mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(choisis)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.sieges[0]").value("1A"))
+                .andExpect(jsonPath("$.sieges[1]").value("1B"))
+                .andReturn().getResponse().getContentAsString();
+
+        // Sans choix, trois sièges côte à côte sur le rang 1
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 3))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.sieges[0]").value("1C"))
+                .andExpect(jsonPath("$.sieges[2]").value("1E"));
+
+        choisis.setSieges(List.of("1B", "2A"));
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(choisis)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.code").value("SEATS_UNAVAILABLE"));
+        choisis.setSieges(List.of("2A", "9Z"));
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(choisis)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.code").value("INVALID_SEATS"));
+
+        mockMvc.perform(get("/api/vols/{id}/sieges", vol.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreSiegesLibres").value(4))
+                .andExpect(jsonPath("$.siegesLibres[0]").value("1F"));
+
+        // L'annulation rend les sièges choisis
+        UUID reservationId = objectMapper.readValue(premiere, ReservationResponse.class).getNumeroReservation();
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/reservations/{id}", reservationId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/vols/{id}/sieges", vol.getId()))
+                .andExpect(jsonPath("$.nombreSiegesLibres").value(6))
+                .andExpect(jsonPath("$.siegesLibres[0]").value("1A"));
+    }
+
+    @Test
+    void should_find_connections_added_through_api() throws Exception {
+        LocalDate jour = LocalDate.now().plusDays(3);
+        VolRequest versHub = volRequest(jour, "Bordeaux", "Lille", LocalTime.of(8, 0), LocalTime.of(9, 30), "100.00");
+        VolRequest depuisHub = volRequest(jour, "Lille", "Strasbourg", LocalTime.of(10, 30), LocalTime.of(12, 0), "80.00");
+        // 15 minutes après l'arrivée à Lille : trop court pour une correspondance
+        VolRequest tropCourt = volRequest(jour, "Lille", "Strasbourg", LocalTime.of(9, 45), LocalTime.of(11, 0), "50.00");
+        VolRequest direct = volRequest(jour, "Bordeaux", "Strasbourg", LocalTime.of(13, 0), LocalTime.of(14, 30), "300.00");
+        mockMvc.perform(post("/api/vols")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(versHub, depuisHub, tropCourt, direct))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/vols/connections")
+                        .param("villeDepart", "bordeaux")
+                        .param("villeArrivee", "Strasbourg")
+                        .param("dateDepart", jour.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].escales").value(1))
+                .andExpect(jsonPath("$[0].prixTotal").value(180.0))
+                .andExpect(jsonPath("$[0].dureeTotale").value(240))
+                .andExpect(jsonPath("$[0].vols[1].villeDepart").value("Lille"))
+                .andExpect(jsonPath("$[1].escales").value(0));
+        mockMvc.perform(get("/api/vols/connections")
+                        .param("villeDepart", "Bordeaux")
+                        .param("villeArrivee", "Strasbourg")
+                        .param("dateDepart", jour.toString())
+                        .param("escales", "3"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_group_flexible_date_search_by_day() throws Exception {
+        LocalDate jour = LocalDate.now().plusDays(10);
+        volRepository.save(new Vol(jour.minusDays(1).atTime(9, 0), jour.minusDays(1).atTime(10, 0),
+                "Rennes", "Grenoble", new BigDecimal("120.00"), 60, 100));
+        volRepository.save(new Vol(jour.atTime(18, 0), jour.atTime(19, 0),
+                "Rennes", "Grenoble", new BigDecimal("95.00"), 60, 100));
+        volRepository.save(new Vol(jour.atTime(7, 0), jour.atTime(8, 30),
+                "Rennes", "Grenoble", new BigDecimal("140.00"), 90, 100));
+        // Hors fenêtre
+        volRepository.save(new Vol(jour.plusDays(2).atTime(9, 0), jour.plusDays(2).atTime(10, 0),
+                "Rennes", "Grenoble", new BigDecimal("50.00"), 60, 100));
+
+        mockMvc.perform(get("/api/vols")
+                        .param("villeDepart", "Rennes")
+                        .param("villeArrivee", "Grenoble")
+                        .param("dateDepart", jour.toString())
+                        .param("flexDays", "1")
+                        .param("tri", "prix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].date").value(jour.minusDays(1).toString()))
+                .andExpect(jsonPath("$[0].prixMin").value(120.0))
+                .andExpect(jsonPath("$[1].nombreVols").value(2))
+                .andExpect(jsonPath("$[1].prixMin").value(95.0))
+                .andExpect(jsonPath("$[1].vols[0].prix").value(95.0))
+                .andExpect(jsonPath("$[2].nombreVols").value(0))
+                .andExpect(jsonPath("$[2].prixMin").doesNotExist());
+    }
+
+    @Test
+    void should_return_one_page_with_facets_over_all_matching_flights() throws Exception {
+        LocalDate jour = LocalDate.now().plusDays(12);
+        volRepository.save(new Vol(jour.atTime(6, 30), jour.atTime(7, 20),
+                "Pau", "Metz", new BigDecimal("49.99"), 50, 100));
+        volRepository.save(new Vol(jour.atTime(6, 45), jour.atTime(8, 15),
+                "Pau", "Metz", new BigDecimal("80.00"), 90, 100));
+        volRepository.save(new Vol(jour.atTime(12, 0), jour.atTime(14, 0),
+                "Pau", "Metz", new BigDecimal("120.00"), 120, 100));
+        volRepository.save(new Vol(jour.atTime(19, 10), jour.atTime(23, 40),
+                "Pau", "Metz", new BigDecimal("210.50"), 270, 100));
+        // Autre route : hors facettes
+        volRepository.save(new Vol(jour.atTime(8, 0), jour.atTime(9, 0),
+                "Pau", "Lille", new BigDecimal("10.00"), 60, 100));
+
+        mockMvc.perform(get("/api/vols")
+                        .param("villeDepart", "Pau")
+                        .param("villeArrivee", "Metz")
+                        .param("dateDepart", jour.toString())
+                        .param("tri", "prix")
+                        .param("facettes", "true")
+                        .param("page", "1")
+                        .param("taille", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.vols.length()").value(1))
+                .andExpect(jsonPath("$.vols[0].prix").value(210.5))
+                .andExpect(jsonPath("$.facettes.prixMin").value(49.99))
+                .andExpect(jsonPath("$.facettes.prixMax").value(210.5))
+                .andExpect(jsonPath("$.facettes.tempsTrajetMin").value(50))
+                .andExpect(jsonPath("$.facettes.tempsTrajetMax").value(270))
+                // Tranches de 50 € de [0, 50[ à [200, 250[
+                .andExpect(jsonPath("$.facettes.prix.length()").value(5))
+                .andExpect(jsonPath("$.facettes.prix[0].min").value(0))
+                .andExpect(jsonPath("$.facettes.prix[0].nombre").value(1))
+                .andExpect(jsonPath("$.facettes.prix[1].nombre").value(1))
+                .andExpect(jsonPath("$.facettes.prix[2].nombre").value(1))
+                .andExpect(jsonPath("$.facettes.prix[3].nombre").value(0))
+                .andExpect(jsonPath("$.facettes.prix[4].nombre").value(1))
+                .andExpect(jsonPath("$.facettes.tempsTrajet[0].nombre").value(1))
+                .andExpect(jsonPath("$.facettes.tempsTrajet[1].nombre").value(1))
+                .andExpect(jsonPath("$.facettes.tempsTrajet[2].nombre").value(1))
+                .andExpect(jsonPath("$.facettes.tempsTrajet[4].nombre").value(1))
+                .andExpect(jsonPath("$.facettes.tempsTrajet[6].max").doesNotExist())
+                .andExpect(jsonPath("$.facettes.heuresDepart.length()").value(24))
+                .andExpect(jsonPath("$.facettes.heuresDepart[6].nombre").value(2))
+                .andExpect(jsonPath("$.facettes.heuresDepart[12].nombre").value(1))
+                .andExpect(jsonPath("$.facettes.heuresDepart[19].nombre").value(1));
+
+        // Sans facettes : la même page, avec le total du count
+        mockMvc.perform(get("/api/vols")
+                        .param("villeDepart", "Pau")
+                        .param("villeArrivee", "Metz")
+                        .param("tri", "prix")
+                        .param("page", "0")
+                        .param("taille", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(4))
+                .andExpect(jsonPath("$.vols.length()").value(2))
+                .andExpect(jsonPath("$.vols[0].prix").value(49.99))
+                .andExpect(jsonPath("$.facettes").doesNotExist());
+    }
+
+    @Test
+    void should_keep_fare_calendar_current_when_cheapest_flight_sells_out() throws Exception {
+        LocalDate jour = LocalDate.now().plusDays(5);
+        VolRequest petitVol = volRequest(jour, "Toulon", "Brest", LocalTime.of(7, 0), LocalTime.of(8, 30), "100.00");
+        petitVol.setCapaciteMaximale(2);
+        VolRequest autreVol = volRequest(jour, "Toulon", "Brest", LocalTime.of(18, 0), LocalTime.of(19, 30), "150.00");
+        autreVol.setCapaciteMaximale(50);
+        String vols = mockMvc.perform(post("/api/vols")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(petitVol, autreVol))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID petitVolId = objectMapper.readValue(vols, Vol[].class)[0].getId();
+
+        String jourJson = "$.jours[" + (jour.getDayOfMonth() - 1) + "]";
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "toulon", "Brest").param("month", YearMonth.from(jour).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.jours.length()").value(jour.lengthOfMonth()))
+                .andExpect(jsonPath(jourJson + ".prixMin").value(100.0))
+                .andExpect(jsonPath(jourJson + ".nombreVols").value(2))
+                .andExpect(jsonPath(jourJson + ".placesRestantes").value(52));
+
+        Passager passager = new Passager("Test", "User", "calendrier@email.com");
+        String reservation = mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(petitVolId, passager, 2))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+
+        // Le relais passe toutes les 200 ms ; le vol le moins cher est complet
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxEventRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "Toulon", "Brest").param("month", YearMonth.from(jour).toString()))
+                .andExpect(jsonPath(jourJson + ".prixMin").value(150.0))
+                .andExpect(jsonPath(jourJson + ".placesRestantes").value(50));
+
+        UUID reservationId = objectMapper.readValue(reservation, ReservationResponse.class).getNumeroReservation();
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/reservations/{id}", reservationId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "Toulon", "Brest").param("month", YearMonth.from(jour).toString()))
+                .andExpect(jsonPath(jourJson + ".prixMin").value(100.0))
+                .andExpect(jsonPath(jourJson + ".placesRestantes").value(52));
+    }
+
+    @Test
+    void should_count_held_and_pending_seats_once_in_fare_calendar() throws Exception {
+        LocalDate jour = LocalDate.now().plusDays(6);
+        VolRequest petitVol = volRequest(jour, "Lorient", "Bastia", LocalTime.of(7, 0), LocalTime.of(9, 0), "90.00");
+        petitVol.setCapaciteMaximale(5);
+        VolRequest autreVol = volRequest(jour, "Lorient", "Bastia", LocalTime.of(16, 0), LocalTime.of(18, 0), "130.00");
+        autreVol.setCapaciteMaximale(20);
+        String vols = mockMvc.perform(post("/api/vols")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(petitVol, autreVol))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        UUID petitVolId = objectMapper.readValue(vols, Vol[].class)[0].getId();
+        String jourJson = "$.jours[" + (jour.getDayOfMonth() - 1) + "]";
+        Passager passager = new Passager("Test", "User", "blocage-calendrier@email.com");
+
+        // Le blocage ne passe pas par l'outbox : il est décompté dans sa transaction
+        mockMvc.perform(post("/api/reservations/holds")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(petitVolId, passager, 2))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "Lorient", "Bastia").param("month", YearMonth.from(jour).toString()))
+                .andExpect(jsonPath(jourJson + ".prixMin").value(90.0))
+                .andExpect(jsonPath(jourJson + ".placesRestantes").value(23));
+
+        // Reconstruction pendant que la réservation attend le relais : elle n'est décomptée qu'une fois
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(petitVolId, passager, 3))))
+                .andExpect(status().isCreated());
+        mockMvc.perform(post("/api/admin/calendrier-tarifs/reconstruction"))
+                .andExpect(status().isOk());
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxEventRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "Lorient", "Bastia").param("month", YearMonth.from(jour).toString()))
+                .andExpect(jsonPath(jourJson + ".prixMin").value(130.0))
+                .andExpect(jsonPath(jourJson + ".placesRestantes").value(20));
+    }
+
+    @Test
+    void should_raise_current_fare_when_booking_crosses_load_factor_tier() throws Exception {
+        // Profil de test : +20 % à partir de 50 % de remplissage
+        LocalDate jour = LocalDate.now().plusDays(3);
+        VolRequest petitVol = volRequest(jour, "Colmar", "Bastia", LocalTime.of(8, 0), LocalTime.of(9, 45), "100.00");
+        petitVol.setCapaciteMaximale(4);
+        VolRequest autreVol = volRequest(jour, "Colmar", "Bastia", LocalTime.of(17, 0), LocalTime.of(18, 45), "110.00");
+        String vols = mockMvc.perform(post("/api/vols")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(petitVol, autreVol))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].prixCourant").value(100.0))
+                .andReturn().getResponse().getContentAsString();
+        UUID petitVolId = objectMapper.readValue(vols, Vol[].class)[0].getId();
+
+        // Une place : 25 %, le palier ne change pas
+        Passager passager = new Passager("Test", "User", "tarif@email.com");
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(petitVolId, passager, 1))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.prixUnitaire").value(100.0));
+        // Deux places de plus : la réservation paie l'ancien tarif, le vol passe au palier suivant
+        String reservation = mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservationRequest(petitVolId, passager, 2))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.prixUnitaire").value(100.0))
+                .andExpect(jsonPath("$.prixTotal").value(200.0))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/vols")
+                        .param("villeDepart", "Colmar")
+                        .param("villeArrivee", "Bastia")
+                        .param("tri", "prix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].prixCourant").value(110.0))
+                .andExpect(jsonPath("$[1].id").value(petitVolId.toString()))
+                .andExpect(jsonPath("$[1].prix").value(100.0))
+                .andExpect(jsonPath("$[1].prixCourant").value(120.0));
+        String jourJson = "$.jours[" + (jour.getDayOfMonth() - 1) + "]";
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "Colmar", "Bastia").param("month", YearMonth.from(jour).toString()))
+                .andExpect(jsonPath(jourJson + ".prixMin").value(110.0));
+        mockMvc.perform(get("/api/vols/connections")
+                        .param("villeDepart", "Colmar")
+                        .param("villeArrivee", "Bastia")
+                        .param("dateDepart", jour.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].prixTotal").value(110.0))
+                .andExpect(jsonPath("$[1].prixTotal").value(120.0));
+
+        // L'annulation ramène le vol sous le seuil : tarif de base
+        UUID reservationId = objectMapper.readValue(reservation, ReservationResponse.class).getNumeroReservation();
+        mockMvc.perform(MockMvcRequestBuilders.delete("/api/reservations/{id}", reservationId))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/vols")
+                        .param("villeDepart", "Colmar")
+                        .param("villeArrivee", "Bastia")
+                        .param("tri", "prix"))
+                .andExpect(jsonPath("$[0].id").value(petitVolId.toString()))
+                .andExpect(jsonPath("$[0].prixCourant").value(100.0));
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "Colmar", "Bastia").param("month", YearMonth.from(jour).toString()))
+                .andExpect(jsonPath(jourJson + ".prixMin").value(100.0));
+    }
+
+    @Test
+    void should_store_cities_as_dictionary_ids_and_resolve_aliases() throws Exception {
+        LocalDate jour = LocalDate.now().plusDays(8);
+        mockMvc.perform(post("/api/vols")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                volRequest(jour, "Quimper", "Ajaccio", LocalTime.of(9, 0), LocalTime.of(11, 0), "140.00")))))
+                .andExpect(status().isCreated());
+        // Une autre graphie du même nom mène à la même ville : le vol est enregistré sous le nom canonique
+        mockMvc.perform(post("/api/vols")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                volRequest(jour, " QUIMPER", "ajaccio", LocalTime.of(15, 0), LocalTime.of(17, 0), "90.00")))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].villeDepart").value("Quimper"))
+                .andExpect(jsonPath("$[0].villeArrivee").value("Ajaccio"));
+
+        mockMvc.perform(put("/api/admin/villes/{ville}/alias/{alias}", "quimper", "UIP"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Quimper"));
+        mockMvc.perform(put("/api/admin/villes/{ville}/alias/{alias}", "Ajaccio", "UIP"))
+                .andExpect(status().isConflict());
+        mockMvc.perform(put("/api/admin/villes/{ville}/alias/{alias}", "Atlantide", "ATL"))
+                .andExpect(status().isNotFound());
+
+        // Alias et nom exact : égalité sur l'identifiant ; fragment de nom : villes qui le contiennent
+        for (String villeDepart : List.of("uip", "Quimper", "quimp")) {
+            mockMvc.perform(get("/api/vols")
+                            .param("villeDepart", villeDepart)
+                            .param("villeArrivee", "Ajaccio")
+                            .param("tri", "prix"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].villeDepart").value("Quimper"))
+                    .andExpect(jsonPath("$[0].prixCourant").value(90.0));
+        }
+        mockMvc.perform(get("/api/vols").param("villeDepart", "Atlantide"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        String jourJson = "$.jours[" + (jour.getDayOfMonth() - 1) + "]";
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "UIP", "Ajaccio").param("month", YearMonth.from(jour).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath(jourJson + ".prixMin").value(90.0))
+                .andExpect(jsonPath(jourJson + ".nombreVols").value(2));
+        mockMvc.perform(get("/api/vols/connections")
+                        .param("villeDepart", "UIP")
+                        .param("villeArrivee", "Ajaccio")
+                        .param("dateDepart", jour.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void should_report_then_repair_inventory_drift() throws Exception {
+        LocalDate jour = LocalDate.now().plusDays(6);
+        String vols = mockMvc.perform(post("/api/vols")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                volRequest(jour, "Nantes", "Dijon", LocalTime.of(7, 0), LocalTime.of(8, 10), "75.00"),
+                                volRequest(jour, "Nantes", "Dijon", LocalTime.of(12, 0), LocalTime.of(13, 10), "85.00"),
+                                volRequest(jour, "Nantes", "Dijon", LocalTime.of(18, 0), LocalTime.of(19, 10), "95.00")))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Vol[] crees = objectMapper.readValue(vols, Vol[].class);
+        Passager passager = new Passager("Test", "User", "inventaire@email.com");
+        for (Vol cree : crees) {
+            mockMvc.perform(post("/api/reservations")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ReservationRequest(cree.getId(), passager, 2))))
+                    .andExpect(status().isCreated());
+        }
+        // Dérive silencieuse : le compteur du vol ne correspond plus à ses réservations
+        Vol derive = volRepository.findById(crees[1].getId()).orElseThrow();
+        derive.setPlacesReservees(5);
+        volRepository.save(derive);
+
+        // Quatre vols avec celui de setUp, par lots de deux en profil de test
+        mockMvc.perform(post("/api/admin/reconciliation"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.vols").value(4))
+                .andExpect(jsonPath("$.lots").value(2))
+                .andExpect(jsonPath("$.ecarts").value(1))
+                .andExpect(jsonPath("$.corriges").value(0))
+                .andExpect(jsonPath("$.exemples[0].volId").value(derive.getId().toString()))
+                .andExpect(jsonPath("$.exemples[0].placesReservees").value(5))
+                .andExpect(jsonPath("$.exemples[0].placesReservations").value(2));
+        mockMvc.perform(get("/api/vols/{id}/places", derive.getId()))
+                .andExpect(content().string("115"));
+
+        mockMvc.perform(post("/api/admin/reconciliation").param("reparer", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ecarts").value(1))
+                .andExpect(jsonPath("$.corriges").value(1));
+        mockMvc.perform(get("/api/vols/{id}/places", derive.getId()))
+                .andExpect(content().string("118"));
+        mockMvc.perform(get("/api/vols/{id}/sieges", derive.getId()))
+                .andExpect(jsonPath("$.nombreSiegesLibres").value(118));
+        mockMvc.perform(post("/api/admin/reconciliation"))
+                .andExpect(jsonPath("$.ecarts").value(0));
+        mockMvc.perform(get("/api/admin/reconciliation"))
+                .andExpect(jsonPath("$.ecarts").value(0))
+                .andExpect(jsonPath("$.dureeMs").isNumber());
+    }
+
+    @Test
+    void should_stream_reservations_and_audit_as_csv_or_gzipped_ndjson() throws Exception {
+        LocalDateTime debut = LocalDateTime.now().minusSeconds(1);
+        List<Passager> passagers = List.of(
+                new Passager("Durand, Jr", "Paul", "export1@email.com"),
+                new Passager("=SOMME(A1)", "Anne", "export2@email.com"),
+                new Passager("Martin", "Léa", "export3@email.com"));
+        for (Passager passager : passagers) {
+            mockMvc.perform(post("/api/reservations")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new ReservationRequest(vol.getId(), passager, 2))))
+                    .andExpect(status().isCreated());
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxEventRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        String from = debut.toString();
+        String to = LocalDateTime.now().plusSeconds(1).toString();
+
+        // Fenêtres de deux lignes en profil de test : trois réservations, deux fenêtres
+        var csv = mockMvc.perform(get("/api/export/reservations").param("from", from).param("to", to))
+                .andReturn();
+        String[] lignes = mockMvc.perform(asyncDispatch(csv))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8).split("\r\n");
+        assertThat(lignes).hasSize(4);
+        assertThat(lignes[0]).startsWith("id,created_at,date_annulation,vol_id,ville_depart");
+        assertThat(lignes[1]).contains(",Paris,Lyon,").contains(",\"Durand, Jr\",Paul,export1@email.com,2,150.00,300.00,");
+        assertThat(lignes[2]).contains(",'=SOMME(A1),Anne,");
+        assertThat(lignes[3]).contains(",Martin,Léa,");
+
+        var ndjson = mockMvc.perform(get("/api/export/audit").param("from", from).param("to", to)
+                        .param("format", "NDJSON")
+                        .header("Accept-Encoding", "gzip"))
+                .andReturn();
+        byte[] compresse = mockMvc.perform(asyncDispatch(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Encoding", "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+        String audit;
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(compresse))) {
+            audit = new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<JsonNode> entrees = audit.lines().map(ligne -> {
+            try {
+                return objectMapper.readTree(ligne);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }).filter(entree -> entree.get("vol_id").asText().equals(vol.getId().toString())).toList();
+        assertThat(entrees).hasSize(3);
+        assertThat(entrees).extracting(entree -> entree.get("statut").asText()).containsOnly("SUCCESS");
+        assertThat(entrees).extracting(entree -> entree.get("email_passager").asText())
+                .containsExactly("export1@email.com", "export2@email.com", "export3@email.com");
+
+        mockMvc.perform(get("/api/export/audit").param("from", to).param("to", from))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void should_patch_flights_in_batch_with_version_and_capacity_checks() throws Exception {
+        LocalDate jour = LocalDate.now().plusDays(6);
+        VolRequest petitVol = volRequest(jour, "Rennes", "Nantes", LocalTime.of(7, 0), LocalTime.of(8, 0), "100.00");
+        petitVol.setCapaciteMaximale(4);
+        VolRequest grandVol = volRequest(jour, "Rennes", "Nantes", LocalTime.of(12, 0), LocalTime.of(13, 0), "200.00");
+        String crees = mockMvc.perform(post("/api/vols")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(petitVol, grandVol))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Vol[] vols = objectMapper.readValue(crees, Vol[].class);
+        UUID petitVolId = vols[0].getId();
+        UUID grandVolId = vols[1].getId();
+
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ReservationRequest(petitVolId, new Passager("Test", "User", "patch@email.com"), 3))))
+                .andExpect(status().isCreated());
+        // Le relais de l'outbox décompte la réservation du calendrier avant la modification
+        long deadline = System.currentTimeMillis() + 5000;
+        while (outboxEventRepository.count() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        mockMvc.perform(get("/api/vols/{id}/places", petitVolId))
+                .andExpect(content().string("1"));
+
+        // 3 places réservées : une capacité de 2 est refusée et annule tout le lot
+        VolUpdateRequest reduction = new VolUpdateRequest(petitVolId, volRepository.findById(petitVolId).orElseThrow().getVersion());
+        reduction.setCapaciteMaximale(2);
+        VolUpdateRequest deplacement = new VolUpdateRequest(grandVolId, volRepository.findById(grandVolId).orElseThrow().getVersion());
+        deplacement.setPrix(new BigDecimal("80.00"));
+        deplacement.setDateDepart(jour.plusDays(1).atTime(10, 0));
+        deplacement.setDateArrivee(jour.plusDays(1).atTime(11, 0));
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/vols/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BatchVolUpdateRequest(ModeBatch.ALL_OR_NOTHING, List.of(reduction, deplacement)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreEchecs").value(2))
+                .andExpect(jsonPath("$.resultats[0].erreur.code").value("INSUFFICIENT_CAPACITY"))
+                .andExpect(jsonPath("$.resultats[1].erreur.code").value("BATCH_ABORTED"));
+        assertThat(volRepository.findById(grandVolId).orElseThrow().getPrix()).isEqualByComparingTo("200.00");
+
+        reduction.setCapaciteMaximale(3);
+        VolUpdateRequest perime = new VolUpdateRequest(vol.getId(), vol.getVersion() + 1);
+        perime.setPrix(new BigDecimal("90.00"));
+        VolUpdateRequest inconnu = new VolUpdateRequest(UUID.randomUUID(), 0L);
+        mockMvc.perform(MockMvcRequestBuilders.patch("/api/vols/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new BatchVolUpdateRequest(ModeBatch.BEST_EFFORT, List.of(reduction, deplacement, perime, inconnu)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nombreModifies").value(2))
+                .andExpect(jsonPath("$.resultats[0].placesDisponibles").value(0))
+                .andExpect(jsonPath("$.resultats[0].version").value(reduction.getVersion() + 1))
+                .andExpect(jsonPath("$.resultats[1].prixCourant").value(80.0))
+                .andExpect(jsonPath("$.resultats[2].erreur.code").value("VERSION_CONFLICT"))
+                .andExpect(jsonPath("$.resultats[3].erreur.code").value("VOL_NOT_FOUND"));
+
+        // Caches, calendrier et graphe des correspondances suivent le lot
+        mockMvc.perform(get("/api/vols/{id}/places", petitVolId))
+                .andExpect(content().string("0"));
+        mockMvc.perform(get("/api/vols/{id}/sieges", petitVolId))
+                .andExpect(jsonPath("$.capaciteMaximale").value(3));
+        String jourJson = "$.jours[" + (jour.getDayOfMonth() - 1) + "]";
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "Rennes", "Nantes").param("month", YearMonth.from(jour).toString()))
+                .andExpect(jsonPath(jourJson + ".nombreVols").value(1))
+                .andExpect(jsonPath(jourJson + ".prixMin").isEmpty())
+                .andExpect(jsonPath(jourJson + ".placesRestantes").value(0));
+        LocalDate lendemain = jour.plusDays(1);
+        mockMvc.perform(get("/api/routes/{from}/{to}/calendar", "Rennes", "Nantes").param("month", YearMonth.from(lendemain).toString()))
+                .andExpect(jsonPath("$.jours[" + (lendemain.getDayOfMonth() - 1) + "].prixMin").value(80.0))
+                .andExpect(jsonPath("$.jours[" + (lendemain.getDayOfMonth() - 1) + "].placesRestantes").value(120));
+        mockMvc.perform(get("/api/vols/connections").param("villeDepart", "Rennes").param("villeArrivee", "Nantes")
+                        .param("dateDepart", jour.toString()))
+                .andExpect(jsonPath("$.length()").value(0));
+        mockMvc.perform(get("/api/vols/connections").param("villeDepart", "Rennes").param("villeArrivee", "Nantes")
+                        .param("dateDepart", lendemain.toString()))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].prixTotal").value(80.0));
+    }
+
+    @Test
+    void should_allow_patch_in_cors_preflight_for_batch_update() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.options("/api/vols/batch")
+                        .header(HttpHeaders.ORIGIN, "http://localhost:4200")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "PATCH")
+                        .header(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, HttpHeaders.CONTENT_TYPE))
+                .andExpect(status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "http://localhost:4200"))
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS,
+                        containsString("PATCH")));
+    }
+
+    @Test
+    void should_limit_rotating_unknown_api_keys_per_ip() throws Exception {
+        // Adresse propre au test : le seau de recherche des autres tests n'est pas entamé
+        int limites = 0;
+        for (int i = 0; i < 60; i++) {
+            int statut = mockMvc.perform(get("/api/vols").param("villeDepart", "Paris")
+                            .header("X-API-Key", UUID.randomUUID().toString())
+                            .with(requete -> {
+                                requete.setRemoteAddr("10.0.0.34");
+                                return requete;
+                            }))
+                    .andReturn().getResponse().getStatus();
+            if (statut == 429) {
+                limites++;
+            }
+        }
+        assertThat(limites).isPositive();
+
+        // Une clé délivrée a son propre seau, depuis la même adresse
+        mockMvc.perform(get("/api/vols").param("villeDepart", "Paris")
+                        .header("X-API-Key", "cle-partenaire-test")
+                        .with(requete -> {
+                            requete.setRemoteAddr("10.0.0.34");
+                            return requete;
+                        }))
+                .andExpect(status().isOk());
+    }
+
+    private static VolRequest volRequest(LocalDate jour, String villeDepart, String villeArrivee,
+                                         LocalTime depart, LocalTime arrivee, String prix) {
+        int tempsTrajet = (arrivee.toSecondOfDay() - depart.toSecondOfDay()) / 60;
+        return new VolRequest(jour.atTime(depart), jour.atTime(arrivee), villeDepart, villeArrivee,
+                new BigDecimal(prix), tempsTrajet, 120);
+    }
+}
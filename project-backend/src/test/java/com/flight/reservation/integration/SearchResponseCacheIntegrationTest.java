@@ -0,0 +1,151 @@
+package com.flight.reservation.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flight.reservation.dto.ReservationRequest;
+import com.flight.reservation.dto.VolRequest;
+import com.flight.reservation.entity.Passager;
+import com.flight.reservation.entity.Vol;
+import com.flight.reservation.repository.VolRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * GET /api/vols servi par le cache des réponses sérialisées. Base à part : ce contexte tourne
+ * à côté de celui de ReservationIntegrationTest.
+ *
+ * Les vols sont modifiés directement dans la base, sans passer par les services : ces modifications
+ * n'invalident pas le cache, une réponse restée identique vient donc du cache.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "flight.search.response-cache.enabled=true",
+        "flight.search.response-cache.gzip-min-bytes=0",
+        "spring.datasource.url=jdbc:h2:mem:searchcache;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+public class SearchResponseCacheIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VolRepository volRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void should_serve_second_search_from_cache_until_a_booking_on_the_route() throws Exception {
+        UUID volId = creerVol("Brest", "Pau");
+        rechercher("Brest", "Pau", 0);
+
+        modifierPlacesReservees(volId, 5);
+        rechercher("Brest", "Pau", 0);
+
+        // La réservation invalide les recherches de sa route après son commit
+        mockMvc.perform(post("/api/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new ReservationRequest(volId, new Passager("Test", "User", "cache@email.com"), 1))))
+                .andExpect(status().isCreated());
+        rechercher("Brest", "Pau", 6);
+    }
+
+    @Test
+    void should_share_cache_entry_between_alias_and_canonical_name() throws Exception {
+        UUID volId = creerVol("Nantes", "Metz");
+        mockMvc.perform(put("/api/admin/villes/{ville}/alias/{alias}", "Nantes", "NTE"))
+                .andExpect(status().isOk());
+        rechercher("Nantes", "Metz", 0);
+
+        modifierPlacesReservees(volId, 5);
+        rechercher("NTE", "Metz", 0);
+        rechercher("nantes", "Metz", 0);
+    }
+
+    @Test
+    void should_gzip_only_when_client_accepts_it() throws Exception {
+        creerVol("Rennes", "Toulon");
+
+        byte[] gzip = mockMvc.perform(get("/api/vols")
+                        .param("villeDepart", "Rennes")
+                        .param("villeArrivee", "Toulon")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn().getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            JsonNode vols = objectMapper.readTree(in.readAllBytes());
+            assertThat(vols).hasSize(1);
+            assertThat(vols.get(0).get("villeDepart").asText()).isEqualTo("Rennes");
+        }
+
+        // Même entrée de cache, servie sans compression
+        mockMvc.perform(get("/api/vols")
+                        .param("villeDepart", "Rennes")
+                        .param("villeArrivee", "Toulon"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$[0].villeDepart").value("Rennes"));
+        mockMvc.perform(get("/api/vols")
+                        .param("villeDepart", "Rennes")
+                        .param("villeArrivee", "Toulon")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "identity"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    private UUID creerVol(String villeDepart, String villeArrivee) throws Exception {
+        LocalDate jour = LocalDate.now().plusDays(3);
+        VolRequest volRequest = new VolRequest(jour.atTime(9, 0), jour.atTime(11, 0), villeDepart, villeArrivee,
+                new BigDecimal("120.00"), 120, 120);
+        String crees = mockMvc.perform(post("/api/vols")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(volRequest))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(crees, Vol[].class)[0].getId();
+    }
+
+    private void modifierPlacesReservees(UUID volId, int placesReservees) {
+        Vol vol = volRepository.findById(volId).orElseThrow();
+        vol.setPlacesReservees(placesReservees);
+        volRepository.save(vol);
+    }
+
+    private void rechercher(String villeDepart, String villeArrivee, int placesReservees) throws Exception {
+        mockMvc.perform(get("/api/vols")
+                        .param("villeDepart", villeDepart)
+                        .param("villeArrivee", villeArrivee))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].placesReservees").value(placesReservees));
+    }
+}
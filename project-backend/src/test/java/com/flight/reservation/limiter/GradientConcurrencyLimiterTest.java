@@ -0,0 +1,96 @@
+package com.flight.reservation.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scénario de charge rejoué en temps simulé : un serveur de 4 places qui traite une requête
+ * en 20 ms (200 req/s au maximum) reçoit 600 req/s pendant 20 secondes.
+ */
+class GradientConcurrencyLimiterTest {
+
+    private static final int WORKERS = 4;
+    private static final long SERVICE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final double CAPACITY_PER_SECOND = WORKERS * 1e9 / SERVICE_NANOS;
+    private static final long DURATION_NANOS = TimeUnit.SECONDS.toNanos(20);
+
+    @Test
+    void should_keep_p99_latency_stable_under_3x_overload() {
+        Result sansLimite = simulate(null, 3);
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter("booking", 20, 2, 200);
+        Result avecLimite = simulate(limiter, 3);
+
+        // Sans limite la file grossit sans fin : la p99 se compte en secondes
+        assertThat(sansLimite.p99Ms()).isGreaterThan(5_000);
+        // Avec la limite, la p99 reste de l'ordre de quelques temps de service
+        assertThat(avecLimite.p99Ms()).isLessThan(100);
+        // Le débit utile reste proche de la capacité du serveur, le surplus est refusé tôt
+        assertThat(avecLimite.throughputPerSecond()).isGreaterThan(CAPACITY_PER_SECOND * 0.9);
+        assertThat(limiter.snapshot().rejected()).isGreaterThan(limiter.snapshot().accepted());
+        assertThat(limiter.getLimit()).isBetween(2, 20);
+    }
+
+    @Test
+    void should_not_reject_below_capacity() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter("search", 20, 2, 200);
+        Result result = simulate(limiter, 0.5);
+
+        assertThat(limiter.snapshot().rejected()).isZero();
+        assertThat(result.p99Ms()).isLessThan(50);
+    }
+
+    private static Result simulate(GradientConcurrencyLimiter limiter, double overload) {
+        long interArrival = (long) (1e9 / (CAPACITY_PER_SECOND * overload));
+        PriorityQueue<Long> workersFreeAt = new PriorityQueue<>();
+        for (int i = 0; i < WORKERS; i++) {
+            workersFreeAt.add(0L);
+        }
+        PriorityQueue<Completion> completions = new PriorityQueue<>((a, b) -> Long.compare(a.at, b.at));
+        List<Long> latencies = new ArrayList<>();
+        long completed = 0;
+
+        for (long now = 0; now < DURATION_NANOS; now += interArrival) {
+            // Les fins de traitement antérieures à cette arrivée libèrent leur place d'abord
+            while (!completions.isEmpty() && completions.peek().at <= now) {
+                Completion completion = completions.poll();
+                if (completion.permit != null) {
+                    completion.permit.onSuccess(completion.latency);
+                }
+            }
+            GradientConcurrencyLimiter.Permit permit = null;
+            if (limiter != null) {
+                permit = limiter.tryAcquire();
+                if (permit == null) {
+                    continue;
+                }
+            }
+            long start = Math.max(now, workersFreeAt.poll());
+            long end = start + SERVICE_NANOS;
+            workersFreeAt.add(end);
+            completions.add(new Completion(end, end - now, permit));
+            if (now >= DURATION_NANOS / 2) {
+                latencies.add(end - now);
+                if (end < DURATION_NANOS) {
+                    completed++;
+                }
+            }
+        }
+        Collections.sort(latencies);
+        long p99 = latencies.get((int) (latencies.size() * 0.99));
+        double throughput = completed / (DURATION_NANOS / 2 / 1e9);
+        return new Result(TimeUnit.NANOSECONDS.toMillis(p99), throughput);
+    }
+
+    private record Completion(long at, long latency, GradientConcurrencyLimiter.Permit permit) {
+    }
+
+    private record Result(long p99Ms, double throughputPerSecond) {
+    }
+}
@@ -0,0 +1,78 @@
+package com.flight.reservation.limiter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void should_allow_burst_then_refill_at_rate() {
+        TokenBucket bucket = new TokenBucket(0, 3);
+
+        assertThat(bucket.tryConsume(0, 10, 3)).isZero();
+        assertThat(bucket.tryConsume(0, 10, 3)).isZero();
+        assertThat(bucket.tryConsume(0, 10, 3)).isZero();
+        // 10 jetons/s : le prochain arrive dans 100 ms
+        assertThat(bucket.tryConsume(0, 10, 3)).isEqualTo(100);
+        assertThat(bucket.tryConsume(50, 10, 3)).isEqualTo(50);
+        assertThat(bucket.tryConsume(100, 10, 3)).isZero();
+
+        // Après une longue pause, le seau ne dépasse pas sa capacité
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryConsume(60_000, 10, 3)).isZero();
+        }
+        assertThat(bucket.tryConsume(60_000, 10, 3)).isPositive();
+    }
+
+    @Test
+    void should_apply_new_policy_without_recreating_bucket() {
+        TokenBucket bucket = new TokenBucket(0, 10);
+        for (int i = 0; i < 10; i++) {
+            bucket.tryConsume(0, 1, 10);
+        }
+        assertThat(bucket.tryConsume(0, 1, 10)).isEqualTo(1000);
+        // Débit relevé à chaud : 100 jetons/s
+        assertThat(bucket.tryConsume(10, 100, 10)).isZero();
+        // Capacité abaissée à chaud : le surplus n'est pas conservé
+        assertThat(bucket.tryConsume(10_000, 100, 2)).isZero();
+        assertThat(bucket.tryConsume(10_000, 100, 2)).isZero();
+        assertThat(bucket.tryConsume(10_000, 100, 2)).isPositive();
+    }
+
+    @Test
+    void should_never_hand_out_more_tokens_than_available_under_contention() throws Exception {
+        TokenBucket bucket = new TokenBucket(0, 1000);
+        AtomicInteger granted = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    // Horloge figée : aucun remplissage pendant le test
+                    if (bucket.tryConsume(0, 1, 1000) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(granted.get()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,56 @@
+package com.flight.reservation.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PricingEngineTest {
+
+    private static final LocalDateTime DEPART = LocalDateTime.of(2030, 6, 1, 10, 0);
+
+    // Ordre de saisie quelconque : les tables sont triées à la construction
+    private final PricingEngine engine = new PricingEngine("50:1.10,0:1.00,80:1.30", "0:1.50,7:1.00,30:0.90");
+
+    @Test
+    void should_pick_load_factor_tier_at_threshold() {
+        assertThat(engine.palierRemplissage(0, 180)).isZero();
+        assertThat(engine.palierRemplissage(89, 180)).isZero();
+        assertThat(engine.palierRemplissage(90, 180)).isEqualTo(1);
+        assertThat(engine.palierRemplissage(143, 180)).isEqualTo(1);
+        assertThat(engine.palierRemplissage(144, 180)).isEqualTo(2);
+        assertThat(engine.palierRemplissage(180, 180)).isEqualTo(2);
+    }
+
+    @Test
+    void should_tick_time_bucket_right_after_revision_date() {
+        LocalDateTime loin = DEPART.minusDays(40);
+        assertThat(engine.palierEcheance(loin, DEPART)).isZero();
+        LocalDateTime revision = engine.prochaineRevision(0, DEPART);
+        assertThat(revision).isEqualTo(DEPART.minusDays(30));
+        // La date de révision appartient encore au palier : elle n'est jamais dépassée juste après un calcul
+        assertThat(engine.palierEcheance(revision, DEPART)).isZero();
+        assertThat(engine.palierEcheance(revision.plusSeconds(1), DEPART)).isEqualTo(1);
+        assertThat(engine.palierEcheance(DEPART.minusDays(3), DEPART)).isEqualTo(2);
+        assertThat(engine.palierEcheance(DEPART.plusHours(2), DEPART)).isEqualTo(2);
+        assertThat(engine.prochaineRevision(2, DEPART)).isNull();
+    }
+
+    @Test
+    void should_multiply_base_fare_by_both_tiers() {
+        assertThat(engine.prix(new BigDecimal("100.00"), 0, 0)).isEqualByComparingTo("90.00");
+        assertThat(engine.prix(new BigDecimal("100.00"), 2, 2)).isEqualByComparingTo("195.00");
+        assertThat(engine.prix(new BigDecimal("99.99"), 1, 1)).isEqualTo(new BigDecimal("109.99"));
+        assertThat(engine.palier(1, 2)).isNotEqualTo(engine.palier(2, 1));
+    }
+
+    @Test
+    void should_reject_invalid_tier_tables() {
+        assertThatThrownBy(() -> new PricingEngine("10:1.00", "0:1.00")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PricingEngine("0:1.00,0:1.20", "0:1.00")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new PricingEngine("0:1.00", "7=1.00")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,172 @@
+package com.flight.reservation.routing;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteGraphTest {
+
+    private static final LocalDate JOUR = LocalDate.of(2030, 6, 1);
+
+    @Test
+    void should_chain_connections_honouring_minimum_connection_time() {
+        RouteGraph graph = new RouteGraph(45, 8 * 60);
+        FlightLeg direct = leg("Paris", "Nice", 18, 0, 90, "300.00");
+        FlightLeg versLyon = leg("Paris", "Lyon", 8, 0, 60, "80.00");
+        // 30 minutes après l'arrivée à Lyon : correspondance trop courte
+        FlightLeg tropCourt = leg("Lyon", "Nice", 9, 30, 60, "20.00");
+        FlightLeg lyonNice = leg("Lyon", "Nice", 10, 0, 60, "90.00");
+        FlightLeg lyonMarseille = leg("Lyon", "Marseille", 10, 0, 45, "30.00");
+        FlightLeg marseilleNice = leg("Marseille", "Nice", 11, 30, 30, "40.00");
+        // Attente de plus de 8 heures à Lyon
+        FlightLeg tropTard = leg("Lyon", "Nice", 17, 30, 60, "10.00");
+        graph.addAll(List.of(direct, versLyon, tropCourt, lyonNice, lyonMarseille, marseilleNice, tropTard));
+
+        List<RouteGraph.Itinerary> parPrix = search(graph, "paris", "NICE", 2, RouteGraph.SortBy.PRICE, null);
+        assertThat(parPrix).extracting(RouteGraph.Itinerary::prix)
+                .containsExactly(new BigDecimal("150.00"), new BigDecimal("170.00"), new BigDecimal("300.00"));
+        assertThat(volIds(parPrix.get(0))).containsExactly(versLyon.volId(), lyonMarseille.volId(), marseilleNice.volId());
+        assertThat(parPrix.get(0).escales()).isEqualTo(2);
+        assertThat(parPrix.get(0).dureeTotale()).isEqualTo(4 * 60);
+        assertThat(parPrix.get(0).vols().get(0).villeDepart()).isEqualTo("Paris");
+
+        List<RouteGraph.Itinerary> parTemps = search(graph, "Paris", "Nice", 2, RouteGraph.SortBy.TRAVEL_TIME, null);
+        assertThat(parTemps).extracting(RouteGraph.Itinerary::tempsTrajet).containsExactly(90, 120, 135);
+
+        assertThat(search(graph, "Paris", "Nice", 0, RouteGraph.SortBy.PRICE, null)).hasSize(1);
+        assertThat(search(graph, "Paris", "Nice", 1, RouteGraph.SortBy.PRICE, null)).hasSize(2);
+        // Un vol exclu (complet) coupe les itinéraires qui l'empruntent
+        Set<UUID> complets = Set.of(lyonMarseille.volId());
+        assertThat(search(graph, "Paris", "Nice", 2, RouteGraph.SortBy.PRICE, complets::contains))
+                .extracting(RouteGraph.Itinerary::prix)
+                .containsExactly(new BigDecimal("170.00"), new BigDecimal("300.00"));
+    }
+
+    @Test
+    void should_add_flights_incrementally_without_duplicates() {
+        RouteGraph graph = new RouteGraph(45, 8 * 60);
+        FlightLeg versLyon = leg("Paris", "Lyon", 8, 0, 60, "80.00");
+        graph.addAll(List.of(versLyon));
+        assertThat(search(graph, "Paris", "Nice", 2, RouteGraph.SortBy.PRICE, null)).isEmpty();
+
+        // Le vol déjà présent revient avec le nouveau : il n'est compté qu'une fois
+        graph.addAll(List.of(versLyon, leg("Lyon", "Nice", 10, 0, 60, "90.00")));
+        assertThat(graph.size()).isEqualTo(2);
+        assertThat(search(graph, "Paris", "Nice", 2, RouteGraph.SortBy.PRICE, null)).hasSize(1);
+        assertThat(search(graph, "Paris", "Lyon", 2, RouteGraph.SortBy.PRICE, null)).hasSize(1);
+        assertThat(search(graph, "Paris", "Inconnue", 2, RouteGraph.SortBy.PRICE, null)).isEmpty();
+    }
+
+    @Test
+    void should_replace_rescheduled_flights() {
+        RouteGraph graph = new RouteGraph(45, 8 * 60);
+        FlightLeg versLyon = leg("Paris", "Lyon", 8, 0, 60, "80.00");
+        FlightLeg lyonNice = leg("Lyon", "Nice", 10, 0, 60, "90.00");
+        graph.addAll(List.of(versLyon, lyonNice));
+        assertThat(search(graph, "Paris", "Nice", 1, RouteGraph.SortBy.PRICE, null)).hasSize(1);
+
+        // Avancé à 9 h 15 : 15 minutes après l'arrivée à Lyon, la correspondance est trop courte
+        LocalDateTime depart = JOUR.atTime(9, 15);
+        FlightLeg avance = new FlightLeg(lyonNice.volId(), "Lyon", "Nice", depart, depart.plusMinutes(60),
+                new BigDecimal("70.00"), 60);
+        graph.replaceAll(List.of(lyonNice), List.of(avance));
+        assertThat(graph.size()).isEqualTo(2);
+        assertThat(search(graph, "Paris", "Nice", 1, RouteGraph.SortBy.PRICE, null)).isEmpty();
+        assertThat(search(graph, "Lyon", "Nice", 0, RouteGraph.SortBy.PRICE, null))
+                .extracting(RouteGraph.Itinerary::prix).containsExactly(new BigDecimal("70.00"));
+
+        assertThat(graph.removeAll(List.of(avance, leg("Paris", "Inconnue", 8, 0, 60, "10.00")))).isEqualTo(1);
+        assertThat(graph.size()).isEqualTo(1);
+        assertThat(search(graph, "Lyon", "Nice", 0, RouteGraph.SortBy.PRICE, null)).isEmpty();
+    }
+
+    /**
+     * 500 000 vols sur 30 jours entre 100 villes, dont 10 plates-formes qui concentrent
+     * la moitié du trafic. Recherche à deux escales au plus, 20 meilleurs itinéraires.
+     * Seuil en temps réel : lancé seulement avec mvn -Pbenchmark test.
+     */
+    @Test
+    @Tag("benchmark")
+    void should_answer_within_tens_of_milliseconds_on_500k_flights() {
+        int villes = 100;
+        int jours = 30;
+        Random random = new Random(42);
+        List<FlightLeg> vols = new ArrayList<>(500_000);
+        for (int i = 0; i < 500_000; i++) {
+            int from = random.nextBoolean() ? random.nextInt(10) : random.nextInt(villes);
+            int to = random.nextBoolean() ? random.nextInt(10) : random.nextInt(villes);
+            if (from == to) {
+                to = (to + 1) % villes;
+            }
+            LocalDateTime depart = JOUR.atStartOfDay().plusMinutes(random.nextInt(jours * 24 * 60));
+            int duree = 45 + random.nextInt(300);
+            vols.add(new FlightLeg(UUID.randomUUID(), "Ville" + from, "Ville" + to, depart, depart.plusMinutes(duree),
+                    BigDecimal.valueOf(2_000 + random.nextInt(50_000), 2), duree));
+        }
+        RouteGraph graph = new RouteGraph(45, 8 * 60);
+        long debutChargement = System.nanoTime();
+        for (int i = 0; i < vols.size(); i += 50_000) {
+            graph.addAll(vols.subList(i, i + 50_000));
+        }
+        long chargementMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - debutChargement);
+        assertThat(graph.size()).isEqualTo(500_000);
+
+        for (int i = 0; i < 200; i++) {
+            requete(graph, random, villes, jours, i);
+        }
+        int requetes = 500;
+        long[] durees = new long[requetes];
+        int itineraires = 0;
+        for (int i = 0; i < requetes; i++) {
+            long debut = System.nanoTime();
+            itineraires += requete(graph, random, villes, jours, i).size();
+            durees[i] = System.nanoTime() - debut;
+        }
+        Arrays.sort(durees);
+        double p50 = durees[requetes / 2] / 1e6;
+        double p99 = durees[requetes * 99 / 100] / 1e6;
+
+        System.out.println("=== Benchmark correspondances (500 000 vols, 100 villes, 30 jours) ===");
+        System.out.printf("chargement: %d ms, p50: %.2f ms, p99: %.2f ms, itinéraires/requête: %.1f%n",
+                chargementMs, p50, p99, (double) itineraires / requetes);
+
+        assertThat(itineraires).isPositive();
+        assertThat(p99).isLessThan(50);
+    }
+
+    private static List<RouteGraph.Itinerary> requete(RouteGraph graph, Random random, int villes, int jours, int i) {
+        int from = random.nextInt(villes);
+        int to = (from + 1 + random.nextInt(villes - 1)) % villes;
+        LocalDate jour = JOUR.plusDays(random.nextInt(jours));
+        RouteGraph.SortBy tri = i % 2 == 0 ? RouteGraph.SortBy.PRICE : RouteGraph.SortBy.TRAVEL_TIME;
+        return graph.search("Ville" + from, "Ville" + to, jour.atStartOfDay(), jour.plusDays(1).atStartOfDay(),
+                2, tri, 20, null);
+    }
+
+    private static List<RouteGraph.Itinerary> search(RouteGraph graph, String from, String to, int escales,
+                                                     RouteGraph.SortBy tri, Predicate<UUID> exclu) {
+        return graph.search(from, to, JOUR.atStartOfDay(), JOUR.plusDays(1).atStartOfDay(), escales, tri, 20, exclu);
+    }
+
+    private static List<UUID> volIds(RouteGraph.Itinerary itineraire) {
+        return itineraire.vols().stream().map(FlightLeg::volId).toList();
+    }
+
+    private static FlightLeg leg(String from, String to, int heure, int minute, int duree, String prix) {
+        LocalDateTime depart = JOUR.atTime(heure, minute);
+        return new FlightLeg(UUID.randomUUID(), from, to, depart, depart.plusMinutes(duree), new BigDecimal(prix), duree);
+    }
+}
@@ -0,0 +1,65 @@
+package com.flight.reservation.scheduling;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void should_expire_each_timeout_on_its_deadline_across_levels() {
+        // 4 cases x 3 niveaux : portée de 64 ticks, les délais plus longs sont replacés à chaque tour
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 4, 3, Runnable::run, "test-wheel", false);
+        int[] delays = {1, 3, 4, 5, 15, 16, 17, 63, 64, 65, 130, 200};
+        long[] expiredAt = new long[delays.length];
+        for (int i = 0; i < delays.length; i++) {
+            int index = i;
+            wheel.schedule(delays[i], TimeUnit.SECONDS, () -> expiredAt[index] = wheel.currentTick());
+        }
+        assertThat(wheel.size()).isEqualTo(delays.length);
+
+        wheel.advanceTo(250);
+
+        for (int i = 0; i < delays.length; i++) {
+            // Le délai est arrondi au tick supérieur, jamais en avance
+            assertThat(expiredAt[i]).as("délai %d", delays[i]).isBetween((long) delays[i], (long) delays[i] + 1);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void should_not_run_cancelled_timeouts() {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(1000, 8, 2, Runnable::run, "test-wheel", false);
+        List<String> executed = new ArrayList<>();
+        HierarchicalTimingWheel.Timeout cancelled = wheel.schedule(3, TimeUnit.SECONDS, () -> executed.add("annulé"));
+        wheel.schedule(3, TimeUnit.SECONDS, () -> executed.add("gardé"));
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        wheel.advanceTo(20);
+
+        assertThat(executed).containsExactly("gardé");
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void should_fire_with_real_clock() throws InterruptedException {
+        HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(5, 64, 3, Runnable::run, "test-wheel");
+        try {
+            CountDownLatch latch = new CountDownLatch(1000);
+            long start = System.nanoTime();
+            for (int i = 0; i < 1000; i++) {
+                wheel.schedule(20 + i % 50, TimeUnit.MILLISECONDS, latch::countDown);
+            }
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(20));
+        } finally {
+            wheel.stop();
+        }
+    }
+}
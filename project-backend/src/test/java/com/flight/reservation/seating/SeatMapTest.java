@@ -0,0 +1,100 @@
+package com.flight.reservation.seating;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Plan de 850 sièges à 6 par rang : les rangs 11 (sièges 60 à 65) et 22 (126 à 131)
+ * chevauchent deux mots de 64 bits.
+ */
+class SeatMapTest {
+
+    @Test
+    void should_find_contiguous_seats_across_word_boundary() {
+        SeatMap plan = new SeatMap(850, 6);
+        plan.reserveRange(0, 60);
+        plan.reserve(61);
+
+        // Rang 11 : 60 libre, 61 occupé, 62 à 65 libres, à cheval sur les mots 0 et 1
+        assertThat(plan.findContiguous(4)).isEqualTo(62);
+        assertThat(plan.label(62)).isEqualTo("11C");
+        assertThat(plan.findContiguous(5)).isEqualTo(66);
+        assertThat(plan.findContiguous(6)).isEqualTo(66);
+        assertThat(plan.findContiguous(7)).isEqualTo(-1);
+
+        plan.reserveRange(62, 4);
+        assertThat(plan.nextFree(0)).isEqualTo(60);
+        assertThat(plan.nextFree(61)).isEqualTo(66);
+        assertThat(plan.previousOccupied(66)).isEqualTo(65);
+        assertThat(plan.freeCount()).isEqualTo(850 - 65);
+    }
+
+    @Test
+    void should_fill_plane_and_report_no_free_seat() {
+        SeatMap plan = new SeatMap(850, 6);
+        int reserves = 0;
+        for (int debut = plan.findContiguous(3); debut >= 0; debut = plan.findContiguous(3)) {
+            plan.reserveRange(debut, 3);
+            reserves += 3;
+        }
+        // Le dernier rang n'a que 4 sièges (850 = 141 x 6 + 4) : il reste un siège isolé
+        assertThat(reserves).isEqualTo(849);
+        assertThat(plan.freeCount()).isEqualTo(1);
+        assertThat(plan.nextFree(0)).isEqualTo(849);
+        assertThat(plan.label(849)).isEqualTo("142D");
+
+        plan.reserve(849);
+        assertThat(plan.freeCount()).isZero();
+        assertThat(plan.nextFree(0)).isEqualTo(-1);
+        assertThat(plan.findContiguous(1)).isEqualTo(-1);
+    }
+
+    @Test
+    void should_reserve_all_or_nothing() {
+        SeatMap plan = new SeatMap(180, 6);
+        plan.reserve(plan.parse("3B"));
+
+        assertThat(plan.reserveAll(new int[] {plan.parse("3A"), plan.parse("3B")})).isFalse();
+        assertThat(plan.isFree(plan.parse("3A"))).isTrue();
+        assertThat(plan.reserveAll(new int[] {plan.parse("3A"), plan.parse("3C")})).isTrue();
+        assertThat(plan.freeCount()).isEqualTo(177);
+    }
+
+    @Test
+    void should_parse_and_label_seats() {
+        SeatMap plan = new SeatMap(100, 10);
+
+        assertThat(plan.parse("1A")).isZero();
+        assertThat(plan.parse(" 10k ")).isEqualTo(99);
+        assertThat(plan.labels(new int[] {0, 9, 99})).isEqualTo(List.of("1A", "1K", "10K"));
+        assertThat(plan.parse("11A")).isEqualTo(-1);
+        assertThat(plan.parse("1I")).isEqualTo(-1);
+        assertThat(plan.parse("0A")).isEqualTo(-1);
+        assertThat(plan.parse("XA")).isEqualTo(-1);
+        assertThat(new SeatMap(100, 6).parse("1G")).isEqualTo(-1);
+    }
+
+    @Test
+    void should_round_trip_through_bytes_and_shrink() {
+        SeatMap plan = new SeatMap(850, 6);
+        plan.reserve(0);
+        plan.reserve(63);
+        plan.reserve(64);
+        plan.reserve(849);
+
+        byte[] octets = plan.toBytes();
+        assertThat(octets).hasSize(14 * Long.BYTES);
+        SeatMap relu = SeatMap.fromBytes(octets, 850, 6);
+        assertThat(relu.freeCount()).isEqualTo(846);
+        assertThat(relu.isFree(63)).isFalse();
+        assertThat(relu.isFree(849)).isFalse();
+
+        // Capacité réduite : les sièges au-delà disparaissent du plan
+        SeatMap reduit = SeatMap.fromBytes(octets, 64, 6);
+        assertThat(reduit.freeCount()).isEqualTo(62);
+        assertThat(reduit.nextFree(63)).isEqualTo(-1);
+    }
+}
@@ -1,5 +1,6 @@
 package com.flight.reservation.service;
 
+import com.flight.reservation.cache.PassagerReservationsCache;
 import com.flight.reservation.dto.ReservationRequest;
 import com.flight.reservation.dto.ReservationResponse;
 import com.flight.reservation.entity.Passager;
@@ -7,17 +8,23 @@ import com.flight.reservation.entity.Reservation;
 import com.flight.reservation.entity.Vol;
 import com.flight.reservation.exception.PlacesInsuffisantesException;
 import com.flight.reservation.exception.VolNotFoundException;
+import com.flight.reservation.iservice.ICalendrierTarifService;
+import com.flight.reservation.iservice.IListeAttenteService;
+import com.flight.reservation.iservice.ITarificationService;
 import com.flight.reservation.repository.ReservationRepository;
 import com.flight.reservation.repository.VolRepository;
+import com.flight.reservation.retry.ContentionRetryManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
@@ -39,7 +46,31 @@ class ReservationServiceTest {
     private VolService volService;
 
     @Mock
-    private ApplicationEventPublisher eventPublisher;
+    private ReservationOutbox reservationOutbox;
+
+    @Mock
+    private SoldOutRegistry soldOutRegistry;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PassagerReservationsCache passagerReservationsCache;
+
+    @Mock
+    private IListeAttenteService listeAttenteService;
+
+    @Mock
+    private ICalendrierTarifService calendrierTarifService;
+
+    @Mock
+    private ITarificationService tarificationService;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Spy
+    private ContentionRetryManager retryManager = new ContentionRetryManager(4, 1, 10, 0.3, Duration.ofSeconds(10), 1000);
 
     @InjectMocks
     private ReservationService reservationService;
@@ -64,7 +95,7 @@ class ReservationServiceTest {
         reservationRequest = new ReservationRequest(vol.getId(), passager, 2);
 
         // Reset mocks to avoid interference between tests
-        reset(eventPublisher);
+        reset(reservationOutbox);
     }
 
     @Test
@@ -89,8 +120,42 @@ class ReservationServiceTest {
         verify(volRepository).save(vol);
         verify(reservationRepository).save(any(Reservation.class));
         verify(volService).evictCache(vol.getId());
-        // Only one event published for successful reservation
-        verify(eventPublisher, times(1)).publishEvent(any());
+        // Only one event written to the outbox, in the booking transaction
+        verify(reservationOutbox, times(1)).enregistrer(any());
+        verify(reservationOutbox, never()).enregistrerApresTransaction(any());
+        verify(soldOutRegistry, never()).markSoldOutAfterCommit(any());
+    }
+
+    @Test
+    void should_fail_reservation_when_idempotency_key_cannot_be_stored() {
+        // Given
+        when(volRepository.findByIdWithOptimisticLock(vol.getId())).thenReturn(Optional.of(vol));
+        Reservation savedReservation = new Reservation(vol, reservationRequest.getPassager(), 2);
+        savedReservation.setId(UUID.randomUUID());
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(savedReservation);
+        doThrow(new IllegalStateException("idempotency_keys indisponible"))
+                .when(idempotencyService).enregistrer(eq("cle-1"), eq(reservationRequest), any());
+
+        // When & Then - the key is written in the booking transaction, so its failure fails the booking
+        assertThatThrownBy(() -> reservationService.creerReservation(reservationRequest, "cle-1"))
+                .isInstanceOf(IllegalStateException.class);
+        verify(idempotencyService).enregistrer(eq("cle-1"), eq(reservationRequest), any());
+    }
+
+    @Test
+    void should_mark_vol_sold_out_when_last_seats_are_booked() {
+        // Given
+        vol.setPlacesReservees(178); // Exactly 2 seats left
+        when(volRepository.findByIdWithOptimisticLock(vol.getId())).thenReturn(Optional.of(vol));
+        Reservation savedReservation = new Reservation(vol, reservationRequest.getPassager(), 2);
+        savedReservation.setId(UUID.randomUUID());
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(savedReservation);
+
+        // When
+        reservationService.creerReservation(reservationRequest);
+
+        // Then
+        verify(soldOutRegistry).markSoldOutAfterCommit(vol.getId());
     }
 
     @Test
@@ -102,8 +167,9 @@ class ReservationServiceTest {
         assertThatThrownBy(() -> reservationService.creerReservation(reservationRequest))
                 .isInstanceOf(VolNotFoundException.class);
 
-        // Only one event published in catch block for vol not found
-        verify(eventPublisher, times(1)).publishEvent(any());
+        // Only one event recorded in catch block for vol not found, after the transaction ends
+        verify(reservationOutbox, times(1)).enregistrerApresTransaction(any());
+        verify(reservationOutbox, never()).enregistrer(any());
     }
 
     @Test
@@ -117,8 +183,8 @@ class ReservationServiceTest {
                 .isInstanceOf(PlacesInsuffisantesException.class)
                 .hasMessageContaining("Places insuffisantes");
 
-        // Two events: one for insufficient seats, one in catch block
-        verify(eventPublisher, times(2)).publishEvent(any());
+        // A single event for the failed request, recorded after the transaction ends
+        verify(reservationOutbox, times(1)).enregistrerApresTransaction(any());
         verify(reservationRepository, never()).save(any());
     }
 }
\ No newline at end of file
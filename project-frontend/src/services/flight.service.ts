@@ -9,6 +9,8 @@ export interface Flight {
   dateDepart: string;
   dateArrivee: string;
   prix: number;
+  // Tarif appliqué aujourd'hui (remplissage et échéance), à afficher à la place de prix
+  prixCourant?: number;
   tempsTrajet: number;
   placesReservees?: number;
   placesDisponibles?: number;
@@ -32,6 +34,38 @@ export interface FlightSearchParams {
   villeDepart?: string;
   villeArrivee?: string;
   tri?: 'prix' | 'temps_trajet';
+  flexDays?: number;
+}
+
+export interface FlightDay {
+  date: string;
+  prixMin: number | null;
+  nombreVols: number;
+  vols: Flight[];
+}
+
+export interface FacetBucket {
+  min: number;
+  max?: number;
+  nombre: number;
+}
+
+export interface FlightFacets {
+  prixMin?: number;
+  prixMax?: number;
+  tempsTrajetMin?: number;
+  tempsTrajetMax?: number;
+  prix: FacetBucket[];
+  tempsTrajet: FacetBucket[];
+  heuresDepart: FacetBucket[];
+}
+
+export interface FlightPage {
+  vols: Flight[];
+  total: number;
+  page: number;
+  taille: number;
+  facettes?: FlightFacets;
 }
 
 export interface FlightSearchResponse {
@@ -60,6 +94,8 @@ export interface ReservationResponse {
   };
   nombrePlaces: number;
   dateReservation: string | null;
+  prixUnitaire?: number | null;
+  prixTotal?: number | null;
 }
 
 @Injectable({
@@ -102,6 +138,63 @@ export class FlightService {
       );
   }
 
+  // Dates flexibles : une seule requête pour dateDepart ± flexDays jours, résultat par jour
+  searchFlexibleFlights(params: FlightSearchParams & { dateDepart: string; flexDays: number }): Observable<FlightDay[]> {
+    let httpParams = new HttpParams()
+      .set('dateDepart', params.dateDepart)
+      .set('flexDays', params.flexDays);
+    if (params.villeDepart) {
+      httpParams = httpParams.set('villeDepart', params.villeDepart);
+    }
+    if (params.villeArrivee) {
+      httpParams = httpParams.set('villeArrivee', params.villeArrivee);
+    }
+    if (params.tri) {
+      httpParams = httpParams.set('tri', params.tri);
+    }
+
+    return this.http.get<FlightDay[]>(`${this.baseUrl}/vols`, { params: httpParams })
+      .pipe(
+        map(days => days.map(day => ({ ...day, vols: this.enrichFlightData(day.vols) }))),
+        catchError(error => {
+          console.error('Error fetching flexible flights:', error);
+          return of([]);
+        })
+      );
+  }
+
+  // Une page de résultats et les compteurs de la barre de filtres, calculés côté serveur sur tous les vols trouvés
+  searchFlightsWithFacets(params: FlightSearchParams, page = 0, taille = 20): Observable<FlightPage> {
+    let httpParams = new HttpParams()
+      .set('facettes', true)
+      .set('page', page)
+      .set('taille', taille);
+    if (params.dateDepart) {
+      httpParams = httpParams.set('dateDepart', params.dateDepart);
+    }
+    if (params.dateArrivee) {
+      httpParams = httpParams.set('dateArrivee', params.dateArrivee);
+    }
+    if (params.villeDepart) {
+      httpParams = httpParams.set('villeDepart', params.villeDepart);
+    }
+    if (params.villeArrivee) {
+      httpParams = httpParams.set('villeArrivee', params.villeArrivee);
+    }
+    if (params.tri) {
+      httpParams = httpParams.set('tri', params.tri);
+    }
+
+    return this.http.get<FlightPage>(`${this.baseUrl}/vols`, { params: httpParams })
+      .pipe(
+        map(result => ({ ...result, vols: this.enrichFlightData(result.vols) })),
+        catchError(error => {
+          console.error('Error fetching flight facets:', error);
+          return of({ vols: [], total: 0, page, taille });
+        })
+      );
+  }
+
   private enrichFlightData(flights: Flight[]): Flight[] {
     return flights.map(flight => ({
       ...flight,